@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.tinymediamanager.core.MediaFileType;
+import org.tinymediamanager.core.MediaSource;
+import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.entities.MediaFileAudioStream;
+import org.tinymediamanager.core.movie.entities.Movie;
+import org.tinymediamanager.core.movie.entities.MovieActor;
+import org.tinymediamanager.core.tvshow.entities.TvShow;
+import org.tinymediamanager.core.tvshow.entities.TvShowActor;
+import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
+import org.tinymediamanager.scraper.entities.Certification;
+import org.tinymediamanager.scraper.entities.MediaGenres;
+
+/**
+ * The class BenchmarkData creates reproducible (seeded) movies and episodes with a realistic amount of metadata for the benchmarks, so the
+ * benchmarks do not need a database or a data source
+ *
+ * @author Manuel Laggner
+ */
+public class BenchmarkData {
+  private static final String[]        WORDS          = { "the", "dark", "night", "return", "of", "king", "star", "wars", "lost", "city", "alien",
+      "love", "story", "last", "man", "on", "earth", "blade", "runner", "matrix" };
+  private static final MediaGenres[]   GENRES         = { MediaGenres.ACTION, MediaGenres.ADVENTURE, MediaGenres.CRIME, MediaGenres.DRAMA,
+      MediaGenres.FAMILY };
+  private static final Certification[] CERTIFICATIONS = { Certification.US_G, Certification.US_PG13, Certification.DE_FSK16,
+      Certification.NOT_RATED };
+  private static final String[]        VIDEO_CODECS   = { "h264", "h265", "MPEG", "xvid" };
+  private static final int[]           VIDEO_HEIGHTS  = { 480, 720, 1080, 2160 };
+  private static final String[]        AUDIO_CODECS   = { "AC3", "DTS", "AAC", "TrueHD" };
+  private static final MediaSource[]   MEDIA_SOURCES  = { MediaSource.BLURAY, MediaSource.DVD, MediaSource.TV, MediaSource.UNKNOWN };
+
+  private BenchmarkData() {
+    // hide public constructor for utility classes
+  }
+
+  /**
+   * create the given amount of movies (including a video file with stream information)
+   *
+   * @param count
+   *          the amount of movies
+   * @return the list of movies
+   */
+  public static List<Movie> createMovies(int count) {
+    Random random = new Random(42);
+    List<Movie> movies = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Movie movie = new Movie();
+      String title = createTitle(random);
+      movie.setTitle(title);
+      movie.setOriginalTitle(title);
+      movie.setSortTitle(title);
+      movie.setYear(String.valueOf(1950 + random.nextInt(70)));
+      movie.setPlot(createText(random, 60));
+      movie.setTagline(createText(random, 8));
+      movie.setRating(random.nextInt(100) / 10f);
+      movie.setVotes(random.nextInt(100000));
+      movie.setRuntime(80 + random.nextInt(100));
+      movie.setImdbId(String.format("tt%07d", i));
+      movie.setTmdbId(i + 1);
+      movie.setDirector(createName(random));
+      movie.setWriter(createName(random) + ", " + createName(random));
+      movie.setProductionCompany(createName(random) + " Pictures");
+      movie.setCertification(CERTIFICATIONS[random.nextInt(CERTIFICATIONS.length)]);
+      movie.setMediaSource(MEDIA_SOURCES[random.nextInt(MEDIA_SOURCES.length)]);
+      movie.setWatched(random.nextBoolean());
+      movie.setGenres(Arrays.asList(GENRES[random.nextInt(GENRES.length)], GENRES[random.nextInt(GENRES.length)]));
+      movie.setTags(Arrays.asList("tag" + random.nextInt(10), "tag" + random.nextInt(10)));
+      List<MovieActor> actors = new ArrayList<>();
+      for (int j = 0; j < 15; j++) {
+        actors.add(new MovieActor(createName(random), createName(random)));
+      }
+      movie.setActors(actors);
+      movie.setDataSource("/media/movies" + (i % 3));
+      movie.setPath("/media/movies" + (i % 3) + "/" + title + " (" + movie.getYear() + ")");
+      movie.addToMediaFiles(createVideoFile(random, movie.getPath(), title));
+      movies.add(movie);
+    }
+    return movies;
+  }
+
+  /**
+   * create the given amount of episodes (ten episodes per season of one tv show)
+   *
+   * @param count
+   *          the amount of episodes
+   * @return the list of episodes
+   */
+  public static List<TvShowEpisode> createEpisodes(int count) {
+    Random random = new Random(42);
+    TvShow tvShow = new TvShow();
+    tvShow.setTitle(createTitle(random));
+    tvShow.setDataSource("/media/tvshows");
+    tvShow.setPath("/media/tvshows/" + tvShow.getTitle());
+
+    List<TvShowEpisode> episodes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      TvShowEpisode episode = new TvShowEpisode();
+      episode.setTvShow(tvShow);
+      episode.setTitle(createTitle(random));
+      episode.setSeason(i / 10 + 1);
+      episode.setEpisode(i % 10 + 1);
+      episode.setAiredSeason(i / 10 + 1);
+      episode.setAiredEpisode(i % 10 + 1);
+      episode.setPlot(createText(random, 40));
+      episode.setRating(random.nextInt(100) / 10f);
+      episode.setVotes(random.nextInt(10000));
+      episode.setDirector(createName(random));
+      episode.setWriter(createName(random));
+      episode.setFirstAired("2015-0" + (i % 9 + 1) + "-1" + (i % 10));
+      episode.setWatched(random.nextBoolean());
+      episode.setId("tvdb", 100000 + i);
+      List<TvShowActor> actors = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        actors.add(new TvShowActor(createName(random), createName(random)));
+      }
+      episode.setActors(actors);
+      episode.setPath(tvShow.getPath() + "/Season " + episode.getSeason());
+      episode.addToMediaFiles(createVideoFile(random, episode.getPath(), String.format("S%02dE%02d", episode.getSeason(), episode.getEpisode())));
+      episodes.add(episode);
+    }
+    return episodes;
+  }
+
+  private static MediaFile createVideoFile(Random random, String path, String basename) {
+    MediaFile mf = new MediaFile(Paths.get(path, basename + ".mkv"), MediaFileType.VIDEO);
+    mf.setVideoCodec(VIDEO_CODECS[random.nextInt(VIDEO_CODECS.length)]);
+    int height = VIDEO_HEIGHTS[random.nextInt(VIDEO_HEIGHTS.length)];
+    mf.setVideoHeight(height);
+    mf.setVideoWidth(height * 16 / 9);
+    mf.setDuration(3600 + random.nextInt(3600));
+    mf.setFilesize(1_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+
+    List<MediaFileAudioStream> audioStreams = new ArrayList<>();
+    MediaFileAudioStream audio = new MediaFileAudioStream();
+    audio.setCodec(AUDIO_CODECS[random.nextInt(AUDIO_CODECS.length)]);
+    audio.setChannels("6ch");
+    audioStreams.add(audio);
+    mf.setAudioStreams(audioStreams);
+    return mf;
+  }
+
+  private static String createTitle(Random random) {
+    StringBuilder sb = new StringBuilder();
+    int words = 1 + random.nextInt(4);
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+      String word = WORDS[random.nextInt(WORDS.length)];
+      sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+    }
+    return sb.toString();
+  }
+
+  private static String createName(Random random) {
+    return createTitle(random) + " " + createTitle(random);
+  }
+
+  private static String createText(Random random, int words) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+      sb.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return sb.append('.').toString();
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The class BenchmarkRunner runs the JMH benchmarks and stores the results in target/jmh/&lt;label&gt;-&lt;timestamp&gt;.json (the label defaults
+ * to the version; JSON is used unless another format is requested with -rf), so the results of different versions can be compared:
+ *
+ * <pre>
+ * BenchmarkRunner [-label &lt;label&gt;] [-baseline &lt;result.json&gt;] [JMH options]
+ * BenchmarkRunner -compare &lt;baseline.json&gt; &lt;result.json&gt;
+ * </pre>
+ *
+ * All other options are passed to JMH (e.g. a benchmark regexp or "-f 1")
+ *
+ * @author Manuel Laggner
+ */
+public class BenchmarkRunner {
+  private static final Path RESULT_DIR = Paths.get("target", "jmh");
+
+  private BenchmarkRunner() {
+    // hide public constructor
+  }
+
+  public static void main(String[] args) throws Exception {
+    String label = ReleaseInfo.getVersion();
+    Path baseline = null;
+    List<String> jmhArgs = new ArrayList<>();
+
+    for (int i = 0; i < args.length; i++) {
+      if ("-compare".equals(args[i]) && i + 2 < args.length) {
+        compare(Paths.get(args[i + 1]), Paths.get(args[i + 2]));
+        return;
+      }
+      else if ("-label".equals(args[i]) && i + 1 < args.length) {
+        label = args[++i];
+      }
+      else if ("-baseline".equals(args[i]) && i + 1 < args.length) {
+        baseline = Paths.get(args[++i]);
+      }
+      else {
+        jmhArgs.add(args[i]);
+      }
+    }
+
+    CommandLineOptions cmdOptions = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+    if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListProfilers() || cmdOptions.shouldListResultFormats()) {
+      Main.main(jmhArgs.toArray(new String[0]));
+      return;
+    }
+
+    // the comparison with a baseline needs a JSON result
+    if (baseline != null && cmdOptions.getResultFormat().hasValue() && cmdOptions.getResultFormat().get() != ResultFormatType.JSON) {
+      System.err.println("-baseline needs the JSON result format (-rf json)");
+      return;
+    }
+
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.parent(cmdOptions);
+
+    // an explicit result format (-rf) wins; JSON otherwise (JMH would write CSV)
+    ResultFormatType format = cmdOptions.getResultFormat().hasValue() ? cmdOptions.getResultFormat().get() : ResultFormatType.JSON;
+    builder.resultFormat(format);
+
+    // an explicit result file (-rff) wins
+    Path result;
+    if (cmdOptions.getResult().hasValue()) {
+      result = Paths.get(cmdOptions.getResult().get());
+    }
+    else {
+      String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+      result = RESULT_DIR.resolve(label.replaceAll("[^\\w.-]", "_") + "-" + timestamp + "." + getExtension(format));
+      builder.result(result.toString());
+    }
+    if (result.getParent() != null) {
+      Files.createDirectories(result.getParent());
+    }
+
+    Options options = builder.build();
+    new Runner(options).run();
+    System.out.println("Results written to " + result.toAbsolutePath());
+
+    if (baseline != null) {
+      compare(baseline, result);
+    }
+  }
+
+  /**
+   * print a comparison of two JSON result files; a change is only rated as faster/slower if it exceeds the combined score errors
+   *
+   * @param baselineFile
+   *          the result of the older version
+   * @param resultFile
+   *          the result of the newer version
+   * @throws IOException
+   *           any exception while reading the result files
+   */
+  public static void compare(Path baselineFile, Path resultFile) throws IOException {
+    Map<String, JsonNode> baseline = readResults(baselineFile);
+    Map<String, JsonNode> results = readResults(resultFile);
+
+    System.out.println(String.format(Locale.ROOT, "%-90s %15s %15s %10s  %s", "Benchmark", "Baseline", "Result", "Change", "Unit"));
+    for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+      JsonNode result = entry.getValue();
+      JsonNode base = baseline.get(entry.getKey());
+      String unit = result.path("primaryMetric").path("scoreUnit").asText();
+      double score = result.path("primaryMetric").path("score").asDouble();
+      if (base == null) {
+        System.out.println(String.format(Locale.ROOT, "%-90s %15s %15.3f %10s  %s", entry.getKey(), "-", score, "new", unit));
+        continue;
+      }
+
+      double baseScore = base.path("primaryMetric").path("score").asDouble();
+      double error = sanitizeError(base.path("primaryMetric").path("scoreError").asDouble())
+          + sanitizeError(result.path("primaryMetric").path("scoreError").asDouble());
+      double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+
+      // throughput: higher is better; all time based modes: lower is better
+      boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+      String rating = "";
+      if (Math.abs(score - baseScore) > error) {
+        rating = (score > baseScore) == higherIsBetter ? "faster" : "slower";
+      }
+      System.out.println(String.format(Locale.ROOT, "%-90s %15.3f %15.3f %+9.1f%%  %s %s", entry.getKey(), baseScore, score, change, unit, rating));
+    }
+  }
+
+  /**
+   * get the file extension for the given result format
+   */
+  private static String getExtension(ResultFormatType format) {
+    switch (format) {
+      case TEXT:
+        return "txt";
+      case LATEX:
+        return "tex";
+      default:
+        return format.name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private static double sanitizeError(double error) {
+    // JMH writes NaN if there are too few iterations for an error estimation
+    return Double.isNaN(error) ? 0 : error;
+  }
+
+  /**
+   * read a JMH JSON result file into a map keyed by the benchmark name, its parameters and the mode
+   */
+  private static Map<String, JsonNode> readResults(Path file) throws IOException {
+    Map<String, JsonNode> results = new LinkedHashMap<>();
+    JsonNode root = new ObjectMapper().readTree(file.toFile());
+    for (JsonNode result : root) {
+      StringBuilder key = new StringBuilder(result.path("benchmark").asText().replace("org.tinymediamanager.", ""));
+      JsonNode params = result.path("params");
+      if (params.size() > 0) {
+        key.append(" {");
+        Iterator<Map.Entry<String, JsonNode>> it = params.fields();
+        while (it.hasNext()) {
+          Map.Entry<String, JsonNode> param = it.next();
+          key.append(param.getKey()).append('=').append(param.getValue().asText());
+          if (it.hasNext()) {
+            key.append(", ");
+          }
+        }
+        key.append('}');
+      }
+      key.append(" [").append(result.path("mode").asText()).append(']');
+      results.put(key.toString(), result);
+    }
+    return results;
+  }
+}
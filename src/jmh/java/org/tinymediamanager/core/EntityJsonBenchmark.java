@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tinymediamanager.BenchmarkData;
+import org.tinymediamanager.core.movie.entities.Movie;
+import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Measures the JSON (de)serialization of movies and episodes as done when persisting to and loading from the database; the object mapper is
+ * configured like the one of the movie/tv show module manager
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EntityJsonBenchmark {
+  private List<Movie>         movies;
+  private List<TvShowEpisode> episodes;
+  private List<String>        movieJson;
+  private List<String>        episodeJson;
+  private ObjectWriter        movieWriter;
+  private ObjectReader        movieReader;
+  private ObjectWriter        episodeWriter;
+  private ObjectReader        episodeReader;
+
+  @Setup
+  public void setup() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.configure(MapperFeature.AUTO_DETECT_GETTERS, false);
+    objectMapper.configure(MapperFeature.AUTO_DETECT_IS_GETTERS, false);
+    objectMapper.configure(MapperFeature.AUTO_DETECT_SETTERS, false);
+    objectMapper.configure(MapperFeature.AUTO_DETECT_FIELDS, false);
+    objectMapper.setTimeZone(TimeZone.getDefault());
+    objectMapper.setSerializationInclusion(Include.NON_DEFAULT);
+    objectMapper.setSerializerProvider(new CustomNullStringSerializerProvider());
+    objectMapper.getSerializerProvider().setNullKeySerializer(new NullKeySerializer());
+
+    movieWriter = objectMapper.writerFor(Movie.class);
+    movieReader = objectMapper.readerFor(Movie.class);
+    episodeWriter = objectMapper.writerFor(TvShowEpisode.class);
+    episodeReader = objectMapper.readerFor(TvShowEpisode.class);
+
+    movies = BenchmarkData.createMovies(1000);
+    episodes = BenchmarkData.createEpisodes(1000);
+
+    movieJson = new ArrayList<>();
+    for (Movie movie : movies) {
+      movieJson.add(movieWriter.writeValueAsString(movie));
+    }
+    episodeJson = new ArrayList<>();
+    for (TvShowEpisode episode : episodes) {
+      episodeJson.add(episodeWriter.writeValueAsString(episode));
+    }
+  }
+
+  @Benchmark
+  public void serializeMovie(Blackhole blackhole) throws Exception {
+    for (Movie movie : movies) {
+      blackhole.consume(movieWriter.writeValueAsString(movie));
+    }
+  }
+
+  @Benchmark
+  public void deserializeMovie(Blackhole blackhole) throws Exception {
+    for (String json : movieJson) {
+      blackhole.consume(movieReader.<Movie> readValue(json));
+    }
+  }
+
+  @Benchmark
+  public void serializeEpisode(Blackhole blackhole) throws Exception {
+    for (TvShowEpisode episode : episodes) {
+      blackhole.consume(episodeWriter.writeValueAsString(episode));
+    }
+  }
+
+  @Benchmark
+  public void deserializeEpisode(Blackhole blackhole) throws Exception {
+    for (String json : episodeJson) {
+      blackhole.consume(episodeReader.<TvShowEpisode> readValue(json));
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures caching (decode, scale and encode) of a single artwork file; the cached image is invalidated before every invocation, so every call
+ * is a cache miss. The cache dir and the manifest are redirected into a temp dir to keep the real cache untouched
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ImageCacheBenchmark {
+  @Param({ "poster.jpg", "fanart.jpg", "fanart.png", "fanart4k.jpg" })
+  public String image;
+
+  private Path  tempDir;
+  private Path  original;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    tempDir = Files.createTempDirectory("imagecache");
+
+    Path cacheDir = tempDir.resolve("cache/image");
+    ImageCache.setCacheDir(cacheDir);
+    ImageCacheManifest.setInstance(new ImageCacheManifest(tempDir.resolve("cache/imagecache.db"), cacheDir));
+
+    String format = Utils.getExtension(tempDir.resolve(image));
+    BufferedImage img;
+    if (image.startsWith("poster")) {
+      img = createImage(1000, 1500);
+    }
+    else if (image.startsWith("fanart4k")) {
+      img = createImage(3840, 2160);
+    }
+    else {
+      img = createImage(1920, 1080);
+    }
+
+    // the file name is used to detect the artwork type
+    original = tempDir.resolve("movie-" + image.replace("4k", ""));
+    ImageIO.write(img, format, original.toFile());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ImageCacheManifest.setInstance(null);
+    ImageCache.setCacheDir(null);
+    FileUtils.deleteQuietly(tempDir.toFile());
+  }
+
+  @Setup(Level.Invocation)
+  public void invalidate() {
+    // removes the manifest entry and all variants
+    ImageCache.invalidateCachedImage(original);
+  }
+
+  @Benchmark
+  public Path cacheImage() throws Exception {
+    return ImageCache.cacheImage(original);
+  }
+
+  /**
+   * create an image with gradients and some noise, so the encoders have to do some real work
+   */
+  private static BufferedImage createImage(int width, int height) {
+    BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = img.createGraphics();
+    g.setPaint(new GradientPaint(0, 0, Color.DARK_GRAY, width, height, Color.ORANGE));
+    g.fillRect(0, 0, width, height);
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      g.setColor(new Color(random.nextInt(0xffffff)));
+      g.fillOval(random.nextInt(width), random.nextInt(height), random.nextInt(width / 4) + 1, random.nextInt(height / 4) + 1);
+    }
+    g.dispose();
+    for (int i = 0; i < width * height / 20; i++) {
+      img.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt(0xffffff));
+    }
+    return img;
+  }
+}
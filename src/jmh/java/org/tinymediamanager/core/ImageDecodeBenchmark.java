@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.imgscalr.Scalr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the decoding of large artwork for the image cache: the full decode against the decode with source subsampling (both followed by the
+ * final scaling). Run with "-prof gc" to see the allocated memory per image (gc.alloc.rate.norm)
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ImageDecodeBenchmark {
+  @Param({ "fanart", "poster" })
+  public String         type;
+
+  private Path          tempDir;
+  private Path          original;
+  private MediaFileType mediaFileType;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    tempDir = Files.createTempDirectory("imagedecode");
+
+    BufferedImage img;
+    if ("poster".equals(type)) {
+      img = new BufferedImage(2000, 3000, BufferedImage.TYPE_INT_RGB);
+      mediaFileType = MediaFileType.POSTER;
+    }
+    else {
+      img = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+      mediaFileType = MediaFileType.FANART;
+    }
+    Graphics2D g = img.createGraphics();
+    g.setPaint(new GradientPaint(0, 0, Color.DARK_GRAY, img.getWidth(), img.getHeight(), Color.ORANGE));
+    g.fillRect(0, 0, img.getWidth(), img.getHeight());
+    g.dispose();
+
+    original = tempDir.resolve(type + ".jpg");
+    ImageIO.write(img, "jpg", original.toFile());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    FileUtils.deleteQuietly(tempDir.toFile());
+  }
+
+  @Benchmark
+  public BufferedImage fullDecode() throws Exception {
+    BufferedImage image = ImageCache.createImage(original);
+    Point size = ImageCache.calculateCacheSize(mediaFileType, image.getWidth(), image.getHeight());
+    return Scalr.resize(image, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, size.x, size.y);
+  }
+
+  @Benchmark
+  public BufferedImage subsampledDecode() throws Exception {
+    Dimension originalSize = ImageCache.getImageSize(original);
+    Point size = ImageCache.calculateCacheSize(mediaFileType, originalSize.width, originalSize.height);
+    BufferedImage image = ImageCache.createImage(original, size.x, size.y);
+    return Scalr.resize(image, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, size.x, size.y);
+  }
+}
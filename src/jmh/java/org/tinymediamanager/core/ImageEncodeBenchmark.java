@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorConvertOp;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.imgscalr.Scalr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tinymediamanager.thirdparty.ImageLoader;
+
+/**
+ * Measures the transparency detection and the encoding of the image cache on a decoded 4K fanart (always ARGB, see {@link ImageLoader}) and its
+ * scaled down version (1000px) against the former per pixel getRGB() scan and the former encoding
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ImageEncodeBenchmark {
+  private BufferedImage fanart;
+  private BufferedImage scaledFanart;
+  private BufferedImage rgbFanart;
+
+  @Setup
+  public void setup() {
+    rgbFanart = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = rgbFanart.createGraphics();
+    g.setPaint(new GradientPaint(0, 0, Color.DARK_GRAY, 3840, 2160, Color.ORANGE));
+    g.fillRect(0, 0, 3840, 2160);
+    g.dispose();
+
+    fanart = ImageLoader.createImage(rgbFanart);
+    scaledFanart = Scalr.resize(fanart, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, 1000, 562);
+  }
+
+  @Benchmark
+  public boolean detectLegacy4k() {
+    return hasTransparentPixelsLegacy(fanart);
+  }
+
+  @Benchmark
+  public boolean detectRaster4k() {
+    return ImageCache.hasTransparentPixels(fanart);
+  }
+
+  @Benchmark
+  public boolean detectRasterNoAlpha4k() {
+    return ImageCache.hasTransparentPixels(rgbFanart);
+  }
+
+  @Benchmark
+  public boolean detectLegacyScaled() {
+    return hasTransparentPixelsLegacy(scaledFanart);
+  }
+
+  @Benchmark
+  public boolean detectRasterScaled() {
+    return ImageCache.hasTransparentPixels(scaledFanart);
+  }
+
+  @Benchmark
+  public byte[] encodeLegacyScaled() throws Exception {
+    BufferedImage scaledImage = scaledFanart;
+    ImageWriter imgWrtr;
+    ImageWriteParam imgWrtrPrm;
+    if (hasTransparentPixelsLegacy(scaledImage)) {
+      imgWrtr = ImageIO.getImageWritersByFormatName("png").next();
+      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
+    }
+    else {
+      BufferedImage rgb = new BufferedImage(scaledImage.getWidth(), scaledImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+      ColorConvertOp xformOp = new ColorConvertOp(null);
+      xformOp.filter(scaledImage, rgb);
+      imgWrtr = ImageIO.getImageWritersByFormatName("jpg").next();
+      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
+      imgWrtrPrm.setCompressionMode(JPEGImageWriteParam.MODE_EXPLICIT);
+      imgWrtrPrm.setCompressionQuality(0.80f);
+      scaledImage = rgb;
+    }
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ImageOutputStream output = ImageIO.createImageOutputStream(baos);
+    imgWrtr.setOutput(output);
+    imgWrtr.write(null, new IIOImage(scaledImage, null, null), imgWrtrPrm);
+    imgWrtr.dispose();
+    output.close();
+    return baos.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] encodeScaled() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+      ImageCache.writeImage(scaledFanart, output);
+    }
+    return baos.toByteArray();
+  }
+
+  /**
+   * the former transparency detection: getRGB() for every pixel in column-major order
+   */
+  private static boolean hasTransparentPixelsLegacy(BufferedImage image) {
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        int pixel = image.getRGB(x, y);
+        if ((pixel >> 24) == 0x00) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.FilenameUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tinymediamanager.Globals;
+
+/**
+ * Compares the precompiled media file type detection against the former regular expression based one (kept here as baseline) on the golden
+ * corpus
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MediaFileClassifierBenchmark {
+  private static final List<String> PLEX_EXTRA_FOLDERS = Arrays.asList("behind the scenes", "behindthescenes", "deleted scenes", "deletedscenes",
+      "featurettes", "interviews", "scenes", "shorts");
+  private static final Pattern      POSTER_PATTERN     = Pattern.compile("(?i)(.*-poster|poster|folder|movie|.*-cover|cover)\\..{2,4}");
+  private static final Pattern      FANART_PATTERN     = Pattern.compile("(?i)(.*-fanart|.*\\.fanart|fanart)[0-9]{0,2}\\..{2,4}");
+
+  private String[]                  paths;
+  private String[]                  filenames;
+
+  @Setup
+  public void setup() throws Exception {
+    List<String[]> entries = new ArrayList<>();
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/mediafile-types.txt"), StandardCharsets.UTF_8)) {
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        entries.add(line.split("\\|"));
+      }
+    }
+    paths = new String[entries.size()];
+    filenames = new String[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      paths[i] = entries.get(i)[0];
+      filenames[i] = entries.get(i)[1];
+    }
+  }
+
+  @Benchmark
+  public void classifier(Blackhole blackhole) {
+    for (int i = 0; i < filenames.length; i++) {
+      blackhole.consume(MediaFileClassifier.parseType(filenames[i], paths[i]));
+    }
+  }
+
+  @Benchmark
+  public void regexBaseline(Blackhole blackhole) {
+    for (int i = 0; i < filenames.length; i++) {
+      blackhole.consume(parseTypeRegex(filenames[i], paths[i]));
+    }
+  }
+
+  /**
+   * the former implementation of MediaFile.parseType() (artwork detection shortened to poster/fanart)
+   */
+  private static MediaFileType parseTypeRegex(String filename, String path) {
+    String ext = FilenameUtils.getExtension(filename).toLowerCase(Locale.ROOT);
+    String basename = FilenameUtils.getBaseName(filename);
+    String foldername = FilenameUtils.getBaseName(path).toLowerCase(Locale.ROOT);
+    String parentparent = "";
+    try {
+      parentparent = FilenameUtils.getBaseName(Paths.get(path, filename).toAbsolutePath().getParent().getParent().toString())
+          .toLowerCase(Locale.ROOT);
+    }
+    catch (Exception ignored) {
+    }
+    if (ext.equals("nfo")) {
+      return MediaFileType.NFO;
+    }
+    if (ext.equals("jpg") || ext.equals("jpeg") || ext.equals("png") || ext.equals("tbn") || ext.equals("gif")) {
+      if (POSTER_PATTERN.matcher(filename).matches()) {
+        return MediaFileType.POSTER;
+      }
+      if (FANART_PATTERN.matcher(filename).matches()) {
+        return MediaFileType.FANART;
+      }
+      return MediaFileType.GRAPHIC;
+    }
+    if (Globals.settings.getAudioFileType().contains("." + ext)) {
+      return MediaFileType.AUDIO;
+    }
+    if (Globals.settings.getSubtitleFileType().contains("." + ext)) {
+      return MediaFileType.SUBTITLE;
+    }
+    if (Globals.settings.getVideoFileType().contains("." + ext)) {
+      if (filename.contains(".EXTRAS.") || basename.matches("(?i).*[_.-]+extra[s]?$") || basename.matches("(?i).*[-]+extra[s]?[-].*")
+          || foldername.equalsIgnoreCase("extras") || foldername.equalsIgnoreCase("extra")
+          || (!parentparent.isEmpty() && parentparent.matches("extra[s]?"))
+          || basename.matches("(?i).*[-](behindthescenes|deleted|featurette|interview|scene|short)$") || PLEX_EXTRA_FOLDERS.contains(foldername)) {
+        return MediaFileType.VIDEO_EXTRA;
+      }
+      if (basename.matches("(?i).*[_.-]*trailer?$") || basename.equalsIgnoreCase("movie-trailer") || foldername.equalsIgnoreCase("trailer")
+          || foldername.equalsIgnoreCase("trailers")) {
+        return MediaFileType.TRAILER;
+      }
+      if (basename.matches("(?i).*[_.-]*sample$") || foldername.equalsIgnoreCase("sample")) {
+        return MediaFileType.SAMPLE;
+      }
+      return MediaFileType.VIDEO;
+    }
+    if (ext.equals("txt")) {
+      return MediaFileType.TEXT;
+    }
+    return MediaFileType.UNKNOWN;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the single pass stacking detection against the former regular expressions (kept here as baseline) on the golden corpus
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StackingMatcherBenchmark {
+  private static final Pattern   STACKING_PATTERN_1      = Pattern
+      .compile("(.*?)[ _.-]+((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[1-9]{1})(\\.[^.]+)$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern   STACKING_PATTERN_2      = Pattern
+      .compile("(.*?)[ _.-]+((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[a-d])(\\.[^.]+)$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern   STACKING_PATTERN_3      = Pattern.compile("(.*?)[_.-]+([a-d])(\\.[^.]+)$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern   STACKING_PATTERN_4      = Pattern
+      .compile("(.*?)[ \\(_.-]+([1-9][ .]?of[ .]?[1-9])[ \\)_-]?(\\.[^.]+)$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern   FOLDER_STACKING_PATTERN = Pattern
+      .compile("(.*?)[ _.-]*((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[1-9]{1})$", Pattern.CASE_INSENSITIVE);
+  private static final Pattern[] FILE_PATTERNS           = { STACKING_PATTERN_1, STACKING_PATTERN_2, STACKING_PATTERN_3, STACKING_PATTERN_4 };
+
+  private String[]               names;
+
+  @Setup
+  public void setup() throws Exception {
+    List<String> entries = new ArrayList<>();
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/stacking-names.txt"), StandardCharsets.UTF_8)) {
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        entries.add(line.split("\\|", -1)[0]);
+      }
+    }
+    names = entries.toArray(new String[0]);
+  }
+
+  /**
+   * what the update data source did per video file: marker, number (= marker again) and the cleaned name
+   */
+  @Benchmark
+  public void regexFile(Blackhole blackhole) {
+    for (String name : names) {
+      blackhole.consume(regexGroup(name, 2));
+      blackhole.consume(regexGroup(name, 2));
+      blackhole.consume(regexGroup(name, 1));
+    }
+  }
+
+  @Benchmark
+  public void matcherFile(Blackhole blackhole) {
+    for (String name : names) {
+      StackingMatcher.Stacking stacking = StackingMatcher.matchFile(name);
+      blackhole.consume(stacking.getMarker());
+      blackhole.consume(stacking.getNumber());
+      blackhole.consume(stacking.getTitle());
+    }
+  }
+
+  @Benchmark
+  public void regexFolder(Blackhole blackhole) {
+    for (String name : names) {
+      Matcher m = FOLDER_STACKING_PATTERN.matcher(name);
+      blackhole.consume(m.matches() ? m.group(2) : "");
+    }
+  }
+
+  @Benchmark
+  public void matcherFolder(Blackhole blackhole) {
+    for (String name : names) {
+      blackhole.consume(StackingMatcher.matchFolder(name).getMarker());
+    }
+  }
+
+  private static String regexGroup(String name, int group) {
+    for (Pattern pattern : FILE_PATTERNS) {
+      Matcher m = pattern.matcher(name);
+      if (m.matches()) {
+        return m.group(group);
+      }
+    }
+    return "";
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.movie;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tinymediamanager.BenchmarkData;
+import org.tinymediamanager.core.movie.entities.Movie;
+
+/**
+ * Measures the creation of the destination folder and file names for the renamer with some common templates
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MovieRenamerBenchmark {
+  @Param({ "$T ($Y)", "$1/$T ($Y) [$I]", "$T ($Y) $V $A", "$T - $G - $C - $R - $S - $E" })
+  public String       template;
+
+  private List<Movie> movies;
+
+  @Setup
+  public void setup() {
+    movies = BenchmarkData.createMovies(1000);
+  }
+
+  @Benchmark
+  public void createFoldername(Blackhole blackhole) {
+    for (Movie movie : movies) {
+      blackhole.consume(MovieRenamer.createDestination(template, movie, false));
+    }
+  }
+
+  @Benchmark
+  public void createFilename(Blackhole blackhole) {
+    for (Movie movie : movies) {
+      blackhole.consume(MovieRenamer.createDestination(template, movie, true));
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.movie.connector;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.bind.JAXBContext;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tinymediamanager.core.NfoUtils;
+
+/**
+ * Measures the NFO parse throughput on all NFOs of the test resources (movie, tv show and episode NFOs) plus some plain text NFOs:<br>
+ * - a fresh unmarshaller per NFO against the cached unmarshaller of the thread<br>
+ * - handing every NFO to the connector chain against sniffing the root element first
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MovieNfoParserBenchmark {
+  private JAXBContext context;
+  private Path        tempDir;
+  private List<Path>  nfos;
+  private List<Path>  movieNfos;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    context = JAXBContext.newInstance(MovieToKodiNfoConnector.class);
+
+    try (Stream<Path> stream = Files.walk(Paths.get("src/test/resources"))) {
+      nfos = stream.filter(path -> path.getFileName().toString().endsWith(".nfo")).sorted().collect(Collectors.toList());
+    }
+
+    // plain text NFOs (release infos) are common in the wild
+    tempDir = Files.createTempDirectory("nfo");
+    for (int i = 0; i < 5; i++) {
+      Path nfo = tempDir.resolve("release" + i + ".nfo");
+      Files.write(nfo, ("Release info\r\n\r\nhttp://www.imdb.com/title/tt049954" + i + "/\r\n").getBytes(StandardCharsets.UTF_8));
+      nfos.add(nfo);
+    }
+
+    movieNfos = new ArrayList<>();
+    for (Path nfo : nfos) {
+      if ("movie".equals(NfoUtils.detectRootElement(nfo))) {
+        movieNfos.add(nfo);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    FileUtils.deleteQuietly(tempDir.toFile());
+  }
+
+  @Benchmark
+  public void unmarshalFresh(Blackhole blackhole) throws Exception {
+    for (Path nfo : movieNfos) {
+      try (Reader in = Files.newBufferedReader(nfo, StandardCharsets.UTF_8)) {
+        blackhole.consume(context.createUnmarshaller().unmarshal(in));
+      }
+    }
+  }
+
+  @Benchmark
+  public void unmarshalCached(Blackhole blackhole) throws Exception {
+    for (Path nfo : movieNfos) {
+      try (Reader in = Files.newBufferedReader(nfo, StandardCharsets.UTF_8)) {
+        blackhole.consume(NfoUtils.getUnmarshaller(context).unmarshal(in));
+      }
+    }
+  }
+
+  @Benchmark
+  public void connectorChain(Blackhole blackhole) {
+    for (Path nfo : nfos) {
+      blackhole.consume(parseWithChain(nfo));
+    }
+  }
+
+  @Benchmark
+  public void sniffedDispatch(Blackhole blackhole) {
+    for (Path nfo : nfos) {
+      if (MovieConnectors.isMovieNFO(nfo)) {
+        blackhole.consume(parseWithChain(nfo));
+      }
+    }
+  }
+
+  /**
+   * the connector chain of the update data source task (Kodi, then MediaPortal) on the level of the JAXB objects
+   */
+  private static Object parseWithChain(Path nfo) {
+    try {
+      return MovieToKodiNfoConnector.parseNFO(nfo);
+    }
+    catch (Exception ignored) {
+    }
+    try {
+      return MovieToMpNfoConnector.parseNFO(nfo);
+    }
+    catch (Exception ignored) {
+    }
+    return null;
+  }
+}
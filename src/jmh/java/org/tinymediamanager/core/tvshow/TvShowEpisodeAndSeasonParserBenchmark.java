@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.tvshow;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the episode/season detection and the episode title cleaning on the golden corpus of episode file names
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TvShowEpisodeAndSeasonParserBenchmark {
+  private String[] names;
+  private String[] shownames;
+
+  @Setup
+  public void setup() throws Exception {
+    List<String[]> entries = new ArrayList<>();
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/tvshow-episodes.txt"), StandardCharsets.UTF_8)) {
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        entries.add(line.split("\\|", -1));
+      }
+    }
+    names = new String[entries.size()];
+    shownames = new String[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      names[i] = entries.get(i)[0];
+      shownames[i] = entries.get(i)[1];
+    }
+  }
+
+  @Benchmark
+  public void detectEpisode(Blackhole blackhole) {
+    for (int i = 0; i < names.length; i++) {
+      blackhole.consume(TvShowEpisodeAndSeasonParser.detectEpisodeFromFilenameAlternative(names[i], shownames[i]));
+    }
+  }
+
+  @Benchmark
+  public void cleanEpisodeTitle(Blackhole blackhole) {
+    for (int i = 0; i < names.length; i++) {
+      blackhole.consume(TvShowEpisodeAndSeasonParser.cleanEpisodeTitle(names[i], shownames[i]));
+    }
+  }
+}
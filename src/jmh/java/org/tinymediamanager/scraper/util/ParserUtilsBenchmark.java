@@ -0,0 +1,237 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.scraper.util;
+
+import static org.tinymediamanager.scraper.util.ParserUtils.cleanwords;
+import static org.tinymediamanager.scraper.util.ParserUtils.stopwords;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.text.WordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tinymediamanager.core.Utils;
+import org.tinymediamanager.core.movie.MovieModuleManager;
+
+/**
+ * Compares the tokenizer based movie name/year detection against the former regular expression based one (kept here as baseline) on
+ * synthetic release names
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ParserUtilsBenchmark {
+  private static final String[] TITLE_WORDS = { "The", "Avatar", "Harry", "Potter", "Part", "IV", "Der", "Blob", "Matrix", "Reloaded", "Lord", "of",
+      "the", "Rings", "Return", "King", "Star", "Wars", "Episode", "V", "Die", "Hard", "Amélie", "Zwillinge", "Z", "for", "Zachariah" };
+  private static final String[] TAGS        = { "1080p", "720p", "2160p", "BluRay", "BDRip", "x264", "DTS", "AC3", "German", "DL", "HDTV", "WEBRip",
+      "REMUX", "HEVC", "TrueHD", "Atmos", "3D", "DVDRip", "XviD", "PROPER", "iNTERNAL", "UNCUT", "24.000fps", "1920x800", "tt0123456", "[de]",
+      "[HEVC-1080p]" };
+  private static final String[] GROUPS      = { "CiNEViSiON", "ENCOUNTERS", "KNT", "REMSG", "AIDA" };
+  private static final String[] SEPARATORS  = { ".", " ", "_", " - " };
+
+  @Param({ "100000" })
+  public int                    count;
+
+  private String[]              names;
+
+  @Setup
+  public void setup() {
+    // fixed seed to get the same names in every run
+    Random random = new Random(42);
+    names = new String[count];
+    for (int i = 0; i < count; i++) {
+      List<String> tokens = new ArrayList<>();
+      for (int j = random.nextInt(4); j >= 0; j--) {
+        tokens.add(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+      }
+      if (random.nextInt(10) < 8) {
+        tokens.add(String.valueOf(1920 + random.nextInt(100)));
+      }
+      for (int j = random.nextInt(5); j > 0; j--) {
+        tokens.add(TAGS[random.nextInt(TAGS.length)]);
+      }
+      names[i] = String.join(SEPARATORS[random.nextInt(SEPARATORS.length)], tokens) + "-" + GROUPS[random.nextInt(GROUPS.length)] + ".mkv";
+    }
+  }
+
+  @Benchmark
+  public void tokenizer(Blackhole blackhole) {
+    for (String name : names) {
+      blackhole.consume(ParserUtils.detectCleanMovienameAndYear(name));
+    }
+  }
+
+  @Benchmark
+  public void regexBaseline(Blackhole blackhole) {
+    for (String name : names) {
+      blackhole.consume(detectCleanMovienameAndYearRegex(name));
+    }
+  }
+
+  /**
+   * the former implementation of ParserUtils.detectCleanMovienameAndYear() (without logging)
+   */
+  private static String[] detectCleanMovienameAndYearRegex(String filename) {
+    String[] ret = { "", "" };
+
+    if (filename == null || filename.isEmpty()) {
+      return ret;
+    }
+
+    // remove extension (if found) and split (keep var)
+    String fname = filename.replaceFirst("\\.\\w{2,4}$", "");
+    // replaces any resolution 1234x1234 (must start and end with a non-word (else too global)
+    fname = fname.replaceFirst("(?i)\\W\\d{3,4}x\\d{3,4}", " ");
+    // replace FPS specific words (must start with a non-word (else too global)
+    for (String cw : cleanwords) {
+      fname = fname.replaceFirst("(?i)\\W" + cw, " ");
+    }
+
+    // Get [optionals] delimited
+    List<String> opt = new ArrayList<String>();
+    Pattern p = Pattern.compile("\\[(.*?)\\]");
+    Matcher m = p.matcher(fname);
+    while (m.find()) {
+      String[] o = StringUtils.split(m.group(1), "[\\[\\](){} _,.-]");
+      opt.addAll(Arrays.asList(o));
+      fname = fname.replace(m.group(), ""); // remove complete group from name
+    }
+
+    // detect OTR recordings - at least with that special pattern
+    p = Pattern.compile(".*?(_\\d{2}\\.\\d{2}\\.\\d{2}[_ ]+\\d{2}\\-\\d{2}\\_).*"); // like _12.11.17_20-15_
+    m = p.matcher(fname);
+    if (m.matches() && m.start(1) > 10) {
+      // start at some later point, not that if pattern is first
+      fname = fname.substring(0, m.start(1));
+    }
+
+    // parse good filename
+    String[] s = StringUtils.split(fname, "[\\[\\](){} _,.-]");
+    if (s.length == 0) {
+      s = opt.toArray(new String[opt.size()]);
+    }
+    int firstFoundStopwordPosition = s.length;
+
+    // iterate over all splitted items
+    for (int i = 0; i < s.length; i++) {
+      // search for stopword position
+      for (String stop : stopwords) {
+        if (s[i].equalsIgnoreCase(stop)) {
+          s[i] = ""; // delete stopword
+          // remember lowest position, but not lower than 2!!!
+          if (i < firstFoundStopwordPosition && i >= 2) {
+            firstFoundStopwordPosition = i;
+          }
+        }
+      }
+      if (Utils.isValidImdbId(s[i])) {
+        s[i] = ""; // delete imdbId from name
+      }
+    }
+
+    // scan backwards - if we have at least 1 token, and the last one is a 4 digit, assume year and remove
+    int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+    String year = "";
+    for (int i = s.length - 1; i > 0; i--) {
+      if (s[i].matches("\\d{4}")) {
+        int parsedYear = Integer.parseInt(s[i]);
+        if (parsedYear > 1800 && parsedYear < currentYear + 5) {
+          // well, limit the year a bit...
+          year = s[i];
+          s[i] = "";
+          break;
+        }
+      }
+    }
+    if (year.isEmpty()) {
+      // parse all optional tags for it
+      for (String o : opt) {
+        if (o.matches("\\d{4}")) {
+          int parsedYear = Integer.parseInt(o);
+          if (parsedYear > 1800 && parsedYear < currentYear + 5) {
+            year = String.valueOf(parsedYear);
+          }
+        }
+      }
+    }
+
+    // rebuild string, respecting bad words
+    String name = "";
+    for (int i = 0; i < firstFoundStopwordPosition; i++) {
+      if (!s[i].isEmpty()) {
+        // check for bad words
+        if (!MovieModuleManager.MOVIE_SETTINGS.getBadWords().contains(s[i].toLowerCase(Locale.ROOT))) {
+          String word = s[i];
+          // roman characters such as "Part Iv" should not be camel-cased
+          switch (word.toUpperCase(Locale.ROOT)) {
+            case "I":
+            case "II":
+            case "III":
+            case "IV":
+            case "V":
+            case "VI":
+            case "VII":
+            case "VIII":
+            case "IX":
+            case "X":
+              name = name + word.toUpperCase(Locale.ROOT) + " ";
+              break;
+
+            default:
+              name = name + WordUtils.capitalizeFully(word) + " "; // make CamelCase
+              break;
+          }
+        }
+      }
+    }
+
+    if (name.isEmpty()) {
+      // started with a badword - return name unchanged
+      ret[0] = fname;
+    }
+    else {
+      ret[0] = name.trim();
+    }
+    ret[1] = year.trim();
+
+    return ret;
+  }
+
+}
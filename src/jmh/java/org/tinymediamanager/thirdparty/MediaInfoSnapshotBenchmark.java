@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.thirdparty;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
+
+/**
+ * Compares building the mediainfo snapshot by fetching every single parameter against one single Inform() call
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MediaInfoSnapshotBenchmark {
+
+  @Param({ "src/test/resources/samples/DTS.mka", "src/test/resources/samples/AAC-HE_LC_8ch.mka" })
+  public String    file;
+
+  private MediaInfo mediaInfo;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    MediaInfoUtils.loadMediaInfo();
+    mediaInfo = new MediaInfo();
+    if (!mediaInfo.open(Paths.get(file))) {
+      throw new IllegalStateException("could not open " + file);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    mediaInfo.close();
+  }
+
+  @Benchmark
+  public Map<StreamKind, List<Map<String, String>>> snapshotPerKey() {
+    return mediaInfo.snapshotPerKey();
+  }
+
+  @Benchmark
+  public Map<StreamKind, List<Map<String, String>>> snapshotFromInform() {
+    return mediaInfo.snapshotFromInform();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.thirdparty;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the import of a large set of sidecar files (as exported by a Synology NAS): the mediainfo XMLs with the DOM parser against the
+ * streaming parser and the .vsmeta files (which carry the artwork base64 encoded after the metadata)
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SidecarImportBenchmark {
+
+  @Param({ "1000" })
+  public int         files;
+
+  private Path       tempDir;
+  private List<Path> xmls;
+  private List<Path> vsmetas;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    List<Path> templates = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get("src/test/resources/testmovies/MediainfoXML"), "*-mediainfo.xml")) {
+      stream.forEach(templates::add);
+    }
+
+    tempDir = Files.createTempDirectory("sidecar");
+    xmls = new ArrayList<>(files);
+    vsmetas = new ArrayList<>(files);
+    for (int i = 0; i < files; i++) {
+      Path xml = tempDir.resolve("movie" + i + "-mediainfo.xml");
+      Files.copy(templates.get(i % templates.size()), xml);
+      xmls.add(xml);
+
+      Path vsmeta = tempDir.resolve("movie" + i + ".mkv.vsmeta");
+      Files.copy(Paths.get(i % 10 == 0 ? "src/test/resources/empty.vsmeta" : "src/test/resources/Avatar.mkv.vsmeta"), vsmeta);
+      vsmetas.add(vsmeta);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    FileUtils.deleteQuietly(tempDir.toFile());
+  }
+
+  @Benchmark
+  public void mediaInfoXmlDom(Blackhole blackhole) throws Exception {
+    for (Path xml : xmls) {
+      blackhole.consume(MediaInfoXMLParser.parseDocument(xml).getMainFile());
+    }
+  }
+
+  @Benchmark
+  public void mediaInfoXmlStream(Blackhole blackhole) throws Exception {
+    for (Path xml : xmls) {
+      blackhole.consume(MediaInfoXMLParser.parseXML(xml).getMainFile());
+    }
+  }
+
+  @Benchmark
+  public void vsmetaReadAll(Blackhole blackhole) throws Exception {
+    // the former way to get the bytes of the .vsmeta file - as a baseline for the parse
+    for (Path vsmeta : vsmetas) {
+      blackhole.consume(Files.readAllBytes(vsmeta));
+    }
+  }
+
+  @Benchmark
+  public void vsmetaParse(Blackhole blackhole) {
+    for (Path vsmeta : vsmetas) {
+      VSMeta meta = new VSMeta();
+      meta.parseFile(vsmeta);
+      blackhole.consume(meta);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.ui.movies;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tinymediamanager.BenchmarkData;
+import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.movie.MovieSearchOptions;
+import org.tinymediamanager.core.movie.entities.Movie;
+import org.tinymediamanager.scraper.entities.MediaGenres;
+
+/**
+ * Measures the extended movie filter on 10000 movies with some typical filter combinations
+ *
+ * @author Manuel Laggner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MovieExtendedMatcherBenchmark {
+  @Param({ "watched", "genre", "cast", "videoFormat", "combined" })
+  public String               filter;
+
+  private List<Movie>          movies;
+  private MovieExtendedMatcher matcher;
+
+  @Setup
+  public void setup() {
+    movies = BenchmarkData.createMovies(10000);
+
+    Map<MovieSearchOptions, Object> searchOptions = new EnumMap<>(MovieSearchOptions.class);
+    switch (filter) {
+      case "watched":
+        searchOptions.put(MovieSearchOptions.WATCHED, Boolean.FALSE);
+        break;
+
+      case "genre":
+        searchOptions.put(MovieSearchOptions.GENRE, MediaGenres.DRAMA);
+        break;
+
+      case "cast":
+        searchOptions.put(MovieSearchOptions.CAST, "blade");
+        break;
+
+      case "videoFormat":
+        // the matcher compares the video format by identity
+        searchOptions.put(MovieSearchOptions.VIDEO_FORMAT, MediaFile.VIDEO_FORMAT_HD);
+        break;
+
+      default:
+        searchOptions.put(MovieSearchOptions.WATCHED, Boolean.FALSE);
+        searchOptions.put(MovieSearchOptions.GENRE, MediaGenres.DRAMA);
+        searchOptions.put(MovieSearchOptions.TAG, Collections.singletonList("tag1"));
+        searchOptions.put(MovieSearchOptions.AUDIO_CODEC, "DTS");
+        searchOptions.put(MovieSearchOptions.CAST, "blade");
+        break;
+    }
+    matcher = new MovieExtendedMatcher(searchOptions);
+  }
+
+  @Benchmark
+  public int matches() {
+    int count = 0;
+    for (Movie movie : movies) {
+      if (matcher.matches(movie)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.jdesktop.beansbinding.ELProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.core.ImageCacheVerificationTask;
 import org.tinymediamanager.core.License;
 import org.tinymediamanager.core.TmmModuleManager;
 import org.tinymediamanager.core.Utils;
@@ -333,6 +334,10 @@ public class TinyMediaManager {
             }
 
             TmmTaskManager.getInstance().addUnnamedTask(new PreloadTask());
+            if (Globals.settings.isImageCache()) {
+              // find changed/deleted originals and orphaned files in the image cache
+              TmmTaskManager.getInstance().addUnnamedTask(new ImageCacheVerificationTask());
+            }
             // show changelog
             if (newVersion && !ReleaseInfo.getVersion().equals(oldVersion)) {
               // special case nightly/git: if same snapshot version, do not display changelog
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.scraper.http.TmmHttpClient;
+import org.tinymediamanager.scraper.util.UrlUtil;
+
+import okhttp3.OkUrlFactory;
+
+/**
+ * The class ArtworkHttpCache - remembers the validators (ETag/Last-Modified) of every downloaded artwork file, so re-downloading the same
+ * artwork (e.g. when re-scraping for rating updates) is done with a conditional request: if the server answers with "304 not modified", the
+ * existing file is kept and nothing is transferred/written.<br>
+ * The validators are stored per url and destination file; they are only used if the destination file still has the size and checksum of the
+ * download. Entries of destination files which do not exist any more are dropped
+ *
+ * @author Manuel Laggner
+ */
+public class ArtworkHttpCache {
+  private static final Logger   LOGGER        = LoggerFactory.getLogger(ArtworkHttpCache.class);
+  private static final Path     CACHE_FILE    = Paths.get("cache/http.db");
+  private static final int      TIMEOUT       = 30000;
+  private static ArtworkHttpCache instance;
+
+  private final Path            cacheFile;
+  private final AtomicLong      downloads     = new AtomicLong();
+  private final AtomicLong      notModified   = new AtomicLong();
+  private final AtomicLong      savedBytes    = new AtomicLong();
+
+  private MVStore               mvStore;
+  private MVMap<String, String> validatorMap;
+
+  ArtworkHttpCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  public static synchronized ArtworkHttpCache getInstance() {
+    if (instance == null) {
+      instance = new ArtworkHttpCache(CACHE_FILE);
+    }
+    return instance;
+  }
+
+  /**
+   * download the given url into the temp file - unless the destination file is the one downloaded from this url before and the server reports
+   * that the artwork has not been modified since
+   *
+   * @param url
+   *          the (http) url of the artwork
+   * @param destFile
+   *          the file the artwork will be written to
+   * @param tempFile
+   *          the file to download to
+   * @return true if the artwork has been downloaded into the temp file, false if the destination file is up to date
+   * @throws IOException
+   *           the artwork could not be downloaded
+   */
+  public boolean download(String url, Path destFile, Path tempFile) throws IOException {
+    String key = url + "|" + destFile.toAbsolutePath();
+    Validators validators = Validators.parse(getValidatorMap().get(key));
+    if (validators != null && !isUnchanged(destFile, validators)) {
+      // the file has been changed/removed since the download
+      getValidatorMap().remove(key);
+      validators = null;
+    }
+
+    HttpURLConnection connection = open(url, validators);
+    try {
+      int code = connection.getResponseCode();
+      if (code == HttpURLConnection.HTTP_NOT_MODIFIED && validators != null) {
+        LOGGER.debug("not modified: " + url);
+        notModified.incrementAndGet();
+        savedBytes.addAndGet(validators.size);
+        return false;
+      }
+      if (code == HttpURLConnection.HTTP_NOT_FOUND || code == HttpURLConnection.HTTP_GONE) {
+        throw new FileNotFoundException("Error accessing url: " + code + " " + connection.getResponseMessage());
+      }
+      if (code != HttpURLConnection.HTTP_OK) {
+        // 429, 5xx et all: the caller falls back to the download with retries
+        throw new IOException("Error accessing url: " + code + " " + connection.getResponseMessage());
+      }
+
+      CRC32 checksum = new CRC32();
+      try (InputStream is = new CheckedInputStream(connection.getInputStream(), checksum)) {
+        Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      downloads.incrementAndGet();
+
+      Validators newValidators = new Validators(connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"),
+          Files.size(tempFile), checksum.getValue());
+      if (newValidators.isEmpty()) {
+        getValidatorMap().remove(key);
+      }
+      else {
+        getValidatorMap().put(key, newValidators.toString());
+      }
+      return true;
+    }
+    finally {
+      connection.disconnect();
+    }
+  }
+
+  /**
+   * open the connection (with the proxy settings and redirect handling of tmm) and add the conditional request headers
+   */
+  private static HttpURLConnection open(String url, Validators validators) throws IOException {
+    HttpURLConnection connection = new OkUrlFactory(TmmHttpClient.getHttpClient()).open(new URL(url));
+    connection.setConnectTimeout(TIMEOUT);
+    connection.setReadTimeout(TIMEOUT);
+    connection.setInstanceFollowRedirects(true);
+    connection.setRequestProperty("User-Agent", UrlUtil.generateUA());
+    if (validators != null) {
+      if (StringUtils.isNotBlank(validators.etag)) {
+        connection.setRequestProperty("If-None-Match", validators.etag);
+      }
+      if (StringUtils.isNotBlank(validators.lastModified)) {
+        connection.setRequestProperty("If-Modified-Since", validators.lastModified);
+      }
+    }
+    return connection;
+  }
+
+  /**
+   * check if the destination file still has the content of the download (size and checksum)
+   */
+  private static boolean isUnchanged(Path destFile, Validators validators) throws IOException {
+    if (!Files.isRegularFile(destFile) || Files.size(destFile) != validators.size) {
+      return false;
+    }
+
+    CRC32 checksum = new CRC32();
+    try (InputStream is = new CheckedInputStream(Files.newInputStream(destFile), checksum)) {
+      IOUtils.skip(is, Long.MAX_VALUE);
+    }
+    return checksum.getValue() == validators.checksum;
+  }
+
+  /**
+   * forget the validators of the given destination file (e.g. the artwork has been written from another source)
+   *
+   * @param url
+   *          the url of the artwork
+   * @param destFile
+   *          the destination file
+   */
+  public void invalidate(String url, Path destFile) {
+    getValidatorMap().remove(url + "|" + destFile.toAbsolutePath());
+  }
+
+  /**
+   * drop the validators of all destination files which do not exist any more (e.g. renamed/removed folders)
+   *
+   * @return the amount of dropped entries
+   */
+  public int cleanup() {
+    MVMap<String, String> map = getValidatorMap();
+    int removed = 0;
+    for (String key : new ArrayList<>(map.keySet())) {
+      int index = key.indexOf('|');
+      try {
+        if (index < 0 || !Files.exists(Paths.get(key.substring(index + 1)))) {
+          map.remove(key);
+          removed++;
+        }
+      }
+      catch (InvalidPathException e) {
+        map.remove(key);
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  private synchronized MVMap<String, String> getValidatorMap() {
+    if (mvStore == null) {
+      try {
+        Files.createDirectories(cacheFile.getParent());
+      }
+      catch (IOException e) {
+        LOGGER.warn("could not create cache dir " + cacheFile.getParent() + " - " + e.getMessage());
+      }
+
+      mvStore = new MVStore.Builder().fileName(cacheFile.toString()).compress()
+          .backgroundExceptionHandler((t, e) -> LOGGER.error("Error in the background thread of the artwork http cache", e))
+          .autoCommitBufferSize(4096).open();
+      mvStore.setAutoCommitDelay(2000); // 2 sec
+      mvStore.setRetentionTime(0);
+      mvStore.setReuseSpace(true);
+
+      validatorMap = mvStore.openMap("validators");
+    }
+    return validatorMap;
+  }
+
+  /**
+   * get a human readable statistic of this cache
+   *
+   * @return the statistics
+   */
+  public String getStatistics() {
+    return "artwork http cache: " + downloads.get() + " downloads, " + notModified.get() + " not modified (" + savedBytes.get() / 1024
+        + " KB saved)";
+  }
+
+  /**
+   * closes the underlying store; it will be re-opened on the next access
+   */
+  public synchronized void close() {
+    if (mvStore != null) {
+      LOGGER.info(getStatistics());
+      int removed = cleanup();
+      if (removed > 0) {
+        LOGGER.debug("artwork http cache: dropped " + removed + " entries of removed files");
+      }
+      mvStore.compactMoveChunks();
+      mvStore.close();
+      mvStore = null;
+      validatorMap = null;
+    }
+  }
+
+  /**
+   * the validators of a download
+   */
+  private static class Validators {
+    private final String etag;
+    private final String lastModified;
+    private final long   size;
+    private final long   checksum;
+
+    private Validators(String etag, String lastModified, long size, long checksum) {
+      this.etag = etag == null ? "" : etag;
+      this.lastModified = lastModified == null ? "" : lastModified;
+      this.size = size;
+      this.checksum = checksum;
+    }
+
+    private boolean isEmpty() {
+      return etag.isEmpty() && lastModified.isEmpty();
+    }
+
+    private static Validators parse(String value) {
+      if (value == null) {
+        return null;
+      }
+      String[] parts = value.split("\n", -1);
+      if (parts.length != 4) {
+        return null;
+      }
+      try {
+        return new Validators(parts[0], parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+      }
+      catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return etag + "\n" + lastModified + "\n" + size + "\n" + checksum;
+    }
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Locale;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.scraper.http.Url;
+
+/**
+ * The class ArtworkStore - a content addressed store for downloaded artwork which is used by many entities (actor images, movie set artwork,
+ * season posters).<br>
+ * Every url is downloaded only once; the content is stored under its SHA-1 hash, so the same image from different urls is stored only once
+ * too. The artwork files of the entities are created as hardlinks to the stored content if the file system supports it, otherwise as copies.
+ * <br>
+ * Since hardlinked files share their content, artwork files must never be overwritten in place - they have to be deleted/replaced (as all
+ * artwork writers of tmm do)
+ *
+ * @author Manuel Laggner
+ */
+public class ArtworkStore {
+  private static final Logger   LOGGER         = LoggerFactory.getLogger(ArtworkStore.class);
+  private static final Path     STORE_DIR      = Paths.get("cache/artwork");
+  private static final Path     STORE_FILE     = Paths.get("cache/artwork.db");
+  private static final String   DOWNLOADS      = "downloads";
+  private static final String   DOWNLOADED     = "downloadedBytes";
+  private static final String   SAVED_TRAFFIC  = "savedBytesTraffic";
+  private static final String   SAVED_DISK     = "savedBytesDisk";
+  private static final String   LINKS          = "links";
+  private static final String   COPIES         = "copies";
+  private static ArtworkStore   instance;
+
+  private final Path            storeDir;
+  private final Path            storeFile;
+  private final Object[]        urlLocks       = new Object[64];
+
+  private MVStore               mvStore;
+  private MVMap<String, String> urlMap;
+  private MVMap<String, Long>   statisticsMap;
+  private MVMap<String, Long>   linkCountMap;
+
+  ArtworkStore(Path storeFile, Path storeDir) {
+    this.storeFile = storeFile;
+    this.storeDir = storeDir;
+    for (int i = 0; i < urlLocks.length; i++) {
+      urlLocks[i] = new Object();
+    }
+  }
+
+  public static synchronized ArtworkStore getInstance() {
+    if (instance == null) {
+      instance = new ArtworkStore(STORE_FILE, STORE_DIR);
+    }
+    return instance;
+  }
+
+  /**
+   * get the stored content of the given url; the url is downloaded if it has not been stored yet
+   *
+   * @param url
+   *          the url of the artwork
+   * @return the file with the stored content (must not be modified!)
+   * @throws IOException
+   *           the artwork could not be downloaded/stored
+   * @throws InterruptedException
+   *           the download has been interrupted
+   */
+  public Path fetch(String url) throws IOException, InterruptedException {
+    synchronized (urlLocks[(url.hashCode() & Integer.MAX_VALUE) % urlLocks.length]) {
+      String hash = getUrlMap().get(url);
+      if (hash != null) {
+        Path content = getContentFile(hash);
+        if (Files.exists(content)) {
+          count(SAVED_TRAFFIC, Files.size(content));
+          return content;
+        }
+      }
+
+      return download(url);
+    }
+  }
+
+  /**
+   * create the given file with the content of the url (a hardlink to the stored content if possible, a copy otherwise)
+   *
+   * @param url
+   *          the url of the artwork
+   * @param target
+   *          the file to create; an existing file is replaced
+   * @throws IOException
+   *           the artwork could not be downloaded/written
+   * @throws InterruptedException
+   *           the download has been interrupted
+   */
+  public void materialize(String url, Path target) throws IOException, InterruptedException {
+    link(fetch(url), target);
+  }
+
+  /**
+   * create the given file with the already fetched content (a hardlink to the stored content if possible, a copy otherwise)
+   *
+   * @param content
+   *          the stored content (as returned by {@link #fetch(String)})
+   * @param target
+   *          the file to create; an existing file is replaced
+   * @throws IOException
+   *           the artwork could not be written
+   */
+  public void link(Path content, Path target) throws IOException {
+    if (Files.exists(target)) {
+      if (Files.isSameFile(target, content)) {
+        // already linked
+        return;
+      }
+      Files.delete(target);
+    }
+
+    try {
+      // the first link of a content does not save anything (the stored file is needed anyway), every further link saves a copy
+      boolean linked = getLinkCount(content) > 1;
+      Files.createLink(target, content);
+      count(LINKS, 1);
+      if (linked) {
+        count(SAVED_DISK, Files.size(content));
+      }
+    }
+    catch (IOException | UnsupportedOperationException e) {
+      // different file system or no hardlink support (e.g. most network shares)
+      LOGGER.trace("could not link " + target + " - copying: " + e.getMessage());
+      Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+      count(COPIES, 1);
+    }
+  }
+
+  /**
+   * get the number of hardlinks to the stored content (including the stored file itself); file systems without this attribute (e.g. NTFS) fall
+   * back to the number of links this store has created
+   */
+  private long getLinkCount(Path content) throws IOException {
+    try {
+      return ((Number) Files.getAttribute(content, "unix:nlink")).longValue();
+    }
+    catch (UnsupportedOperationException | IllegalArgumentException e) {
+      synchronized (this) {
+        if (linkCountMap == null) {
+          // closed in the meantime (shutdown) - just do not count any savings
+          return 1;
+        }
+        return linkCountMap.merge(content.getFileName().toString(), 1L, Long::sum);
+      }
+    }
+  }
+
+  private Path download(String url) throws IOException, InterruptedException {
+    Url u = new Url(url);
+    try (InputStream is = u.getInputStreamWithRetry(5)) {
+      if (is == null) {
+        // 404 et all
+        throw new FileNotFoundException("Error accessing url: " + u.getStatusLine());
+      }
+      return store(url, is);
+    }
+  }
+
+  /**
+   * store the content of the given stream for the url
+   *
+   * @param url
+   *          the url the content has been fetched from
+   * @param is
+   *          the content
+   * @return the file with the stored content
+   * @throws IOException
+   *           the content could not be stored
+   */
+  Path store(String url, InputStream is) throws IOException {
+    getUrlMap();
+    Files.createDirectories(storeDir);
+    Path tempFile = Files.createTempFile(storeDir, "download", ".part");
+
+    try {
+      MessageDigest digest = DigestUtils.getSha1Digest();
+      Files.copy(new DigestInputStream(is, digest), tempFile, StandardCopyOption.REPLACE_EXISTING);
+
+      long size = Files.size(tempFile);
+      if (size == 0) {
+        throw new IOException("0byte file downloaded: " + url);
+      }
+      count(DOWNLOADS, 1);
+      count(DOWNLOADED, size);
+
+      String hash = new String(Hex.encodeHex(digest.digest()));
+      Path content = getContentFile(hash);
+      synchronized (this) {
+        if (!Files.exists(content)) {
+          Files.createDirectories(content.getParent());
+          Files.move(tempFile, content, StandardCopyOption.ATOMIC_MOVE);
+        }
+        getUrlMap().put(url, hash);
+      }
+      return content;
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private Path getContentFile(String hash) {
+    return storeDir.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private synchronized void count(String key, long value) {
+    if (statisticsMap == null) {
+      // closed in the meantime (shutdown) - the statistics are not worth re-opening the store
+      return;
+    }
+    statisticsMap.merge(key, value, Long::sum);
+  }
+
+  private synchronized MVMap<String, String> getUrlMap() {
+    if (mvStore == null) {
+      try {
+        Files.createDirectories(storeFile.getParent());
+      }
+      catch (IOException e) {
+        LOGGER.warn("could not create cache dir " + storeFile.getParent() + " - " + e.getMessage());
+      }
+
+      mvStore = new MVStore.Builder().fileName(storeFile.toString()).compress()
+          .backgroundExceptionHandler((t, e) -> LOGGER.error("Error in the background thread of the artwork store", e))
+          .autoCommitBufferSize(4096).open();
+      mvStore.setAutoCommitDelay(2000); // 2 sec
+      mvStore.setRetentionTime(0);
+      mvStore.setReuseSpace(true);
+
+      urlMap = mvStore.openMap("urls");
+      statisticsMap = mvStore.openMap("statistics");
+      linkCountMap = mvStore.openMap("linkCounts");
+    }
+    return urlMap;
+  }
+
+  /**
+   * get the value of the given statistic counter
+   */
+  synchronized long getStatistic(String key) {
+    getUrlMap();
+    Long value = statisticsMap.get(key);
+    return value != null ? value : 0;
+  }
+
+  /**
+   * get a human readable statistic of this store (since it has been created)
+   *
+   * @return the statistics
+   */
+  public String getStatistics() {
+    return String.format(Locale.ROOT,
+        "artwork store: %d downloads (%.1f MB), saved %.1f MB of traffic and %.1f MB of disk space (%d links, %d copies)",
+        getStatistic(DOWNLOADS), getStatistic(DOWNLOADED) / 1048576.0, getStatistic(SAVED_TRAFFIC) / 1048576.0,
+        getStatistic(SAVED_DISK) / 1048576.0, getStatistic(LINKS), getStatistic(COPIES));
+  }
+
+  /**
+   * closes the underlying store; it will be re-opened on the next access
+   */
+  public synchronized void close() {
+    if (mvStore != null) {
+      LOGGER.info(getStatistics());
+      mvStore.compactMoveChunks();
+      mvStore.close();
+      mvStore = null;
+      urlMap = null;
+      statisticsMap = null;
+      linkCountMap = null;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The class FileTypeRegistry. An immutable snapshot of the configured file types as sets of lower cased extensions (without the leading dot), so
+ * hot paths can check an extension without concatenating strings or iterating over the observable lists of the settings.<br>
+ * The registry is rebuilt by the {@link Settings} whenever the video, audio or subtitle file types change
+ *
+ * @author Manuel Laggner
+ */
+public final class FileTypeRegistry {
+  private final Set<String> video;
+  private final Set<String> audio;
+  private final Set<String> subtitle;
+  private final Set<String> all;
+
+  FileTypeRegistry(List<String> videoFileTypes, List<String> audioFileTypes, List<String> subtitleFileTypes) {
+    this.video = toExtensionSet(videoFileTypes);
+    this.audio = toExtensionSet(audioFileTypes);
+    this.subtitle = toExtensionSet(subtitleFileTypes);
+
+    Set<String> allTypes = new HashSet<>(video);
+    allTypes.addAll(audio);
+    allTypes.addAll(subtitle);
+    allTypes.add("nfo");
+    this.all = Collections.unmodifiableSet(allTypes);
+  }
+
+  private static Set<String> toExtensionSet(List<String> fileTypes) {
+    Set<String> extensions = new HashSet<>();
+    // copy the list first - it could be modified while we're iterating
+    for (String fileType : fileTypes.toArray(new String[0])) {
+      if (fileType == null) {
+        continue;
+      }
+      String extension = fileType.startsWith(".") ? fileType.substring(1) : fileType;
+      if (!extension.isEmpty()) {
+        extensions.add(extension.toLowerCase(Locale.ROOT));
+      }
+    }
+    return Collections.unmodifiableSet(extensions);
+  }
+
+  private static boolean contains(Set<String> extensions, String extension) {
+    if (extension == null || extension.isEmpty()) {
+      return false;
+    }
+    // callers mostly pass lower cased extensions - only lower case if needed
+    return extensions.contains(extension) || extensions.contains(extension.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * is the given extension (without the leading dot) a configured video file type
+   *
+   * @param extension
+   *          the extension
+   * @return true/false
+   */
+  public boolean isVideo(String extension) {
+    return contains(video, extension);
+  }
+
+  /**
+   * is the given extension (without the leading dot) a configured audio file type
+   *
+   * @param extension
+   *          the extension
+   * @return true/false
+   */
+  public boolean isAudio(String extension) {
+    return contains(audio, extension);
+  }
+
+  /**
+   * is the given extension (without the leading dot) a configured subtitle file type
+   *
+   * @param extension
+   *          the extension
+   * @return true/false
+   */
+  public boolean isSubtitle(String extension) {
+    return contains(subtitle, extension);
+  }
+
+  /**
+   * is the given extension (without the leading dot) any of the supported file types (video, audio, subtitle or NFO)
+   *
+   * @param extension
+   *          the extension
+   * @return true/false
+   */
+  public boolean isSupported(String extension) {
+    return contains(all, extension);
+  }
+
+  public Set<String> getVideoExtensions() {
+    return video;
+  }
+
+  public Set<String> getAudioExtensions() {
+    return audio;
+  }
+
+  public Set<String> getSubtitleExtensions() {
+    return subtitle;
+  }
+
+  public Set<String> getAllExtensions() {
+    return all;
+  }
+}
@@ -15,11 +15,13 @@
  */
 package org.tinymediamanager.core;
 
+import java.awt.Dimension;
 import java.awt.Image;
 import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorConvertOp;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
@@ -29,16 +31,22 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
 import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
 import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -51,6 +59,7 @@ import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.scraper.http.Url;
 import org.tinymediamanager.scraper.util.UrlUtil;
 import org.tinymediamanager.thirdparty.ImageLoader;
+import org.tinymediamanager.ui.components.ScaledImageCache;
 
 /**
  * The Class ImageCache - used to build a local image cache (scaled down versions & thumbnails - also for offline access).
@@ -58,29 +67,75 @@ import org.tinymediamanager.thirdparty.ImageLoader;
  * @author Manuel Laggner
  */
 public class ImageCache {
-  private static final Logger LOGGER    = LoggerFactory.getLogger(ImageCache.class);
-  private static final Path   CACHE_DIR = Paths.get("cache/image");
+  private static final Logger  LOGGER            = LoggerFactory.getLogger(ImageCache.class);
+  private static final Path    CACHE_DIR         = Paths.get("cache/image");
+  private static volatile Path cacheDir          = CACHE_DIR;
+
+  private static final int     MIN_VARIANT_WIDTH = 32;
 
   public enum CacheType {
     FAST,
     SMOOTH
   }
 
+  /**
+   * the variants of every cached image: the detail variant is the scaled image itself (and keeps the file name of former versions), the others
+   * are smaller versions of it for lists and thumbnails
+   */
+  public enum Variant {
+    THUMBNAIL("-thumb", 4),
+    LIST("-list", 2),
+    DETAIL("", 1);
+
+    private final String suffix;
+    private final int    divisor;
+
+    Variant(String suffix, int divisor) {
+      this.suffix = suffix;
+      this.divisor = divisor;
+    }
+
+    public String getSuffix() {
+      return suffix;
+    }
+
+    static Variant fromSuffix(String suffix) {
+      for (Variant variant : values()) {
+        if (variant.suffix.equals(suffix == null ? "" : suffix)) {
+          return variant;
+        }
+      }
+      return null;
+    }
+  }
+
   /**
    * Gets the cache dir. If it is not on the disk - it will also create it
    * 
    * @return the cache dir
    */
   public static Path getCacheDir() {
-    if (!Files.exists(CACHE_DIR)) {
+    Path dir = cacheDir;
+    if (!Files.exists(dir)) {
       try {
-        Files.createDirectories(CACHE_DIR);
+        Files.createDirectories(dir);
       }
       catch (IOException e) {
-        LOGGER.warn("Could not create cache dir " + CACHE_DIR + " - " + e.getMessage());
+        LOGGER.warn("Could not create cache dir " + dir + " - " + e.getMessage());
       }
     }
-    return CACHE_DIR;
+    return dir;
+  }
+
+  /**
+   * use another cache dir (e.g. for benchmarks which must not touch the real cache); the manifest has to be set with
+   * {@link ImageCacheManifest#setInstance(ImageCacheManifest)}
+   *
+   * @param dir
+   *          the cache dir or null for the default one
+   */
+  static void setCacheDir(Path dir) {
+    cacheDir = dir != null ? dir : CACHE_DIR;
   }
 
   /**
@@ -123,61 +178,13 @@ public class ImageCache {
 
     BufferedImage originalImage = null;
     try {
-      originalImage = createImage(url.getBytes());
+      originalImage = createImage(url.getBytes(), width, 0);
     }
     catch (Exception e) {
       throw new IOException(e.getMessage());
     }
 
-    Point size = new Point();
-    size.x = width;
-    size.y = size.x * originalImage.getHeight() / originalImage.getWidth();
-
-    // BufferedImage scaledImage = Scaling.scale(originalImage, size.x, size.y);
-    BufferedImage scaledImage = Scalr.resize(originalImage, Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, size.x, size.y, Scalr.OP_ANTIALIAS);
-    originalImage = null;
-
-    ImageWriter imgWrtr = null;
-    ImageWriteParam imgWrtrPrm = null;
-
-    // here we have two different ways to create our thumb
-    // a) a scaled down jpg/png (without transparency) which we have to modify since OpenJDK cannot call native jpg encoders
-    // b) a scaled down png (with transparency) which we can store without any more modifying as png
-    if (hasTransparentPixels(scaledImage)) {
-      // transparent image -> png
-      imgWrtr = ImageIO.getImageWritersByFormatName("png").next();
-      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
-
-    }
-    else {
-      // non transparent image -> jpg
-      // convert to rgb
-      BufferedImage rgb = new BufferedImage(scaledImage.getWidth(), scaledImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-      ColorConvertOp xformOp = new ColorConvertOp(null);
-      xformOp.filter(scaledImage, rgb);
-      imgWrtr = ImageIO.getImageWritersByFormatName("jpg").next();
-      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
-      imgWrtrPrm.setCompressionMode(JPEGImageWriteParam.MODE_EXPLICIT);
-      imgWrtrPrm.setCompressionQuality(0.80f);
-
-      scaledImage = rgb;
-    }
-
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    ImageOutputStream output = ImageIO.createImageOutputStream(baos);
-    imgWrtr.setOutput(output);
-    IIOImage outputImage = new IIOImage(scaledImage, null, null);
-    imgWrtr.write(null, outputImage, imgWrtrPrm);
-    imgWrtr.dispose();
-    scaledImage = null;
-
-    byte[] bytes = baos.toByteArray();
-
-    output.flush();
-    output.close();
-    baos.close();
-
-    return new ByteArrayInputStream(bytes);
+    return scaleImage(originalImage, width);
   }
 
   /**
@@ -195,61 +202,29 @@ public class ImageCache {
   public static InputStream scaleImage(Path file, int width) throws IOException, InterruptedException {
     BufferedImage originalImage = null;
     try {
-      originalImage = createImage(file);
+      originalImage = createImage(file, width, 0);
     }
     catch (Exception e) {
       throw new IOException(e.getMessage());
     }
 
+    return scaleImage(originalImage, width);
+  }
+
+  private static InputStream scaleImage(BufferedImage originalImage, int width) throws IOException {
     Point size = new Point();
     size.x = width;
     size.y = size.x * originalImage.getHeight() / originalImage.getWidth();
 
     // BufferedImage scaledImage = Scaling.scale(originalImage, size.x, size.y);
     BufferedImage scaledImage = Scalr.resize(originalImage, Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, size.x, size.y, Scalr.OP_ANTIALIAS);
-    originalImage = null;
-
-    ImageWriter imgWrtr = null;
-    ImageWriteParam imgWrtrPrm = null;
-
-    // here we have two different ways to create our thumb
-    // a) a scaled down jpg/png (without transparency) which we have to modify since OpenJDK cannot call native jpg encoders
-    // b) a scaled down png (with transparency) which we can store without any more modifying as png
-    if (hasTransparentPixels(scaledImage)) {
-      // transparent image -> png
-      imgWrtr = ImageIO.getImageWritersByFormatName("png").next();
-      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
-
-    }
-    else {
-      // non transparent image -> jpg
-      // convert to rgb
-      BufferedImage rgb = new BufferedImage(scaledImage.getWidth(), scaledImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-      ColorConvertOp xformOp = new ColorConvertOp(null);
-      xformOp.filter(scaledImage, rgb);
-      imgWrtr = ImageIO.getImageWritersByFormatName("jpg").next();
-      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
-      imgWrtrPrm.setCompressionMode(JPEGImageWriteParam.MODE_EXPLICIT);
-      imgWrtrPrm.setCompressionQuality(0.80f);
-
-      scaledImage = rgb;
-    }
 
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    ImageOutputStream output = ImageIO.createImageOutputStream(baos);
-    imgWrtr.setOutput(output);
-    IIOImage outputImage = new IIOImage(scaledImage, null, null);
-    imgWrtr.write(null, outputImage, imgWrtrPrm);
-    imgWrtr.dispose();
-    scaledImage = null;
-
-    byte[] bytes = baos.toByteArray();
-
-    output.flush();
-    output.close();
-    baos.close();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+      writeImage(scaledImage, output);
+    }
 
-    return new ByteArrayInputStream(bytes);
+    return new ByteArrayInputStream(baos.toByteArray());
   }
 
   /**
@@ -266,8 +241,11 @@ public class ImageCache {
       throw new Exception("only image files can be cached");
     }
 
-    Path cachedFile = ImageCache.getCacheDir().resolve(getMD5(originalFile.toString()) + "." + Utils.getExtension(originalFile));
-    if (!Files.exists(cachedFile)) {
+    String key = getMD5(originalFile.toString());
+    String extension = Utils.getExtension(originalFile);
+    Path cachedFile = getCacheFile(originalFile);
+    ImageCacheManifest manifest = ImageCacheManifest.getInstance();
+    if (!isUpToDate(key, originalFile)) {
       // check if the original file exists && size > 0
       if (!Files.exists(originalFile)) {
         throw new FileNotFoundException("unable to cache file: " + originalFile + "; file does not exist");
@@ -276,41 +254,29 @@ public class ImageCache {
         throw new EmptyFileException(originalFile);
       }
 
+      // the original has been changed - remove all variants of the old one
+      manifest.invalidate(key);
+
       // recreate cache dir if needed
       // rescale & cache
       BufferedImage originalImage = null;
+      Point size;
       try {
-        originalImage = createImage(originalFile);
-      }
-      catch (Exception e) {
-        throw new Exception("cannot create image - file seems not to be valid? " + originalFile);
-      }
-
-      // calculate width based on MF type
-      int desiredWidth = originalImage.getWidth(); // initialize with fallback
-      if (mf.getType() == MediaFileType.FANART) {
-        // special handling for fanart, since that is displayed rather big
-        if (originalImage.getWidth() > 1000) {
-          desiredWidth = 1000;
-        }
-      }
-      else {
-        // decide the scale-side depending on the aspect ratio
-        if (((float) originalImage.getWidth()) / ((float) originalImage.getHeight()) > 1) {
-          // landscape
-          if (originalImage.getWidth() > 400) {
-            desiredWidth = 400;
-          }
+        // read the size first, so we only need to decode as many pixels as needed for the cached image
+        Dimension originalSize = getImageSize(originalFile);
+        if (originalSize != null) {
+          size = calculateCacheSize(mf.getType(), originalSize.width, originalSize.height);
+          originalImage = createImage(originalFile, size.x, size.y);
         }
         else {
-          // portrait
-          if (originalImage.getHeight() > 400) {
-            desiredWidth = 400 * originalImage.getWidth() / originalImage.getHeight();
-          }
+          originalImage = createImage(originalFile);
+          size = calculateCacheSize(mf.getType(), originalImage.getWidth(), originalImage.getHeight());
         }
       }
+      catch (Exception e) {
+        throw new Exception("cannot create image - file seems not to be valid? " + originalFile);
+      }
 
-      Point size = calculateSize(desiredWidth, (int) (originalImage.getHeight() / 1.5), originalImage.getWidth(), originalImage.getHeight(), true);
       BufferedImage scaledImage = null;
 
       if (Globals.settings.getImageCacheType() == CacheType.FAST) {
@@ -323,54 +289,245 @@ public class ImageCache {
       }
       originalImage = null;
 
-      ImageWriter imgWrtr = null;
-      ImageWriteParam imgWrtrPrm = null;
+      // the smaller variants are scaled from the detail variant, which is way cheaper than from the original
+      BasicFileAttributes attrs = Files.readAttributes(originalFile, BasicFileAttributes.class);
+      ImageCacheManifest.Entry entry = new ImageCacheManifest.Entry(extension);
+      entry.setSource(originalFile.toAbsolutePath().toString(), attrs.size(), attrs.lastModifiedTime().toMillis());
+      List<Path> writtenFiles = new ArrayList<>();
+      try {
+        for (Variant variant : Variant.values()) {
+          BufferedImage variantImage = scaledImage;
+          if (variant != Variant.DETAIL) {
+            int width = size.x / variant.divisor;
+            if (width < MIN_VARIANT_WIDTH) {
+              continue;
+            }
+            variantImage = Scalr.resize(scaledImage, Scalr.Method.BALANCED, Scalr.Mode.FIT_TO_WIDTH, width);
+          }
+
+          Path variantFile = getCacheDir().resolve(getCacheFilename(key, extension, variant));
+          writeCacheFile(variantImage, variantFile);
+          writtenFiles.add(variantFile);
+          entry.setVariant(variant, variantImage.getWidth(), variantImage.getHeight(), Files.size(variantFile));
+        }
+      }
+      catch (Exception | Error e) {
+        // do not leave untracked variants in the cache
+        for (Path file : writtenFiles) {
+          Utils.deleteFileSafely(file);
+        }
+        throw e;
+      }
+      scaledImage = null;
+
+      manifest.put(key, entry);
+    }
 
-      // here we have two different ways to create our thumb
-      // a) a scaled down jpg/png (without transparency) which we have to modify since OpenJDK cannot call native jpg encoders
-      // b) a scaled down png (with transparency) which we can store without any more modifying as png
-      if (hasTransparentPixels(scaledImage)) {
-        // transparent image -> png
-        imgWrtr = ImageIO.getImageWritersByFormatName("png").next();
-        imgWrtrPrm = imgWrtr.getDefaultWriteParam();
+    return cachedFile;
+  }
+
+  /**
+   * check if the given original is in the cache and the cached image has been created out of the current version of the original (size and
+   * last modified date did not change). Entries without information about the original adopt the current version
+   */
+  static boolean isUpToDate(String key, Path originalFile) {
+    ImageCacheManifest manifest = ImageCacheManifest.getInstance();
+    ImageCacheManifest.Entry entry = manifest.peek(key);
+    if (entry == null) {
+      return false;
+    }
+
+    BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(originalFile, BasicFileAttributes.class);
+    }
+    catch (IOException e) {
+      // the original is not reachable (offline share) - the cached image is all we have
+      return true;
+    }
 
+    if (!entry.hasSource()) {
+      entry.setSource(originalFile.toAbsolutePath().toString(), attrs.size(), attrs.lastModifiedTime().toMillis());
+      manifest.put(key, entry);
+      return true;
+    }
+    return entry.matchesSource(attrs.size(), attrs.lastModifiedTime().toMillis());
+  }
+
+  private static void writeCacheFile(BufferedImage image, Path file) throws IOException {
+    try (ImageOutputStream output = new FileImageOutputStream(file.toFile())) {
+      writeImage(image, output);
+    }
+    catch (IOException e) {
+      // do not leave a broken file in the cache
+      Utils.deleteFileSafely(file);
+      throw e;
+    }
+  }
+
+  /**
+   * get the file in the cache for the given original file (without checking if it has already been cached)
+   *
+   * @param originalFile
+   *          the original file
+   * @return the file in the cache
+   */
+  public static Path getCacheFile(Path originalFile) {
+    return getCacheDir().resolve(getCacheFilename(getMD5(originalFile.toString()), Utils.getExtension(originalFile), Variant.DETAIL));
+  }
+
+  /**
+   * get the file name of the given variant of a cached image
+   *
+   * @param key
+   *          the key (MD5 hash) of the cached image
+   * @param extension
+   *          the extension of the cached image
+   * @param variant
+   *          the variant
+   * @return the file name inside the cache dir
+   */
+  static String getCacheFilename(String key, String extension, Variant variant) {
+    return key + variant.suffix + "." + extension;
+  }
+
+  /**
+   * estimate the heap needed to cache the given image: the (subsampled) decoded image plus the scaled image, 4 bytes per pixel
+   *
+   * @param type
+   *          the type of the image
+   * @param originalSize
+   *          the size of the original image
+   * @return the estimated heap usage in bytes
+   */
+  static long estimateMemoryUsage(MediaFileType type, Dimension originalSize) {
+    Point size = calculateCacheSize(type, originalSize.width, originalSize.height);
+    int subsampling = calculateSubsampling(originalSize.width, originalSize.height, size.x, size.y);
+    long decodedWidth = (originalSize.width + subsampling - 1) / subsampling;
+    long decodedHeight = (originalSize.height + subsampling - 1) / subsampling;
+    return (decodedWidth * decodedHeight + (long) size.x * size.y) * 4;
+  }
+
+  /**
+   * calculate the size of the cached image based on the MF type and the size of the original image
+   *
+   * @param type
+   *          the type of the image
+   * @param width
+   *          the width of the original image
+   * @param height
+   *          the height of the original image
+   * @return the size of the cached image
+   */
+  static Point calculateCacheSize(MediaFileType type, int width, int height) {
+    int desiredWidth = width; // initialize with fallback
+    if (type == MediaFileType.FANART) {
+      // special handling for fanart, since that is displayed rather big
+      if (width > 1000) {
+        desiredWidth = 1000;
+      }
+    }
+    else {
+      // decide the scale-side depending on the aspect ratio
+      if (((float) width) / ((float) height) > 1) {
+        // landscape
+        if (width > 400) {
+          desiredWidth = 400;
+        }
       }
       else {
-        // non transparent image -> jpg
+        // portrait
+        if (height > 400) {
+          desiredWidth = 400 * width / height;
+        }
+      }
+    }
+
+    return calculateSize(desiredWidth, (int) (height / 1.5), width, height, true);
+  }
+
+  /**
+   * encode the given (scaled) image into the output. There are two different ways to create our thumb:<br>
+   * a) a jpg (without transparency) which we have to convert to RGB before since OpenJDK cannot call native jpg encoders<br>
+   * b) a png (with transparency) which we can store without any more modifying
+   *
+   * @param image
+   *          the image to encode
+   * @param output
+   *          the output to write the encoded image to
+   * @throws IOException
+   *           any exception while encoding
+   */
+  static void writeImage(BufferedImage image, ImageOutputStream output) throws IOException {
+    BufferedImage outputImage = image;
+    ImageWriter imgWrtr;
+    ImageWriteParam imgWrtrPrm;
+
+    if (hasTransparentPixels(image)) {
+      // transparent image -> png
+      imgWrtr = ImageIO.getImageWritersByFormatName("png").next();
+      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
+    }
+    else {
+      // non transparent image -> jpg
+      if (image.getType() != BufferedImage.TYPE_INT_RGB) {
         // convert to rgb
-        BufferedImage rgb = new BufferedImage(scaledImage.getWidth(), scaledImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+        outputImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
         ColorConvertOp xformOp = new ColorConvertOp(null);
-        xformOp.filter(scaledImage, rgb);
-        imgWrtr = ImageIO.getImageWritersByFormatName("jpg").next();
-        imgWrtrPrm = imgWrtr.getDefaultWriteParam();
-        imgWrtrPrm.setCompressionMode(JPEGImageWriteParam.MODE_EXPLICIT);
-        imgWrtrPrm.setCompressionQuality(0.80f);
-
-        scaledImage = rgb;
+        xformOp.filter(image, outputImage);
       }
+      imgWrtr = ImageIO.getImageWritersByFormatName("jpg").next();
+      imgWrtrPrm = imgWrtr.getDefaultWriteParam();
+      imgWrtrPrm.setCompressionMode(JPEGImageWriteParam.MODE_EXPLICIT);
+      imgWrtrPrm.setCompressionQuality(0.80f);
+    }
 
-      FileImageOutputStream output = new FileImageOutputStream(cachedFile.toFile());
+    try {
       imgWrtr.setOutput(output);
-      IIOImage image = new IIOImage(scaledImage, null, null);
-      imgWrtr.write(null, image, imgWrtrPrm);
+      imgWrtr.write(null, new IIOImage(outputImage, null, null), imgWrtrPrm);
+    }
+    finally {
       imgWrtr.dispose();
-      output.flush();
-      output.close();
-      scaledImage = null;
+    }
+  }
 
-      if (!Files.exists(cachedFile)) {
-        throw new Exception("unable to cache file: " + originalFile);
-      }
+  /**
+   * check if the image has at least one fully transparent pixel. Images without an alpha channel are skipped at all; otherwise the alpha band
+   * is scanned row by row
+   *
+   * @param image
+   *          the image to check
+   * @return true if there is a fully transparent pixel
+   */
+  static boolean hasTransparentPixels(BufferedImage image) {
+    if (!image.getColorModel().hasAlpha()) {
+      return false;
     }
 
-    return cachedFile;
-  }
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] row = new int[width];
+
+    WritableRaster alphaRaster = image.getAlphaRaster();
+    if (alphaRaster == null) {
+      // no separate alpha band (e.g. indexed colors) - check the ARGB values
+      for (int y = 0; y < height; y++) {
+        image.getRGB(0, y, width, 1, row, 0, width);
+        for (int pixel : row) {
+          if ((pixel >>> 24) == 0) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
 
-  private static boolean hasTransparentPixels(BufferedImage image) {
-    for (int x = 0; x < image.getWidth(); x++) {
-      for (int y = 0; y < image.getHeight(); y++) {
-        int pixel = image.getRGB(x, y);
-        if ((pixel >> 24) == 0x00) {
+    int minX = alphaRaster.getMinX();
+    int minY = alphaRaster.getMinY();
+    for (int y = 0; y < height; y++) {
+      alphaRaster.getSamples(minX, minY + y, width, 1, 0, row);
+      for (int alpha : row) {
+        if (alpha == 0) {
           return true;
         }
       }
@@ -385,10 +542,18 @@ public class ImageCache {
    *          the path
    */
   public static void invalidateCachedImage(Path path) {
-    Path cachedFile = getCacheDir().resolve(ImageCache.getMD5(path.toAbsolutePath().toString()) + "." + Utils.getExtension(path));
+    String key = ImageCache.getMD5(path.toAbsolutePath().toString());
+    ImageCacheManifest.getInstance().invalidate(key);
+
+    // files which have been put into the cache without being registered in the manifest
+    Path cachedFile = getCacheDir().resolve(getCacheFilename(key, Utils.getExtension(path), Variant.DETAIL));
     if (Files.exists(cachedFile)) {
       Utils.deleteFileSafely(cachedFile);
     }
+
+    // the artwork has been changed - the UI must not show the old one out of the memory cache
+    ScaledImageCache.getInstance().invalidate(path.toString());
+    ScaledImageCache.getInstance().invalidate(path.toAbsolutePath().toString());
   }
 
   /**
@@ -408,9 +573,19 @@ public class ImageCache {
     if (ext.isEmpty()) {
       ext = "jpg"; // just assume
     }
-    Path cachedFile = ImageCache.getCacheDir().resolve(getMD5(url) + "." + ext);
+    String key = getMD5(url);
+    ImageCacheManifest manifest = ImageCacheManifest.getInstance();
+    ImageCacheManifest.Entry entry = manifest.get(key);
+    if (entry != null) {
+      // urls have no size/last modified date to validate against
+      LOGGER.trace("found cached url :) " + url);
+      return getCacheDir().resolve(getCacheFilename(key, entry.getExtension(), Variant.DETAIL));
+    }
+
+    Path cachedFile = ImageCache.getCacheDir().resolve(getCacheFilename(key, ext, Variant.DETAIL));
     if (Files.exists(cachedFile)) {
       LOGGER.trace("found cached url :) " + url);
+      registerCachedFile(key, ext, cachedFile);
       return cachedFile;
     }
 
@@ -424,6 +599,7 @@ public class ImageCache {
       boolean ok = u.download(cachedFile);
       if (ok) {
         LOGGER.trace("cached url successfully :) " + url);
+        registerCachedFile(key, ext, cachedFile);
         return cachedFile;
       }
     }
@@ -444,20 +620,39 @@ public class ImageCache {
    * @return the cached file
    */
   public static Path getCachedFile(Path path) {
+    return getCachedFile(path, 0, 0);
+  }
+
+  /**
+   * Gets the smallest variant of the cached file which is large enough to be displayed in the given area, if ImageCache is activated<br>
+   * If not found, cache original first
+   *
+   * @param path
+   *          the path
+   * @param width
+   *          the width of the area the image is displayed in (0 for the largest variant)
+   * @param height
+   *          the height of the area the image is displayed in (0 for the largest variant)
+   * @return the cached file
+   */
+  public static Path getCachedFile(Path path, int width, int height) {
     if (path == null) {
       return null;
     }
     path = path.toAbsolutePath();
 
-    Path cachedFile = ImageCache.getCacheDir().resolve(getMD5(path.toString()) + "." + Utils.getExtension(path));
-    if (Files.exists(cachedFile)) {
-      LOGGER.trace("found cached file :) " + path);
-      return cachedFile;
+    String key = getMD5(path.toString());
+    if (isUpToDate(key, path)) {
+      ImageCacheManifest.Entry entry = ImageCacheManifest.getInstance().get(key);
+      if (entry != null) {
+        LOGGER.trace("found cached file :) " + path);
+        return getCacheDir().resolve(getCacheFilename(key, entry.getExtension(), entry.findVariant(width, height)));
+      }
     }
 
     // TODO: when does this happen?!?!
     // is the path already inside the cache dir? serve direct
-    if (path.startsWith(CACHE_DIR.toAbsolutePath())) {
+    if (path.startsWith(cacheDir.toAbsolutePath())) {
       return path;
     }
 
@@ -472,6 +667,9 @@ public class ImageCache {
     try {
       Path p = ImageCache.cacheImage(path);
       LOGGER.trace("cached file successfully :) " + p);
+      if (width > 0 && height > 0) {
+        return getCachedFile(path, width, height);
+      }
       return p;
     }
     catch (EmptyFileException e) {
@@ -491,7 +689,7 @@ public class ImageCache {
   }
 
   /**
-   * Check whether the original image is in the image cache or not
+   * Check whether the original image is in the image cache (and the cached image is up to date) or not
    * 
    * @param path
    *          the path to the original image
@@ -502,12 +700,7 @@ public class ImageCache {
       return false;
     }
 
-    Path cachedFile = CACHE_DIR.resolve(ImageCache.getMD5(path.toString()) + "." + Utils.getExtension(path));
-    if (Files.exists(cachedFile)) {
-      return true;
-    }
-
-    return false;
+    return isUpToDate(ImageCache.getMD5(path.toString()), path);
   }
 
   /**
@@ -520,14 +713,49 @@ public class ImageCache {
     List<MediaFile> mediaFiles = new ArrayList<>(entity.getMediaFiles());
     for (MediaFile mediaFile : mediaFiles) {
       if (mediaFile.isGraphic()) {
-        Path file = ImageCache.getCachedFile(mediaFile.getFileAsPath());
-        if (file != null) {
-          Utils.deleteFileSafely(file);
-        }
+        invalidateCachedImage(mediaFile.getFileAsPath());
       }
     }
   }
 
+  /**
+   * remove all images from the image cache
+   */
+  public static void clearCache() {
+    ImageCacheManifest.getInstance().clear();
+    if (Files.exists(cacheDir)) {
+      try {
+        Utils.deleteDirectoryRecursive(cacheDir);
+      }
+      catch (Exception e) {
+        LOGGER.warn("could not delete the image cache: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * register a file which has been written into the cache dir directly for the given url in the manifest
+   *
+   * @param url
+   *          the url of the image
+   * @param file
+   *          the file in the cache dir
+   */
+  public static void registerCachedFile(String url, Path file) {
+    registerCachedFile(getMD5(url), Utils.getExtension(file), file);
+  }
+
+  private static void registerCachedFile(String key, String extension, Path file) {
+    try {
+      ImageCacheManifest.Entry entry = new ImageCacheManifest.Entry(extension);
+      entry.setVariant(Variant.DETAIL, 0, 0, Files.size(file));
+      ImageCacheManifest.getInstance().put(key, entry);
+    }
+    catch (IOException e) {
+      LOGGER.debug("could not register cached file " + file + ": " + e.getMessage());
+    }
+  }
+
   /**
    * calculate a new size which fits into maxWidth and maxHeight
    * 
@@ -574,4 +802,143 @@ public class ImageCache {
   public static BufferedImage createImage(Image img) {
     return ImageLoader.createImage(img);
   }
+
+  /**
+   * read the size of the given image file out of its header (without decoding the image)
+   *
+   * @param file
+   *          the image file
+   * @return the size of the image or null if there is no image reader for this file
+   */
+  public static Dimension getImageSize(Path file) {
+    try (ImageInputStream iis = ImageIO.createImageInputStream(file.toFile())) {
+      ImageReader reader = getImageReader(iis);
+      if (reader == null) {
+        return null;
+      }
+      try {
+        return new Dimension(reader.getWidth(0), reader.getHeight(0));
+      }
+      finally {
+        reader.dispose();
+      }
+    }
+    catch (Exception e) {
+      LOGGER.trace("could not read image size of " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * create an image which is at least as large as the target size (but not much larger): large images are decoded with source subsampling
+   * (only every n-th pixel of every n-th row is decoded), so the memory of a fully decoded image is never needed. The final (high quality)
+   * scaling has to be done by the caller
+   *
+   * @param file
+   *          the image file
+   * @param targetWidth
+   *          the width needed by the caller
+   * @param targetHeight
+   *          the height needed by the caller (0 to use the width only)
+   * @return the decoded image
+   * @throws Exception
+   *           any exception while decoding the image
+   */
+  public static BufferedImage createImage(Path file, int targetWidth, int targetHeight) throws Exception {
+    try (ImageInputStream iis = ImageIO.createImageInputStream(file.toFile())) {
+      BufferedImage image = readSubsampled(iis, targetWidth, targetHeight);
+      if (image != null) {
+        return image;
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      LOGGER.trace("could not decode " + file + " with subsampling: " + e.getMessage());
+    }
+
+    // no reader for this image (or an unsupported color space like CMYK) - decode it fully
+    return createImage(file);
+  }
+
+  /**
+   * create an image which is at least as large as the target size (but not much larger) - see {@link #createImage(Path, int, int)}
+   *
+   * @param imageData
+   *          the encoded image
+   * @param targetWidth
+   *          the width needed by the caller
+   * @param targetHeight
+   *          the height needed by the caller (0 to use the width only)
+   * @return the decoded image
+   * @throws Exception
+   *           any exception while decoding the image
+   */
+  public static BufferedImage createImage(byte[] imageData, int targetWidth, int targetHeight) throws Exception {
+    try (ImageInputStream iis = new MemoryCacheImageInputStream(new ByteArrayInputStream(imageData))) {
+      BufferedImage image = readSubsampled(iis, targetWidth, targetHeight);
+      if (image != null) {
+        return image;
+      }
+    }
+    catch (IOException | RuntimeException e) {
+      LOGGER.trace("could not decode image with subsampling: " + e.getMessage());
+    }
+
+    return createImage(imageData);
+  }
+
+  private static BufferedImage readSubsampled(ImageInputStream iis, int targetWidth, int targetHeight) throws IOException {
+    ImageReader reader = getImageReader(iis);
+    if (reader == null) {
+      return null;
+    }
+
+    try {
+      ImageReadParam param = reader.getDefaultReadParam();
+      int subsampling = calculateSubsampling(reader.getWidth(0), reader.getHeight(0), targetWidth, targetHeight);
+      if (subsampling > 1) {
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+      }
+      return reader.read(0, param);
+    }
+    finally {
+      reader.dispose();
+    }
+  }
+
+  private static ImageReader getImageReader(ImageInputStream iis) {
+    if (iis == null) {
+      return null;
+    }
+    Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+    if (!readers.hasNext()) {
+      return null;
+    }
+    ImageReader reader = readers.next();
+    reader.setInput(iis, true, true);
+    return reader;
+  }
+
+  /**
+   * calculate the largest subsampling factor which keeps the decoded image at least as large as the target size
+   *
+   * @param width
+   *          the width of the original image
+   * @param height
+   *          the height of the original image
+   * @param targetWidth
+   *          the target width
+   * @param targetHeight
+   *          the target height (0 to use the width only)
+   * @return the subsampling factor (1 = no subsampling)
+   */
+  static int calculateSubsampling(int width, int height, int targetWidth, int targetHeight) {
+    if (targetWidth <= 0) {
+      return 1;
+    }
+    int subsampling = width / targetWidth;
+    if (targetHeight > 0) {
+      subsampling = Math.min(subsampling, height / targetHeight);
+    }
+    return Math.max(subsampling, 1);
+  }
 }
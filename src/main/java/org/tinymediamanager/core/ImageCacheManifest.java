@@ -0,0 +1,594 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.ImageCache.Variant;
+
+/**
+ * The class ImageCacheManifest - the persistent record of all images in the image cache.<br>
+ * Every cached image (key = MD5 of the original path/url) has up to one file per {@link Variant}; the manifest knows the size of every variant
+ * and when the image has been accessed the last time. So lookups need no file system access, and the cache can be capped to a max size by
+ * evicting the least recently used images.
+ *
+ * @author Manuel Laggner
+ */
+public class ImageCacheManifest {
+  private static final Logger   LOGGER         = LoggerFactory.getLogger(ImageCacheManifest.class);
+  private static final Path     CACHE_FILE     = Paths.get("cache/imagecache.db");
+  private static final Pattern  CACHE_FILENAME = Pattern.compile("([0-9a-f]{32})(-[a-z]+)?\\.(\\w+)");
+  private static ImageCacheManifest instance;
+
+  private final Path            manifestFile;
+  private final Path            cacheDir;
+  private final AtomicLong      totalBytes     = new AtomicLong();
+  private final AtomicLong      hits           = new AtomicLong();
+  private final AtomicLong      misses         = new AtomicLong();
+  private final AtomicLong      evictions      = new AtomicLong();
+
+  private MVStore               mvStore;
+  private MVMap<String, String> entryMap;
+  private MVMap<String, Long>   accessMap;
+
+  ImageCacheManifest(Path manifestFile, Path cacheDir) {
+    this.manifestFile = manifestFile;
+    this.cacheDir = cacheDir;
+  }
+
+  public static synchronized ImageCacheManifest getInstance() {
+    if (instance == null) {
+      instance = new ImageCacheManifest(CACHE_FILE, ImageCache.getCacheDir());
+    }
+    return instance;
+  }
+
+  /**
+   * replace the manifest (e.g. for benchmarks which must not touch the real cache); the previous one is closed
+   *
+   * @param manifest
+   *          the new manifest or null to use the default one on the next access
+   */
+  static synchronized void setInstance(ImageCacheManifest manifest) {
+    if (instance != null) {
+      instance.close();
+    }
+    instance = manifest;
+  }
+
+  /**
+   * get the entry of the given image and mark it as accessed
+   *
+   * @param key
+   *          the key of the image
+   * @return the entry or null if the image is not cached
+   */
+  public Entry get(String key) {
+    Entry entry;
+    synchronized (this) {
+      entry = Entry.parse(getEntryMap().get(key));
+      if (entry != null) {
+        accessMap.put(key, System.currentTimeMillis());
+      }
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry;
+  }
+
+  /**
+   * get the entry of the given image without marking it as accessed
+   *
+   * @param key
+   *          the key of the image
+   * @return the entry or null if the image is not cached
+   */
+  public Entry peek(String key) {
+    return Entry.parse(getEntryMap().get(key));
+  }
+
+  /**
+   * get the keys of all cached images
+   *
+   * @return a snapshot of all keys
+   */
+  public List<String> getKeys() {
+    return new ArrayList<>(getEntryMap().keySet());
+  }
+
+  /**
+   * is the given image in the cache? (does not count as an access)
+   *
+   * @param key
+   *          the key of the image
+   * @return true/false
+   */
+  public boolean contains(String key) {
+    return getEntryMap().containsKey(key);
+  }
+
+  /**
+   * add/replace the entry of the given image and evict the least recently used images if the cache grew above its max size
+   *
+   * @param key
+   *          the key of the image
+   * @param entry
+   *          the entry describing the cached files
+   */
+  public synchronized void put(String key, Entry entry) {
+    Entry old = Entry.parse(getEntryMap().put(key, entry.toString()));
+    accessMap.put(key, System.currentTimeMillis());
+    totalBytes.addAndGet(entry.getTotalBytes() - (old != null ? old.getTotalBytes() : 0));
+
+    evictIfNeeded(Globals.settings.getImageCacheMaxSize() * 1024L * 1024L);
+  }
+
+  /**
+   * remove the given image from the cache (the entry and all its files)
+   *
+   * @param key
+   *          the key of the image
+   */
+  public void invalidate(String key) {
+    Entry entry;
+    synchronized (this) {
+      entry = Entry.parse(getEntryMap().remove(key));
+      accessMap.remove(key);
+    }
+    if (entry != null) {
+      totalBytes.addAndGet(-entry.getTotalBytes());
+      deleteFiles(key, entry);
+    }
+  }
+
+  /**
+   * removes the least recently used images if the cache grew above the given size. We evict down to 90% of the max size to avoid evicting on
+   * every put
+   *
+   * @param maxBytes
+   *          the max size of the cache in bytes (0 = unlimited)
+   */
+  synchronized void evictIfNeeded(long maxBytes) {
+    if (maxBytes <= 0 || totalBytes.get() <= maxBytes) {
+      return;
+    }
+
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(accessMap.entrySet());
+    Collections.sort(entries, (o1, o2) -> Long.compare(o1.getValue(), o2.getValue()));
+
+    long target = maxBytes * 9 / 10;
+    int evicted = 0;
+    for (Map.Entry<String, Long> access : entries) {
+      if (totalBytes.get() <= target) {
+        break;
+      }
+      invalidate(access.getKey());
+      evictions.incrementAndGet();
+      evicted++;
+    }
+    LOGGER.debug("evicted " + evicted + " images from the image cache");
+  }
+
+  /**
+   * verify the given image: it is removed from the cache if one of its files is missing, the original has been changed or the original has
+   * been deleted. An original which cannot be reached at all (offline share) keeps the cached image
+   *
+   * @param key
+   *          the key of the image
+   * @return true if the image has been removed from the cache
+   */
+  public boolean verify(String key) {
+    Entry entry = peek(key);
+    if (entry == null) {
+      return false;
+    }
+
+    for (Variant variant : Variant.values()) {
+      if (entry.hasVariant(variant) && !Files.exists(cacheDir.resolve(ImageCache.getCacheFilename(key, entry.getExtension(), variant)))) {
+        LOGGER.debug("cached file of " + key + " is missing");
+        invalidate(key);
+        return true;
+      }
+    }
+
+    if (entry.hasSource() && !entry.getSourcePath().isEmpty()) {
+      Path source = Paths.get(entry.getSourcePath());
+      try {
+        BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+        if (!entry.matchesSource(attrs.size(), attrs.lastModifiedTime().toMillis())) {
+          LOGGER.debug("original has been changed: " + source);
+          invalidate(key);
+          return true;
+        }
+      }
+      catch (IOException e) {
+        // the folder is still there, but the file not: the original has been deleted
+        if (source.getParent() != null && Files.isDirectory(source.getParent())) {
+          LOGGER.debug("original has been deleted: " + source);
+          invalidate(key);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * delete all files in the cache dir which do not belong to a cached image
+   *
+   * @param modifiedBefore
+   *          only files modified before this time (in ms) are deleted, so images being cached right now are not affected
+   * @return the amount of deleted files
+   */
+  public int purgeOrphanedFiles(long modifiedBefore) {
+    getEntryMap();
+    if (!Files.isDirectory(cacheDir)) {
+      return 0;
+    }
+
+    int purged = 0;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+      for (Path file : stream) {
+        Matcher matcher = CACHE_FILENAME.matcher(file.getFileName().toString());
+        if (!matcher.matches() || !Files.isRegularFile(file)) {
+          continue;
+        }
+        Entry entry = peek(matcher.group(1));
+        Variant variant = Variant.fromSuffix(matcher.group(2));
+        if (entry != null && variant != null && entry.hasVariant(variant) && entry.getExtension().equals(matcher.group(3))) {
+          continue;
+        }
+        if (Files.getLastModifiedTime(file).toMillis() >= modifiedBefore) {
+          continue;
+        }
+        try {
+          Files.delete(file);
+          purged++;
+        }
+        catch (IOException e) {
+          LOGGER.debug("could not delete orphaned file " + file + ": " + e.getMessage());
+        }
+      }
+    }
+    catch (IOException e) {
+      LOGGER.warn("could not purge the image cache: " + e.getMessage());
+    }
+    return purged;
+  }
+
+  private void deleteFiles(String key, Entry entry) {
+    for (Variant variant : Variant.values()) {
+      if (entry.hasVariant(variant)) {
+        Path file = cacheDir.resolve(ImageCache.getCacheFilename(key, entry.getExtension(), variant));
+        try {
+          Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+          LOGGER.debug("could not delete cached file " + file + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * get the size of all cached files
+   *
+   * @return the size in bytes
+   */
+  public long getTotalBytes() {
+    getEntryMap();
+    return totalBytes.get();
+  }
+
+  public int size() {
+    return getEntryMap().size();
+  }
+
+  private synchronized MVMap<String, String> getEntryMap() {
+    if (mvStore == null) {
+      try {
+        Files.createDirectories(manifestFile.getParent());
+      }
+      catch (IOException e) {
+        LOGGER.warn("could not create cache dir " + manifestFile.getParent() + " - " + e.getMessage());
+      }
+
+      mvStore = new MVStore.Builder().fileName(manifestFile.toString()).compress()
+          .backgroundExceptionHandler((t, e) -> LOGGER.error("Error in the background thread of the image cache manifest", e))
+          .autoCommitBufferSize(4096).open();
+      mvStore.setAutoCommitDelay(2000); // 2 sec
+      mvStore.setRetentionTime(0);
+      mvStore.setReuseSpace(true);
+
+      entryMap = mvStore.openMap("entries");
+      accessMap = mvStore.openMap("lastAccess");
+
+      long bytes = 0;
+      for (String value : entryMap.values()) {
+        Entry entry = Entry.parse(value);
+        if (entry != null) {
+          bytes += entry.getTotalBytes();
+        }
+      }
+      totalBytes.set(bytes);
+
+      if (entryMap.isEmpty()) {
+        importCacheDir();
+      }
+    }
+    return entryMap;
+  }
+
+  /**
+   * register the files of an image cache created before the manifest existed (or of a lost manifest)
+   */
+  private void importCacheDir() {
+    if (!Files.isDirectory(cacheDir)) {
+      return;
+    }
+
+    Map<String, Entry> entries = new HashMap<>();
+    Map<String, Long> lastAccess = new HashMap<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+      for (Path file : stream) {
+        Matcher matcher = CACHE_FILENAME.matcher(file.getFileName().toString());
+        Variant variant = matcher.matches() ? Variant.fromSuffix(matcher.group(2)) : null;
+        if (variant == null || !Files.isRegularFile(file)) {
+          continue;
+        }
+        String key = matcher.group(1);
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry(matcher.group(3)));
+        entry.setVariant(variant, 0, 0, Files.size(file));
+        lastAccess.merge(key, Files.getLastModifiedTime(file).toMillis(), Math::max);
+      }
+    }
+    catch (IOException e) {
+      LOGGER.warn("could not import the image cache: " + e.getMessage());
+    }
+
+    long bytes = 0;
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      entryMap.put(entry.getKey(), entry.getValue().toString());
+      accessMap.put(entry.getKey(), lastAccess.get(entry.getKey()));
+      bytes += entry.getValue().getTotalBytes();
+    }
+    totalBytes.set(bytes);
+    if (!entries.isEmpty()) {
+      LOGGER.info("imported " + entries.size() + " images into the image cache manifest");
+    }
+  }
+
+  /**
+   * get a human readable statistic of this cache
+   *
+   * @return the statistics
+   */
+  public String getStatistics() {
+    long h = hits.get();
+    long m = misses.get();
+    long ratio = h + m > 0 ? h * 100 / (h + m) : 0;
+    int size = entryMap != null ? entryMap.size() : 0;
+    return "images: " + size + " (" + totalBytes.get() / 1024 / 1024 + " MB), hits: " + h + ", misses: " + m + " (" + ratio
+        + "% hit ratio), evictions: " + evictions.get();
+  }
+
+  /**
+   * removes all entries from the manifest (the files have to be removed by the caller)
+   */
+  public synchronized void clear() {
+    getEntryMap().clear();
+    accessMap.clear();
+    totalBytes.set(0);
+    hits.set(0);
+    misses.set(0);
+    evictions.set(0);
+  }
+
+  /**
+   * closes the underlying store; it will be re-opened on the next access
+   */
+  public synchronized void close() {
+    if (mvStore != null) {
+      LOGGER.info("image cache statistics - " + getStatistics());
+      mvStore.compactMoveChunks();
+      mvStore.close();
+      mvStore = null;
+      entryMap = null;
+      accessMap = null;
+    }
+  }
+
+  /**
+   * the record of one cached image: the extension of the cached files, the path, size and last modified date of the original (if it is a local
+   * file) and the size of every variant
+   */
+  public static class Entry {
+    private final String extension;
+    private final int[]  widths         = new int[Variant.values().length];
+    private final int[]  heights        = new int[Variant.values().length];
+    private final long[] bytes          = new long[Variant.values().length];
+    private String       sourcePath     = "";
+    private long         sourceSize     = 0;
+    private long         sourceModified = 0;
+
+    public Entry(String extension) {
+      this.extension = extension;
+    }
+
+    public void setSource(String path, long size, long modified) {
+      this.sourcePath = path;
+      this.sourceSize = size;
+      this.sourceModified = modified;
+    }
+
+    /**
+     * is the size/last modified date of the original known?
+     *
+     * @return true/false
+     */
+    public boolean hasSource() {
+      return sourceModified > 0;
+    }
+
+    /**
+     * does the original still have the recorded size and last modified date?
+     *
+     * @param size
+     *          the current size of the original
+     * @param modified
+     *          the current last modified date of the original
+     * @return true if the cached image has been created out of this version of the original
+     */
+    public boolean matchesSource(long size, long modified) {
+      return sourceSize == size && sourceModified == modified;
+    }
+
+    public void setVariant(Variant variant, int width, int height, long size) {
+      widths[variant.ordinal()] = width;
+      heights[variant.ordinal()] = height;
+      bytes[variant.ordinal()] = size;
+    }
+
+    public boolean hasVariant(Variant variant) {
+      return bytes[variant.ordinal()] > 0;
+    }
+
+    public int getWidth(Variant variant) {
+      return widths[variant.ordinal()];
+    }
+
+    public int getHeight(Variant variant) {
+      return heights[variant.ordinal()];
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public String getSourcePath() {
+      return sourcePath;
+    }
+
+    public long getSourceSize() {
+      return sourceSize;
+    }
+
+    public long getSourceModified() {
+      return sourceModified;
+    }
+
+    public long getTotalBytes() {
+      long total = 0;
+      for (long size : bytes) {
+        total += size;
+      }
+      return total;
+    }
+
+    /**
+     * find the smallest variant which is large enough to be displayed in the given area (keeping the aspect ratio)
+     *
+     * @param width
+     *          the width of the area (0 for the largest variant)
+     * @param height
+     *          the height of the area (0 for the largest variant)
+     * @return the best fitting variant
+     */
+    public Variant findVariant(int width, int height) {
+      int detailWidth = getWidth(Variant.DETAIL);
+      int detailHeight = getHeight(Variant.DETAIL);
+      if (width <= 0 || height <= 0 || detailWidth <= 0 || detailHeight <= 0) {
+        return Variant.DETAIL;
+      }
+
+      Point size = ImageCache.calculateSize(width, height, detailWidth, detailHeight, true);
+      for (Variant variant : Variant.values()) {
+        if (hasVariant(variant) && getWidth(variant) >= size.x) {
+          return variant;
+        }
+      }
+      return Variant.DETAIL;
+    }
+
+    /**
+     * parse the stored form of an entry
+     *
+     * @param value
+     *          the stored entry
+     * @return the entry or null if the value is null/not parseable
+     */
+    static Entry parse(String value) {
+      if (value == null) {
+        return null;
+      }
+      try {
+        // the path of the original is the last part - it may contain the separator itself
+        int variants = Variant.values().length;
+        String[] parts = value.split(";", variants + 4);
+        Entry entry = new Entry(parts[0]);
+        int offset = 1;
+        if (parts.length == variants + 4) {
+          entry.setSource(parts[variants + 3], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+          offset = 3;
+        }
+        else if (parts.length == variants + 2) {
+          // first version without the size/path of the original
+          offset = 2;
+        }
+        for (Variant variant : Variant.values()) {
+          String[] sizes = parts[offset + variant.ordinal()].split(",");
+          entry.setVariant(variant, Integer.parseInt(sizes[0]), Integer.parseInt(sizes[1]), Long.parseLong(sizes[2]));
+        }
+        return entry;
+      }
+      catch (RuntimeException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(extension).append(';').append(sourceSize).append(';').append(sourceModified);
+      for (Variant variant : Variant.values()) {
+        int i = variant.ordinal();
+        sb.append(';').append(widths[i]).append(',').append(heights[i]).append(',').append(bytes[i]);
+      }
+      return sb.append(';').append(sourcePath).toString();
+    }
+  }
+}
@@ -15,29 +15,50 @@
  */
 package org.tinymediamanager.core;
 
+import java.awt.Dimension;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.threading.TmmTask;
+import org.tinymediamanager.core.threading.TmmThreadPool.TmmThreadFactory;
 import org.tinymediamanager.ui.UTF8Control;
 
 /**
- * The Class ImageCacheTask. Cache a bunch of images in a separate task
+ * The Class ImageCacheTask. Cache a bunch of images in a separate task<br>
+ * The images are cached in parallel; to not run out of heap, every image has to reserve its (estimated) decoded size from a global memory
+ * budget before it is decoded - so a few large images are processed with less concurrency than many small ones
  * 
  * @author Manuel Laggner
  */
 public class ImageCacheTask extends TmmTask {
-  private static final Logger         LOGGER       = LoggerFactory.getLogger(ImageCacheTask.class);
-  private static final ResourceBundle BUNDLE       = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
+  private static final Logger         LOGGER               = LoggerFactory.getLogger(ImageCacheTask.class);
+  private static final ResourceBundle BUNDLE               = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
 
-  private List<Path>                  filesToCache = new ArrayList<>();
+  // used if the size cannot be read out of the image header: a fully decoded 4K image plus the scaled one
+  private static final long           DEFAULT_MEMORY_USAGE = 3840L * 2160 * 4 * 2;
+  // the budget (in KB) is shared by all image cache tasks; never use more than a quarter of the heap
+  private static final int            MEMORY_BUDGET_KB     = (int) Math.min(Math.max(Globals.settings.getImageCacheMemoryBudget(), 1) * 1024L,
+      Runtime.getRuntime().maxMemory() / 4096);
+  private static final Semaphore      MEMORY_BUDGET        = new Semaphore(MEMORY_BUDGET_KB, true);
+
+  private List<Path>                  filesToCache         = new ArrayList<>();
 
   public ImageCacheTask(String pathToFile) {
     super(BUNDLE.getString("tmm.rebuildimagecache"), 1, TaskType.BACKGROUND_TASK);
@@ -62,25 +83,106 @@ public class ImageCacheTask extends TmmTask {
 
   @Override
   protected void doInBackground() {
-    int i = 0;
-    for (Path fileToCache : filesToCache) {
-      try {
-        if (cancel) {
-          return;
-        }
+    int threads = Math.max(Globals.settings.getImageCacheThreads(), 1);
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 2, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+        new TmmThreadFactory("imagecache"));
+    pool.allowCoreThreadTimeOut(true);
+    CompletionService<Boolean> service = new ExecutorCompletionService<>(pool);
 
-        publishState(++i);
-        ImageCache.cacheImage(fileToCache);
-      }
-      catch (EmptyFileException e) {
-        LOGGER.warn("failed to cache file (file is empty): " + fileToCache);
+    long start = System.nanoTime();
+    int skipped = 0;
+    int submitted = 0;
+    for (Path fileToCache : filesToCache) {
+      // already cached images are skipped without decoding the original file (only changed originals are cached again)
+      if (ImageCache.isUpToDate(ImageCache.getMD5(fileToCache.toString()), fileToCache)) {
+        skipped++;
+        continue;
       }
-      catch (FileNotFoundException e) {
-        LOGGER.warn("failed to cache file (file not found): " + fileToCache);
+      service.submit(() -> cacheImage(fileToCache));
+      submitted++;
+    }
+    publishState(skipped);
+
+    int done = 0;
+    int cached = 0;
+    try {
+      while (done < submitted && !cancel) {
+        try {
+          if (service.take().get()) {
+            cached++;
+          }
+        }
+        catch (ExecutionException e) {
+          LOGGER.warn("failed to cache file: " + e.getCause());
+        }
+        done++;
+        publishState(String.format(Locale.ROOT, "%.1f images/s", done / getSeconds(start)), skipped + done);
       }
-      catch (Exception e) {
-        LOGGER.warn("failed to cache file: " + fileToCache, e);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      if (cancel) {
+        LOGGER.info("Abort image caching (discarding " + (submitted - done) + " images)");
+        pool.getQueue().clear();
       }
+      pool.shutdown();
+    }
+
+    if (submitted > 0) {
+      LOGGER.info(String.format(Locale.ROOT, "cached %d images in %.1f s (%.1f images/s); %d were already cached", cached, getSeconds(start),
+          done / getSeconds(start), skipped));
+    }
+  }
+
+  private static double getSeconds(long start) {
+    return Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+  }
+
+  private boolean cacheImage(Path fileToCache) {
+    if (cancel) {
+      return false;
+    }
+
+    int permits = calculatePermits(fileToCache);
+    try {
+      MEMORY_BUDGET.acquire(permits);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+
+    try {
+      ImageCache.cacheImage(fileToCache);
+      return true;
+    }
+    catch (EmptyFileException e) {
+      LOGGER.warn("failed to cache file (file is empty): " + fileToCache);
+    }
+    catch (FileNotFoundException e) {
+      LOGGER.warn("failed to cache file (file not found): " + fileToCache);
+    }
+    catch (Exception e) {
+      LOGGER.warn("failed to cache file: " + fileToCache, e);
+    }
+    finally {
+      MEMORY_BUDGET.release(permits);
+    }
+    return false;
+  }
+
+  /**
+   * calculate the part of the memory budget (in KB) needed to cache the given image
+   */
+  private static int calculatePermits(Path fileToCache) {
+    long bytes = DEFAULT_MEMORY_USAGE;
+    Dimension size = ImageCache.getImageSize(fileToCache);
+    if (size != null) {
+      bytes = ImageCache.estimateMemoryUsage(new MediaFile(fileToCache).getType(), size);
     }
+    // an image larger than the whole budget takes the whole budget (and is processed alone)
+    return (int) Math.max(1, Math.min(bytes / 1024, MEMORY_BUDGET_KB));
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.util.List;
+import java.util.ResourceBundle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.core.threading.TmmTask;
+import org.tinymediamanager.ui.UTF8Control;
+
+/**
+ * The class ImageCacheVerificationTask. Verifies the whole image cache in the background:<br>
+ * - images whose original has been changed or deleted are removed (changed ones are cached again on the next access)<br>
+ * - images with missing files are removed<br>
+ * - files in the cache dir which do not belong to any cached image are deleted
+ *
+ * @author Manuel Laggner
+ */
+public class ImageCacheVerificationTask extends TmmTask {
+  private static final Logger         LOGGER = LoggerFactory.getLogger(ImageCacheVerificationTask.class);
+  private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
+
+  public ImageCacheVerificationTask() {
+    super(BUNDLE.getString("tmm.verifyimagecache"), 0, TaskType.BACKGROUND_TASK);
+  }
+
+  @Override
+  protected void doInBackground() {
+    long start = System.currentTimeMillis();
+    ImageCacheManifest manifest = ImageCacheManifest.getInstance();
+
+    List<String> keys = manifest.getKeys();
+    setWorkUnits(keys.size());
+
+    int removed = 0;
+    int done = 0;
+    for (String key : keys) {
+      if (cancel) {
+        return;
+      }
+      if (manifest.verify(key)) {
+        removed++;
+      }
+      publishState(++done);
+    }
+
+    // files written after the start belong to images being cached right now
+    int purged = manifest.purgeOrphanedFiles(start);
+
+    LOGGER.info("verified " + keys.size() + " cached images in " + (System.currentTimeMillis() - start) + " ms: removed " + removed
+        + " outdated images and " + purged + " orphaned files");
+  }
+}
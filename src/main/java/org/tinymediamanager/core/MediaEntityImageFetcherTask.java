@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.entities.MediaEntity;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.ImageDownload;
 import org.tinymediamanager.scraper.entities.MediaArtwork.MediaArtworkType;
 import org.tinymediamanager.scraper.http.Url;
 
@@ -37,7 +38,7 @@ import org.tinymediamanager.scraper.http.Url;
  * 
  * @author Manuel Laggner
  */
-public class MediaEntityImageFetcherTask implements Runnable {
+public class MediaEntityImageFetcherTask implements ImageDownload {
   private final static Logger LOGGER = LoggerFactory.getLogger(MediaEntityImageFetcherTask.class);
 
   private MediaEntity         entity;
@@ -54,6 +55,11 @@ public class MediaEntityImageFetcherTask implements Runnable {
     this.firstImage = firstImage;
   }
 
+  @Override
+  public String getUrl() {
+    return url;
+  }
+
   @Override
   public void run() {
     long timestamp = System.currentTimeMillis(); // multi episode same file
@@ -106,28 +112,12 @@ public class MediaEntityImageFetcherTask implements Runnable {
         }
 
         // fetch and store images
+        boolean modified = true;
         if (!sameFile) {
-          Url url1 = new Url(url);
-          FileOutputStream outputStream = new FileOutputStream(tempFile.toFile());
-          InputStream is = url1.getInputStreamWithRetry(5);
-          if (is == null) {
-            // 404 et all
-            IOUtils.closeQuietly(outputStream);
-            throw new FileNotFoundException("Error accessing url: " + url1.getStatusLine());
-          }
-          IOUtils.copy(is, outputStream);
-          outputStream.flush();
-          try {
-            outputStream.getFD().sync(); // wait until file has been completely written
-            // give it a few milliseconds
-            Thread.sleep(150);
-          }
-          catch (Exception e) {
-            // empty here -> just not let the thread crash
-          }
-          IOUtils.closeQuietly(outputStream);
-          IOUtils.closeQuietly(is);
+          modified = download(destFile, tempFile);
+        }
 
+        if (!sameFile && modified) {
           // check if the file has been downloaded
           if (!Files.exists(tempFile) || Files.size(tempFile) == 0) {
             throw new Exception("0byte file downloaded: " + filename);
@@ -147,6 +137,13 @@ public class MediaEntityImageFetcherTask implements Runnable {
             throw new Exception("renaming temp file failed: " + filename);
           }
         }
+        else if (!modified && StringUtils.isNotBlank(oldFilename)) {
+          // the artwork is unchanged - only remove the old one if it has been written under another name
+          Path oldFile = entity.getPathNIO().resolve(oldFilename);
+          if (!oldFile.equals(destFile)) {
+            Utils.deleteFileSafely(oldFile);
+          }
+        }
 
         // has tmm been shut down?
         if (Thread.interrupted()) {
@@ -156,7 +153,9 @@ public class MediaEntityImageFetcherTask implements Runnable {
         // set the new image if its the first image
         if (firstImage) {
           LOGGER.debug("set " + type + " " + FilenameUtils.getName(filename));
-          ImageCache.invalidateCachedImage(entity.getPathNIO().resolve(filename));
+          if (modified) {
+            ImageCache.invalidateCachedImage(entity.getPathNIO().resolve(filename));
+          }
           switch (type) {
             case POSTER:
             case BACKGROUND:
@@ -248,4 +247,47 @@ public class MediaEntityImageFetcherTask implements Runnable {
       LOGGER.error("crashed thread: ", e);
     }
   }
+
+  /**
+   * download the artwork into the temp file; http(s) artwork is requested conditionally if the destination file has been downloaded from the
+   * same url before
+   *
+   * @return true if the artwork has been downloaded, false if the destination file is still up to date
+   */
+  private boolean download(Path destFile, Path tempFile) throws Exception {
+    if (Settings.getInstance().isConditionalArtworkDownload() && (url.startsWith("http://") || url.startsWith("https://"))) {
+      try {
+        return ArtworkHttpCache.getInstance().download(url, destFile, tempFile);
+      }
+      catch (FileNotFoundException e) {
+        throw e;
+      }
+      catch (Exception e) {
+        // fall back to the plain download
+        LOGGER.debug("conditional download failed: " + url + " - " + e.getMessage());
+      }
+    }
+
+    Url url1 = new Url(url);
+    FileOutputStream outputStream = new FileOutputStream(tempFile.toFile());
+    InputStream is = url1.getInputStreamWithRetry(5);
+    if (is == null) {
+      // 404 et all
+      IOUtils.closeQuietly(outputStream);
+      throw new FileNotFoundException("Error accessing url: " + url1.getStatusLine());
+    }
+    IOUtils.copy(is, outputStream);
+    outputStream.flush();
+    try {
+      outputStream.getFD().sync(); // wait until file has been completely written
+      // give it a few milliseconds
+      Thread.sleep(150);
+    }
+    catch (Exception e) {
+      // empty here -> just not let the thread crash
+    }
+    IOUtils.closeQuietly(outputStream);
+    IOUtils.closeQuietly(is);
+    return true;
+  }
 }
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.tinymediamanager.Globals;
+
+/**
+ * The class MediaFileClassifier. Detects the {@link MediaFileType} out of the filename and path of a file.<br>
+ * All rules are precompiled (no regular expression will be compiled/evaluated per call): the file extensions are looked up in hash sets (which are
+ * rebuilt on changes of the file types in the settings) and the name rules are simple prefix/suffix checks.
+ *
+ * @author Manuel Laggner
+ */
+public class MediaFileClassifier {
+  private static final Set<String>  IMAGE_EXTENSIONS     = new HashSet<>(Arrays.asList("jpg", "jpeg", "png", "tbn", "gif"));
+  private static final Set<String>  DISCART_EXTENSIONS   = new HashSet<>(Arrays.asList("jpg", "jpeg", "png", "tbn"));
+  private static final Set<String>  PLEX_EXTRA_FOLDERS   = new HashSet<>(Arrays.asList("behind the scenes", "behindthescenes", "deleted scenes",
+      "deletedscenes", "featurettes", "interviews", "scenes", "shorts"));
+  private static final List<String> PLEX_EXTRA_SUFFIXES  = Arrays.asList("-behindthescenes", "-deleted", "-featurette", "-interview", "-scene",
+      "-short");
+  private static final List<String> MOVIESET_ARTWORK     = Arrays.asList("movieset-poster", "movieset-fanart", "movieset-banner", "movieset-disc",
+      "movieset-discart", "movieset-logo", "movieset-clearlogo", "movieset-clearart", "movieset-thumb");
+
+  private MediaFileClassifier() {
+    // hide public constructor for utility classes
+  }
+
+  /**
+   * detect the type of the given file
+   *
+   * @param filename
+   *          the filename (incl. extension)
+   * @param path
+   *          the path of the file (without the filename)
+   * @return the detected MediaFileType
+   */
+  public static MediaFileType parseType(String filename, String path) {
+    String ext = FilenameUtils.getExtension(filename).toLowerCase(Locale.ROOT);
+    String basename = FilenameUtils.getBaseName(filename);
+
+    switch (ext) {
+      case "nfo":
+        return MediaFileType.NFO;
+
+      case "vsmeta":
+        return MediaFileType.VSMETA;
+
+      case "xml":
+        if (basename.endsWith("-mediainfo")) {
+          return MediaFileType.MEDIAINFO;
+        }
+        break;
+
+      default:
+        break;
+    }
+
+    if (IMAGE_EXTENSIONS.contains(ext)) {
+      return parseImageType(filename, path);
+    }
+
+    FileTypeRegistry types = Globals.settings.getFileTypeRegistry();
+    if (types.isAudio(ext)) {
+      return MediaFileType.AUDIO;
+    }
+
+    if (types.isSubtitle(ext)) {
+      return MediaFileType.SUBTITLE;
+    }
+
+    if (types.isVideo(ext)) {
+      return parseVideoType(filename, basename, path);
+    }
+
+    if (ext.equals("txt")) {
+      return MediaFileType.TEXT;
+    }
+
+    return MediaFileType.UNKNOWN;
+  }
+
+  /**
+   * detect the type of a video file (extra, trailer, sample or main video)
+   */
+  private static MediaFileType parseVideoType(String filename, String basename, String path) {
+    String foldername = FilenameUtils.getBaseName(path).toLowerCase(Locale.ROOT);
+
+    // has to fit TV & Movie naming...
+    // old impl: https://github.com/brentosmith/xbmc-dvdextras
+    // Official: http://wiki.xbmc.org/index.php?title=Add-on:VideoExtras#File_Naming_Convention
+    if (filename.contains(".EXTRAS.") // scene file naming (need to check first! upper case!)
+        || endsWithExtra(basename) // end with "-extra[s]"
+        || containsIgnoreCase(basename, "-extra-") || containsIgnoreCase(basename, "-extras-") // extra[s] just with surrounding dash
+        || foldername.equals("extras") || foldername.equals("extra") // preferred folder name
+        || isExtraFolder(getParentFoldername(path)) // extras folder a level deeper
+        || endsWithAny(basename, PLEX_EXTRA_SUFFIXES) // Plex (w/o trailer)
+        || PLEX_EXTRA_FOLDERS.contains(foldername)) // Plex Extra folders
+    {
+      return MediaFileType.VIDEO_EXTRA;
+    }
+
+    // [_.-]*trailer?$ (the r is optional)
+    if (StringUtils.endsWithIgnoreCase(basename, "trailer") || StringUtils.endsWithIgnoreCase(basename, "traile")
+        || foldername.equals("trailer") || foldername.equals("trailers")) {
+      return MediaFileType.TRAILER;
+    }
+
+    // we have some false positives too - make a more precise check
+    if (StringUtils.endsWithIgnoreCase(basename, "sample") // end with sample
+        || foldername.equals("sample")) { // sample folder name
+      return MediaFileType.SAMPLE;
+    }
+
+    return MediaFileType.VIDEO;
+  }
+
+  /**
+   * detect the type of an artwork file
+   *
+   * @param filename
+   *          the filename (incl. extension)
+   * @param path
+   *          the path of the file (without the filename)
+   * @return the detected MediaFileType
+   */
+  public static MediaFileType parseImageType(String filename, String path) {
+    // movieset artwork
+    if (matchesArtwork(filename, ArtworkRule.MOVIESET)) {
+      return MediaFileType.GRAPHIC;
+    }
+
+    // season(XX|-specials)-poster.* or seasonXX.*
+    if (matchesArtwork(filename, ArtworkRule.SEASON_POSTER) || matchesArtwork(filename, ArtworkRule.SEASON)) {
+      return MediaFileType.SEASON_POSTER;
+    }
+
+    // *-poster.* or poster.* or folder.* or movie.*
+    if (matchesArtwork(filename, ArtworkRule.POSTER)) {
+      return MediaFileType.POSTER;
+    }
+
+    // *-fanart.* or fanart.* or *-fanartXX.* or fanartXX.*
+    if (matchesArtwork(filename, ArtworkRule.FANART)) {
+      // decide between fanart and extrafanart
+      if (path.endsWith("extrafanart")) {
+        return MediaFileType.EXTRAFANART;
+      }
+      return MediaFileType.FANART;
+    }
+
+    // *-banner.* or banner.*
+    if (matchesArtwork(filename, ArtworkRule.BANNER)) {
+      return MediaFileType.BANNER;
+    }
+
+    // *-thumb.* or thumb.* or *-thumbXX.* or thumbXX.*
+    if (matchesArtwork(filename, ArtworkRule.THUMB)) {
+      // decide between thumb and extrathumb
+      if (path.endsWith("extrathumbs")) {
+        return MediaFileType.EXTRATHUMB;
+      }
+      return MediaFileType.THUMB;
+    }
+
+    // clearart.*
+    if (matchesArtwork(filename, ArtworkRule.CLEARART)) {
+      return MediaFileType.CLEARART;
+    }
+
+    // logo.*
+    if (matchesArtwork(filename, ArtworkRule.LOGO)) {
+      return MediaFileType.LOGO;
+    }
+
+    // clearlogo.*
+    if (matchesArtwork(filename, ArtworkRule.CLEARLOGO)) {
+      return MediaFileType.CLEARLOGO;
+    }
+
+    // discart.* - be careful: disc.avi would be valid!
+    int dot = filename.lastIndexOf('.');
+    if (dot > 0 && DISCART_EXTENSIONS.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT))
+        && ArtworkRule.DISCART.matches(filename, dot)) {
+      return MediaFileType.DISCART;
+    }
+
+    return MediaFileType.GRAPHIC;
+  }
+
+  /**
+   * checks the artwork rule for the name part in front of an extension with 2-4 chars (like <name>\..{2,4})
+   */
+  private static boolean matchesArtwork(String filename, ArtworkRule rule) {
+    int length = filename.length();
+    for (int extLength = 2; extLength <= 4; extLength++) {
+      int dot = length - extLength - 1;
+      if (dot >= 0 && filename.charAt(dot) == '.' && rule.matches(filename, dot)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * the rules for the artwork names; every rule checks the region [0, end) of the filename (case insensitive)
+   */
+  private enum ArtworkRule {
+    MOVIESET {
+      @Override
+      boolean matches(String name, int end) {
+        for (String artwork : MOVIESET_ARTWORK) {
+          if (end == artwork.length() && name.regionMatches(true, 0, artwork, 0, end)) {
+            return true;
+          }
+        }
+        return false;
+      }
+    },
+    SEASON_POSTER {
+      @Override
+      boolean matches(String name, int end) {
+        // season([0-9]{0,2}|-specials)-poster
+        if (!startsWith(name, end, "season") || !endsWith(name, end, "-poster")) {
+          return false;
+        }
+        int middleStart = 6;
+        int middleEnd = end - 7;
+        if (middleEnd < middleStart) {
+          return false;
+        }
+        return isDigits(name, middleStart, middleEnd, 0, 2) || (middleEnd - middleStart == 9 && name.regionMatches(true, middleStart, "-specials", 0, 9));
+      }
+    },
+    SEASON {
+      @Override
+      boolean matches(String name, int end) {
+        // season[0-9]{0,2}
+        return startsWith(name, end, "season") && isDigits(name, 6, end, 0, 2);
+      }
+    },
+    POSTER {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-poster") || isEqual(name, end, "poster") || isEqual(name, end, "folder") || isEqual(name, end, "movie")
+            || endsWith(name, end, "-cover") || isEqual(name, end, "cover");
+      }
+    },
+    FANART {
+      @Override
+      boolean matches(String name, int end) {
+        // (.*-fanart|.*\.fanart|fanart)[0-9]{0,2}
+        for (int digits = 0; digits <= 2 && digits <= end; digits++) {
+          if (digits > 0 && !Character.isDigit(name.charAt(end - digits))) {
+            break;
+          }
+          int coreEnd = end - digits;
+          if (endsWith(name, coreEnd, "-fanart") || endsWith(name, coreEnd, ".fanart") || isEqual(name, coreEnd, "fanart")) {
+            return true;
+          }
+        }
+        return false;
+      }
+    },
+    BANNER {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-banner") || isEqual(name, end, "banner");
+      }
+    },
+    THUMB {
+      @Override
+      boolean matches(String name, int end) {
+        // (.*-thumb|thumb)[0-9]{0,2}
+        for (int digits = 0; digits <= 2 && digits <= end; digits++) {
+          if (digits > 0 && !Character.isDigit(name.charAt(end - digits))) {
+            break;
+          }
+          int coreEnd = end - digits;
+          if (endsWith(name, coreEnd, "-thumb") || isEqual(name, coreEnd, "thumb")) {
+            return true;
+          }
+        }
+        return false;
+      }
+    },
+    CLEARART {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-clearart") || isEqual(name, end, "clearart");
+      }
+    },
+    LOGO {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-logo") || isEqual(name, end, "logo");
+      }
+    },
+    CLEARLOGO {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-clearlogo") || isEqual(name, end, "clearlogo");
+      }
+    },
+    DISCART {
+      @Override
+      boolean matches(String name, int end) {
+        return endsWith(name, end, "-discart") || isEqual(name, end, "discart") || endsWith(name, end, "-disc") || isEqual(name, end, "disc");
+      }
+    };
+
+    abstract boolean matches(String name, int end);
+  }
+
+  private static boolean startsWith(String name, int end, String prefix) {
+    return end >= prefix.length() && name.regionMatches(true, 0, prefix, 0, prefix.length());
+  }
+
+  private static boolean endsWith(String name, int end, String suffix) {
+    return end >= suffix.length() && name.regionMatches(true, end - suffix.length(), suffix, 0, suffix.length());
+  }
+
+  private static boolean isEqual(String name, int end, String other) {
+    return end == other.length() && name.regionMatches(true, 0, other, 0, end);
+  }
+
+  /**
+   * are all chars in [start, end) digits and is the count between min and max?
+   */
+  private static boolean isDigits(String name, int start, int end, int min, int max) {
+    int count = end - start;
+    if (count < min || count > max) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      char c = name.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * [_.-]+extra[s]?$
+   */
+  private static boolean endsWithExtra(String basename) {
+    int length = basename.length();
+    if (StringUtils.endsWithIgnoreCase(basename, "extras") && length > 6 && isDelimiter(basename.charAt(length - 7))) {
+      return true;
+    }
+    return StringUtils.endsWithIgnoreCase(basename, "extra") && length > 5 && isDelimiter(basename.charAt(length - 6));
+  }
+
+  private static boolean isDelimiter(char c) {
+    return c == '_' || c == '.' || c == '-';
+  }
+
+  private static boolean containsIgnoreCase(String string, String search) {
+    int max = string.length() - search.length();
+    for (int i = 0; i <= max; i++) {
+      if (string.regionMatches(true, i, search, 0, search.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean endsWithAny(String string, Collection<String> suffixes) {
+    for (String suffix : suffixes) {
+      if (StringUtils.endsWithIgnoreCase(string, suffix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isExtraFolder(String foldername) {
+    return foldername.equals("extra") || foldername.equals("extras");
+  }
+
+  /**
+   * get the (lower cased) name of the parent folder of the given path
+   */
+  private static String getParentFoldername(String path) {
+    try {
+      Path parent = Paths.get(path).toAbsolutePath().getParent();
+      if (parent != null) {
+        return FilenameUtils.getBaseName(parent.toString()).toLowerCase(Locale.ROOT);
+      }
+    }
+    catch (Exception ignored) {
+      // could happen if we are no 2 levels deep
+    }
+    return "";
+  }
+}
@@ -17,31 +17,46 @@ package org.tinymediamanager.core;
 
 import static org.tinymediamanager.core.Constants.MEDIA_INFORMATION;
 
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.entities.MediaEntity;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.movie.entities.Movie;
+import org.tinymediamanager.core.threading.ThroughputMeter;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
 
 /**
- * The Class MediaFileInformationFetcherTask.
+ * The Class MediaFileInformationFetcherTask.<br>
+ * The native mediainfo calls are limited by a global amount of concurrent handles and a maximum of concurrent calls per device (to not let
+ * several threads seek on the same disk/share)
  * 
  * @author Manuel Laggner
  */
 public class MediaFileInformationFetcherTask implements Callable<Object> {
-  private final static Logger LOGGER      = LoggerFactory.getLogger(MediaFileInformationFetcherTask.class);
+  private final static Logger                 LOGGER            = LoggerFactory.getLogger(MediaFileInformationFetcherTask.class);
+  private final static Map<String, Semaphore> DEVICE_SEMAPHORES = new ConcurrentHashMap<>();
+  private static Semaphore                    nativeSemaphore   = null;
+  private static int                          nativePermits     = 0;
+  private static int                          devicePermits     = 0;
 
-  private List<MediaFile>     mediaFiles;
-  private MediaEntity         mediaEntity;
-  private long                uniqueId;
-  private boolean             forceUpdate = false;
+  private List<MediaFile>                     mediaFiles;
+  private MediaEntity                         mediaEntity;
+  private long                                uniqueId;
+  private boolean                             forceUpdate       = false;
+  private ThroughputMeter                     throughputMeter   = null;
 
   /**
    * Instantiates a new media file information fetcher task.
@@ -61,6 +76,23 @@ public class MediaFileInformationFetcherTask implements Callable<Object> {
     this.uniqueId = TmmTaskManager.getInstance().GLOB_THRD_CNT.incrementAndGet();
   }
 
+  /**
+   * Instantiates a new media file information fetcher task, which reports the processed files to the given throughput meter.
+   * 
+   * @param mediaFile
+   *          the media files
+   * @param mediaEntity
+   *          the media entity
+   * @param forceUpdate
+   *          force an update
+   * @param throughputMeter
+   *          the throughput meter to report to
+   */
+  public MediaFileInformationFetcherTask(MediaFile mediaFile, MediaEntity mediaEntity, boolean forceUpdate, ThroughputMeter throughputMeter) {
+    this(mediaFile, mediaEntity, forceUpdate);
+    this.throughputMeter = throughputMeter;
+  }
+
   /**
    * Instantiates ONE new media file information fetcher task for ALL files<br>
    * better to submit one file after another.. for status bar et all
@@ -92,7 +124,24 @@ public class MediaFileInformationFetcherTask implements Callable<Object> {
       Thread.currentThread().setName(name);
 
       for (MediaFile mediaFile : mediaFiles) {
-        mediaFile.gatherMediaInformation(forceUpdate);
+        // the order of acquiring is important to avoid dead locks: first the device, then the native handle
+        Semaphore deviceSemaphore = getDeviceSemaphore(mediaFile.getFileAsPath());
+        deviceSemaphore.acquireUninterruptibly();
+        Semaphore handleSemaphore = getNativeSemaphore();
+        handleSemaphore.acquireUninterruptibly();
+        try {
+          mediaFile.gatherMediaInformation(forceUpdate);
+        }
+        finally {
+          handleSemaphore.release();
+          deviceSemaphore.release();
+        }
+
+        if (throughputMeter != null) {
+          // prefer the real amount of read bytes if known
+          long bytesRead = mediaFile.getMediaInfoBytesRead();
+          throughputMeter.add(bytesRead >= 0 ? bytesRead : mediaFile.getFilesize());
+        }
         if (mediaEntity != null && mediaEntity instanceof Movie && mediaFile.hasSubtitles()) {
           Movie movie = (Movie) mediaEntity;
           movie.setSubtitles(true);
@@ -117,4 +166,41 @@ public class MediaFileInformationFetcherTask implements Callable<Object> {
 
     return "getting MediaInfo";
   }
+
+  /**
+   * get the semaphore limiting the concurrent native mediainfo handles. If the setting has been changed, a new semaphore will be created (running
+   * calls release their permit to the old one)
+   */
+  private static synchronized Semaphore getNativeSemaphore() {
+    int permits = Math.max(1, Globals.settings.getMediaInfoThreads());
+    if (nativeSemaphore == null || nativePermits != permits) {
+      nativeSemaphore = new Semaphore(permits, true);
+      nativePermits = permits;
+    }
+    return nativeSemaphore;
+  }
+
+  /**
+   * get the semaphore limiting the concurrent mediainfo calls on the device (file store) of the given file
+   */
+  private static synchronized Semaphore getDeviceSemaphore(Path file) {
+    int permits = Math.max(1, Globals.settings.getMediaInfoThreadsPerDevice());
+    if (devicePermits != permits) {
+      DEVICE_SEMAPHORES.clear();
+      devicePermits = permits;
+    }
+    return DEVICE_SEMAPHORES.computeIfAbsent(getDeviceKey(file), key -> new Semaphore(permits, true));
+  }
+
+  private static String getDeviceKey(Path file) {
+    try {
+      FileStore store = Files.getFileStore(file);
+      return store.toString();
+    }
+    catch (Exception e) {
+      // file store not available (e.g. file vanished) - fall back to the root
+      Path root = file.getRoot();
+      return root != null ? root.toString() : "";
+    }
+  }
 }
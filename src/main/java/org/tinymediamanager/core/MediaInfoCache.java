@@ -0,0 +1,331 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The class MediaInfoCache - a persistent cache for mediainfo snapshots.<br>
+ * Entries are keyed by the file identity (size, last modified and a hash of the first/last bytes), so the snapshot survives removing/re-adding a
+ * movie or renaming its folder outside of tmm.
+ *
+ * @author Manuel Laggner
+ */
+public class MediaInfoCache {
+  private static final Logger                                                    LOGGER     = LoggerFactory.getLogger(MediaInfoCache.class);
+  private static final Path                                                      CACHE_FILE = Paths.get("cache/mediainfo.db");
+  private static final int                                                       HASH_CHUNK = 64 * 1024;
+  private static final TypeReference<Map<StreamKind, List<Map<String, String>>>> SNAPSHOT   = new TypeReference<Map<StreamKind, List<Map<String, String>>>>() {
+                                                                                            };
+  private static MediaInfoCache                                                  instance;
+
+  private final Path                                                             cacheFile;
+  private final ObjectMapper                                                     objectMapper;
+  private final AtomicLong                                                       hits       = new AtomicLong();
+  private final AtomicLong                                                       misses     = new AtomicLong();
+  private final AtomicLong                                                       evictions  = new AtomicLong();
+
+  private MVStore                                                                mvStore;
+  private MVMap<String, String>                                                  snapshotMap;
+  private MVMap<String, Long>                                                    accessMap;
+  private MVMap<String, String>                                                  orderMap;
+
+  MediaInfoCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+    this.objectMapper = new ObjectMapper();
+  }
+
+  public static synchronized MediaInfoCache getInstance() {
+    if (instance == null) {
+      instance = new MediaInfoCache(CACHE_FILE);
+    }
+    return instance;
+  }
+
+  /**
+   * is the cache enabled (a max size > 0 has been set)?
+   *
+   * @return true/false
+   */
+  public boolean isEnabled() {
+    return Globals.settings.getMediaInfoCacheSize() > 0;
+  }
+
+  /**
+   * get the cache key for the given file; the key has to be created only once per file and can be used for {@link #getSnapshot(String)} and
+   * {@link #putSnapshot(String, Map)}
+   *
+   * @param file
+   *          the file to get the key for
+   * @param filesize
+   *          the size of the file
+   * @param filedate
+   *          the last modified date of the file
+   * @return the key or null if the cache is disabled or the file cannot be read
+   */
+  public String getKey(Path file, long filesize, long filedate) {
+    if (!isEnabled() || filesize == 0) {
+      return null;
+    }
+    return createKey(file, filesize, filedate);
+  }
+
+  /**
+   * get the cached snapshot for the given key
+   *
+   * @param key
+   *          the key of the file (see {@link #getKey(Path, long, long)})
+   * @return the snapshot or null if there is no cached entry
+   */
+  public Map<StreamKind, List<Map<String, String>>> getSnapshot(String key) {
+    if (key == null) {
+      return null;
+    }
+
+    try {
+      String json;
+      synchronized (this) {
+        json = getSnapshotMap().get(key);
+        if (json != null) {
+          touch(key);
+        }
+      }
+      if (json != null) {
+        hits.incrementAndGet();
+        LOGGER.trace("mediainfo cache hit for " + key);
+        return objectMapper.readValue(json, SNAPSHOT);
+      }
+    }
+    catch (Exception e) {
+      LOGGER.warn("could not read mediainfo cache entry " + key + ": " + e.getMessage());
+    }
+
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * store the snapshot for the given key
+   *
+   * @param key
+   *          the key of the file (see {@link #getKey(Path, long, long)})
+   * @param snapshot
+   *          the snapshot to store
+   */
+  public void putSnapshot(String key, Map<StreamKind, List<Map<String, String>>> snapshot) {
+    if (key == null || snapshot == null || snapshot.isEmpty()) {
+      return;
+    }
+
+    try {
+      String json = objectMapper.writeValueAsString(snapshot);
+      synchronized (this) {
+        getSnapshotMap().put(key, json);
+        touch(key);
+        evictIfNeeded();
+      }
+    }
+    catch (Exception e) {
+      LOGGER.warn("could not write mediainfo cache entry " + key + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * update the last access of the given key; the access order map is sorted by the access time, so the least recently used entries can be found
+   * without sorting
+   */
+  private void touch(String key) {
+    long now = System.currentTimeMillis();
+    Long previous = accessMap.put(key, now);
+    if (previous != null) {
+      orderMap.remove(createOrderKey(previous, key));
+    }
+    orderMap.put(createOrderKey(now, key), key);
+  }
+
+  private static String createOrderKey(long access, String key) {
+    return String.format(Locale.ROOT, "%016x_%s", access, key);
+  }
+
+  /**
+   * removes the least recently used entries if the cache grew above its max size. We evict down to 90% of the max size to avoid evicting on every
+   * put
+   */
+  private synchronized void evictIfNeeded() {
+    int maxSize = Globals.settings.getMediaInfoCacheSize();
+    if (snapshotMap.size() <= maxSize) {
+      return;
+    }
+
+    int toRemove = snapshotMap.size() - (maxSize * 9 / 10);
+    List<String> orderKeys = new ArrayList<>(toRemove);
+    Iterator<String> iterator = orderMap.keyIterator(null);
+    while (orderKeys.size() < toRemove && iterator.hasNext()) {
+      orderKeys.add(iterator.next());
+    }
+
+    for (String orderKey : orderKeys) {
+      String key = orderMap.remove(orderKey);
+      snapshotMap.remove(key);
+      accessMap.remove(key);
+      evictions.incrementAndGet();
+    }
+    LOGGER.debug("evicted " + orderKeys.size() + " entries from the mediainfo cache");
+  }
+
+  /**
+   * creates the cache key out of file size, last modified date and a MD5 hash of the first and last 64KB of the file
+   */
+  private String createKey(Path file, long filesize, long filedate) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MessageDigest md = DigestUtils.getMd5Digest();
+      ByteBuffer buffer = ByteBuffer.allocate(HASH_CHUNK);
+
+      readChunk(channel, 0, buffer);
+      md.update(buffer);
+
+      if (filesize > HASH_CHUNK) {
+        buffer.clear();
+        readChunk(channel, Math.max(HASH_CHUNK, filesize - HASH_CHUNK), buffer);
+        md.update(buffer);
+      }
+
+      return filesize + "_" + filedate + "_" + new String(Hex.encodeHex(md.digest()));
+    }
+    catch (IOException e) {
+      LOGGER.debug("could not create mediainfo cache key for " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  private void readChunk(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        break;
+      }
+      position += read;
+    }
+    buffer.flip();
+  }
+
+  private synchronized MVMap<String, String> getSnapshotMap() {
+    if (mvStore == null) {
+      try {
+        Files.createDirectories(cacheFile.getParent());
+      }
+      catch (IOException e) {
+        LOGGER.warn("could not create cache dir " + cacheFile.getParent() + " - " + e.getMessage());
+      }
+
+      mvStore = new MVStore.Builder().fileName(cacheFile.toString()).compress()
+          .backgroundExceptionHandler((t, e) -> LOGGER.error("Error in the background thread of the mediainfo cache", e)).autoCommitBufferSize(4096)
+          .open();
+      mvStore.setAutoCommitDelay(2000); // 2 sec
+      mvStore.setRetentionTime(0);
+      mvStore.setReuseSpace(true);
+
+      snapshotMap = mvStore.openMap("snapshots");
+      accessMap = mvStore.openMap("lastAccess");
+      orderMap = mvStore.openMap("accessOrder");
+
+      // caches written by older versions have no access order
+      if (orderMap.isEmpty() && !accessMap.isEmpty()) {
+        for (Map.Entry<String, Long> entry : accessMap.entrySet()) {
+          orderMap.put(createOrderKey(entry.getValue(), entry.getKey()), entry.getKey());
+        }
+      }
+    }
+    return snapshotMap;
+  }
+
+  /**
+   * get a human readable statistic of this cache
+   *
+   * @return the statistics
+   */
+  public synchronized String getStatistics() {
+    long h = hits.get();
+    long m = misses.get();
+    long ratio = h + m > 0 ? h * 100 / (h + m) : 0;
+    int size = snapshotMap != null ? snapshotMap.size() : 0;
+    return "entries: " + size + ", hits: " + h + ", misses: " + m + " (" + ratio + "% hit ratio), evictions: " + evictions.get();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * removes all entries from the cache
+   */
+  public synchronized void clear() {
+    getSnapshotMap().clear();
+    accessMap.clear();
+    orderMap.clear();
+    hits.set(0);
+    misses.set(0);
+    evictions.set(0);
+  }
+
+  /**
+   * closes the underlying store; it will be re-opened on the next access
+   */
+  public synchronized void close() {
+    if (mvStore != null) {
+      LOGGER.info("mediainfo cache statistics - " + getStatistics());
+      mvStore.compactMoveChunks();
+      mvStore.close();
+      mvStore = null;
+      snapshotMap = null;
+      accessMap = null;
+      orderMap = null;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The class NfoUtils. Helpers for reading and writing NFO files: JAXB marshallers/unmarshallers are expensive to create, so they are cached per
+ * thread and context; the root element of an NFO can be sniffed out of the first bytes of the file without parsing the whole document
+ *
+ * @author Manuel Laggner
+ */
+public class NfoUtils {
+  private static final Logger                                      LOGGER        = LoggerFactory.getLogger(NfoUtils.class);
+  private static final int                                         SNIFF_LENGTH  = 1024;
+  private static final XMLInputFactory                             FACTORY       = createFactory();
+  private static final Pattern                                     TMM_COMMENT   = Pattern
+      .compile("<!-- created on [^>]* - tinyMediaManager [^>]*-->");
+
+  private static final ThreadLocal<Map<JAXBContext, Unmarshaller>> UNMARSHALLERS = ThreadLocal.withInitial(IdentityHashMap::new);
+  private static final ThreadLocal<Map<JAXBContext, Marshaller>>   MARSHALLERS   = ThreadLocal.withInitial(IdentityHashMap::new);
+
+  private NfoUtils() {
+    // hide public constructor for utility classes
+  }
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    return factory;
+  }
+
+  /**
+   * get the unmarshaller of the current thread for the given context. The unmarshaller must not be handed over to another thread
+   *
+   * @param context
+   *          the JAXB context
+   * @return the (cached) unmarshaller
+   * @throws JAXBException
+   *           any exception while creating the unmarshaller
+   */
+  public static Unmarshaller getUnmarshaller(JAXBContext context) throws JAXBException {
+    Map<JAXBContext, Unmarshaller> unmarshallers = UNMARSHALLERS.get();
+    Unmarshaller um = unmarshallers.get(context);
+    if (um == null) {
+      um = context.createUnmarshaller();
+      unmarshallers.put(context, um);
+    }
+    return um;
+  }
+
+  /**
+   * get the marshaller of the current thread for the given context. The marshaller must not be handed over to another thread
+   *
+   * @param context
+   *          the JAXB context
+   * @return the (cached) marshaller
+   * @throws JAXBException
+   *           any exception while creating the marshaller
+   */
+  public static Marshaller getMarshaller(JAXBContext context) throws JAXBException {
+    Map<JAXBContext, Marshaller> marshallers = MARSHALLERS.get();
+    Marshaller m = marshallers.get(context);
+    if (m == null) {
+      m = context.createMarshaller();
+      marshallers.put(context, m);
+    }
+    return m;
+  }
+
+  /**
+   * detect the name of the root element of the given NFO file by reading only the first bytes of it
+   *
+   * @param nfoFile
+   *          the NFO file
+   * @return the name of the root element or an empty string if the file does not start with a well formed XML element (plain text NFOs, leading
+   *         garbage, ...)
+   */
+  public static String detectRootElement(Path nfoFile) {
+    byte[] buffer = new byte[SNIFF_LENGTH];
+    int length = 0;
+    try (InputStream is = Files.newInputStream(nfoFile)) {
+      int read;
+      while (length < buffer.length && (read = is.read(buffer, length, buffer.length - length)) > 0) {
+        length += read;
+      }
+    }
+    catch (IOException e) {
+      LOGGER.debug("could not read NFO " + nfoFile + ": " + e.getMessage());
+      return "";
+    }
+    return detectRootElement(buffer, length);
+  }
+
+  /**
+   * detect the name of the root element out of the given (maybe truncated) XML
+   *
+   * @param xml
+   *          the bytes of the XML
+   * @param length
+   *          the amount of valid bytes
+   * @return the name of the root element or an empty string if there is no well formed start element
+   */
+  static String detectRootElement(byte[] xml, int length) {
+    XMLStreamReader reader = null;
+    try {
+      reader = FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml, 0, length));
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          return reader.getLocalName();
+        }
+        if (event == XMLStreamConstants.CHARACTERS && !reader.isWhiteSpace()) {
+          // text before the root element
+          return "";
+        }
+      }
+    }
+    catch (XMLStreamException | RuntimeException e) {
+      // not (yet) well formed
+    }
+    finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        }
+        catch (XMLStreamException ignored) {
+        }
+      }
+    }
+    return "";
+  }
+
+  /**
+   * write the NFO to the given file - but only if the content differs from the existing file. The "created on" comment of tinyMediaManager is
+   * not taken into account, so an unchanged NFO is neither rewritten nor gets a new file date
+   *
+   * @param file
+   *          the NFO file
+   * @param content
+   *          the rendered NFO
+   * @return true if the file has been written, false if the existing file is unchanged
+   * @throws IOException
+   *           any exception while writing the file
+   */
+  public static boolean writeNfoIfChanged(Path file, CharSequence content) throws IOException {
+    String nfo = content.toString();
+    byte[] bytes = nfo.getBytes(StandardCharsets.UTF_8);
+    if (isUnchanged(file, nfo, bytes.length)) {
+      LOGGER.debug("NFO unchanged - skip writing " + file);
+      return false;
+    }
+    Files.write(file, bytes);
+    return true;
+  }
+
+  private static boolean isUnchanged(Path file, String content, int length) {
+    if (!Files.isRegularFile(file)) {
+      return false;
+    }
+    try {
+      // the comment has a fixed length as long as the version does not change; so a different size means a different content
+      if (Files.size(file) != length) {
+        return false;
+      }
+      String existing = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+      return TMM_COMMENT.matcher(existing).replaceAll("").equals(TMM_COMMENT.matcher(content).replaceAll(""));
+    }
+    catch (IOException e) {
+      return false;
+    }
+  }
+}
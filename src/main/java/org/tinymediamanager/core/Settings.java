@@ -161,6 +161,24 @@ public class Settings extends AbstractModelObject {
   private boolean                     upnpShareLibrary            = false;
   private boolean                     upnpRemotePlay              = false;
   private boolean                     ignoreSSLProblems           = false;
+  private int                         mediaInfoCacheSize          = 50000;
+  private int                         mediaInfoThreads            = 4;
+  private int                         mediaInfoThreadsPerDevice   = 2;
+  private int                         mediaInfoReadBudget         = 0;
+  private int                         mediaInfoReadBufferSize     = 1024;
+  private int                         nfoWriterThreads            = 2;
+  private int                         nfoWriterQueueSize          = 1000;
+  private boolean                     preferMediaInfoSidecar      = false;
+  private int                         imageCacheThreads           = 4;
+  private int                         imageCacheMemoryBudget      = 256;
+  private int                         imageCacheMaxSize           = 2048;
+  private int                         imageMemoryCacheSize        = 64;
+  private boolean                     artworkStore                = false;
+  private boolean                     conditionalArtworkDownload  = true;
+  private int                         imageDownloadThreads        = 3;
+  private int                         imageDownloadThreadsPerHost = 2;
+
+  private volatile FileTypeRegistry   fileTypeRegistry            = null;
 
   /**
    * Instantiates a new settings.
@@ -174,6 +192,20 @@ public class Settings extends AbstractModelObject {
     };
     addPropertyChangeListener(propertyChangeListener);
 
+    // rebuild the file type registry (on the next access) if the file types have been changed
+    addPropertyChangeListener(evt -> {
+      switch (evt.getPropertyName()) {
+        case VIDEO_FILE_TYPE:
+        case AUDIO_FILE_TYPE:
+        case SUBTITLE_FILE_TYPE:
+          fileTypeRegistry = null;
+          break;
+
+        default:
+          break;
+      }
+    });
+
     // default values
     movieSettings = new MovieSettings();
     movieSettings.addPropertyChangeListener(propertyChangeListener);
@@ -462,6 +494,21 @@ public class Settings extends AbstractModelObject {
     return subtitleFileTypes;
   }
 
+  /**
+   * get the registry of the configured file types (lower cased extension sets for fast lookups)
+   *
+   * @return the file type registry
+   */
+  @XmlTransient
+  public FileTypeRegistry getFileTypeRegistry() {
+    FileTypeRegistry registry = fileTypeRegistry;
+    if (registry == null) {
+      registry = new FileTypeRegistry(videoFileTypes, audioFileTypes, subtitleFileTypes);
+      fileTypeRegistry = registry;
+    }
+    return registry;
+  }
+
   /**
    * Convenience method to get all supported file extensions
    * 
@@ -1191,4 +1238,248 @@ public class Settings extends AbstractModelObject {
   public boolean isDeleteTrashOnExit() {
     return deleteTrashOnExit;
   }
+
+  /**
+   * the maximum amount of entries in the persistent mediainfo cache (0 = disabled)
+   *
+   * @return the max amount of cached mediainfo snapshots
+   */
+  public int getMediaInfoCacheSize() {
+    return mediaInfoCacheSize;
+  }
+
+  public void setMediaInfoCacheSize(int newValue) {
+    int oldValue = this.mediaInfoCacheSize;
+    this.mediaInfoCacheSize = newValue;
+    firePropertyChange("mediaInfoCacheSize", oldValue, newValue);
+  }
+
+  /**
+   * the maximum amount of concurrent native mediainfo handles (over all tasks)
+   *
+   * @return the max amount of concurrent mediainfo calls
+   */
+  public int getMediaInfoThreads() {
+    return mediaInfoThreads;
+  }
+
+  public void setMediaInfoThreads(int newValue) {
+    int oldValue = this.mediaInfoThreads;
+    this.mediaInfoThreads = newValue;
+    firePropertyChange("mediaInfoThreads", oldValue, newValue);
+  }
+
+  /**
+   * the maximum amount of concurrent mediainfo calls on the same device (disk/share)
+   *
+   * @return the max amount of concurrent mediainfo calls per device
+   */
+  public int getMediaInfoThreadsPerDevice() {
+    return mediaInfoThreadsPerDevice;
+  }
+
+  public void setMediaInfoThreadsPerDevice(int newValue) {
+    int oldValue = this.mediaInfoThreadsPerDevice;
+    this.mediaInfoThreadsPerDevice = newValue;
+    firePropertyChange("mediaInfoThreadsPerDevice", oldValue, newValue);
+  }
+
+  /**
+   * the maximum amount of megabytes mediainfo may read per file (0 = let mediainfo read the file itself). Capping the reads is useful for slow
+   * network shares
+   *
+   * @return the read budget in MB
+   */
+  public int getMediaInfoReadBudget() {
+    return mediaInfoReadBudget;
+  }
+
+  public void setMediaInfoReadBudget(int newValue) {
+    int oldValue = this.mediaInfoReadBudget;
+    this.mediaInfoReadBudget = newValue;
+    firePropertyChange("mediaInfoReadBudget", oldValue, newValue);
+  }
+
+  /**
+   * the size of the read buffer (in KB) if the mediainfo read budget is active
+   *
+   * @return the buffer size in KB
+   */
+  public int getMediaInfoReadBufferSize() {
+    return mediaInfoReadBufferSize;
+  }
+
+  public void setMediaInfoReadBufferSize(int newValue) {
+    int oldValue = this.mediaInfoReadBufferSize;
+    this.mediaInfoReadBufferSize = newValue;
+    firePropertyChange("mediaInfoReadBufferSize", oldValue, newValue);
+  }
+
+  /**
+   * the amount of threads writing the queued NFOs (NFO writing is pure I/O, so NAS targets may benefit from more threads)
+   *
+   * @return the amount of NFO writer threads
+   */
+  public int getNfoWriterThreads() {
+    return nfoWriterThreads;
+  }
+
+  public void setNfoWriterThreads(int newValue) {
+    int oldValue = this.nfoWriterThreads;
+    this.nfoWriterThreads = newValue;
+    firePropertyChange("nfoWriterThreads", oldValue, newValue);
+  }
+
+  /**
+   * the maximum amount of queued NFO writes; if the queue is full, the NFO is written in the calling thread
+   *
+   * @return the queue size
+   */
+  public int getNfoWriterQueueSize() {
+    return nfoWriterQueueSize;
+  }
+
+  public void setNfoWriterQueueSize(int newValue) {
+    int oldValue = this.nfoWriterQueueSize;
+    this.nfoWriterQueueSize = newValue;
+    firePropertyChange("nfoWriterQueueSize", oldValue, newValue);
+  }
+
+  /**
+   * take the media information out of the mediainfo XML next to the video file (xxx-mediainfo.xml; e.g. exported by a NAS) rather than calling
+   * the native mediainfo - if the XML is newer than the video file
+   *
+   * @return true if the sidecar XML is preferred
+   */
+  public boolean isPreferMediaInfoSidecar() {
+    return preferMediaInfoSidecar;
+  }
+
+  public void setPreferMediaInfoSidecar(boolean newValue) {
+    boolean oldValue = this.preferMediaInfoSidecar;
+    this.preferMediaInfoSidecar = newValue;
+    firePropertyChange("preferMediaInfoSidecar", oldValue, newValue);
+  }
+
+  /**
+   * the amount of threads building the image cache
+   *
+   * @return the amount of image cache threads
+   */
+  public int getImageCacheThreads() {
+    return imageCacheThreads;
+  }
+
+  public void setImageCacheThreads(int newValue) {
+    int oldValue = this.imageCacheThreads;
+    this.imageCacheThreads = newValue;
+    firePropertyChange("imageCacheThreads", oldValue, newValue);
+  }
+
+  /**
+   * the heap (in MB) all images being decoded/scaled for the image cache may use at the same time; large images reduce the amount of images
+   * processed in parallel
+   *
+   * @return the memory budget in MB
+   */
+  public int getImageCacheMemoryBudget() {
+    return imageCacheMemoryBudget;
+  }
+
+  public void setImageCacheMemoryBudget(int newValue) {
+    int oldValue = this.imageCacheMemoryBudget;
+    this.imageCacheMemoryBudget = newValue;
+    firePropertyChange("imageCacheMemoryBudget", oldValue, newValue);
+  }
+
+  /**
+   * the max size (in MB) of the image cache on disk; the least recently used images are evicted if the cache grows above. 0 = no limit
+   *
+   * @return the max size of the image cache in MB
+   */
+  public int getImageCacheMaxSize() {
+    return imageCacheMaxSize;
+  }
+
+  public void setImageCacheMaxSize(int newValue) {
+    int oldValue = this.imageCacheMaxSize;
+    this.imageCacheMaxSize = newValue;
+    firePropertyChange("imageCacheMaxSize", oldValue, newValue);
+  }
+
+  /**
+   * the max size (in MB) of the decoded and scaled images kept in memory by the UI
+   *
+   * @return the size of the in memory image cache in MB
+   */
+  public int getImageMemoryCacheSize() {
+    return imageMemoryCacheSize;
+  }
+
+  public void setImageMemoryCacheSize(int newValue) {
+    int oldValue = this.imageMemoryCacheSize;
+    this.imageMemoryCacheSize = newValue;
+    firePropertyChange("imageMemoryCacheSize", oldValue, newValue);
+  }
+
+  /**
+   * download artwork used by many entities (actor images, movie set artwork, season posters) only once into the artwork store and link/copy
+   * it from there
+   *
+   * @return true if the artwork store is used
+   */
+  public boolean isArtworkStore() {
+    return artworkStore;
+  }
+
+  public void setArtworkStore(boolean newValue) {
+    boolean oldValue = this.artworkStore;
+    this.artworkStore = newValue;
+    firePropertyChange("artworkStore", oldValue, newValue);
+  }
+
+  /**
+   * re-download artwork with conditional requests (ETag/Last-Modified), so unchanged artwork is neither transferred nor rewritten
+   *
+   * @return true if artwork is downloaded conditionally
+   */
+  public boolean isConditionalArtworkDownload() {
+    return conditionalArtworkDownload;
+  }
+
+  public void setConditionalArtworkDownload(boolean newValue) {
+    boolean oldValue = this.conditionalArtworkDownload;
+    this.conditionalArtworkDownload = newValue;
+    firePropertyChange("conditionalArtworkDownload", oldValue, newValue);
+  }
+
+  /**
+   * the amount of threads downloading artwork
+   *
+   * @return the amount of image download threads
+   */
+  public int getImageDownloadThreads() {
+    return imageDownloadThreads;
+  }
+
+  public void setImageDownloadThreads(int newValue) {
+    int oldValue = this.imageDownloadThreads;
+    this.imageDownloadThreads = newValue;
+    firePropertyChange("imageDownloadThreads", oldValue, newValue);
+  }
+
+  /**
+   * the max amount of concurrent artwork downloads from the same host
+   *
+   * @return the amount of image download threads per host
+   */
+  public int getImageDownloadThreadsPerHost() {
+    return imageDownloadThreadsPerHost;
+  }
+
+  public void setImageDownloadThreadsPerHost(int newValue) {
+    int oldValue = this.imageDownloadThreadsPerHost;
+    this.imageDownloadThreadsPerHost = newValue;
+    firePropertyChange("imageDownloadThreadsPerHost", oldValue, newValue);
+  }
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core;
+
+/**
+ * The class StackingMatcher. Detects the stacking (multipart) information of file and folder names in one single pass from the end of the name.
+ * <br>
+ * The result is the same as trying the former regular expressions one after another (see
+ * http://kodi.wiki/view/Advancedsettings.xml#moviestacking):<br>
+ * - files: <code>(title)[ _.-]+(cd|dvd|pt|part|disc|disk[ _.-]*[1-9])(.ext)</code>, then the same with <code>[a-d]</code>, then
+ * <code>(title)[_.-]+([a-d])(.ext)</code>, then <code>(title)[ (_.-]+([1-9][ .]?of[ .]?[1-9])[ )_-]?(.ext)</code><br>
+ * - folders: <code>(title)[ _.-]*(cd|dvd|pt|part|disc|disk[ _.-]*[1-9])</code>
+ *
+ * @author Manuel Laggner
+ */
+public final class StackingMatcher {
+  private static final String[] KEYWORDS          = { "cd", "dvd", "pt", "part", "disc", "disk" };
+  private static final String   DELIMITERS        = " _.-";
+  private static final String   LETTER_DELIMITERS = "_.-";
+  private static final String   OF_DELIMITERS     = " (_.-";
+
+  /** no stacking information */
+  public static final Stacking  NONE              = new Stacking("", "", "");
+
+  private StackingMatcher() {
+    // hide public constructor for utility classes
+  }
+
+  /**
+   * detect the stacking information of the given filename
+   *
+   * @param filename
+   *          the filename WITH extension
+   * @return the stacking information or {@link #NONE}
+   */
+  public static Stacking matchFile(String filename) {
+    if (filename == null || filename.isEmpty()) {
+      return NONE;
+    }
+
+    // the marker has to be right in front of the (last) extension
+    int end = filename.lastIndexOf('.');
+    if (end < 1 || end == filename.length() - 1) {
+      return NONE;
+    }
+
+    String extension = filename.substring(end);
+    char last = filename.charAt(end - 1);
+    if (isDigit(last)) {
+      // <cd/dvd/part/pt/disk/disc> <1-9>
+      int start = matchKeyword(filename, end, true);
+      if (start >= 0) {
+        return createStacking(filename, skipBack(filename, start, DELIMITERS), start, end, extension);
+      }
+      // moviename-1of2.avi, moviename-1 of 2.avi
+      start = matchOf(filename, end);
+      if (start >= 0) {
+        return createStacking(filename, skipBack(filename, start, OF_DELIMITERS), start, end, extension);
+      }
+    }
+    else if (isLetter(last)) {
+      // <cd/dvd/part/pt/disk/disc> <a-d>
+      int start = matchKeyword(filename, end, true);
+      if (start >= 0) {
+        return createStacking(filename, skipBack(filename, start, DELIMITERS), start, end, extension);
+      }
+      // moviename-a.avi // mandatory delimiter (but no space), and A-D must be at end!
+      start = end - 1;
+      int titleEnd = skipBack(filename, start, LETTER_DELIMITERS);
+      if (titleEnd < start) {
+        return createStacking(filename, titleEnd, start, end, extension);
+      }
+    }
+    else if (last == ' ' || last == ')' || last == '_' || last == '-') {
+      // moviename-(1 of 2).avi
+      int start = matchOf(filename, end - 1);
+      if (start >= 0) {
+        return createStacking(filename, skipBack(filename, start, OF_DELIMITERS), start, end - 1, extension);
+      }
+    }
+
+    return NONE;
+  }
+
+  /**
+   * detect the stacking information of the given folder name (the marker has to be the last part of the name)
+   *
+   * @param foldername
+   *          the folder name
+   * @return the stacking information or {@link #NONE}
+   */
+  public static Stacking matchFolder(String foldername) {
+    if (foldername == null || foldername.isEmpty() || !isDigit(foldername.charAt(foldername.length() - 1))) {
+      return NONE;
+    }
+
+    // the delimiter in front of the keyword is optional here
+    int start = matchKeyword(foldername, foldername.length(), false);
+    if (start < 0) {
+      return NONE;
+    }
+    return createStacking(foldername, skipBack(foldername, start, DELIMITERS), start, foldername.length(), "");
+  }
+
+  private static Stacking createStacking(String name, int titleEnd, int start, int end, String extension) {
+    String title = name.substring(0, titleEnd);
+    // the former regular expressions did not match line terminators in the title
+    for (int i = 0; i < title.length(); i++) {
+      char c = title.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return NONE;
+      }
+    }
+    return new Stacking(title, name.substring(start, end), extension);
+  }
+
+  /**
+   * match <code>keyword[ _.-]*[1-9a-d]</code> in front of end
+   *
+   * @return the start of the keyword or -1
+   */
+  private static int matchKeyword(String name, int end, boolean delimiterMandatory) {
+    int keywordEnd = skipBack(name, end - 1, DELIMITERS);
+    for (String keyword : KEYWORDS) {
+      int start = keywordEnd - keyword.length();
+      if (start >= 0 && regionMatchesIgnoreCase(name, start, keyword)) {
+        // the keywords do not share their endings - there can be only one match
+        if (delimiterMandatory && skipBack(name, start, DELIMITERS) == start) {
+          return -1;
+        }
+        return start;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * match <code>(?:[ (_.-]+)[1-9][ .]?of[ .]?[1-9]</code> in front of end
+   *
+   * @return the start of the marker or -1
+   */
+  private static int matchOf(String name, int end) {
+    int i = end - 1;
+    if (i < 0 || !isDigit(name.charAt(i))) {
+      return -1;
+    }
+    if (i > 0 && (name.charAt(i - 1) == ' ' || name.charAt(i - 1) == '.')) {
+      i--;
+    }
+    if (i < 2 || toLower(name.charAt(i - 1)) != 'f' || toLower(name.charAt(i - 2)) != 'o') {
+      return -1;
+    }
+    i -= 2;
+    if (i > 0 && (name.charAt(i - 1) == ' ' || name.charAt(i - 1) == '.')) {
+      i--;
+    }
+    if (i < 1 || !isDigit(name.charAt(i - 1))) {
+      return -1;
+    }
+    i--;
+    if (skipBack(name, i, OF_DELIMITERS) == i) {
+      return -1;
+    }
+    return i;
+  }
+
+  /**
+   * skip all given delimiters in front of end
+   *
+   * @return the start of the delimiter run (end if there is no delimiter)
+   */
+  private static int skipBack(String name, int end, String delimiters) {
+    int i = end;
+    while (i > 0 && delimiters.indexOf(name.charAt(i - 1)) >= 0) {
+      i--;
+    }
+    return i;
+  }
+
+  private static boolean regionMatchesIgnoreCase(String name, int start, String keyword) {
+    for (int i = 0; i < keyword.length(); i++) {
+      if (toLower(name.charAt(start + i)) != keyword.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static char toLower(char c) {
+    // ASCII only - like the case insensitive regular expressions
+    return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '1' && c <= '9';
+  }
+
+  private static boolean isLetter(char c) {
+    char lower = toLower(c);
+    return lower >= 'a' && lower <= 'd';
+  }
+
+  /**
+   * The stacking information of a file or folder name
+   */
+  public static final class Stacking {
+    private final String title;
+    private final String marker;
+    private final String extension;
+    private final String prefix;
+    private final int    number;
+
+    private Stacking(String title, String marker, String extension) {
+      this.title = title;
+      this.marker = marker;
+      this.extension = extension;
+      this.prefix = parsePrefix(marker);
+      this.number = parseNumber(marker);
+    }
+
+    private static String parsePrefix(String marker) {
+      StringBuilder sb = new StringBuilder(marker.length());
+      for (int i = 0; i < marker.length(); i++) {
+        char c = marker.charAt(i);
+        if (c < '0' || c > '9') {
+          sb.append(c);
+        }
+      }
+      // A-D and (X of Y) - no prefix here
+      if (sb.length() == 1 || sb.indexOf("of") >= 0) {
+        return "";
+      }
+      return sb.toString();
+    }
+
+    private static int parseNumber(String marker) {
+      if (marker.length() == 1 && isLetter(marker.charAt(0))) {
+        return toLower(marker.charAt(0)) - 'a' + 1;
+      }
+
+      // only the number in front of "of"
+      int end = marker.indexOf("of");
+      if (end < 0) {
+        end = marker.length();
+      }
+      int number = 0;
+      boolean found = false;
+      for (int i = 0; i < end; i++) {
+        char c = marker.charAt(i);
+        if (c >= '0' && c <= '9') {
+          number = number * 10 + c - '0';
+          found = true;
+        }
+      }
+      return found ? number : 0;
+    }
+
+    /**
+     * is there any stacking information
+     *
+     * @return true/false
+     */
+    public boolean isStacked() {
+      return !marker.isEmpty();
+    }
+
+    /**
+     * the part in front of the stacking marker (without the delimiters)
+     *
+     * @return the title part
+     */
+    public String getTitle() {
+      return title;
+    }
+
+    /**
+     * the stacking marker (e.g. cd1, part 2, a, 1 of 2)
+     *
+     * @return the marker or an empty string
+     */
+    public String getMarker() {
+      return marker;
+    }
+
+    /**
+     * the extension (including the dot) of a file name; empty for folder names
+     *
+     * @return the extension
+     */
+    public String getExtension() {
+      return extension;
+    }
+
+    /**
+     * the stacking prefix (e.g. cd, part); empty for A-D and X of Y
+     *
+     * @return the prefix - might be empty
+     */
+    public String getPrefix() {
+      return prefix;
+    }
+
+    /**
+     * the stacking number (a-d are 1-4)
+     *
+     * @return the number or 0
+     */
+    public int getNumber() {
+      return number;
+    }
+  }
+}
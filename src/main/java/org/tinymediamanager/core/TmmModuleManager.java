@@ -84,6 +84,12 @@ public class TmmModuleManager {
         }
       }
     }
+
+    // close the persistent mediainfo cache, the image cache manifest, the artwork store and the artwork http cache
+    MediaInfoCache.getInstance().close();
+    ImageCacheManifest.getInstance().close();
+    ArtworkStore.getInstance().close();
+    ArtworkHttpCache.getInstance().close();
   }
 
   /**
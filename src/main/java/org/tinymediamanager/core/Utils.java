@@ -72,27 +72,9 @@ import org.tinymediamanager.scraper.util.StrgUtils;
  * @author Manuel Laggner / Myron Boyle
  */
 public class Utils {
-  private static final Logger  LOGGER                = LoggerFactory.getLogger(Utils.class);
-  private static final Pattern localePattern         = Pattern.compile("messages_(.{2})_?(.{2}){0,1}\\.properties", Pattern.CASE_INSENSITIVE);
-
-  // <cd/dvd/part/pt/disk/disc> <0-N>
-  private static final Pattern stackingPattern1      = Pattern.compile("(.*?)[ _.-]+((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[1-9]{1})(\\.[^.]+)$",
-      Pattern.CASE_INSENSITIVE);
-
-  // <cd/dvd/part/pt/disk/disc> <a-d>
-  private static final Pattern stackingPattern2      = Pattern.compile("(.*?)[ _.-]+((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[a-d])(\\.[^.]+)$",
-      Pattern.CASE_INSENSITIVE);
-
-  // moviename-a.avi // modified mandatory delimiter (but no space), and A-D must be at end!
-  private static final Pattern stackingPattern3      = Pattern.compile("(.*?)[_.-]+([a-d])(\\.[^.]+)$", Pattern.CASE_INSENSITIVE);
-
-  // moviename-1of2.avi, moviename-1 of 2.avi
-  private static final Pattern stackingPattern4      = Pattern.compile("(.*?)[ \\(_.-]+([1-9][ .]?of[ .]?[1-9])[ \\)_-]?(\\.[^.]+)$",
-      Pattern.CASE_INSENSITIVE);
-
-  // folder stacking marker <cd/dvd/part/pt/disk/disc> <0-N> - must be last part
-  private static final Pattern folderStackingPattern = Pattern.compile("(.*?)[ _.-]*((?:cd|dvd|p(?:ar)?t|dis[ck])[ _.-]*[1-9]{1})$",
-      Pattern.CASE_INSENSITIVE);
+  private static final Logger  LOGGER        = LoggerFactory.getLogger(Utils.class);
+  private static final Pattern localePattern = Pattern.compile("messages_(.{2})_?(.{2}){0,1}\\.properties", Pattern.CASE_INSENSITIVE);
+  private static final Pattern imdbIdPattern = Pattern.compile("tt\\d{6,8}");
 
   /**
    * gets the filename part, and returns last extension
@@ -248,31 +230,9 @@ public class Utils {
    */
   public static String cleanStackingMarkers(String filename) {
     if (!StringUtils.isEmpty(filename)) {
-      // see http://kodi.wiki/view/Advancedsettings.xml#moviestacking
-      // basically returning <regexp>(Title)(Stacking)(Ignore)(Extension)</regexp>
-
-      // <cd/dvd/part/pt/disk/disc> <0-N>
-      Matcher m = stackingPattern1.matcher(filename);
-      if (m.matches()) {
-        return m.group(1) + m.group(3); // just return String w/o stacking
-      }
-
-      // <cd/dvd/part/pt/disk/disc> <a-d>
-      m = stackingPattern2.matcher(filename);
-      if (m.matches()) {
-        return m.group(1) + m.group(3); // just return String w/o stacking
-      }
-
-      // moviename-2.avi // modified mandatory delimiter, and AD must be at end!
-      m = stackingPattern3.matcher(filename);
-      if (m.matches()) {
-        return m.group(1) + m.group(3); // just return String w/o stacking
-      }
-
-      // moviename-1of2.avi, moviename-1 of 2.avi
-      m = stackingPattern4.matcher(filename);
-      if (m.matches()) {
-        return m.group(1) + m.group(3); // just return String w/o stacking
+      StackingMatcher.Stacking stacking = StackingMatcher.matchFile(filename);
+      if (stacking.isStacked()) {
+        return stacking.getTitle() + stacking.getExtension(); // just return String w/o stacking
       }
     }
     return filename; // no cleanup, return 1:1
@@ -288,9 +248,9 @@ public class Utils {
    */
   public static String cleanFolderStackingMarkers(String filename) {
     if (!StringUtils.isEmpty(filename)) {
-      Matcher m = folderStackingPattern.matcher(filename);
-      if (m.matches()) {
-        return m.group(1); // just return String w/o stacking
+      StackingMatcher.Stacking stacking = StackingMatcher.matchFolder(filename);
+      if (stacking.isStacked()) {
+        return stacking.getTitle(); // just return String w/o stacking
       }
     }
     return filename;
@@ -304,17 +264,7 @@ public class Utils {
    * @return the stacking information
    */
   public static String getFolderStackingMarker(String filename) {
-    if (!StringUtils.isEmpty(filename)) {
-      // see http://kodi.wiki/view/Advancedsettings.xml#moviestacking
-      // basically returning <regexp>(Title)(Volume)(Ignore)(Extension)</regexp>
-
-      // <cd/dvd/part/pt/disk/disc> <0-N> // FIXME: check for first delimiter (optional/mandatory)!
-      Matcher m = folderStackingPattern.matcher(filename);
-      if (m.matches()) {
-        return m.group(2);
-      }
-    }
-    return "";
+    return StackingMatcher.matchFolder(filename).getMarker();
   }
 
   /**
@@ -325,35 +275,7 @@ public class Utils {
    * @return the stacking information
    */
   public static String getStackingMarker(String filename) {
-    if (!StringUtils.isEmpty(filename)) {
-      // see http://kodi.wiki/view/Advancedsettings.xml#moviestacking
-      // basically returning <regexp>(Title)(Stacking)(Ignore)(Extension)</regexp>
-
-      // <cd/dvd/part/pt/disk/disc> <0-N>
-      Matcher m = stackingPattern1.matcher(filename);
-      if (m.matches()) {
-        return m.group(2);
-      }
-
-      // <cd/dvd/part/pt/disk/disc> <a-d>
-      m = stackingPattern2.matcher(filename);
-      if (m.matches()) {
-        return m.group(2);
-      }
-
-      // moviename-a.avi // modified mandatory delimiter, and AD must be at end!
-      m = stackingPattern3.matcher(filename);
-      if (m.matches()) {
-        return m.group(2);
-      }
-
-      // moviename-1of2.avi, moviename-1 of 2.avi
-      m = stackingPattern4.matcher(filename);
-      if (m.matches()) {
-        return m.group(2);
-      }
-    }
-    return "";
+    return StackingMatcher.matchFile(filename).getMarker();
   }
 
   public static String substr(String str, String pattern) {
@@ -375,12 +297,7 @@ public class Utils {
    * @return the stacking prefix - might be empty
    */
   public static String getStackingPrefix(String filename) {
-    String stack = getStackingMarker(filename).replaceAll("[0-9]", "");
-    if (stack.length() == 1 || stack.contains("of")) {
-      // A-D and (X of Y) - no prefix here
-      stack = "";
-    }
-    return stack;
+    return StackingMatcher.matchFile(filename).getPrefix();
   }
 
   /**
@@ -391,35 +308,7 @@ public class Utils {
    * @return the stacking information
    */
   public static int getStackingNumber(String filename) {
-    if (!StringUtils.isEmpty(filename)) {
-      String stack = getStackingMarker(filename);
-      if (!stack.isEmpty()) {
-        if (stack.equalsIgnoreCase("a")) {
-          return 1;
-        }
-        else if (stack.equalsIgnoreCase("b")) {
-          return 2;
-        }
-        else if (stack.equalsIgnoreCase("c")) {
-          return 3;
-        }
-        else if (stack.equalsIgnoreCase("d")) {
-          return 4;
-        }
-        if (stack.contains("of")) {
-          stack = stack.replaceAll("of.*", ""); // strip all after "of", so we have the first number
-        }
-
-        try {
-          int s = Integer.parseInt(stack.replaceAll("[^0-9]", "")); // remove all non numbers
-          return s;
-        }
-        catch (Exception e) {
-          return 0;
-        }
-      }
-    }
-    return 0;
+    return StackingMatcher.matchFile(filename).getNumber();
   }
 
   /**
@@ -434,7 +323,7 @@ public class Utils {
       return false;
     }
 
-    return imdbId.matches("tt\\d{6,8}");
+    return imdbIdPattern.matcher(imdbId).matches();
   }
 
   /**
@@ -19,12 +19,16 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.DecimalFormat;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -46,7 +50,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tinymediamanager.Globals;
 import org.tinymediamanager.core.AbstractModelObject;
+import org.tinymediamanager.core.MediaFileClassifier;
 import org.tinymediamanager.core.MediaFileType;
+import org.tinymediamanager.core.MediaInfoCache;
+import org.tinymediamanager.core.StackingMatcher;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.scraper.util.LanguageUtils;
 import org.tinymediamanager.scraper.util.StrgUtils;
@@ -71,24 +78,10 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
   private static final String                        FILENAME             = "filename";
   private static final String                        FILESIZE             = "filesize";
   private static final String                        FILESIZE_IN_MB       = "filesizeInMegabytes";
-  private static final List<String>                  PLEX_EXTRA_FOLDERS   = Arrays.asList("behind the scenes", "behindthescenes", "deleted scenes",
-      "deletedscenes", "featurettes", "interviews", "scenes", "shorts");
-
-  private static Pattern                             moviesetPattern      = Pattern
-      .compile("(?i)movieset-(poster|fanart|banner|disc|discart|logo|clearlogo|clearart|thumb)\\..{2,4}");
-  private static Pattern                             posterPattern        = Pattern
-      .compile("(?i)(.*-poster|poster|folder|movie|.*-cover|cover)\\..{2,4}");
-  private static Pattern                             fanartPattern        = Pattern.compile("(?i)(.*-fanart|.*\\.fanart|fanart)[0-9]{0,2}\\..{2,4}");
-  private static Pattern                             bannerPattern        = Pattern.compile("(?i)(.*-banner|banner)\\..{2,4}");
-  private static Pattern                             thumbPattern         = Pattern.compile("(?i)(.*-thumb|thumb)[0-9]{0,2}\\..{2,4}");
-  private static Pattern                             seasonPosterPattern1 = Pattern.compile("(?i)season([0-9]{0,2}|-specials)-poster\\..{2,4}");
-  private static Pattern                             seasonPosterPattern2 = Pattern.compile("(?i)season[0-9]{0,2}\\..{2,4}");
-  private static Pattern                             logoPattern          = Pattern.compile("(?i)(.*-logo|logo)\\..{2,4}");
-  private static Pattern                             clearlogoPattern     = Pattern.compile("(?i)(.*-clearlogo|clearlogo)\\..{2,4}");
-  // be careful: disc.avi would be valid!
-  private static Pattern                             discartPattern       = Pattern
-      .compile("(?i)(.*-discart|discart|.*-disc|disc)\\.(jpg|jpeg|png|tbn)");
-  private static Pattern                             clearartPattern      = Pattern.compile("(?i)(.*-clearart|clearart)\\..{2,4}");
+  private static final Pattern                       ISO_TITLESET_PATTERN = Pattern.compile("(?i)^(vts_\\d{2})_\\d+\\.vob$");
+  private static final int                           ISO_BLOCK_SIZE       = 2048;
+  private static final int                           ISO_BUFFER_SIZE      = 4 * 1024 * 1024;
+  private static final String                        ISO_DISC_FILES_SIZE  = "tmmDiscFilesSize";
 
   public static final String                         VIDEO_FORMAT_96P     = "96p";
   public static final String                         VIDEO_FORMAT_120P    = "120p";
@@ -160,6 +153,7 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
   private Map<StreamKind, List<Map<String, String>>> miSnapshot           = null;
   private Path                                       file                 = null;
   private boolean                                    isISO                = false;
+  private long                                       mediaInfoBytesRead   = -1;
   @JsonProperty
   private boolean                                    isAnimatedGraphic    = false;
   @JsonProperty
@@ -306,161 +300,7 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
    * @return the MediaFileType
    */
   public MediaFileType parseType() {
-    String ext = getExtension().toLowerCase(Locale.ROOT);
-    String basename = FilenameUtils.getBaseName(getFilename());
-    String foldername = FilenameUtils.getBaseName(getPath()).toLowerCase(Locale.ROOT);
-    String parentparent = "";
-    try {
-      parentparent = FilenameUtils.getBaseName(getFileAsPath().getParent().getParent().toString()).toLowerCase(Locale.ROOT);
-    }
-    catch (Exception e) {
-      // could happen if we are no 2 levels deep;
-      LOGGER.debug("way to up");
-    }
-    if (ext.equals("nfo")) {
-      return MediaFileType.NFO;
-    }
-
-    if (ext.equals("vsmeta")) {
-      return MediaFileType.VSMETA;
-    }
-
-    if (basename.endsWith("-mediainfo") && "xml".equals(ext)) {
-      return MediaFileType.MEDIAINFO;
-    }
-
-    if (ext.equals("jpg") || ext.equals("jpeg") || ext.equals("png") || ext.equals("tbn") || ext.equals("gif")) {
-      return parseImageType();
-    }
-
-    if (Globals.settings.getAudioFileType().contains("." + ext)) {
-      return MediaFileType.AUDIO;
-    }
-
-    if (Globals.settings.getSubtitleFileType().contains("." + ext)) {
-      return MediaFileType.SUBTITLE;
-    }
-
-    if (Globals.settings.getVideoFileType().contains("." + ext)) {
-      // has to fit TV & Movie naming...
-      // String cleanName = ParserUtils.detectCleanMoviename(name); // tbc if useful...
-      // old impl: https://github.com/brentosmith/xbmc-dvdextras
-      // Official: http://wiki.xbmc.org/index.php?title=Add-on:VideoExtras#File_Naming_Convention
-      if (getFilename().contains(".EXTRAS.") // scene file naming (need to check first! upper case!)
-          || basename.matches("(?i).*[_.-]+extra[s]?$") // end with "-extra[s]"
-          || basename.matches("(?i).*[-]+extra[s]?[-].*") // extra[s] just with surrounding dash (other delims problem)
-          || foldername.equalsIgnoreCase("extras") // preferred folder name
-          || foldername.equalsIgnoreCase("extra") // preferred folder name
-          || (!parentparent.isEmpty() && parentparent.matches("extra[s]?")) // extras folder a level deeper
-          || basename.matches("(?i).*[-](behindthescenes|deleted|featurette|interview|scene|short)$") // Plex (w/o trailer)
-          || PLEX_EXTRA_FOLDERS.contains(foldername)) // Plex Extra folders
-      {
-        return MediaFileType.VIDEO_EXTRA;
-      }
-
-      if (basename.matches("(?i).*[_.-]*trailer?$") || basename.equalsIgnoreCase("movie-trailer") || foldername.equalsIgnoreCase("trailer")
-          || foldername.equalsIgnoreCase("trailers")) {
-        return MediaFileType.TRAILER;
-      }
-
-      // we have some false positives too - make a more precise check
-      if (basename.matches("(?i).*[_.-]*sample$") // end with sample
-          || foldername.equalsIgnoreCase("sample")) { // sample folder name
-        return MediaFileType.SAMPLE;
-      }
-
-      return MediaFileType.VIDEO;
-    }
-
-    if (ext.equals("txt")) {
-      return MediaFileType.TEXT;
-    }
-
-    return MediaFileType.UNKNOWN;
-  }
-
-  /**
-   * Parses the image type.
-   * 
-   * @return the media file type
-   */
-  private MediaFileType parseImageType() {
-    String name = getFilename();
-
-    // movieset artwork
-    Matcher matcher = moviesetPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.GRAPHIC;
-    }
-
-    // season(XX|-specials)-poster.*
-    matcher = seasonPosterPattern1.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.SEASON_POSTER;
-    }
-    // seasonXX.*
-    matcher = seasonPosterPattern2.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.SEASON_POSTER;
-    }
-
-    // *-poster.* or poster.* or folder.* or movie.*
-    matcher = posterPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.POSTER;
-    }
-
-    // *-fanart.* or fanart.* or *-fanartXX.* or fanartXX.*
-    matcher = fanartPattern.matcher(name);
-    if (matcher.matches()) {
-      // decide between fanart and extrafanart
-      if (getPath().endsWith("extrafanart")) {
-        return MediaFileType.EXTRAFANART;
-      }
-      return MediaFileType.FANART;
-    }
-
-    // *-banner.* or banner.*
-    matcher = bannerPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.BANNER;
-    }
-
-    // *-thumb.* or thumb.* or *-thumbXX.* or thumbXX.*
-    matcher = thumbPattern.matcher(name);
-    if (matcher.matches()) {
-      // decide between thumb and extrathumb
-      if (getPath().endsWith("extrathumbs")) {
-        return MediaFileType.EXTRATHUMB;
-      }
-      return MediaFileType.THUMB;
-    }
-
-    // clearart.*
-    matcher = clearartPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.CLEARART;
-    }
-
-    // logo.*
-    matcher = logoPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.LOGO;
-    }
-
-    // clearlogo.*
-    matcher = clearlogoPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.CLEARLOGO;
-    }
-
-    // discart.*
-    matcher = discartPattern.matcher(name);
-    if (matcher.matches()) {
-      return MediaFileType.DISCART;
-    }
-
-    return MediaFileType.GRAPHIC;
+    return MediaFileClassifier.parseType(getFilename(), getPath());
   }
 
   /**
@@ -722,15 +562,18 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
    * detect stacking information for this media file
    */
   public void detectStackingInformation() {
-    this.stacking = Utils.getStackingNumber(this.filename);
-    if (this.stacking == 0) {
-      // try to parse from parent directory
-      this.stacking = Utils.getStackingNumber(FilenameUtils.getBaseName(getPath()));
-    }
-    this.stackingMarker = Utils.getStackingMarker(this.filename);
-    if (this.stackingMarker.isEmpty()) {
+    StackingMatcher.Stacking fileStacking = StackingMatcher.matchFile(this.filename);
+    this.stacking = fileStacking.getNumber();
+    this.stackingMarker = fileStacking.getMarker();
+    if (this.stacking == 0 || this.stackingMarker.isEmpty()) {
       // try to parse from parent directory
-      this.stackingMarker = Utils.getFolderStackingMarker(FilenameUtils.getBaseName(getPath()));
+      String foldername = FilenameUtils.getBaseName(getPath());
+      if (this.stacking == 0) {
+        this.stacking = StackingMatcher.matchFile(foldername).getNumber();
+      }
+      if (this.stackingMarker.isEmpty()) {
+        this.stackingMarker = StackingMatcher.matchFolder(foldername).getMarker();
+      }
     }
   }
 
@@ -796,7 +639,20 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
 
     if (miSnapshot == null) {
       try {
-        if (!mediaInfo.open(this.getFileAsPath())) {
+        boolean opened;
+        int readBudget = Globals.settings.getMediaInfoReadBudget();
+        if (readBudget > 0) {
+          // feed mediainfo via the buffer API to cap the I/O per file
+          mediaInfoBytesRead = mediaInfo.openBuffered(getFileAsPath(), readBudget * 1024L * 1024L,
+              Globals.settings.getMediaInfoReadBufferSize() * 1024);
+          opened = mediaInfoBytesRead >= 0;
+          LOGGER.debug("mediainfo read " + mediaInfoBytesRead + " of " + filesize + " bytes of " + getFileAsPath());
+        }
+        else {
+          opened = mediaInfo.open(this.getFileAsPath());
+        }
+
+        if (!opened) {
           LOGGER.error("Mediainfo could not open file: " + getFileAsPath());
 
           // clear references
@@ -816,6 +672,15 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
     }
   }
 
+  /**
+   * get the amount of bytes which have been read while gathering the media information
+   * 
+   * @return the amount of read bytes or -1 if mediainfo read the file itself (unknown amount)
+   */
+  public long getMediaInfoBytesRead() {
+    return mediaInfoBytesRead;
+  }
+
   /**
    * Closes the connection to the mediainfo lib.
    */
@@ -1518,6 +1383,33 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
     }
   }
 
+  /**
+   * take the snapshot out of the mediainfo XML next to the video file (xxx-mediainfo.xml) - if the XML is newer than the video file
+   *
+   * @return the duration out of the XML or -1 if there is no (usable) XML
+   */
+  private int getMediaInfoSnapshotFromSidecar() {
+    Path xmlFile = Paths.get(this.path, FilenameUtils.getBaseName(this.filename) + "-mediainfo.xml");
+    try {
+      if (!Files.isRegularFile(xmlFile) || Files.getLastModifiedTime(xmlFile).toMillis() <= filedate) {
+        return -1;
+      }
+      MediaInfoXMLParser xml = MediaInfoXMLParser.parseXML(xmlFile);
+      MediaInfoXMLParser.MiFile mainFile = xml.getMainFile();
+      if (mainFile.snapshot.isEmpty()) {
+        return -1;
+      }
+      LOGGER.debug("took snapshot from " + xmlFile);
+      miSnapshot = mainFile.snapshot;
+      mediaInfoBytesRead = 0;
+      return mainFile.getDuration();
+    }
+    catch (Exception e) {
+      LOGGER.warn("Unable to parse " + xmlFile + ": " + e.getMessage());
+    }
+    return -1;
+  }
+
   private long getMediaInfoSnapshotFromISO() {
     // check if we have a snapshot xml
     Path xmlFile = Paths.get(this.path, this.filename.replaceFirst("\\.iso$", "-mediainfo.xml"));
@@ -1537,16 +1429,37 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
       }
     }
 
+    // check if we have persisted the snapshot of this ISO already
+    MediaInfoCache cache = MediaInfoCache.getInstance();
+    String cacheKey = null;
+    if (miSnapshot == null) {
+      cacheKey = cache.getKey(getFileAsPath(), filesize, filedate);
+      Map<StreamKind, List<Map<String, String>>> cachedSnapshot = cache.getSnapshot(cacheKey);
+      if (cachedSnapshot != null) {
+        LOGGER.debug("ISO: took snapshot from the mediainfo cache");
+        setMiSnapshot(cachedSnapshot);
+        setDuration((int) (getDurationInMs(cachedSnapshot) / 1000));
+        // the accumulated size of the disc files is needed for the sanity check of the ISO structure
+        try {
+          return Long.parseLong(cachedSnapshot.get(StreamKind.General).get(0).getOrDefault(ISO_DISC_FILES_SIZE, "0"));
+        }
+        catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+
     if (miSnapshot == null) {
-      int BUFFER_SIZE = 64 * 1024;
       Iso9660FileSystem image = null;
-      try {
+      MediaInfo fileMI = new MediaInfo();
+      try (FileChannel channel = FileChannel.open(getFileAsPath(), StandardOpenOption.READ)) {
         LOGGER.trace("ISO: Open");
         image = new Iso9660FileSystem(getFileAsPath().toFile(), true);
-        int dur = 0;
         long siz = 0L; // accumulated filesize
-        long biggest = 0L;
 
+        // collect all video files and group them into title sets
+        Map<String, List<Iso9660FileEntry>> titleSets = new LinkedHashMap<>();
+        Map<String, Long> titleSetSizes = new HashMap<>();
         for (Iso9660FileEntry entry : image) {
           LOGGER.trace("ISO: got entry " + entry.getName() + " size:" + entry.getSize());
           siz += entry.getSize();
@@ -1556,80 +1469,77 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
           }
 
           MediaFile mf = new MediaFile(Paths.get(getFileAsPath().toString(), entry.getPath())); // set ISO as MF path
-          // mf.setMediaInfo(fileMI); // we need set the inner MI
           if (mf.getType() == MediaFileType.VIDEO && mf.isDiscFile()) { // would not count video_ts.bup for ex (and not .dat files or other types)
-            mf.setFilesize(entry.getSize());
+            String titleSet = getIsoTitleSet(entry);
+            titleSets.computeIfAbsent(titleSet, k -> new ArrayList<>()).add(entry);
+            titleSetSizes.merge(titleSet, entry.getSize(), Long::sum);
+          }
+        }
 
-            MediaInfo fileMI = new MediaInfo();
-            try {
-              // mediaInfo.option("File_IsSeekable", "0");
-              byte[] From_Buffer = new byte[BUFFER_SIZE];
-              int From_Buffer_Size; // The size of the read file buffer
-
-              // Preparing to fill MediaInfo with a buffer
-              fileMI.openBufferInit(entry.getSize(), 0);
-
-              long pos = 0L;
-              // The parsing loop
-              do {
-                // limit read to maxBuffer, or to end of file size (cannot determine file end in stream!!)
-                Long toread = pos + BUFFER_SIZE > entry.getSize() ? entry.getSize() - pos : BUFFER_SIZE;
-                // LOGGER.trace("ISO: reading " + toread);
-
-                // Reading data somewhere, do what you want for this.
-                From_Buffer_Size = image.readBytes(entry, pos, From_Buffer, 0, toread.intValue());
-                if (From_Buffer_Size > 0) {
-                  pos += From_Buffer_Size; // add bytes read to file position
-
-                  // Sending the buffer to MediaInfo
-                  int Result = fileMI.openBufferContinue(From_Buffer, From_Buffer_Size);
-                  if ((Result & 8) == 8) { // Status.Finalized
-                    break;
-                  }
-
-                  // Testing if MediaInfo request to go elsewhere
-                  if (fileMI.openBufferContinueGoToGet() != -1) {
-                    pos = fileMI.openBufferContinueGoToGet();
-                    LOGGER.trace("ISO: Seek to " + pos);
-                    // From_Buffer_Size = image.readBytes(entry, newPos, From_Buffer, 0, BUFFER_SIZE);
-                    // pos = newPos + From_Buffer_Size; // add bytes read to file position
-                    fileMI.openBufferInit(entry.getSize(), pos); // Informing MediaInfo we have seek
-                  }
-                }
-              } while (From_Buffer_Size > 0);
-
-              LOGGER.trace("ISO: finalize");
-              // Finalizing
-              fileMI.openBufferFinalize(); // This is the end of the stream, MediaInfo must finish some work
-              Map<StreamKind, List<Map<String, String>>> tempSnapshot = fileMI.snapshot();
-              fileMI.close();
-
-              mf.setMiSnapshot(tempSnapshot); // set ours to MI for standard gathering
-              mf.gatherMediaInformation(); // normal gather from snapshots
-
-              // set ISO snapshot ONCE from biggest video file, so we copy all the resolutions & co
-              if (entry.getSize() > biggest) {
-                biggest = entry.getSize();
-                miSnapshot = tempSnapshot;
-              }
+        // analyze only the biggest title set (the main movie); menus and extras do not need to be read
+        String mainTitleSet = null;
+        long biggestTitleSet = 0L;
+        for (Map.Entry<String, Long> titleSet : titleSetSizes.entrySet()) {
+          if (titleSet.getValue() > biggestTitleSet) {
+            biggestTitleSet = titleSet.getValue();
+            mainTitleSet = titleSet.getKey();
+          }
+        }
 
-              // accumulate durations from every MF
-              dur += mf.getDuration();
-              LOGGER.trace("ISO: file duration:" + mf.getDurationHHMMSS() + "  accumulated min:" + dur / 60);
+        long durationInMs = 0L;
+        if (mainTitleSet != null) {
+          LOGGER.trace("ISO: main title set " + mainTitleSet);
+          ByteBuffer buffer = ByteBuffer.allocateDirect(ISO_BUFFER_SIZE);
+          List<long[]> analyzed = new ArrayList<>(); // size and duration of every analyzed segment
+          long biggest = 0L;
+
+          for (Iso9660FileEntry entry : titleSets.get(mainTitleSet)) {
+            // near duplicate segments (e.g. the 1GB VOB parts) are not analyzed; their duration is extrapolated by their size
+            long[] reference = findIsoReferenceSegment(analyzed, entry.getSize());
+            if (reference != null) {
+              LOGGER.trace("ISO: skipping near duplicate segment " + entry.getName());
+              durationInMs += reference[1] * entry.getSize() / reference[0];
+              continue;
             }
-            // sometimes also an error is thrown
-            catch (Exception | Error e) {
-              LOGGER.error("Mediainfo could not open file STREAM", e);
-              fileMI.close();
+
+            long offset = entry.getStartBlock() * (long) ISO_BLOCK_SIZE;
+            if (fileMI.openRegion(channel, offset, entry.getSize(), buffer) < 0) {
+              LOGGER.warn("ISO: mediainfo could not open " + entry.getName());
+              continue;
+            }
+            Map<StreamKind, List<Map<String, String>>> tempSnapshot = fileMI.snapshot();
+            fileMI.close();
+
+            long entryDuration = getDurationInMs(tempSnapshot);
+            analyzed.add(new long[] { entry.getSize(), entryDuration });
+            durationInMs += entryDuration;
+            LOGGER.trace("ISO: file duration:" + entryDuration / 1000 + "  accumulated min:" + durationInMs / 60000);
+
+            // set ISO snapshot ONCE from biggest video file, so we copy all the resolutions & co
+            if (entry.getSize() > biggest) {
+              biggest = entry.getSize();
+              miSnapshot = tempSnapshot;
             }
-          } // end VIDEO
-        } // end entry
-        setDuration(dur); // set it here, and ignore duration parsing for ISO in gatherMI method...
+          }
+        }
+        if (!isIsoStructureValid(siz)) {
+          // the duration of an invalid structure is useless - do not persist it
+          durationInMs = 0;
+        }
+        setDuration((int) (durationInMs / 1000)); // set it here, and ignore duration parsing for ISO in gatherMI method...
         LOGGER.trace("ISO: final duration:" + getDurationHHMMSS());
         image.close();
+
+        // persist the snapshot (with the validated duration of the whole title set and the size of the disc files) to never read the ISO again
+        if (miSnapshot != null && miSnapshot.get(StreamKind.General) != null && !miSnapshot.get(StreamKind.General).isEmpty()) {
+          miSnapshot.get(StreamKind.General).get(0).put("Duration", String.valueOf(durationInMs));
+          miSnapshot.get(StreamKind.General).get(0).put(ISO_DISC_FILES_SIZE, String.valueOf(siz));
+          cache.putSnapshot(cacheKey, miSnapshot);
+        }
         return siz;
       }
-      catch (Exception e) {
+      // sometimes also an error is thrown
+      catch (Exception | Error e) {
         LOGGER.error("Mediainfo could not open STREAM - trying fallback", e);
         try {
           if (image != null) {
@@ -1643,10 +1553,72 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
         closeMediaInfo();
         getMediaInfoSnapshot();
       }
+      finally {
+        if (fileMI.isLoaded()) {
+          fileMI.close();
+          fileMI.dispose();
+        }
+      }
     }
     return 0;
   }
 
+  /**
+   * get the title set of a file inside a disc image: DVD files of the same title set share the prefix (VTS_01_1.VOB, VTS_01_2.VOB, ...); all other
+   * files are grouped by their folder (e.g. all segments in BDMV/STREAM of a Blu-ray), since a movie may be split across several segments
+   */
+  private static String getIsoTitleSet(Iso9660FileEntry entry) {
+    Matcher matcher = ISO_TITLESET_PATTERN.matcher(entry.getName());
+    if (matcher.find()) {
+      return matcher.group(1).toUpperCase(Locale.ROOT);
+    }
+
+    String path = entry.getPath().replace('\\', '/');
+    int index = path.lastIndexOf('/');
+    return index > 0 ? path.substring(0, index).toUpperCase(Locale.ROOT) : entry.getName();
+  }
+
+  /**
+   * sanity check of the ISO structure: the accumulated size of the files inside must roughly match the size of the ISO
+   */
+  private boolean isIsoStructureValid(long discFilesSizes) {
+    if (discFilesSizes <= 0 || filesize <= 0) {
+      return true;
+    }
+    // eg when the sum(filesize) way higher than ISO size
+    long diff = Math.abs(filesize - discFilesSizes);
+    Double ratio = diff * 100.0 / filesize;
+    LOGGER.debug("ISO size:" + filesize + "  reportedDataSize:" + discFilesSizes + "  = diff:" + diff + " ~" + ratio.intValue() + "%");
+    return ratio <= 10;
+  }
+
+  /**
+   * find an already analyzed segment of (nearly) the same size
+   */
+  private static long[] findIsoReferenceSegment(List<long[]> analyzed, long size) {
+    for (long[] segment : analyzed) {
+      if (segment[0] > 0 && segment[1] > 0 && Math.abs(segment[0] - size) <= segment[0] / 100) {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * get the duration (in ms) out of the general stream of the given snapshot
+   */
+  private static long getDurationInMs(Map<StreamKind, List<Map<String, String>>> snapshot) {
+    if (snapshot == null || snapshot.get(StreamKind.General) == null || snapshot.get(StreamKind.General).isEmpty()) {
+      return 0;
+    }
+    try {
+      return (long) Double.parseDouble(snapshot.get(StreamKind.General).get(0).get("Duration"));
+    }
+    catch (Exception e) {
+      return 0;
+    }
+  }
+
   /**
    * DO NOT USE - only for ISO!!!
    */
@@ -1731,11 +1703,29 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
     // get media info
     LOGGER.debug("start MediaInfo for " + this.getFileAsPath());
     long discFilesSizes = 0L;
+    int sidecarDuration = -1;
     if (isISO) {
       discFilesSizes = getMediaInfoSnapshotFromISO();
     }
     else {
-      getMediaInfoSnapshot();
+      // a mediainfo XML next to the video file saves the native mediainfo call
+      if (miSnapshot == null && Globals.settings.isPreferMediaInfoSidecar()) {
+        sidecarDuration = getMediaInfoSnapshotFromSidecar();
+      }
+
+      // try to take the snapshot from the persistent cache first
+      // (files inside an ISO already got their snapshot set)
+      MediaInfoCache cache = MediaInfoCache.getInstance();
+      String cacheKey = null;
+      if (miSnapshot == null) {
+        cacheKey = cache.getKey(getFileAsPath(), filesize, filedate);
+        miSnapshot = cache.getSnapshot(cacheKey);
+        mediaInfoBytesRead = miSnapshot != null ? 0 : -1;
+      }
+      if (miSnapshot == null) {
+        getMediaInfoSnapshot();
+        cache.putSnapshot(cacheKey, miSnapshot);
+      }
     }
 
     if (miSnapshot == null) {
@@ -2056,7 +2046,11 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
         // Duration/String1;Play time in format : HHh MMmn SSs MMMms, XX om.if.z.
         // Duration/String2;Play time in format : XXx YYy only, YYy omited if zero
         // Duration/String3;Play time in format : HH:MM:SS.MMM
-        if (!isISO) {
+        if (sidecarDuration >= 0) {
+          // the duration in the XML comes in different flavors - already parsed with the snapshot
+          setDuration(sidecarDuration);
+        }
+        else if (!isISO) {
           // ISO files get duration accumulated with snapshot
           String dur = getMediaInfo(StreamKind.General, 0, "Duration");
           if (!dur.isEmpty()) {
@@ -2070,18 +2064,12 @@ public class MediaFile extends AbstractModelObject implements Comparable<MediaFi
           }
         }
         else {
-          if (discFilesSizes > 0 && filesize > 0) {
-            // do some sanity check, to see, if we have an invalid DVD structure
-            // eg when the sum(filesize) way higher than ISO size
-            long diff = Math.abs(filesize - discFilesSizes);
-            Double ratio = diff * 100.0 / filesize;
-            LOGGER.debug("ISO size:" + filesize + "  reportedDataSize:" + discFilesSizes + "  = diff:" + diff + " ~" + ratio.intValue() + "%");
-            if (ratio > 10) {
-              LOGGER.error("ISO file seems to have an invalid structure - ignore duration");
-              // we set the ISO duration to zero,
-              // so the standard getDuration() will always get the scraped duration
-              setDuration(0);
-            }
+          // do some sanity check, to see, if we have an invalid DVD structure
+          if (!isIsoStructureValid(discFilesSizes)) {
+            LOGGER.error("ISO file seems to have an invalid structure - ignore duration");
+            // we set the ISO duration to zero,
+            // so the standard getDuration() will always get the scraped duration
+            setDuration(0);
           }
         }
       default:
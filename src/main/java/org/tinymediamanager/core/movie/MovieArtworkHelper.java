@@ -26,6 +26,7 @@ import org.tinymediamanager.core.MediaFileType;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.movie.entities.Movie;
 import org.tinymediamanager.core.movie.tasks.MovieExtraImageFetcher;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.scraper.entities.MediaArtwork;
 import org.tinymediamanager.scraper.entities.MediaArtwork.MediaArtworkType;
@@ -471,7 +472,7 @@ public class MovieArtworkHelper {
   private static void downloadExtraArtwork(Movie movie, MediaFileType type) {
     // get images in thread
     MovieExtraImageFetcher task = new MovieExtraImageFetcher(movie, type);
-    TmmTaskManager.getInstance().addImageDownloadTask(task);
+    TmmTaskManager.getInstance().addImageDownloadTask(task, Priority.BULK);
   }
 
   /**
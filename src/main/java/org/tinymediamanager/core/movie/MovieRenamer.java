@@ -50,6 +50,7 @@ import org.tinymediamanager.core.entities.MediaFileSubtitle;
 import org.tinymediamanager.core.movie.connector.MovieConnectors;
 import org.tinymediamanager.core.movie.entities.Movie;
 import org.tinymediamanager.core.movie.entities.MovieActor;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.scraper.entities.Certification;
 import org.tinymediamanager.scraper.entities.MediaGenres;
 import org.tinymediamanager.scraper.util.LanguageUtils;
@@ -188,6 +189,9 @@ public class MovieRenamer {
    *          the movie
    */
   public static void renameMovie(Movie movie) {
+    // the NFO has to be on disk before renaming
+    NfoWriterQueue.getInstance().flush(movie);
+
     // FIXME: what? when?
     boolean posterRenamed = false;
     boolean fanartRenamed = false;
@@ -36,12 +36,16 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.ArtworkStore;
 import org.tinymediamanager.core.ImageCache;
 import org.tinymediamanager.core.MediaFileType;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.movie.entities.Movie;
 import org.tinymediamanager.core.movie.entities.MovieSet;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.ImageDownload;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.scraper.entities.MediaArtwork;
 import org.tinymediamanager.scraper.http.Url;
@@ -376,7 +380,7 @@ public class MovieSetArtworkHelper {
 
       // get image in thread
       MovieSetImageFetcherTask task = new MovieSetImageFetcherTask(movieSet, url, type, movies);
-      TmmTaskManager.getInstance().addImageDownloadTask(task);
+      TmmTaskManager.getInstance().addImageDownloadTask(task, Priority.BULK);
     }
   }
 
@@ -401,7 +405,7 @@ public class MovieSetArtworkHelper {
     }
   }
 
-  private static class MovieSetImageFetcherTask implements Runnable {
+  private static class MovieSetImageFetcherTask implements ImageDownload {
     private MovieSet        movieSet;
     private String          urlToArtwork;
     private MediaFileType   type;
@@ -410,6 +414,7 @@ public class MovieSetArtworkHelper {
     private boolean         writeToMovieFolder;
     private List<MediaFile> writtenArtworkFiles;
     private List<Movie>     movies;
+    private Path            storedArtwork;
 
     /**
      * This constructor is needed to write a kind of artwork to the configured locations (or cache dir if nothing specified)
@@ -457,18 +462,30 @@ public class MovieSetArtworkHelper {
       this.writeToArtworkFolder = false;
     }
 
+    @Override
+    public String getUrl() {
+      return urlToArtwork;
+    }
+
     @Override
     public void run() {
       // first, fetch image
       try {
-        Url url = new Url(urlToArtwork);
-        InputStream is = url.getInputStream();
-        if (url.isFault()) {
-          return;
+        byte[] bytes = null;
+        if (Globals.settings.isArtworkStore()) {
+          // download once into the artwork store; all files are linked/copied from there
+          storedArtwork = ArtworkStore.getInstance().fetch(urlToArtwork);
         }
+        else {
+          Url url = new Url(urlToArtwork);
+          InputStream is = url.getInputStream();
+          if (url.isFault()) {
+            return;
+          }
 
-        byte[] bytes = IOUtils.toByteArray(is);
-        is.close();
+          bytes = IOUtils.toByteArray(is);
+          is.close();
+        }
 
         String extension = FilenameUtils.getExtension(urlToArtwork);
 
@@ -562,26 +579,35 @@ public class MovieSetArtworkHelper {
       String filename = ImageCache.getMD5(urlToArtwork);
 
       try {
-        writeImage(bytes, ImageCache.getCacheDir().resolve(filename + ".jpg"));
+        Path cachedFile = ImageCache.getCacheDir().resolve(filename + ".jpg");
+        writeImage(bytes, cachedFile);
+        ImageCache.registerCachedFile(urlToArtwork, cachedFile);
       }
       catch (Exception e) {
         LOGGER.warn("error in image fetcher", e);
       }
     }
 
-    private void writeImage(byte[] bytes, Path pathAndFilename) throws IOException, InterruptedException {
-      FileOutputStream outputStream = new FileOutputStream(pathAndFilename.toFile());
-      InputStream is = new ByteArrayInputStream(bytes);
-      IOUtils.copy(is, outputStream);
-      outputStream.flush();
-      try {
-        outputStream.getFD().sync(); // wait until file has been completely written
+    private void writeImage(byte[] bytes, Path pathAndFilename) throws IOException {
+      if (storedArtwork != null) {
+        ArtworkStore.getInstance().link(storedArtwork, pathAndFilename);
       }
-      catch (Exception e) {
-        // empty here -> just not let the thread crash
+      else {
+        // never write into an existing file - it may be a hardlink into the artwork store
+        Files.deleteIfExists(pathAndFilename);
+        FileOutputStream outputStream = new FileOutputStream(pathAndFilename.toFile());
+        InputStream is = new ByteArrayInputStream(bytes);
+        IOUtils.copy(is, outputStream);
+        outputStream.flush();
+        try {
+          outputStream.getFD().sync(); // wait until file has been completely written
+        }
+        catch (Exception e) {
+          // empty here -> just not let the thread crash
+        }
+        outputStream.close();
+        is.close();
       }
-      outputStream.close();
-      is.close();
 
       ImageCache.invalidateCachedImage(pathAndFilename);
 
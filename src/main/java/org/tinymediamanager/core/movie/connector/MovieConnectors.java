@@ -15,7 +15,17 @@
  */
 package org.tinymediamanager.core.movie.connector;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.tinymediamanager.core.NfoUtils;
+import org.tinymediamanager.core.Utils;
+import org.tinymediamanager.core.movie.entities.Movie;
 
 /**
  * The Enum MovieConnectors.
@@ -47,6 +57,10 @@ public enum MovieConnectors {
    * @return true/false
    */
   public static boolean isValidNFO(Path nfo) {
+    if (!isMovieNFO(nfo)) {
+      return false;
+    }
+
     MovieToKodiNfoConnector kodi = null;
     try {
       kodi = MovieToKodiNfoConnector.parseNFO(nfo);
@@ -83,4 +97,91 @@ public enum MovieConnectors {
 
     return false;
   }
+
+  /**
+   * parse the given NFO file into a new movie. The root element of the NFO is sniffed first, so NFOs which cannot be a movie NFO (tv show NFOs,
+   * plain text NFOs, ...) are not handed to every connector. Movie NFOs are parsed with the given connector first and with the other ones as
+   * fallback
+   * 
+   * @param nfo
+   *          the path to the NFO
+   * @param connector
+   *          the preferred connector
+   * @return the newly created movie or null if the NFO could not be parsed
+   */
+  public static Movie parseNFO(Path nfo, MovieConnectors connector) {
+    if (!isMovieNFO(nfo)) {
+      return null;
+    }
+
+    Movie movie = null;
+    switch (connector) {
+      case XBMC:
+        movie = MovieToXbmcNfoConnector.getData(nfo);
+        if (movie == null) {
+          // try the other
+          movie = MovieToKodiNfoConnector.getData(nfo);
+        }
+        if (movie == null) {
+          // try the other
+          movie = MovieToMpNfoConnector.getData(nfo);
+        }
+        break;
+
+      case KODI:
+        movie = MovieToKodiNfoConnector.getData(nfo);
+        // the xbmc connector is not needed at the moment since kodi is downwards compatible
+        if (movie == null) {
+          // try the other
+          movie = MovieToMpNfoConnector.getData(nfo);
+        }
+        break;
+
+      case MP:
+        movie = MovieToMpNfoConnector.getData(nfo);
+        if (movie == null) {
+          // try the other
+          movie = MovieToKodiNfoConnector.getData(nfo);
+        }
+        break;
+    }
+    return movie;
+  }
+
+  /**
+   * parse all given NFO files in parallel (see {@link #parseNFO(Path, MovieConnectors)})
+   * 
+   * @param nfos
+   *          the paths to the NFOs
+   * @param connector
+   *          the preferred connector
+   * @return a map containing the parsed movie (or null) for every NFO
+   */
+  public static Map<Path, Movie> parseNFOs(Collection<Path> nfos, MovieConnectors connector) {
+    Map<Path, Movie> movies = Collections.synchronizedMap(new HashMap<>());
+    nfos.parallelStream().forEach(nfo -> movies.put(nfo, parseNFO(nfo, connector)));
+    return movies;
+  }
+
+  /**
+   * checks if the given NFO may be a movie NFO: either the root element is &lt;movie&gt; or the NFO is no well formed XML, but contains a movie
+   * tag which can be recovered by the connectors
+   * 
+   * @param nfo
+   *          the path to the NFO
+   * @return true/false
+   */
+  static boolean isMovieNFO(Path nfo) {
+    String root = NfoUtils.detectRootElement(nfo);
+    if ("movie".equals(root)) {
+      return true;
+    }
+
+    try {
+      return StringUtils.containsIgnoreCase(Utils.readFileToString(nfo), "<movie");
+    }
+    catch (IOException e) {
+      return false;
+    }
+  }
 }
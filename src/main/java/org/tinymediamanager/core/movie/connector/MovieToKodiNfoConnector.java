@@ -66,6 +66,7 @@ import org.tinymediamanager.core.MediaSource;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
+import org.tinymediamanager.core.NfoUtils;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.entities.MediaFileAudioStream;
@@ -503,7 +504,7 @@ public class MovieToKodiNfoConnector {
           continue;
         }
 
-        Marshaller m = context.createMarshaller();
+        Marshaller m = NfoUtils.getMarshaller(context);
         m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
         m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
@@ -523,7 +524,7 @@ public class MovieToKodiNfoConnector {
           sb = new StringBuilder(sb.toString().replaceAll("(?<!\r)\n", "\r\n"));
         }
         Path f = movie.getPathNIO().resolve(nfoFilename);
-        Utils.writeStringToFile(f, sb.toString());
+        NfoUtils.writeNfoIfChanged(f, sb);
         MediaFile mf = new MediaFile(f);
         mf.gatherMediaInformation(true); // force to update filedate
         newNfos.add(mf);
@@ -774,7 +775,7 @@ public class MovieToKodiNfoConnector {
   }
 
   protected static MovieToKodiNfoConnector parseNFO(Path nfoFile) throws Exception {
-    Unmarshaller um = context.createUnmarshaller();
+    Unmarshaller um = NfoUtils.getUnmarshaller(context);
     if (um == null) {
       MessageManager.instance.pushMessage(new Message(MessageLevel.ERROR, nfoFile, "message.nfo.readerror"));
       throw new Exception("could not create unmarshaller");
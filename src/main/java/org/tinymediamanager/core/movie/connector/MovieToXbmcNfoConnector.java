@@ -62,6 +62,7 @@ import org.tinymediamanager.core.MediaSource;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
+import org.tinymediamanager.core.NfoUtils;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.entities.MediaFileAudioStream;
@@ -471,7 +472,7 @@ public class MovieToXbmcNfoConnector {
           continue;
         }
 
-        Marshaller m = context.createMarshaller();
+        Marshaller m = NfoUtils.getMarshaller(context);
         m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
         m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
@@ -491,7 +492,7 @@ public class MovieToXbmcNfoConnector {
           sb = new StringBuilder(sb.toString().replaceAll("(?<!\r)\n", "\r\n"));
         }
         Path f = movie.getPathNIO().resolve(nfoFilename);
-        Utils.writeStringToFile(f, sb.toString());
+        NfoUtils.writeNfoIfChanged(f, sb);
         MediaFile mf = new MediaFile(f);
         mf.gatherMediaInformation(true); // force to update filedate
         newNfos.add(mf);
@@ -723,7 +724,7 @@ public class MovieToXbmcNfoConnector {
   }
 
   protected static MovieToXbmcNfoConnector parseNFO(Path nfoFile) throws Exception {
-    Unmarshaller um = context.createUnmarshaller();
+    Unmarshaller um = NfoUtils.getUnmarshaller(context);
     if (um == null) {
       MessageManager.instance.pushMessage(new Message(MessageLevel.ERROR, nfoFile, "message.nfo.readerror"));
       throw new Exception("could not create unmarshaller");
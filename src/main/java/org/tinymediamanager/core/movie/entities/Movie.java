@@ -95,6 +95,8 @@ import org.tinymediamanager.core.movie.connector.MovieToMpNfoConnector;
 import org.tinymediamanager.core.movie.connector.MovieToXbmcNfoConnector;
 import org.tinymediamanager.core.movie.tasks.MovieActorImageFetcher;
 import org.tinymediamanager.core.movie.tasks.MovieTrailerDownloadTask;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.scraper.MediaMetadata;
 import org.tinymediamanager.scraper.MediaScrapeOptions;
@@ -1048,8 +1050,8 @@ public class Movie extends MediaEntity {
     }
 
     // update DB
-    writeNFO();
     saveToDb();
+    writeNFOQueued();
 
     // rename the movie if that has been chosen in the settings
     if (MovieModuleManager.MOVIE_SETTINGS.isMovieRenameAfterScrape()) {
@@ -1141,8 +1143,8 @@ public class Movie extends MediaEntity {
     }
 
     // persist
-    writeNFO();
     saveToDb();
+    writeNFOQueued();
   }
 
   /**
@@ -1442,7 +1444,7 @@ public class Movie extends MediaEntity {
     }
 
     MovieActorImageFetcher task = new MovieActorImageFetcher(this);
-    TmmTaskManager.getInstance().addImageDownloadTask(task);
+    TmmTaskManager.getInstance().addImageDownloadTask(task, Priority.BULK);
   }
 
   /**
@@ -1465,6 +1467,16 @@ public class Movie extends MediaEntity {
     firePropertyChange(HAS_NFO_FILE, false, true);
   }
 
+  /**
+   * write the NFO through the {@link NfoWriterQueue} (multiple requests within a short time are merged) and persist the movie afterwards
+   */
+  public void writeNFOQueued() {
+    NfoWriterQueue.getInstance().submit(this, () -> {
+      writeNFO();
+      saveToDb();
+    });
+  }
+
   /**
    * Sets the director.
    *
@@ -1992,7 +2004,7 @@ public class Movie extends MediaEntity {
   @Override
   public synchronized void callbackForWrittenArtwork(MediaArtworkType type) {
     if (MovieModuleManager.MOVIE_SETTINGS.getMovieConnector() == MovieConnectors.MP) {
-      writeNFO();
+      writeNFOQueued();
     }
   }
 
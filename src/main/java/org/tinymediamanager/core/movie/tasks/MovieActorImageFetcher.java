@@ -24,6 +24,8 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.ArtworkStore;
 import org.tinymediamanager.core.ImageCache;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.movie.entities.Movie;
@@ -95,6 +97,17 @@ public class MovieActorImageFetcher implements Runnable {
         Path actorImage = actor.getStoragePath();
 
         if (actorImage != null && StringUtils.isNotEmpty(actor.getThumbUrl()) && !Files.exists(actorImage)) {
+          if (Globals.settings.isArtworkStore()) {
+            // popular actors appear in many movies - download once and link
+            try {
+              ArtworkStore.getInstance().materialize(actor.getThumbUrl(), actorImage);
+            }
+            catch (IOException e) {
+              LOGGER.debug("could not fetch actor image " + actor.getThumbUrl() + ": " + e.getMessage());
+            }
+            continue;
+          }
+
           Path cache = ImageCache.getCachedFile(actor.getThumbUrl());
           if (cache != null) {
             Utils.copyFileSafe(cache, actorImage);
@@ -22,12 +22,14 @@ import java.util.ResourceBundle;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
 import org.tinymediamanager.core.MediaFileInformationFetcherTask;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.movie.entities.Movie;
+import org.tinymediamanager.core.threading.ThroughputMeter;
 import org.tinymediamanager.core.threading.TmmThreadPool;
 import org.tinymediamanager.ui.UTF8Control;
 
@@ -41,11 +43,12 @@ public class MovieReloadMediaInformationTask extends TmmThreadPool {
   private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("messages", new UTF8Control());       //$NON-NLS-1$
 
   private List<Movie>                 moviesToReload;
+  private volatile ThroughputMeter    throughput;
 
   public MovieReloadMediaInformationTask(List<Movie> movies) {
     super(BUNDLE.getString("movie.updatemediainfo"));
     moviesToReload = new ArrayList<>(movies);
-    initThreadPool(1, "reloadMI");
+    initThreadPool(Globals.settings.getMediaInfoThreads(), "reloadMI");
   }
 
   @Override
@@ -56,18 +59,19 @@ public class MovieReloadMediaInformationTask extends TmmThreadPool {
       LOGGER.info("get MediaInfo...");
       // update MediaInfo
       start();
+      throughput = new ThroughputMeter("files");
       for (Movie m : moviesToReload) {
         if (cancel) {
           break;
         }
         for (MediaFile mf : m.getMediaFiles()) {
-          submitTask(new MediaFileInformationFetcherTask(mf, m, true));
+          submitTask(new MediaFileInformationFetcherTask(mf, m, true, throughput));
         }
       }
 
       waitForCompletionOrCancel();
       stopWatch.stop();
-      LOGGER.info("Done getting MediaInfo - took " + stopWatch);
+      LOGGER.info("Done getting MediaInfo - took " + stopWatch + " (" + throughput + ")");
     }
     catch (Exception e) {
       LOGGER.error("Thread crashed", e);
@@ -77,6 +81,6 @@ public class MovieReloadMediaInformationTask extends TmmThreadPool {
 
   @Override
   public void callback(Object obj) {
-    publishState((String) obj, progressDone);
+    publishState(obj + " (" + throughput + ")", progressDone);
   }
 }
@@ -37,6 +37,7 @@ import org.tinymediamanager.core.movie.MovieScraperMetadataConfig;
 import org.tinymediamanager.core.movie.MovieSearchAndScrapeOptions;
 import org.tinymediamanager.core.movie.entities.Movie;
 import org.tinymediamanager.core.movie.entities.MovieTrailer;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.threading.TmmTask;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.threading.TmmThreadPool;
@@ -89,6 +90,9 @@ public class MovieScrapeTask extends TmmThreadPool {
     }
     waitForCompletionOrCancel();
 
+    // the NFOs are written by the NFO writer queue - this task is done when they are on disk
+    NfoWriterQueue.getInstance().flush();
+
     // initiate smart scrape
     if (!smartScrapeList.isEmpty() && !GraphicsEnvironment.isHeadless()) {
       try {
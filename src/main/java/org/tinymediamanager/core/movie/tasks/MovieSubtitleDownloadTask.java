@@ -73,7 +73,7 @@ public class MovieSubtitleDownloadTask extends DownloadTask {
           String extension = FilenameUtils.getExtension(zipEntryFilename).toLowerCase(Locale.ROOT);
 
           // check is that is a valid file type
-          if (!Globals.settings.getSubtitleFileType().contains("." + extension) && !"idx".equals(extension)) {
+          if (!Globals.settings.getFileTypeRegistry().isSubtitle(extension) && !"idx".equals(extension)) {
             ze = is.getNextEntry();
             continue;
           }
@@ -38,10 +38,12 @@ import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -65,11 +67,10 @@ import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.movie.MovieEdition;
 import org.tinymediamanager.core.movie.MovieList;
 import org.tinymediamanager.core.movie.MovieModuleManager;
-import org.tinymediamanager.core.movie.connector.MovieToKodiNfoConnector;
-import org.tinymediamanager.core.movie.connector.MovieToMpNfoConnector;
-import org.tinymediamanager.core.movie.connector.MovieToXbmcNfoConnector;
+import org.tinymediamanager.core.movie.connector.MovieConnectors;
 import org.tinymediamanager.core.movie.entities.Movie;
 import org.tinymediamanager.core.movie.entities.MovieTrailer;
+import org.tinymediamanager.core.threading.ThroughputMeter;
 import org.tinymediamanager.core.threading.TmmTask;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.threading.TmmThreadPool;
@@ -109,6 +110,7 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
   private List<Movie>                 movieFolders   = new ArrayList<>();
   private MovieList                   movieList;
   private HashSet<Path>               filesFound     = new HashSet<>();
+  private volatile ThroughputMeter    mediainfoThroughput;
 
   public MovieUpdateDatasourceTask2() {
     super(BUNDLE.getString("update.datasource"));
@@ -448,50 +450,30 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
    * @return Movie or NULL
    */
   private Movie parseNFOs(List<MediaFile> mfs) {
+    return parseNFOs(mfs, Collections.emptyMap());
+  }
+
+  /**
+   * Parses ALL NFO MFs (merged together) and create a movie<br>
+   * 
+   * @param mfs
+   * @param parsedNfos
+   *          NFOs which have already been parsed in advance (consumed when used)
+   * @return Movie or NULL
+   */
+  private Movie parseNFOs(List<MediaFile> mfs, Map<Path, Movie> parsedNfos) {
     Movie movie = null;
     for (MediaFile mf : mfs) {
 
       if (mf.getType().equals(MediaFileType.NFO)) {
         LOGGER.info("| parsing NFO " + mf.getFileAsPath());
-        Movie nfo = null;
-        switch (MovieModuleManager.MOVIE_SETTINGS.getMovieConnector()) {
-          case XBMC:
-            nfo = MovieToXbmcNfoConnector.getData(mf.getFileAsPath());
-            if (nfo == null) {
-              // try the other
-              nfo = MovieToKodiNfoConnector.getData(mf.getFileAsPath());
-            }
-            if (nfo == null) {
-              // try the other
-              nfo = MovieToMpNfoConnector.getData(mf.getFileAsPath());
-            }
-            break;
-
-          case KODI:
-            nfo = MovieToKodiNfoConnector.getData(mf.getFileAsPath());
-            // not needed at the moment since kodi is downwards compatible
-            // if (nfo == null) {
-            // // try the other
-            // nfo = MovieToXbmcNfoConnector.getData(mf.getFileAsPath());
-            // }
-            if (nfo == null) {
-              // try the other
-              nfo = MovieToMpNfoConnector.getData(mf.getFileAsPath());
-            }
-            break;
-
-          case MP:
-            nfo = MovieToMpNfoConnector.getData(mf.getFileAsPath());
-            if (nfo == null) {
-              // try the other
-              nfo = MovieToKodiNfoConnector.getData(mf.getFileAsPath());
-            }
-            // not needed at the moment since kodi is downwards compatible
-            // if (nfo == null) {
-            // // try the other
-            // nfo = MovieToXbmcNfoConnector.getData(mf.getFileAsPath());
-            // }
-            break;
+        Movie nfo;
+        if (parsedNfos.containsKey(mf.getFileAsPath())) {
+          // already parsed in advance; every movie needs its own instance, so take it only once
+          nfo = parsedNfos.remove(mf.getFileAsPath());
+        }
+        else {
+          nfo = MovieConnectors.parseNFO(mf.getFileAsPath(), MovieModuleManager.MOVIE_SETTINGS.getMovieConnector());
         }
 
         // take first nfo 1:1, or create a new, empty Movie
@@ -554,8 +536,8 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
 
     // if (!Utils.getFolderStackingMarker(relative.toString()).isEmpty() &&
     // level > 1) {
-    if (!Utils.getFolderStackingMarker(relative.toString()).isEmpty()
-        && Utils.getFolderStackingMarker(relative.toString()).equals(movieDir.getFileName().toString())) {
+    String folderStackingMarker = Utils.getFolderStackingMarker(relative.toString());
+    if (!folderStackingMarker.isEmpty() && folderStackingMarker.equals(movieDir.getFileName().toString())) {
       movieDir = movieDir.getParent();
     }
 
@@ -772,6 +754,23 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
       }
     });
 
+    // no movie known in this folder yet: every movie will be created from its NFOs, so parse them in parallel in advance
+    Map<Path, Movie> parsedNfos = Collections.emptyMap();
+    if (movies.isEmpty()) {
+      Set<Path> nfos = new LinkedHashSet<>();
+      for (MediaFile mf : getMediaFiles(mfs, VIDEO)) {
+        String basename = FilenameUtils.getBaseName(Utils.cleanStackingMarkers(mf.getFilename()));
+        for (MediaFile nfo : getMediaFiles(mfs, MediaFileType.NFO)) {
+          if (isSameName(basename, nfo)) {
+            nfos.add(nfo.getFileAsPath());
+          }
+        }
+      }
+      if (nfos.size() > 1) {
+        parsedNfos = MovieConnectors.parseNFOs(nfos, MovieModuleManager.MOVIE_SETTINGS.getMovieConnector());
+      }
+    }
+
     for (MediaFile mf : getMediaFiles(mfs, VIDEO)) {
 
       Movie movie = null;
@@ -781,9 +780,7 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
       List<MediaFile> sameName = new ArrayList<>();
       LOGGER.trace("UDS: basename: " + basename);
       for (MediaFile sm : mfs) {
-        String smBasename = FilenameUtils.getBaseName(sm.getFilename());
-        String smNameRegexp = Pattern.quote(basename) + "[\\s.,_-].*";
-        if (smBasename.equals(basename) || smBasename.matches(smNameRegexp)) {
+        if (isSameName(basename, sm)) {
           if (sm.getType() == MediaFileType.GRAPHIC) {
             // same named graphics (unknown, not detected without postfix) treated as posters
             sm.setType(MediaFileType.POSTER);
@@ -814,7 +811,7 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
       }
       if (movie == null) {
         // 2) create if not found
-        movie = parseNFOs(sameName);
+        movie = parseNFOs(sameName, parsedNfos);
 
         if (movie == null) {
           // still NULL, create new movie movie from file
@@ -908,6 +905,21 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
     }
   }
 
+  /**
+   * checks if the given MF belongs to the movie with the given basename (same basename or basename followed by a delimiter)
+   * 
+   * @param basename
+   *          the basename of the video file
+   * @param mf
+   *          the MF to check
+   * @return true/false
+   */
+  private static boolean isSameName(String basename, MediaFile mf) {
+    String smBasename = FilenameUtils.getBaseName(mf.getFilename());
+    String smNameRegexp = Pattern.quote(basename) + "[\\s.,_-].*";
+    return smBasename.equals(basename) || smBasename.matches(smNameRegexp);
+  }
+
   private void addMediafilesToMovie(Movie movie, List<MediaFile> mediaFiles) {
     List<MediaFile> current = new ArrayList<>(movie.getMediaFiles());
 
@@ -1147,7 +1159,8 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
     setTaskName(BUNDLE.getString("update.mediainfo"));
     publishState();
 
-    initThreadPool(1, "mediainfo");
+    initThreadPool(Globals.settings.getMediaInfoThreads(), "mediainfo");
+    mediainfoThroughput = new ThroughputMeter("files");
 
     LOGGER.info("getting Mediainfo...");
     for (int i = movieList.getMovies().size() - 1; i >= 0; i--) {
@@ -1163,11 +1176,13 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
 
       for (MediaFile mf : new ArrayList<>(movie.getMediaFiles())) {
         if (StringUtils.isBlank(mf.getContainerFormat())) {
-          submitTask(new MediaFileInformationFetcherTask(mf, movie, false));
+          submitTask(new MediaFileInformationFetcherTask(mf, movie, false, mediainfoThroughput));
         }
       }
     }
     waitForCompletionOrCancel();
+    LOGGER.info("Mediainfo throughput: " + mediainfoThroughput);
+    mediainfoThroughput = null;
   }
 
   private void gatherMediainfo(List<Movie> movies) {
@@ -1175,7 +1190,8 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
     setTaskName(BUNDLE.getString("update.mediainfo"));
     publishState();
 
-    initThreadPool(1, "mediainfo");
+    initThreadPool(Globals.settings.getMediaInfoThreads(), "mediainfo");
+    mediainfoThroughput = new ThroughputMeter("files");
 
     LOGGER.info("getting Mediainfo...");
     for (Movie movie : movies) {
@@ -1184,11 +1200,13 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
       }
       for (MediaFile mf : new ArrayList<>(movie.getMediaFiles())) {
         if (StringUtils.isBlank(mf.getContainerFormat())) {
-          submitTask(new MediaFileInformationFetcherTask(mf, movie, false));
+          submitTask(new MediaFileInformationFetcherTask(mf, movie, false, mediainfoThroughput));
         }
       }
     }
     waitForCompletionOrCancel();
+    LOGGER.info("Mediainfo throughput: " + mediainfoThroughput);
+    mediainfoThroughput = null;
   }
 
   /**
@@ -1244,8 +1262,14 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
   @Override
   public void callback(Object obj) {
     // do not publish task description here, because with different workers the
-    // text is never right
-    publishState(progressDone);
+    // text is never right - but we can show the throughput while fetching mediainfo
+    ThroughputMeter throughput = mediainfoThroughput;
+    if (throughput != null) {
+      publishState(throughput.toString(), progressDone);
+    }
+    else {
+      publishState(progressDone);
+    }
   }
 
   /**
@@ -1399,7 +1423,7 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
       visFile++;
       if (Utils.isRegularFile(attr) && !file.getFileName().toString().matches(skipRegex)) {
         // check for video?
-        if (Globals.settings.getVideoFileType().contains("." + FilenameUtils.getExtension(file.toString()).toLowerCase(Locale.ROOT))) {
+        if (Globals.settings.getFileTypeRegistry().isVideo(FilenameUtils.getExtension(file.toString()))) {
           if (file.getParent().getFileName().toString().equals("STREAM")) {
             return CONTINUE; // BD folder has an additional parent video folder
                              // - ignore it here
@@ -1444,8 +1468,8 @@ public class MovieUpdateDatasourceTask2 extends TmmThreadPool {
         // quick fix for folder stacking
         // name = stacking marker & parent has already been processed - skip
         Path relative = datasource.relativize(dir);
-        if (!Utils.getFolderStackingMarker(relative.toString()).isEmpty()
-            && Utils.getFolderStackingMarker(relative.toString()).equals(dir.getFileName().toString())) {
+        String folderStackingMarker = Utils.getFolderStackingMarker(relative.toString());
+        if (!folderStackingMarker.isEmpty() && folderStackingMarker.equals(dir.getFileName().toString())) {
           if (unstackedRoot.contains(dir.getParent().toString())) {
             update = false;
           }
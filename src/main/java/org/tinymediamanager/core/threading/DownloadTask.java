@@ -15,14 +15,26 @@
  */
 package org.tinymediamanager.core.threading;
 
-import java.io.BufferedInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,14 +58,17 @@ import okhttp3.Headers;
  * @author Myron Boyle, Manuel Laggner
  */
 public class DownloadTask extends TmmTask {
-  private static final Logger         LOGGER    = LoggerFactory.getLogger(DownloadTask.class);
-  private static final ResourceBundle BUNDLE    = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
+  private static final Logger         LOGGER            = LoggerFactory.getLogger(DownloadTask.class);
+  private static final ResourceBundle BUNDLE            = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
+  private static final int            BUFFER_SIZE       = 256 * 1024;
+  private static final long           PROGRESS_INTERVAL = 250_000_000; // 250ms
+  private static final Pattern        CONTENT_RANGE     = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
 
   protected String                    url;
   protected Path                      file;
   protected MediaEntity               media;
   protected MediaFileType             fileType;
-  protected String                    userAgent = "";
+  protected String                    userAgent         = "";
 
   /**
    * Downloads an url to a file, and does correct http encoding on querystring.<br>
@@ -113,13 +128,13 @@ public class DownloadTask extends TmmTask {
 
       // if file extension is empty, detect from url, or content type
       String ext = FilenameUtils.getExtension(file.getFileName().toString()).toLowerCase(Locale.ROOT);
-      if (ext != null && ext.length() > 4 || !Globals.settings.getAllSupportedFileTypes().contains("." + ext)) {
+      if (ext != null && ext.length() > 4 || !Globals.settings.getFileTypeRegistry().isSupported(ext)) {
         ext = ""; // no extension when longer than 4 chars!
       }
       if (ext == null || ext.isEmpty()) {
         ext = UrlUtil.getExtension(url).toLowerCase(Locale.ROOT);
         if (!ext.isEmpty()) {
-          if (Globals.settings.getAllSupportedFileTypes().contains("." + ext)) {
+          if (Globals.settings.getFileTypeRegistry().isSupported(ext)) {
             file = file.getParent().resolve(file.getFileName() + "." + ext);
           }
           else {
@@ -129,13 +144,35 @@ public class DownloadTask extends TmmTask {
         }
       }
 
-      LOGGER.info("Downloading " + url);
-      StreamingUrl u = new StreamingUrl(UrlUtil.getURIEncoded(url).toASCIIString());
-      if (StringUtils.isNotBlank(userAgent)) {
-        u.setUserAgent(userAgent);
+      // resume a previous download of this file if there is a partial file of the same url left (only possible if the target filename is
+      // already known)
+      Path tempFile = file.resolveSibling(file.getFileName() + ".part");
+      long offset = 0;
+      String ifRange = null;
+      if (!ext.isEmpty() && Files.isRegularFile(tempFile)) {
+        ifRange = readResumeValidator(getPartInfoFile(tempFile));
+        if (ifRange != null) {
+          offset = Files.size(tempFile);
+        }
+        else {
+          LOGGER.debug("partial file " + tempFile + " does not belong to this download - discarding");
+          Utils.deleteFileSafely(tempFile);
+        }
       }
+
+      LOGGER.info("Downloading " + url);
+      StreamingUrl u = createUrl(offset, ifRange);
       InputStream is = u.getInputStream();
 
+      if (u.isFault() && offset > 0) {
+        // the partial file does not fit (e.g. 416 - range not satisfiable); start over
+        LOGGER.debug("could not resume download (" + u.getStatusLine() + ") - starting over");
+        IOUtils.closeQuietly(is);
+        offset = 0;
+        u = createUrl(offset, null);
+        is = u.getInputStream();
+      }
+
       // trace server headers
       LOGGER.trace("Server returned: " + u.getStatusLine());
       Headers headers = u.getHeadersResponse();
@@ -149,7 +186,18 @@ public class DownloadTask extends TmmTask {
         return;
       }
 
+      if (offset > 0 && !isResumed(headers.get("Content-Range"), offset)) {
+        // the server does not support ranges or the file has been changed (If-Range) and sends the whole file
+        LOGGER.debug("server does not resume the download - starting over");
+        offset = 0;
+      }
+
       long length = u.getContentLength();
+      if (length > 0) {
+        // the content length of a resumed download is the length of the remaining part
+        length += offset;
+      }
+
       String type = u.getContentEncoding();
       if (ext.isEmpty()) {
         // still empty? try to parse from mime header
@@ -170,49 +218,70 @@ public class DownloadTask extends TmmTask {
         ext = "dat";
       }
 
-      LOGGER.info("Downloading to " + file);
+      if (offset > 0) {
+        LOGGER.info("Resuming download to " + file + " at " + formatBytesForOutput(offset));
+      }
+      else {
+        LOGGER.info("Downloading to " + file);
+      }
 
-      Path tempFile = file.resolveSibling(file.getFileName() + ".part");
-      BufferedInputStream bufferedInputStream = new BufferedInputStream(is);
-      FileOutputStream outputStream = new FileOutputStream(tempFile.toFile());
-      int count = 0;
-      byte buffer[] = new byte[2048];
-      Long timestamp1 = System.nanoTime();
-      Long timestamp2;
-      long bytesDone = 0;
-      long bytesDonePrevious = 0;
+      tempFile = file.resolveSibling(file.getFileName() + ".part");
+      Path partInfoFile = getPartInfoFile(tempFile);
+      if (offset == 0) {
+        // remember which download the partial file belongs to
+        writeResumeValidator(partInfoFile, headers);
+      }
+
+      OpenOption[] options = offset > 0 ? new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND }
+          : new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING };
+
+      ReadableByteChannel inputChannel = Channels.newChannel(is);
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      long start = System.nanoTime();
+      long timestamp1 = start;
+      long timestamp2;
+      long bytesDone = offset;
+      long bytesDonePrevious = offset;
       double speed = 0;
 
-      while ((count = bufferedInputStream.read(buffer, 0, buffer.length)) != -1) {
-        if (cancel) {
-          break;
-        }
+      try (FileChannel outputChannel = FileChannel.open(tempFile, options)) {
+        while (inputChannel.read(buffer) != -1) {
+          if (cancel) {
+            break;
+          }
 
-        outputStream.write(buffer, 0, count);
-        bytesDone += count;
+          buffer.flip();
+          while (buffer.hasRemaining()) {
+            bytesDone += outputChannel.write(buffer);
+          }
+          buffer.clear();
 
-        // we push the progress only once per 250ms (to use less performance and get a better download speed)
-        timestamp2 = System.nanoTime();
-        if (timestamp2 - timestamp1 > 250000000) {
-          // avg. speed between the actual and the previous
-          speed = (speed + (bytesDone - bytesDonePrevious) / ((double) (timestamp2 - timestamp1) / 1000000000)) / 2;
+          // we push the progress only once per PROGRESS_INTERVAL (to use less performance and get a better download speed)
+          timestamp2 = System.nanoTime();
+          if (timestamp2 - timestamp1 > PROGRESS_INTERVAL) {
+            // avg. speed between the actual and the previous
+            speed = (speed + (bytesDone - bytesDonePrevious) / ((double) (timestamp2 - timestamp1) / 1000000000)) / 2;
 
-          timestamp1 = timestamp2;
-          bytesDonePrevious = bytesDone;
+            timestamp1 = timestamp2;
+            bytesDonePrevious = bytesDone;
 
-          if (length > 0) {
-            publishState(formatBytesForOutput(bytesDone) + "/" + formatBytesForOutput(length) + " @" + formatSpeedForOutput(speed),
-                (int) (bytesDone * 100 / length));
+            if (length > 0) {
+              publishState(formatBytesForOutput(bytesDone) + "/" + formatBytesForOutput(length) + " @" + formatSpeedForOutput(speed),
+                  (int) (bytesDone * 100 / length));
+            }
+            else {
+              setWorkUnits(0);
+              publishState(formatBytesForOutput(bytesDone) + " @" + formatSpeedForOutput(speed), 0);
+            }
           }
-          else {
-            setWorkUnits(0);
-            publishState(formatBytesForOutput(bytesDone) + " @" + formatSpeedForOutput(speed), 0);
-          }
-
         }
       }
 
-      outputStream.close();
+      // average rate of this download (without the resumed part)
+      double seconds = (System.nanoTime() - start) / 1000000000d;
+      long bytesDownloaded = bytesDone - offset;
+      LOGGER.info("Downloaded " + formatBytesForOutput(bytesDownloaded) + " in " + String.format(Locale.ROOT, "%.1fs", seconds) + " @"
+          + formatSpeedForOutput(seconds > 0 ? bytesDownloaded / seconds : 0) + ", resumed bytes: " + formatBytesForOutput(offset));
 
       // we must not close the input stream on cancel(the rest will be downloaded if we close it on cancel)
       if (!cancel) {
@@ -220,8 +289,12 @@ public class DownloadTask extends TmmTask {
       }
 
       if (cancel) {
-        // delete half downloaded file
-        Utils.deleteFileSafely(tempFile);
+        // keep the half downloaded file - the download will be resumed the next time
+        LOGGER.info("Download of " + file + " cancelled - partial file kept");
+      }
+      else if (length > 0 && bytesDone < length) {
+        LOGGER.warn("Download of " + file + " incomplete (" + formatBytesForOutput(bytesDone) + "/" + formatBytesForOutput(length)
+            + ") - partial file kept");
       }
       else {
         if (ext.isEmpty()) {
@@ -242,6 +315,7 @@ public class DownloadTask extends TmmTask {
         boolean ok = Utils.moveFileSafe(tempFile, file);
         if (ok) {
           Utils.deleteFileSafely(tempFile);
+          Utils.deleteFileSafely(partInfoFile);
           if (media != null) {
             MediaFile mf = new MediaFile(file, fileType);
             mf.gatherMediaInformation();
@@ -260,6 +334,76 @@ public class DownloadTask extends TmmTask {
     }
   }
 
+  private StreamingUrl createUrl(long offset, String ifRange) throws Exception {
+    StreamingUrl u = new StreamingUrl(UrlUtil.getURIEncoded(url).toASCIIString());
+    if (StringUtils.isNotBlank(userAgent)) {
+      u.setUserAgent(userAgent);
+    }
+    if (offset > 0) {
+      u.addHeader("Range", "bytes=" + offset + "-");
+      // the server sends the whole file if it has been changed since the partial download
+      u.addHeader("If-Range", ifRange);
+    }
+    return u;
+  }
+
+  private static Path getPartInfoFile(Path tempFile) {
+    return tempFile.resolveSibling(tempFile.getFileName() + ".info");
+  }
+
+  /**
+   * get the validator (ETag or Last-Modified) of the partial download, if the partial file has been downloaded from our url
+   */
+  private String readResumeValidator(Path partInfoFile) {
+    try {
+      if (Files.isRegularFile(partInfoFile)) {
+        List<String> lines = Files.readAllLines(partInfoFile, StandardCharsets.UTF_8);
+        if (lines.size() == 2 && url.equals(lines.get(0)) && StringUtils.isNotBlank(lines.get(1))) {
+          return lines.get(1);
+        }
+      }
+    }
+    catch (IOException e) {
+      LOGGER.debug("could not read " + partInfoFile + ": " + e.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * store the url and the validator of the download next to the partial file; without a (strong) validator the download cannot be resumed
+   */
+  private void writeResumeValidator(Path partInfoFile, Headers headers) throws IOException {
+    String validator = headers.get("ETag");
+    if (StringUtils.isBlank(validator) || validator.startsWith("W/")) {
+      // If-Range needs a strong validator
+      validator = headers.get("Last-Modified");
+    }
+
+    if (StringUtils.isBlank(validator)) {
+      Files.deleteIfExists(partInfoFile);
+    }
+    else {
+      Files.write(partInfoFile, Arrays.asList(url, validator.trim()), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * check if the server answered the range request: the content range has to start at the requested offset
+   *
+   * @param contentRange
+   *          the Content-Range header of the response
+   * @param offset
+   *          the requested offset
+   * @return true if the response contains the rest of the file starting at the offset
+   */
+  static boolean isResumed(String contentRange, long offset) {
+    if (StringUtils.isBlank(contentRange)) {
+      return false;
+    }
+    Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+    return matcher.matches() && Long.parseLong(matcher.group(1)) == offset;
+  }
+
   private String formatBytesForOutput(long bytes) {
     return String.format("%.2fM", (double) bytes / (1024d * 1024d));
   }
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.threading;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.core.threading.TmmThreadPool.TmmThreadFactory;
+
+/**
+ * The class ImageDownloadScheduler. Schedules the image downloads onto a fixed amount of worker threads:<br>
+ * - downloads are queued in priority classes; artwork the user is waiting for ({@link Priority#INTERACTIVE}) is started before artwork of
+ * running scrapes ({@link Priority#SCRAPE}), which is started before bulk downloads like actor images or extra artwork
+ * ({@link Priority#BULK})<br>
+ * - only a limited amount of downloads per host run at the same time, so a single slow host cannot block all workers; downloads with an
+ * unknown host are not limited<br>
+ * - within a priority class the downloads are started in the order they have been added
+ *
+ * @author Manuel Laggner
+ */
+public class ImageDownloadScheduler {
+  private static final Logger                               LOGGER         = LoggerFactory.getLogger(ImageDownloadScheduler.class);
+
+  private final int                                         threads;
+  private final int                                         maxPerHost;
+  private final Runnable                                    stateListener;
+  private final ThreadPoolExecutor                          executor;
+  private final Object                                      lock           = new Object();
+  private final Map<Priority, Map<String, ArrayDeque<Job>>> queues         = new EnumMap<>(Priority.class);
+  private final Map<String, Integer>                        runningPerHost = new HashMap<>();
+  private final Map<Priority, Statistic>                    statistics     = new EnumMap<>(Priority.class);
+  private final AtomicLong                                  completed      = new AtomicLong();
+
+  private long                                              sequence;
+  private long                                              taskCount;
+  private int                                               queued;
+  private int                                               running;
+  private boolean                                           shutdown;
+
+  /**
+   * the priority classes of the downloads; ordered by importance
+   */
+  public enum Priority {
+    INTERACTIVE,
+    SCRAPE,
+    BULK
+  }
+
+  /**
+   * a download task knowing its url; the host of the url is used for the per host limit
+   */
+  public interface ImageDownload extends Runnable {
+    String getUrl();
+  }
+
+  /**
+   * create a new scheduler
+   *
+   * @param threads
+   *          the amount of worker threads
+   * @param maxPerHost
+   *          the max amount of concurrent downloads per host
+   * @param stateListener
+   *          gets informed before and after a download has been executed
+   */
+  ImageDownloadScheduler(int threads, int maxPerHost, Runnable stateListener) {
+    this.threads = Math.max(threads, 1);
+    this.maxPerHost = Math.max(maxPerHost, 1);
+    this.stateListener = stateListener;
+    for (Priority priority : Priority.values()) {
+      queues.put(priority, new LinkedHashMap<>());
+      statistics.put(priority, new Statistic());
+    }
+
+    executor = new ThreadPoolExecutor(this.threads, this.threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new TmmThreadFactory("image-download-task"));
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * add a download to the queue of the given priority class
+   *
+   * @param task
+   *          the download task; implement {@link ImageDownload} to take part in the per host limit
+   * @param priority
+   *          the priority class
+   */
+  public void submit(Runnable task, Priority priority) {
+    String host = task instanceof ImageDownload ? getHost(((ImageDownload) task).getUrl()) : "";
+    synchronized (lock) {
+      if (shutdown) {
+        return;
+      }
+      Job job = new Job(task, priority, host, sequence++);
+      queues.get(priority).computeIfAbsent(host, k -> new ArrayDeque<>()).add(job);
+      queued++;
+      taskCount++;
+
+      Statistic statistic = statistics.get(priority);
+      statistic.submitted++;
+      statistic.depth++;
+      statistic.maxDepth = Math.max(statistic.maxDepth, statistic.depth);
+
+      dispatch();
+    }
+  }
+
+  /**
+   * start as many queued downloads as there are free workers (and hosts below their limit)
+   */
+  private void dispatch() {
+    while (running < threads && !executor.isShutdown()) {
+      Job job = poll();
+      if (job == null) {
+        break;
+      }
+      running++;
+      if (!job.host.isEmpty()) {
+        runningPerHost.merge(job.host, 1, Integer::sum);
+      }
+      executor.execute(job);
+    }
+  }
+
+  /**
+   * get the next download: the oldest download of the most important priority class whose host is below the limit
+   */
+  private Job poll() {
+    for (Priority priority : Priority.values()) {
+      Map<String, ArrayDeque<Job>> hostQueues = queues.get(priority);
+      Map.Entry<String, ArrayDeque<Job>> next = null;
+      for (Map.Entry<String, ArrayDeque<Job>> entry : hostQueues.entrySet()) {
+        if (!entry.getKey().isEmpty() && runningPerHost.getOrDefault(entry.getKey(), 0) >= maxPerHost) {
+          continue;
+        }
+        if (next == null || entry.getValue().peek().sequence < next.getValue().peek().sequence) {
+          next = entry;
+        }
+      }
+
+      if (next != null) {
+        Job job = next.getValue().poll();
+        if (next.getValue().isEmpty()) {
+          hostQueues.remove(next.getKey());
+        }
+        queued--;
+        statistics.get(priority).depth--;
+        return job;
+      }
+    }
+    return null;
+  }
+
+  private void finished(Job job) {
+    boolean idle;
+    synchronized (lock) {
+      running--;
+      if (!job.host.isEmpty()) {
+        runningPerHost.computeIfPresent(job.host, (k, v) -> v > 1 ? v - 1 : null);
+      }
+      completed.incrementAndGet();
+      dispatch();
+      idle = running == 0 && queued == 0;
+      if (idle && shutdown) {
+        executor.shutdown();
+      }
+    }
+
+    if (idle) {
+      LOGGER.debug(getStatistics());
+    }
+  }
+
+  /**
+   * extract the host of the given url
+   *
+   * @param url
+   *          the url
+   * @return the host in lower case or an empty string if the url has no host
+   */
+  static String getHost(String url) {
+    if (StringUtils.isBlank(url)) {
+      return "";
+    }
+    try {
+      String host = new URI(url).getHost();
+      return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+    catch (Exception e) {
+      return "";
+    }
+  }
+
+  /**
+   * cancel all queued and running downloads; no further downloads are accepted
+   */
+  public void shutdownNow() {
+    synchronized (lock) {
+      shutdown = true;
+      for (Priority priority : Priority.values()) {
+        queues.get(priority).clear();
+        statistics.get(priority).depth = 0;
+      }
+      queued = 0;
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * accept no further downloads, but finish the queued and running ones
+   */
+  public void shutdown() {
+    synchronized (lock) {
+      shutdown = true;
+      if (running == 0 && queued == 0) {
+        executor.shutdown();
+      }
+    }
+  }
+
+  public boolean isShutdown() {
+    synchronized (lock) {
+      return shutdown;
+    }
+  }
+
+  public boolean isTerminated() {
+    return executor.isTerminated();
+  }
+
+  /**
+   * get the amount of all downloads ever added
+   *
+   * @return the task count
+   */
+  public long getTaskCount() {
+    synchronized (lock) {
+      return taskCount;
+    }
+  }
+
+  /**
+   * get the amount of finished downloads
+   *
+   * @return the completed task count
+   */
+  public long getCompletedTaskCount() {
+    return completed.get();
+  }
+
+  /**
+   * get the amount of queued and running downloads
+   *
+   * @return the amount of open downloads
+   */
+  public int getOpenTaskCount() {
+    synchronized (lock) {
+      return queued + running;
+    }
+  }
+
+  /**
+   * get the amount of queued (not yet started) downloads of the given priority class
+   *
+   * @param priority
+   *          the priority class
+   * @return the queue depth
+   */
+  public int getQueueDepth(Priority priority) {
+    synchronized (lock) {
+      return statistics.get(priority).depth;
+    }
+  }
+
+  /**
+   * get the average time a download of the given priority class has been waiting in the queue
+   *
+   * @param priority
+   *          the priority class
+   * @return the average waiting time in ms
+   */
+  public double getAverageWaitTime(Priority priority) {
+    Statistic statistic = statistics.get(priority);
+    long count = statistic.started.get();
+    return count == 0 ? 0 : statistic.waitNanos.get() / 1_000_000.0 / count;
+  }
+
+  public String getStatistics() {
+    StringBuilder sb = new StringBuilder("image downloads:");
+    synchronized (lock) {
+      for (Priority priority : Priority.values()) {
+        Statistic statistic = statistics.get(priority);
+        sb.append(String.format(Locale.ROOT, " %s %d submitted, queue depth %d (max %d), avg wait %.1f ms;", priority.name().toLowerCase(Locale.ROOT),
+            statistic.submitted, statistic.depth, statistic.maxDepth, getAverageWaitTime(priority)));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * the statistics of a priority class
+   */
+  private static class Statistic {
+    private final AtomicLong started   = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private long             submitted;
+    private int              depth;
+    private int              maxDepth;
+  }
+
+  /**
+   * a queued download
+   */
+  private class Job implements Runnable {
+    private final Runnable task;
+    private final Priority priority;
+    private final String   host;
+    private final long     sequence;
+    private final long     created = System.nanoTime();
+
+    private Job(Runnable task, Priority priority, String host, long sequence) {
+      this.task = task;
+      this.priority = priority;
+      this.host = host;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void run() {
+      Statistic statistic = statistics.get(priority);
+      statistic.started.incrementAndGet();
+      statistic.waitNanos.addAndGet(System.nanoTime() - created);
+
+      try {
+        if (stateListener != null) {
+          stateListener.run();
+        }
+        task.run();
+      }
+      catch (Exception e) {
+        LOGGER.error("image download crashed: " + e.getMessage());
+      }
+      finally {
+        finished(this);
+        if (stateListener != null) {
+          stateListener.run();
+        }
+      }
+    }
+  }
+}
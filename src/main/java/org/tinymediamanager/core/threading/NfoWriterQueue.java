@@ -0,0 +1,267 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.threading;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.threading.TmmThreadPool.TmmThreadFactory;
+
+/**
+ * The class NfoWriterQueue. NFO writes of bulk operations (scraping, batch editing) are handed over to this queue, so the NFO I/O does not
+ * compete with the scraping in the worker threads:<br>
+ * - every write is delayed by a short window; further writes for the same entity within that window are merged into the pending one<br>
+ * - the queue is bounded; if it is full, the write is done in the calling thread<br>
+ * - {@link #flush(Object)} and {@link #flush()} are barriers for tasks which need the NFO on disk (e.g. renaming)
+ *
+ * @author Manuel Laggner
+ */
+public class NfoWriterQueue {
+  private static final Logger               LOGGER     = LoggerFactory.getLogger(NfoWriterQueue.class);
+  private static final long                 WINDOW_MS  = 500;
+  private static final NfoWriterQueue       instance   = new NfoWriterQueue(Globals.settings.getNfoWriterThreads(),
+      Globals.settings.getNfoWriterQueueSize(), WINDOW_MS);
+
+  private final int                         capacity;
+  private final long                        window;
+  private final Object                      lock       = new Object();
+  private final Object[]                    writeLocks = new Object[64];
+  private final Map<Object, NfoWrite>       queued     = new HashMap<>();
+  private final Set<NfoWrite>               unfinished = new LinkedHashSet<>();
+  private final ScheduledThreadPoolExecutor executor;
+
+  // statistics
+  private final AtomicLong                  written    = new AtomicLong();
+  private final AtomicLong                  merged     = new AtomicLong();
+  private final AtomicLong                  waitNanos  = new AtomicLong();
+  private final AtomicLong                  writeNanos = new AtomicLong();
+  private int                               maxQueueDepth;
+
+  NfoWriterQueue(int threads, int capacity, long window) {
+    this.capacity = Math.max(capacity, 1);
+    this.window = window;
+    this.executor = createExecutor(threads);
+    for (int i = 0; i < writeLocks.length; i++) {
+      writeLocks[i] = new Object();
+    }
+  }
+
+  public static NfoWriterQueue getInstance() {
+    return instance;
+  }
+
+  private static ScheduledThreadPoolExecutor createExecutor(int threads) {
+    // NFO writing is pure I/O, so the amount of threads is not bound to the CPU cores
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(threads, 1), new TmmThreadFactory("nfo-writer"));
+    executor.setKeepAliveTime(2, TimeUnit.SECONDS);
+    executor.allowCoreThreadTimeOut(true);
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
+  /**
+   * queue the NFO write of the given entity. If there is already a write for this entity waiting, this request is merged into it (the write
+   * reads the state of the entity when it is executed)
+   *
+   * @param entity
+   *          the entity (movie, tv show, ...) to write the NFO for or any other key identifying the NFO (e.g. the path of a multi episode file)
+   * @param write
+   *          the write itself
+   */
+  public void submit(Object entity, Runnable write) {
+    NfoWrite nfoWrite;
+    synchronized (lock) {
+      if (queued.containsKey(entity)) {
+        merged.incrementAndGet();
+        return;
+      }
+      if (queued.size() >= capacity || executor.isShutdown()) {
+        nfoWrite = null;
+      }
+      else {
+        nfoWrite = new NfoWrite(entity, write);
+        queued.put(entity, nfoWrite);
+        unfinished.add(nfoWrite);
+        maxQueueDepth = Math.max(maxQueueDepth, queued.size());
+        executor.schedule(nfoWrite, window, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    if (nfoWrite == null) {
+      // queue full: back pressure to the caller
+      LOGGER.debug("NFO writer queue full - writing in the calling thread");
+      new NfoWrite(entity, write).run();
+    }
+  }
+
+  /**
+   * barrier: write the NFO of the given entity now, if there is one queued, and wait for running writes of this entity
+   *
+   * @param entity
+   *          the entity to flush the NFO write for
+   */
+  public void flush(Object entity) {
+    List<NfoWrite> writes = new ArrayList<>();
+    synchronized (lock) {
+      for (NfoWrite nfoWrite : unfinished) {
+        if (nfoWrite.entity.equals(entity)) {
+          writes.add(nfoWrite);
+        }
+      }
+    }
+    await(writes);
+  }
+
+  /**
+   * barrier: write all queued NFOs now and wait until all running writes have been finished
+   */
+  public void flush() {
+    List<NfoWrite> writes;
+    synchronized (lock) {
+      writes = new ArrayList<>(unfinished);
+    }
+    await(writes);
+    if (!writes.isEmpty()) {
+      LOGGER.debug(getStatistics());
+    }
+  }
+
+  private void await(List<NfoWrite> writes) {
+    for (NfoWrite nfoWrite : writes) {
+      // not yet started writes are executed in the calling thread rather than waiting for the window to elapse
+      nfoWrite.run();
+      try {
+        nfoWrite.done.await();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * write all pending NFOs and stop the writer threads; later writes are done in the calling thread
+   */
+  public void shutdown() {
+    flush();
+    executor.shutdown();
+  }
+
+  /**
+   * get the amount of queued (not yet started) NFO writes
+   *
+   * @return the queue depth
+   */
+  public int getQueueDepth() {
+    synchronized (lock) {
+      return queued.size();
+    }
+  }
+
+  /**
+   * get the average time a NFO write has been waiting in the queue (including the merge window)
+   *
+   * @return the average waiting time in ms
+   */
+  public double getAverageWaitTime() {
+    long count = written.get();
+    return count == 0 ? 0 : waitNanos.get() / 1_000_000.0 / count;
+  }
+
+  /**
+   * get the average time needed to write a NFO
+   *
+   * @return the average write latency in ms
+   */
+  public double getAverageWriteTime() {
+    long count = written.get();
+    return count == 0 ? 0 : writeNanos.get() / 1_000_000.0 / count;
+  }
+
+  public String getStatistics() {
+    int maxDepth;
+    synchronized (lock) {
+      maxDepth = maxQueueDepth;
+    }
+    return String.format(Locale.ROOT, "NFO writer: %d written, %d merged, queue depth %d (max %d), avg wait %.1f ms, avg write %.1f ms",
+        written.get(), merged.get(), getQueueDepth(), maxDepth, getAverageWaitTime(), getAverageWriteTime());
+  }
+
+  /**
+   * a single (maybe merged) NFO write
+   */
+  private class NfoWrite implements Runnable {
+    private final Object         entity;
+    private final Runnable       write;
+    private final long           created = System.nanoTime();
+    private final AtomicBoolean  started = new AtomicBoolean(false);
+    private final CountDownLatch done    = new CountDownLatch(1);
+
+    private NfoWrite(Object entity, Runnable write) {
+      this.entity = entity;
+      this.write = write;
+    }
+
+    @Override
+    public void run() {
+      // executed either by the writer thread after the window or by a flushing thread - whichever comes first
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+
+      synchronized (lock) {
+        // from now on new requests for this entity need a new write, since the entity may change after the NFO has been rendered
+        queued.remove(entity, this);
+      }
+
+      long start = System.nanoTime();
+      try {
+        // never write the NFO of one entity in two threads at the same time
+        synchronized (writeLocks[(entity.hashCode() & Integer.MAX_VALUE) % writeLocks.length]) {
+          write.run();
+        }
+      }
+      catch (Exception e) {
+        LOGGER.error("could not write NFO for " + entity + ": " + e.getMessage());
+      }
+      finally {
+        long end = System.nanoTime();
+        waitNanos.addAndGet(start - created);
+        writeNanos.addAndGet(end - start);
+        written.incrementAndGet();
+
+        synchronized (lock) {
+          unfinished.remove(this);
+        }
+        done.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.core.threading;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class ThroughputMeter. A thread safe counter for processed items and bytes, which can be used to show the throughput of a task
+ *
+ * @author Manuel Laggner
+ */
+public class ThroughputMeter {
+  private final String     unit;
+  private final long       startTime;
+  private final AtomicLong items = new AtomicLong();
+  private final AtomicLong bytes = new AtomicLong();
+
+  /**
+   * create a new throughput meter; the measurement starts immediately
+   *
+   * @param unit
+   *          the unit of the processed items (e.g. "files")
+   */
+  public ThroughputMeter(String unit) {
+    this.unit = unit;
+    this.startTime = System.nanoTime();
+  }
+
+  /**
+   * add one processed item
+   *
+   * @param processedBytes
+   *          the amount of bytes which have been processed for this item
+   */
+  public void add(long processedBytes) {
+    items.incrementAndGet();
+    bytes.addAndGet(processedBytes);
+  }
+
+  public long getItems() {
+    return items.get();
+  }
+
+  public long getBytes() {
+    return bytes.get();
+  }
+
+  public double getItemsPerSecond() {
+    return items.get() / getElapsedSeconds();
+  }
+
+  public double getMegabytesPerSecond() {
+    return bytes.get() / (1024.0 * 1024.0) / getElapsedSeconds();
+  }
+
+  private double getElapsedSeconds() {
+    // avoid a division by zero on the very first measurement
+    return Math.max(System.nanoTime() - startTime, 1_000_000L) / 1_000_000_000.0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%.1f %s/s, %.1f MB/s", getItemsPerSecond(), unit, getMegabytesPerSecond());
+  }
+}
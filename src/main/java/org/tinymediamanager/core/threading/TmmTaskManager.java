@@ -26,6 +26,10 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.swing.SwingUtilities;
+
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
 import org.tinymediamanager.core.threading.TmmTaskHandle.TaskState;
 import org.tinymediamanager.core.threading.TmmThreadPool.TmmThreadFactory;
 import org.tinymediamanager.ui.UTF8Control;
@@ -44,7 +48,7 @@ public class TmmTaskManager implements TmmTaskListener {
 
   // we have some "named" queues, holding different types of tasks
   // image download/subtitle download are rather small/fast tasks - we only queue them in a queue and provide to abort the complete queue
-  private ThreadPoolExecutor             imageDownloadExecutor;
+  private ImageDownloadScheduler         imageDownloadExecutor;
 
   // this is a queue which holds "other" tasks
   private ThreadPoolExecutor             unnamedTaskExecutor;
@@ -78,27 +82,12 @@ public class TmmTaskManager implements TmmTaskListener {
     taskListener.remove(listener);
   }
 
-  private ThreadPoolExecutor createImageDownloadExecutor() {
-    ThreadPoolExecutor executor = new ThreadPoolExecutor(3, 3, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
-        new TmmThreadFactory("image-download-task")) {
-      @Override
-      protected void beforeExecute(Thread d, Runnable r) {
-        super.beforeExecute(d, r);
-        if (imageQueueHandle != null) {
-          processTaskEvent(imageQueueHandle);
-        }
+  private ImageDownloadScheduler createImageDownloadExecutor() {
+    return new ImageDownloadScheduler(Globals.settings.getImageDownloadThreads(), Globals.settings.getImageDownloadThreadsPerHost(), () -> {
+      if (imageQueueHandle != null) {
+        processTaskEvent(imageQueueHandle);
       }
-
-      @Override
-      protected void afterExecute(Runnable r, Throwable t) {
-        super.afterExecute(r, t);
-        if (imageQueueHandle != null) {
-          processTaskEvent(imageQueueHandle);
-        }
-      }
-    };
-    executor.allowCoreThreadTimeOut(true);
-    return executor;
+    });
   }
 
   private ThreadPoolExecutor createUnnamedTaskExecutor() {
@@ -125,16 +114,38 @@ public class TmmTaskManager implements TmmTaskListener {
   }
 
   /**
-   * add a image download task to the queue
+   * add a image download task to the queue; tasks added from the UI are handled as interactive downloads, all others as scrape downloads
    * 
    * @param task
    *          the task to be added
    */
   public void addImageDownloadTask(Runnable task) {
+    addImageDownloadTask(task, SwingUtilities.isEventDispatchThread() ? Priority.INTERACTIVE : Priority.SCRAPE);
+  }
+
+  /**
+   * add a image download task to the queue of the given priority class
+   * 
+   * @param task
+   *          the task to be added
+   * @param priority
+   *          the priority class of the task
+   */
+  public synchronized void addImageDownloadTask(Runnable task, Priority priority) {
     if (imageDownloadExecutor == null || imageDownloadExecutor.isShutdown()) {
       imageDownloadExecutor = createImageDownloadExecutor();
     }
-    imageDownloadExecutor.execute(task);
+    imageDownloadExecutor.submit(task, priority);
+  }
+
+  /**
+   * get the statistics (queue depth and waiting time per priority class) of the image downloads
+   * 
+   * @return the statistics
+   */
+  public String getImageDownloadStatistics() {
+    ImageDownloadScheduler executor = imageDownloadExecutor;
+    return executor == null ? "" : executor.getStatistics();
   }
 
   /**
@@ -215,6 +226,8 @@ public class TmmTaskManager implements TmmTaskListener {
    * shut down all threads
    */
   public void shutdown() {
+    // write pending NFOs first
+    NfoWriterQueue.getInstance().shutdown();
     if (imageDownloadExecutor != null) {
       imageDownloadExecutor.shutdown();
     }
@@ -375,7 +388,7 @@ public class TmmTaskManager implements TmmTaskListener {
     private int getOpenTasks() {
       int openTasks = 0;
       if (imageDownloadExecutor != null) {
-        openTasks = imageDownloadExecutor.getQueue().size() + imageDownloadExecutor.getActiveCount();
+        openTasks = imageDownloadExecutor.getOpenTaskCount();
       }
       return openTasks;
     }
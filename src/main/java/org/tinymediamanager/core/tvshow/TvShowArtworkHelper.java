@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
@@ -29,6 +30,8 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.core.ArtworkStore;
 import org.tinymediamanager.core.ImageCache;
 import org.tinymediamanager.core.MediaEntityImageFetcherTask;
 import org.tinymediamanager.core.MediaFileType;
@@ -36,6 +39,8 @@ import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
 import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.ImageDownload;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.tvshow.entities.TvShow;
 import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
@@ -123,7 +128,7 @@ public class TvShowArtworkHelper {
           continue;
         }
         MediaEntityImageFetcherTask task = new MediaEntityImageFetcherTask(show, url, MediaFileType.getMediaArtworkType(mft), filename, true);
-        TmmTaskManager.getInstance().addImageDownloadTask(task);
+        TmmTaskManager.getInstance().addImageDownloadTask(task, Priority.BULK);
       }
 
     }
@@ -303,7 +308,7 @@ public class TvShowArtworkHelper {
     TmmTaskManager.getInstance().addImageDownloadTask(task);
   }
 
-  private static class SeasonPosterImageFetcher implements Runnable {
+  private static class SeasonPosterImageFetcher implements ImageDownload {
     private TvShow       tvShow;
     private String       filename;
     private TvShowSeason tvShowSeason;
@@ -316,6 +321,11 @@ public class TvShowArtworkHelper {
       this.url = url;
     }
 
+    @Override
+    public String getUrl() {
+      return url;
+    }
+
     @Override
     public void run() {
       String oldFilename = "";
@@ -328,19 +338,26 @@ public class TvShowArtworkHelper {
         LOGGER.debug("writing season poster " + filename);
 
         // fetch and store images
-        Url url1 = new Url(url);
-        FileOutputStream outputStream = new FileOutputStream(filename);
-        InputStream is = url1.getInputStream();
-        IOUtils.copy(is, outputStream);
-        outputStream.close();
-        outputStream.flush();
-        try {
-          outputStream.getFD().sync(); // wait until file has been completely written
+        if (Globals.settings.isArtworkStore()) {
+          ArtworkStore.getInstance().materialize(url, Paths.get(filename));
         }
-        catch (Exception e) {
-          // empty here -> just not let the thread crash
+        else {
+          Url url1 = new Url(url);
+          InputStream is = url1.getInputStream();
+          // never write into an existing file - it may be a hardlink into the artwork store
+          Files.deleteIfExists(Paths.get(filename));
+          FileOutputStream outputStream = new FileOutputStream(filename);
+          IOUtils.copy(is, outputStream);
+          outputStream.close();
+          outputStream.flush();
+          try {
+            outputStream.getFD().sync(); // wait until file has been completely written
+          }
+          catch (Exception e) {
+            // empty here -> just not let the thread crash
+          }
+          is.close();
         }
-        is.close();
 
         ImageCache.invalidateCachedImage(Paths.get(filename));
         if (tvShowSeason != null) {
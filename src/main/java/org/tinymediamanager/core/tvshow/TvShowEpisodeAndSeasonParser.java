@@ -78,6 +78,24 @@ public class TvShowEpisodeAndSeasonParser {
   private static Pattern      numbers3Pattern       = Pattern.compile(".*?([0-9])([0-9]{2}).*", Pattern.CASE_INSENSITIVE);
   private static Pattern      tvMultipartMatching   = Pattern.compile("^[-_ex]+([0-9]+(?:(?:[a-i]|\\.[1-9])(?![0-9]))?)", Pattern.CASE_INSENSITIVE);
 
+  // cleanup patterns
+  private static Pattern      folderPattern         = Pattern.compile("(.*[\\/\\\\])");
+  private static Pattern      dvdFilePattern        = Pattern.compile("(video_ts|vts_\\d\\d_\\d)\\.(vob|bup|ifo)");
+  private static Pattern      blurayFilePattern     = Pattern.compile("(index\\.bdmv|movieobject\\.bdmv|\\d{5}\\.m2ts)");
+  private static Pattern      extensionPattern      = Pattern.compile("\\.\\w{1,4}$");
+  private static Pattern      yearPattern           = Pattern.compile("[\\(\\[]\\d{4}[\\)\\]]");
+  private static Pattern      bracketTagPattern     = Pattern.compile("\\[.*?\\]");
+  private static Pattern      namePrefixPattern     = Pattern.compile("^[ .\\-_]+");
+  private static Pattern      seasonPathPattern     = Pattern.compile("(?i)(?:s|season|staffel)[\\s]*(\\d+)");
+
+  // quite same patterns as above, minus the last () - used to strip the episode information from the title
+  private static Pattern[]    episodeVariants       = { Pattern.compile("[Ss]([0-9]+)[\\]\\[ _.-]*[Ee]([0-9]+)"),
+      Pattern.compile("[ _.-]()[Ee][Pp]?_?([0-9]+)"), Pattern.compile("([0-9]{4})[.-]([0-9]{2})[.-]([0-9]{2})"),
+      Pattern.compile("([0-9]{2})[.-]([0-9]{2})[.-]([0-9]{4})"), Pattern.compile("[\\\\/\\._ \\[\\(-]([0-9]+)x([0-9]+)"),
+      Pattern.compile("[\\/ _.-]p(?:ar)?t[ _.-]()([ivx]+)"), Pattern.compile("[epx_-]+(\\d{1,3})"), Pattern.compile("episode[\\. _-]*(\\d{1,2})"),
+      Pattern.compile("(part|pt)[\\._\\s]+([MDCLXVI]+)"), Pattern.compile("(staffel|season|series)[\\s_.-]*(\\d{1,4})"),
+      Pattern.compile("s(\\d{1,4})((?:([epx_.-]+\\d{1,3})+))"), Pattern.compile("(\\d{1,4})(?=x)((?:([epx]+\\d{1,3})+))") };
+
   /**
    * Detect episode from filename.
    * 
@@ -108,64 +126,91 @@ public class TvShowEpisodeAndSeasonParser {
     String basename = FilenameUtils.getBaseName(ParserUtils.removeStopwordsAndBadwordsFromTvEpisodeName(titleToClean));
 
     // parse foldername
-    Pattern regex = Pattern.compile("(.*[\\/\\\\])");
-    Matcher m = regex.matcher(basename);
+    Matcher m = folderPattern.matcher(basename);
     if (m.find()) {
-      basename = basename.replaceAll(regex.pattern(), "");
+      basename = m.replaceAll("");
     }
     basename = basename + " ";
 
     // remove show name
     if (tvShowName != null && !tvShowName.isEmpty()) {
-      // remove string like tvshow name (440, 24, ...)
-      basename = basename.replaceAll("(?i)^" + Pattern.quote(tvShowName) + "", "");
-      basename = basename.replaceAll("(?i) " + Pattern.quote(tvShowName) + " ", "");
+      basename = removeShowName(basename, tvShowName);
     }
-    basename = basename.replaceFirst("\\.\\w{1,4}$", ""); // remove extension if 1-4 chars
-    basename = basename.replaceFirst("[\\(\\[]\\d{4}[\\)\\]]", ""); // remove (xxxx) or [xxxx] as year
+    basename = extensionPattern.matcher(basename).replaceFirst(""); // remove extension if 1-4 chars
+    basename = yearPattern.matcher(basename).replaceFirst(""); // remove (xxxx) or [xxxx] as year
 
     return removeEpisodeVariantsFromTitle(basename);
   }
 
   private static String removeEpisodeVariantsFromTitle(String title) {
     String backup = title;
-    String ret = "";
-
-    // quite same patters as above, minus the last ()
-    title = title.replaceAll("[Ss]([0-9]+)[\\]\\[ _.-]*[Ee]([0-9]+)", "");
-    title = title.replaceAll("[ _.-]()[Ee][Pp]?_?([0-9]+)", "");
-    title = title.replaceAll("([0-9]{4})[.-]([0-9]{2})[.-]([0-9]{2})", "");
-    title = title.replaceAll("([0-9]{2})[.-]([0-9]{2})[.-]([0-9]{4})", "");
-    title = title.replaceAll("[\\\\/\\._ \\[\\(-]([0-9]+)x([0-9]+)", "");
-    title = title.replaceAll("[\\/ _.-]p(?:ar)?t[ _.-]()([ivx]+)", "");
-    title = title.replaceAll("[epx_-]+(\\d{1,3})", "");
-    title = title.replaceAll("episode[\\. _-]*(\\d{1,2})", "");
-    title = title.replaceAll("(part|pt)[\\._\\s]+([MDCLXVI]+)", "");
-    title = title.replaceAll("(staffel|season|series)[\\s_.-]*(\\d{1,4})", "");
-    title = title.replaceAll("s(\\d{1,4})((?:([epx_.-]+\\d{1,3})+))", "");
-    title = title.replaceAll("(\\d{1,4})(?=x)((?:([epx]+\\d{1,3})+))", "");
 
-    // split and reassemble
-    String[] splitted = StringUtils.split(title, "[\\[\\]() _,.-]");
-    for (String s : splitted) {
-      ret = ret + " " + s;
+    for (Pattern pattern : episodeVariants) {
+      title = pattern.matcher(title).replaceAll("");
     }
-    ret = ret.trim();
+
+    // split and reassemble
+    String ret = StringUtils.join(StringUtils.split(title, "[\\[\\]() _,.-]"), ' ').trim();
 
     // uh-oh - we removed too much
     // also split and reassemble backup
     if (StringUtils.isEmpty(ret)) {
-      String[] b = StringUtils.split(backup, "[\\[\\]() _,.-]");
-      backup = "";
-      for (String s : b) {
-        backup = backup + " " + s;
-      }
-      // System.out.println("****** empty string - setting back to " + backup);
-      ret = backup.trim();
+      ret = StringUtils.join(StringUtils.split(backup, "[\\[\\]() _,.-]"), ' ').trim();
     }
     return ret;
   }
 
+  /**
+   * remove the show name from the beginning of the given string and any occurrence surrounded by spaces. The show name is compared like a
+   * quoted case insensitive pattern (only ASCII chars are folded) - but without compiling a pattern for every file
+   */
+  private static String removeShowName(String basename, String showname) {
+    // remove string like tvshow name (440, 24, ...)
+    if (regionMatchesAsciiIgnoreCase(basename, 0, showname)) {
+      basename = basename.substring(showname.length());
+    }
+
+    StringBuilder sb = null;
+    int start = 0;
+    int i = 0;
+    while (i < basename.length()) {
+      if (basename.charAt(i) == ' ' && i + showname.length() + 1 < basename.length() && basename.charAt(i + showname.length() + 1) == ' '
+          && regionMatchesAsciiIgnoreCase(basename, i + 1, showname)) {
+        if (sb == null) {
+          sb = new StringBuilder(basename.length());
+        }
+        sb.append(basename, start, i);
+        i += showname.length() + 2;
+        start = i;
+      }
+      else {
+        i++;
+      }
+    }
+    if (sb == null) {
+      return basename;
+    }
+    return sb.append(basename, start, basename.length()).toString();
+  }
+
+  private static boolean regionMatchesAsciiIgnoreCase(String string, int offset, String other) {
+    if (offset + other.length() > string.length()) {
+      return false;
+    }
+    for (int i = 0; i < other.length(); i++) {
+      char c1 = string.charAt(offset + i);
+      char c2 = other.charAt(i);
+      if (c1 != c2 && toLowerAscii(c1) != toLowerAscii(c2)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static char toLowerAscii(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+  }
+
   /**
    * Does all the season/episode detection
    * 
@@ -209,11 +254,10 @@ public class TvShowEpisodeAndSeasonParser {
 
     // remove problematic strings from name
     String filename = FilenameUtils.getName(name);
-    String extension = FilenameUtils.getExtension(name);
 
     // check for disc files and remove!!
-    if (filename.toLowerCase(Locale.ROOT).matches("(video_ts|vts_\\d\\d_\\d)\\.(vob|bup|ifo)") || // dvd
-        filename.toLowerCase(Locale.ROOT).matches("(index\\.bdmv|movieobject\\.bdmv|\\d{5}\\.m2ts)")) { // bluray
+    String lowercaseFilename = filename.toLowerCase(Locale.ROOT);
+    if (dvdFilePattern.matcher(lowercaseFilename).matches() || blurayFilePattern.matcher(lowercaseFilename).matches()) {
       name = FilenameUtils.getPath(name);
     }
 
@@ -221,11 +265,10 @@ public class TvShowEpisodeAndSeasonParser {
     String foldername = "";
 
     // parse foldername
-    regex = Pattern.compile("(.*[\\/\\\\])");
-    m = regex.matcher(basename);
+    m = folderPattern.matcher(basename);
     if (m.find()) {
       foldername = m.group(1);
-      basename = basename.replaceAll(regex.pattern(), "");
+      basename = m.replaceAll("");
     }
 
     // happens, when we only parse filename, but it completely gets stripped out.
@@ -234,22 +277,26 @@ public class TvShowEpisodeAndSeasonParser {
     }
 
     if (showname != null && !showname.isEmpty()) {
-      // remove string like tvshow name (440, 24, ...)
-      basename = basename.replaceAll("(?i)^" + Pattern.quote(showname) + "", "");
-      basename = basename.replaceAll("(?i) " + Pattern.quote(showname) + " ", "");
+      basename = removeShowName(basename, showname);
     }
-    basename = basename.replaceFirst("\\.\\w{1,4}$", ""); // remove extension if 1-4 chars
-    basename = basename.replaceFirst("[\\(\\[]\\d{4}[\\)\\]]", ""); // remove (xxxx) or [xxxx] as year
+    basename = extensionPattern.matcher(basename).replaceFirst(""); // remove extension if 1-4 chars
+    basename = yearPattern.matcher(basename).replaceFirst(""); // remove (xxxx) or [xxxx] as year
 
     basename = basename + " ";
 
     result.stackingMarkerFound = !Utils.getStackingMarker(filename).isEmpty() ? true : false;
     result.name = basename.trim();
 
+    // pre-classification: every pattern below is only tried if the string contains the characters it needs to match at all
+    String fullname = foldername + basename;
+    boolean seasonMarkerFound = containsCharBeforeDigit(fullname, "sS"); // s01
+    boolean crossMarkerFound = containsDigitBeforeChar(fullname, "xX"); // 1x02
+
     // season detection
-    if (result.season == -1) {
+    if (result.season == -1 && (StringUtils.containsIgnoreCase(fullname, "staffel") || StringUtils.containsIgnoreCase(fullname, "season")
+        || StringUtils.containsIgnoreCase(fullname, "series"))) {
       regex = seasonPattern;
-      m = regex.matcher(foldername + basename);
+      m = regex.matcher(fullname);
       if (m.find()) {
         int s = result.season;
         try {
@@ -265,9 +312,9 @@ public class TvShowEpisodeAndSeasonParser {
 
     // parse SxxEPyy 1-N
     regex = seasonMultiEP;
-    m = regex.matcher(foldername + basename);
+    m = regex.matcher(fullname);
     int lastFoundEpisode = 0;
-    while (m.find()) {
+    while (seasonMarkerFound && m.find()) {
       int s = -1;
       try {
         s = Integer.parseInt(m.group(1));
@@ -303,8 +350,8 @@ public class TvShowEpisodeAndSeasonParser {
 
     // parse XYY or XX_YY 1-N
     regex = seasonMultiEP2;
-    m = regex.matcher(foldername + basename);
-    while (m.find()) {
+    m = regex.matcher(fullname);
+    while (crossMarkerFound && m.find()) {
       int s = -1;
       try {
         // for the case of name.1x02x03.ext
@@ -339,7 +386,7 @@ public class TvShowEpisodeAndSeasonParser {
     }
 
     // Episode-only parsing, when previous styles didn't find anything!
-    if (result.episodes.isEmpty()) {
+    if (result.episodes.isEmpty() && StringUtils.containsIgnoreCase(basename, "episode")) {
       regex = episodePattern2;
       m = regex.matcher(basename);
       while (m.find()) {
@@ -357,9 +404,18 @@ public class TvShowEpisodeAndSeasonParser {
       }
     }
 
-    String numbers = basename.replaceAll("[^0-9]", "");
+    // count the digits rather than building a string of them
+    int numbers = 0;
+    int lastDigit = 0;
+    for (int i = 0; i < basename.length(); i++) {
+      char c = basename.charAt(i);
+      if (c >= '0' && c <= '9') {
+        numbers++;
+        lastDigit = c - '0';
+      }
+    }
     // try to parse YXX numbers first, and exit (need to do that per length)
-    if (numbers.length() == 3) { // eg 102
+    if (numbers == 3) { // eg 102
       regex = numbers3Pattern;
       m = regex.matcher(basename);
       if (m.find()) {
@@ -389,7 +445,7 @@ public class TvShowEpisodeAndSeasonParser {
         }
       }
     } // FIXME: what if we have
-    else if (numbers.length() == 2) { // eg 01
+    else if (numbers == 2) { // eg 01
       regex = numbers2Pattern;
       m = regex.matcher(basename);
       if (m.find()) {
@@ -402,8 +458,8 @@ public class TvShowEpisodeAndSeasonParser {
         return result;
       }
     }
-    else if (numbers.length() == 1) { // eg 1
-      int ep = Integer.parseInt(numbers); // just one :P
+    else if (numbers == 1) { // eg 1
+      int ep = lastDigit; // just one :P
       if (ep > 0 && !result.episodes.contains(ep)) {
         result.episodes.add(ep);
         LOGGER.trace("add found EP " + ep);
@@ -412,7 +468,7 @@ public class TvShowEpisodeAndSeasonParser {
     }
 
     // parse Roman only when not found anything else!!
-    if (result.episodes.isEmpty()) {
+    if (result.episodes.isEmpty() && (StringUtils.containsIgnoreCase(basename, "part") || StringUtils.containsIgnoreCase(basename, "pt"))) {
       regex = romanPattern;
       m = regex.matcher(basename);
       while (m.find()) {
@@ -425,7 +481,8 @@ public class TvShowEpisodeAndSeasonParser {
       }
     }
 
-    if (result.season == -1) {
+    // both date patterns need at least 8 digits
+    if (result.season == -1 && numbers >= 8) {
       // Date1 pattern yyyy-mm-dd
       m = date1.matcher(basename);
       if (m.find()) {
@@ -443,7 +500,7 @@ public class TvShowEpisodeAndSeasonParser {
       }
     }
 
-    if (result.season == -1) {
+    if (result.season == -1 && numbers >= 8) {
       // Date2 pattern dd-mm-yyyy
       m = date2.matcher(basename);
       if (m.find()) {
@@ -464,8 +521,8 @@ public class TvShowEpisodeAndSeasonParser {
     // Episode-only parsing, when previous styles didn't find anything!
     // this is a VERY generic pattern AND SHOULD BE EXECUTED AS LAST CHANCE!!!
     // might produce many fals positives, so be careful!
-    basename = basename.replaceAll("\\[.*?\\]", "");// remove all optional [xyz] tags
-    if (result.episodes.isEmpty()) {
+    basename = bracketTagPattern.matcher(basename).replaceAll("");// remove all optional [xyz] tags
+    if (result.episodes.isEmpty() && containsCharBeforeDigit(basename, "epxEPX_-")) {
       regex = episodePattern;
       m = regex.matcher(basename);
       while (m.find()) {
@@ -488,6 +545,32 @@ public class TvShowEpisodeAndSeasonParser {
     return result;
   }
 
+  /**
+   * checks if any of the given chars is directly followed by a digit
+   */
+  private static boolean containsCharBeforeDigit(String string, String chars) {
+    for (int i = 1; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c >= '0' && c <= '9' && chars.indexOf(string.charAt(i - 1)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * checks if a digit is directly followed by any of the given chars
+   */
+  private static boolean containsDigitBeforeChar(String string, String chars) {
+    for (int i = 1; i < string.length(); i++) {
+      char c = string.charAt(i - 1);
+      if (c >= '0' && c <= '9' && chars.indexOf(string.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Detect episode from directory.
    * 
@@ -558,7 +641,7 @@ public class TvShowEpisodeAndSeasonParser {
     result = combineResults(result, resultFromParser);
 
     // clean the name
-    result.name = result.name.replaceAll("^[ .\\-_]+", "").trim();
+    result.name = namePrefixPattern.matcher(result.name).replaceAll("").trim();
     return result;
   }
 
@@ -667,8 +750,7 @@ public class TvShowEpisodeAndSeasonParser {
     int season = -1;
 
     // season detection
-    Pattern regex = Pattern.compile("(?i)(?:s|season|staffel)[\\s]*(\\d+)");
-    Matcher m = regex.matcher(relativePath);
+    Matcher m = seasonPathPattern.matcher(relativePath);
     if (m.find()) {
       try {
         season = Integer.parseInt(m.group(1));
@@ -42,6 +42,7 @@ import org.tinymediamanager.core.MessageManager;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.entities.MediaFileSubtitle;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.tvshow.entities.TvShow;
 import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
 import org.tinymediamanager.scraper.util.LanguageUtils;
@@ -83,6 +84,9 @@ public class TvShowRenamer {
    *          the show
    */
   public static void renameTvShowRoot(TvShow show) {
+    // the NFO has to be on disk before moving the folder
+    NfoWriterQueue.getInstance().flush(show);
+
     LOGGER.debug("TV show year: " + show.getYear());
     LOGGER.debug("TV show path: " + show.getPath());
     String newPathname = generateTvShowDir(SETTINGS.getRenamerTvShowFoldername(), show);
@@ -128,6 +132,9 @@ public class TvShowRenamer {
    *          the Episode
    */
   public static void renameEpisode(TvShowEpisode episode) {
+    // the NFO has to be on disk before renaming (multi episode NFOs are queued by their video file)
+    NfoWriterQueue.getInstance().flush(episode.getNfoQueueKey());
+
     // test for valid season/episode number
     if (episode.getSeason() < 0 || episode.getEpisode() < 0) {
       LOGGER.warn(
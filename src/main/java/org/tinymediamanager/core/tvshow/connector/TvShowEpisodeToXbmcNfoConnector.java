@@ -51,6 +51,7 @@ import org.tinymediamanager.core.MediaSource;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
+import org.tinymediamanager.core.NfoUtils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.entities.MediaFileAudioStream;
 import org.tinymediamanager.core.entities.MediaFileSubtitle;
@@ -329,7 +330,7 @@ public class TvShowEpisodeToXbmcNfoConnector {
 
       // and marshall it
       try {
-        Marshaller m = context.createMarshaller();
+        Marshaller m = NfoUtils.getMarshaller(context);
         m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
         m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
@@ -364,7 +365,7 @@ public class TvShowEpisodeToXbmcNfoConnector {
     }
 
     try {
-      FileUtils.write(nfoFile, outputXml, "UTF-8");
+      NfoUtils.writeNfoIfChanged(nfoFile.toPath(), outputXml);
       for (TvShowEpisode e : tvShowEpisodes) {
         e.removeAllMediaFiles(MediaFileType.NFO);
         e.addToMediaFiles(new MediaFile(nfoFile));
@@ -724,7 +725,7 @@ public class TvShowEpisodeToXbmcNfoConnector {
   }
 
   private static TvShowEpisodeToXbmcNfoConnector parseNfoPart(String part) throws Exception {
-    Unmarshaller um = context.createUnmarshaller();
+    Unmarshaller um = NfoUtils.getUnmarshaller(context);
     if (um == null) {
       throw new Exception("could not create unmarshaller");
     }
@@ -52,6 +52,7 @@ import org.tinymediamanager.core.MediaFileType;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
+import org.tinymediamanager.core.NfoUtils;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.tvshow.entities.TvShow;
 import org.tinymediamanager.core.tvshow.entities.TvShowActor;
@@ -139,7 +140,7 @@ public class TvShowToXbmcNfoConnector {
     // load existing NFO if possible
     if (nfoFile.exists()) {
       try {
-        Unmarshaller um = context.createUnmarshaller();
+        Unmarshaller um = NfoUtils.getUnmarshaller(context);
         Reader in = new InputStreamReader(new FileInputStream(nfoFile), "UTF-8");
         xbmc = (TvShowToXbmcNfoConnector) um.unmarshal(in);
       }
@@ -217,7 +218,7 @@ public class TvShowToXbmcNfoConnector {
 
     // and marshall it
     try {
-      Marshaller m = context.createMarshaller();
+      Marshaller m = NfoUtils.getMarshaller(context);
       m.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
       m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
@@ -236,7 +237,7 @@ public class TvShowToXbmcNfoConnector {
         sb = new StringBuilder(sb.toString().replaceAll("(?<!\r)\n", "\r\n"));
       }
 
-      FileUtils.write(nfoFile, sb, "UTF-8");
+      NfoUtils.writeNfoIfChanged(nfoFile.toPath(), sb);
       tvShow.removeAllMediaFiles(MediaFileType.NFO);
       tvShow.addToMediaFiles(new MediaFile(nfoFile));
     }
@@ -325,7 +326,7 @@ public class TvShowToXbmcNfoConnector {
   }
 
   private static TvShowToXbmcNfoConnector parseNFO(File nfoFile) throws Exception {
-    Unmarshaller um = context.createUnmarshaller();
+    Unmarshaller um = NfoUtils.getUnmarshaller(context);
     if (um == null) {
       MessageManager.instance.pushMessage(new Message(MessageLevel.ERROR, nfoFile, "message.nfo.readerror"));
       throw new Exception("could not create unmarshaller");
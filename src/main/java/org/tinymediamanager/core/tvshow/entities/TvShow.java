@@ -72,6 +72,7 @@ import org.tinymediamanager.core.MediaFileType;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaEntity;
 import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.tvshow.TvShowArtworkHelper;
 import org.tinymediamanager.core.tvshow.TvShowList;
 import org.tinymediamanager.core.tvshow.TvShowMediaFileComparator;
@@ -641,8 +642,8 @@ public class TvShow extends MediaEntity {
     setScraped(true);
 
     // update DB
-    writeNFO();
     saveToDb();
+    writeNFOQueued();
   }
 
   /**
@@ -779,6 +780,16 @@ public class TvShow extends MediaEntity {
     firePropertyChange(HAS_NFO_FILE, false, true);
   }
 
+  /**
+   * write the NFO through the {@link NfoWriterQueue} (multiple requests within a short time are merged) and persist the TV show afterwards
+   */
+  public void writeNFOQueued() {
+    NfoWriterQueue.getInstance().submit(this, () -> {
+      writeNFO();
+      saveToDb();
+    });
+  }
+
   /**
    * Gets the checks for nfo file.
    * 
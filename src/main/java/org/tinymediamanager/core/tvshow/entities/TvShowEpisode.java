@@ -65,6 +65,7 @@ import org.tinymediamanager.core.MediaSource;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaEntity;
 import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.tvshow.TvShowList;
 import org.tinymediamanager.core.tvshow.TvShowMediaFileComparator;
@@ -577,8 +578,8 @@ public class TvShowEpisode extends MediaEntity implements Comparable<TvShowEpiso
     }
 
     // update DB
-    writeNFO();
     saveToDb();
+    writeNFOQueued();
 
     // should we write a new thumb?
     if (writeNewThumb) {
@@ -590,9 +591,40 @@ public class TvShowEpisode extends MediaEntity implements Comparable<TvShowEpiso
    * Write nfo.
    */
   public void writeNFO() {
+    LOGGER.debug("write nfo: " + getTvShow().getTitle() + " S" + getSeason() + "E" + getEpisode());
+    TvShowEpisodeToXbmcNfoConnector.setData(getEpisodesInNfo());
+  }
+
+  /**
+   * write the NFO through the {@link NfoWriterQueue} and persist all episodes of the NFO afterwards. All episodes of a multi episode file share
+   * one NFO, so their writes are merged
+   */
+  public void writeNFOQueued() {
+    NfoWriterQueue.getInstance().submit(getNfoQueueKey(), () -> {
+      writeNFO();
+      for (TvShowEpisode episode : getEpisodesInNfo()) {
+        episode.saveToDb();
+      }
+    });
+  }
+
+  /**
+   * get the key of the NFO write of this episode in the {@link NfoWriterQueue}: the first video file, since all episodes of a multi episode file
+   * share one NFO
+   *
+   * @return the key to submit/flush the NFO write with
+   */
+  public Object getNfoQueueKey() {
+    List<MediaFile> videos = getMediaFiles(MediaFileType.VIDEO);
+    return videos.isEmpty() ? this : videos.get(0).getFileAsPath();
+  }
+
+  /**
+   * get all episodes which are written into the NFO of this episode
+   */
+  private List<TvShowEpisode> getEpisodesInNfo() {
     List<TvShowEpisode> episodesInNfo = new ArrayList<>(1);
 
-    LOGGER.debug("write nfo: " + getTvShow().getTitle() + " S" + getSeason() + "E" + getEpisode());
     // worst case: multi episode in multiple files
     // e.g. warehouse13.s01e01e02.Part1.avi/warehouse13.s01e01e02.Part2.avi
     for (MediaFile mf : getMediaFiles(MediaFileType.VIDEO)) {
@@ -603,8 +635,7 @@ public class TvShowEpisode extends MediaEntity implements Comparable<TvShowEpiso
         }
       }
     }
-
-    TvShowEpisodeToXbmcNfoConnector.setData(episodesInNfo);
+    return episodesInNfo;
   }
 
   /**
@@ -22,11 +22,13 @@ import java.util.ResourceBundle;
 import org.apache.commons.lang3.time.StopWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tinymediamanager.Globals;
 import org.tinymediamanager.core.MediaFileInformationFetcherTask;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
 import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.threading.ThroughputMeter;
 import org.tinymediamanager.core.threading.TmmThreadPool;
 import org.tinymediamanager.core.tvshow.entities.TvShow;
 import org.tinymediamanager.core.tvshow.entities.TvShowEpisode;
@@ -43,6 +45,7 @@ public class TvShowReloadMediaInformationTask extends TmmThreadPool {
 
   private List<TvShow>                tvShows;
   private List<TvShowEpisode>         episodes;
+  private volatile ThroughputMeter    throughput;
 
   public TvShowReloadMediaInformationTask(List<TvShow> tvShows, List<TvShowEpisode> episodes) {
     super(BUNDLE.getString("tvshow.updatemediainfo"));
@@ -67,14 +70,15 @@ public class TvShowReloadMediaInformationTask extends TmmThreadPool {
       LOGGER.info("get MediaInfo...");
       // update MediaInfo
       start();
+      throughput = new ThroughputMeter("files");
 
-      initThreadPool(1, "reloadMI");
+      initThreadPool(Globals.settings.getMediaInfoThreads(), "reloadMI");
       for (TvShow show : tvShows) {
         if (cancel) {
           break;
         }
         for (MediaFile mf : show.getMediaFiles()) {
-          submitTask(new MediaFileInformationFetcherTask(mf, show, true));
+          submitTask(new MediaFileInformationFetcherTask(mf, show, true, throughput));
         }
       }
 
@@ -83,13 +87,13 @@ public class TvShowReloadMediaInformationTask extends TmmThreadPool {
           break;
         }
         for (MediaFile mf : episode.getMediaFiles()) {
-          submitTask(new MediaFileInformationFetcherTask(mf, episode, true));
+          submitTask(new MediaFileInformationFetcherTask(mf, episode, true, throughput));
         }
       }
 
       waitForCompletionOrCancel();
       stopWatch.stop();
-      LOGGER.info("Done getting MediaInfo - took " + stopWatch);
+      LOGGER.info("Done getting MediaInfo - took " + stopWatch + " (" + throughput + ")");
     }
     catch (Exception e) {
       LOGGER.error("Thread crashed", e);
@@ -99,6 +103,6 @@ public class TvShowReloadMediaInformationTask extends TmmThreadPool {
 
   @Override
   public void callback(Object obj) {
-    publishState((String) obj, progressDone);
+    publishState(obj + " (" + throughput + ")", progressDone);
   }
 }
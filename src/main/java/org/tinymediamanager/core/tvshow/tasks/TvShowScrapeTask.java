@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.tinymediamanager.core.Message;
 import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
+import org.tinymediamanager.core.threading.NfoWriterQueue;
 import org.tinymediamanager.core.threading.TmmTask;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.threading.TmmThreadPool;
@@ -89,6 +90,9 @@ public class TvShowScrapeTask extends TmmThreadPool {
 
     waitForCompletionOrCancel();
 
+    // the NFOs are written by the NFO writer queue - this task is done when they are on disk
+    NfoWriterQueue.getInstance().flush();
+
     if (TvShowModuleManager.SETTINGS.getSyncTrakt()) {
       TmmTask task = new SyncTraktTvTask(null, tvShowsToScrape);
       TmmTaskManager.getInstance().addUnnamedTask(task);
@@ -69,7 +69,7 @@ public class TvShowSubtitleDownloadTask extends DownloadTask {
           String extension = FilenameUtils.getExtension(zipEntryFilename).toLowerCase(Locale.ROOT);
 
           // check is that is a valid file type
-          if (!Globals.settings.getSubtitleFileType().contains("." + extension)) {
+          if (!Globals.settings.getFileTypeRegistry().isSubtitle(extension)) {
             ze = is.getNextEntry();
             continue;
           }
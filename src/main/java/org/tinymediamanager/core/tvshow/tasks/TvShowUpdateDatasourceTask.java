@@ -226,8 +226,7 @@ public class TvShowUpdateDatasourceTask extends TmmThreadPool {
         }
 
         // video FILE in DS root - not supported!
-        if (subdir.isFile()
-            && Globals.settings.getVideoFileType().contains("." + FilenameUtils.getExtension(subdir.getName()).toLowerCase(Locale.ROOT))) {
+        if (subdir.isFile() && Globals.settings.getFileTypeRegistry().isVideo(FilenameUtils.getExtension(subdir.getName()))) {
           MessageManager.instance.pushMessage(
               new Message(MessageLevel.ERROR, "update.datasource", "update.datasource.episodeinroot", new String[] { subdir.getName() }));
         }
@@ -888,7 +887,7 @@ public class TvShowUpdateDatasourceTask extends TmmThreadPool {
     for (File file : content) {
       if (file.isFile()) {
         // check filetype
-        if (!Globals.settings.getVideoFileType().contains("." + FilenameUtils.getExtension(file.getName()).toLowerCase(Locale.ROOT))
+        if (!Globals.settings.getFileTypeRegistry().isVideo(FilenameUtils.getExtension(file.getName()))
             || file.getName().startsWith(skipFilesStartingWith)) { // MacOS ignore
           continue;
         }
@@ -52,6 +52,7 @@ import org.tinymediamanager.core.Message.MessageLevel;
 import org.tinymediamanager.core.MessageManager;
 import org.tinymediamanager.core.Utils;
 import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.core.threading.ThroughputMeter;
 import org.tinymediamanager.core.threading.TmmTaskManager;
 import org.tinymediamanager.core.threading.TmmThreadPool;
 import org.tinymediamanager.core.tvshow.TvShowEpisodeAndSeasonParser;
@@ -94,6 +95,7 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
   private List<Path>                  tvShowFolders = new ArrayList<>();
   private TvShowList                  tvShowList;
   private HashSet<Path>               filesFound    = new HashSet<>();
+  private volatile ThroughputMeter    mediainfoThroughput;
 
   /**
    * Instantiates a new scrape task - to update all datasources
@@ -204,7 +206,7 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
             else {
               // File in root folder - not possible for TV datasource (at least, for videos ;)
               String ext = FilenameUtils.getExtension(path.getFileName().toString()).toLowerCase(Locale.ROOT);
-              if (Globals.settings.getVideoFileType().contains("." + ext)) {
+              if (Globals.settings.getFileTypeRegistry().isVideo(ext)) {
                 MessageManager.instance.pushMessage(new Message(MessageLevel.ERROR, "update.datasource", "update.datasource.episodeinroot",
                     new String[] { path.getFileName().toString() }));
               }
@@ -255,7 +257,8 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
       }
 
       LOGGER.info("getting Mediainfo...");
-      initThreadPool(1, "mediainfo");
+      initThreadPool(Globals.settings.getMediaInfoThreads(), "mediainfo");
+      mediainfoThroughput = new ThroughputMeter("files");
       setTaskName(BUNDLE.getString("update.mediainfo"));
       setTaskDescription(null);
       setProgressDone(0);
@@ -287,6 +290,8 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
         }
         waitForCompletionOrCancel();
       }
+      LOGGER.info("Mediainfo throughput: " + mediainfoThroughput);
+      mediainfoThroughput = null;
 
       stopWatch.stop();
       LOGGER.info("Done updating datasource :) - took " + stopWatch);
@@ -416,7 +421,7 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
     // get mediainfo for tv show (fanart/poster..)
     for (MediaFile mf : tvShow.getMediaFiles()) {
       if (StringUtils.isBlank(mf.getContainerFormat())) {
-        submitTask(new MediaFileInformationFetcherTask(mf, tvShow, false));
+        submitTask(new MediaFileInformationFetcherTask(mf, tvShow, false, mediainfoThroughput));
       }
     }
 
@@ -424,7 +429,7 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
     for (TvShowEpisode episode : new ArrayList<>(tvShow.getEpisodes())) {
       for (MediaFile mf : episode.getMediaFiles()) {
         if (StringUtils.isBlank(mf.getContainerFormat())) {
-          submitTask(new MediaFileInformationFetcherTask(mf, episode, false));
+          submitTask(new MediaFileInformationFetcherTask(mf, episode, false, mediainfoThroughput));
         }
       }
     }
@@ -893,8 +898,14 @@ public class TvShowUpdateDatasourceTask2 extends TmmThreadPool {
   @Override
   public void callback(Object obj) {
     // do not publish task description here, because with different workers the
-    // text is never right
-    publishState(progressDone);
+    // text is never right - but we can show the throughput while fetching mediainfo
+    ThroughputMeter throughput = mediainfoThroughput;
+    if (throughput != null) {
+      publishState(throughput.toString(), progressDone);
+    }
+    else {
+      publishState(progressDone);
+    }
   }
 
   /**
@@ -20,8 +20,12 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -209,12 +213,14 @@ public class ParserUtils {
     }
 
     // remove extension (if found) and split (keep var)
-    String fname = filename.replaceFirst("\\.\\w{2,4}$", "");
+    String fname = CleanPatterns.EXTENSION.matcher(filename).replaceFirst("");
     // replaces any resolution 1234x1234 (must start and end with a non-word (else too global)
-    fname = fname.replaceFirst("(?i)\\W\\d{3,4}x\\d{3,4}", " ");
+    if (fname.indexOf('x') >= 0 || fname.indexOf('X') >= 0) {
+      fname = CleanPatterns.RESOLUTION.matcher(fname).replaceFirst(" ");
+    }
     // replace FPS specific words (must start with a non-word (else too global)
-    for (String cw : cleanwords) {
-      fname = fname.replaceFirst("(?i)\\W" + cw, " ");
+    for (Pattern cleanword : CleanPatterns.CLEANWORDS) {
+      fname = cleanword.matcher(fname).replaceFirst(" ");
     }
 
     LOGGER.trace("--------------------");
@@ -222,42 +228,38 @@ public class ParserUtils {
 
     // Get [optionals] delimited
     List<String> opt = new ArrayList<String>();
-    Pattern p = Pattern.compile("\\[(.*?)\\]");
-    Matcher m = p.matcher(fname);
+    Matcher m = CleanPatterns.OPTIONALS.matcher(fname);
     while (m.find()) {
       LOGGER.trace("OPT: " + m.group(1));
-      String[] o = StringUtils.split(m.group(1), DELIMITER);
-      opt.addAll(Arrays.asList(o));
+      tokenize(m.group(1), opt);
       fname = fname.replace(m.group(), ""); // remove complete group from name
     }
     LOGGER.trace("ARR: " + opt);
 
     // detect OTR recordings - at least with that special pattern
-    p = Pattern.compile(".*?(_\\d{2}\\.\\d{2}\\.\\d{2}[_ ]+\\d{2}\\-\\d{2}\\_).*"); // like _12.11.17_20-15_
-    m = p.matcher(fname);
-    if (m.matches() && m.start(1) > 10) {
-      // start at some later point, not that if pattern is first
-      LOGGER.trace("OTR: " + m.group(1));
-      fname = fname.substring(0, m.start(1));
+    if (fname.lastIndexOf('_') > 10) {
+      m = CleanPatterns.OTR.matcher(fname);
+      if (m.matches() && m.start(1) > 10) {
+        // start at some later point, not that if pattern is first
+        LOGGER.trace("OTR: " + m.group(1));
+        fname = fname.substring(0, m.start(1));
+      }
     }
 
     // parse good filename
-    String[] s = StringUtils.split(fname, DELIMITER);
-    if (s.length == 0) {
-      s = opt.toArray(new String[opt.size()]);
-    }
+    List<String> tokens = new ArrayList<>();
+    tokenize(fname, tokens);
+    String[] s = tokens.isEmpty() ? opt.toArray(new String[opt.size()]) : tokens.toArray(new String[tokens.size()]);
     int firstFoundStopwordPosition = s.length;
 
     // iterate over all splitted items
     for (int i = 0; i < s.length; i++) {
       // search for stopword position
-      for (String stop : stopwords) {
-        if (s[i].equalsIgnoreCase(stop)) {
-          s[i] = ""; // delete stopword
-          // remember lowest position, but not lower than 2!!!
-          if (i < firstFoundStopwordPosition && i >= 2) {
-            firstFoundStopwordPosition = i;
-          }
+      if (isStopword(s[i])) {
+        s[i] = ""; // delete stopword
+        // remember lowest position, but not lower than 2!!!
+        if (i < firstFoundStopwordPosition && i >= 2) {
+          firstFoundStopwordPosition = i;
         }
       }
       if (Utils.isValidImdbId(s[i])) {
@@ -266,10 +268,13 @@ public class ParserUtils {
     }
 
     // scan backwards - if we have at least 1 token, and the last one is a 4 digit, assume year and remove
-    int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+    int currentYear = 0;
     String year = "";
     for (int i = s.length - 1; i > 0; i--) {
-      if (s[i].matches("\\d{4}")) {
+      if (isFourDigits(s[i])) {
+        if (currentYear == 0) {
+          currentYear = Calendar.getInstance().get(Calendar.YEAR);
+        }
         int parsedYear = Integer.parseInt(s[i]);
         if (parsedYear > 1800 && parsedYear < currentYear + 5) {
           // well, limit the year a bit...
@@ -283,7 +288,10 @@ public class ParserUtils {
     if (year.isEmpty()) {
       // parse all optional tags for it
       for (String o : opt) {
-        if (o.matches("\\d{4}")) {
+        if (isFourDigits(o)) {
+          if (currentYear == 0) {
+            currentYear = Calendar.getInstance().get(Calendar.YEAR);
+          }
           int parsedYear = Integer.parseInt(o);
           if (parsedYear > 1800 && parsedYear < currentYear + 5) {
             year = String.valueOf(parsedYear);
@@ -294,11 +302,15 @@ public class ParserUtils {
     }
 
     // rebuild string, respecting bad words
-    String name = "";
+    StringBuilder name = new StringBuilder();
+    List<String> badWords = null;
     for (int i = 0; i < firstFoundStopwordPosition; i++) {
       if (!s[i].isEmpty()) {
-        // check for bad words
-        if (!MovieModuleManager.MOVIE_SETTINGS.getBadWords().contains(s[i].toLowerCase(Locale.ROOT))) {
+        // check for bad words (getBadWords() lowercases the whole list - so fetch it only once)
+        if (badWords == null) {
+          badWords = MovieModuleManager.MOVIE_SETTINGS.getBadWords();
+        }
+        if (!badWords.contains(s[i].toLowerCase(Locale.ROOT))) {
           String word = s[i];
           // roman characters such as "Part Iv" should not be camel-cased
           switch (word.toUpperCase(Locale.ROOT)) {
@@ -312,23 +324,23 @@ public class ParserUtils {
             case "VIII":
             case "IX":
             case "X":
-              name = name + word.toUpperCase(Locale.ROOT) + " ";
+              name.append(word.toUpperCase(Locale.ROOT)).append(' ');
               break;
 
             default:
-              name = name + WordUtils.capitalizeFully(word) + " "; // make CamelCase
+              name.append(WordUtils.capitalizeFully(word)).append(' '); // make CamelCase
               break;
           }
         }
       }
     }
 
-    if (name.isEmpty()) {
+    if (name.length() == 0) {
       // started with a badword - return name unchanged
       ret[0] = fname;
     }
     else {
-      ret[0] = name.trim();
+      ret[0] = name.toString().trim();
     }
     ret[1] = year.trim();
     LOGGER.trace("Movie title should be: \"" + ret[0] + "\", from " + ret[1]);
@@ -336,6 +348,61 @@ public class ParserUtils {
     return ret;
   }
 
+  /**
+   * splits the string at the common delimiters (like StringUtils.split(string, DELIMITER)) in one pass
+   */
+  private static void tokenize(String string, List<String> tokens) {
+    int start = -1;
+    for (int i = 0; i < string.length(); i++) {
+      if (DELIMITER.indexOf(string.charAt(i)) >= 0) {
+        if (start >= 0) {
+          tokens.add(string.substring(start, i));
+          start = -1;
+        }
+      }
+      else if (start < 0) {
+        start = i;
+      }
+    }
+    if (start >= 0) {
+      tokens.add(string.substring(start));
+    }
+  }
+
+  /**
+   * case insensitive stopword check - the same as comparing the token with every stopword via equalsIgnoreCase()
+   */
+  private static boolean isStopword(String token) {
+    if (token.length() < CleanPatterns.STOPWORD_MIN_LENGTH || token.length() > CleanPatterns.STOPWORD_MAX_LENGTH) {
+      return false;
+    }
+    return CleanPatterns.STOPWORDS.contains(foldCase(token));
+  }
+
+  /**
+   * folds the case of every char the same way as String.equalsIgnoreCase() compares them
+   */
+  private static String foldCase(String string) {
+    char[] chars = new char[string.length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(string.charAt(i)));
+    }
+    return new String(chars);
+  }
+
+  private static boolean isFourDigits(String string) {
+    if (string.length() != 4) {
+      return false;
+    }
+    for (int i = 0; i < 4; i++) {
+      char c = string.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * gets IMDB id out of filename
    * 
@@ -368,20 +435,28 @@ public class ParserUtils {
     String before = filename;
 
     // replaces any resolution 1234x1234 (must start with a non-word (else too global)
-    filename = filename.replaceFirst("(?i)\\W\\d{3,4}x\\d{3,4}", " ");
+    filename = CleanPatterns.RESOLUTION.matcher(filename).replaceFirst(" ");
 
-    for (String s : stopwords) {
-      filename = filename.replaceAll("(?i)\\W" + s + "(\\W|$)", " "); // TV stop words must start AND END with a non-word (else too global) or line
-                                                                      // end
+    // the stop words are plain words - only run the pattern if the word is in the string at all
+    String lowercase = filename.toLowerCase(Locale.ROOT);
+    for (int i = 0; i < CleanPatterns.TV_STOPWORDS.length; i++) {
+      if (!lowercase.contains(stopwords[i])) {
+        continue;
+      }
+      String cleaned = CleanPatterns.TV_STOPWORDS[i].matcher(filename).replaceAll(" ");
+      if (!cleaned.equals(filename)) {
+        filename = cleaned;
+        lowercase = filename.toLowerCase(Locale.ROOT);
+      }
       if (LOGGER.isTraceEnabled() && filename.length() != before.length()) {
-        LOGGER.trace("Removed some TV stopword (" + s + "): " + before + " -> " + filename);
+        LOGGER.trace("Removed some TV stopword (" + stopwords[i] + "): " + before + " -> " + filename);
         before = filename;
       }
     }
 
     // also remove bad words
     for (String s : TvShowModuleManager.SETTINGS.getBadWords()) {
-      filename = filename.replaceAll("(?i)\\W" + s + "(\\W|$)", " "); // TV bad words must start AND END with a non-word (else too global) or line end
+      filename = CleanPatterns.getBadwordPattern(s).matcher(filename).replaceAll(" ");
       if (LOGGER.isTraceEnabled() && filename.length() != before.length()) {
         LOGGER.trace("Removed some TV bad word (" + s + "): " + before + " -> " + filename);
         before = filename;
@@ -551,4 +626,52 @@ public class ParserUtils {
       return clean + " (" + this.year + ")";
     }
   }
+
+  /**
+   * the precompiled patterns and stopwords for cleaning movie and TV episode names; TV stop/bad words must start AND END with a non-word (else
+   * too global) or line end
+   */
+  private static class CleanPatterns {
+    private static final Pattern              EXTENSION    = Pattern.compile("\\.\\w{2,4}$");
+    private static final Pattern              RESOLUTION   = Pattern.compile("(?i)\\W\\d{3,4}x\\d{3,4}");
+    private static final Pattern              OPTIONALS    = Pattern.compile("\\[(.*?)\\]");
+    // like _12.11.17_20-15_
+    private static final Pattern              OTR          = Pattern.compile(".*?(_\\d{2}\\.\\d{2}\\.\\d{2}[_ ]+\\d{2}\\-\\d{2}\\_).*");
+    private static final Pattern[]            CLEANWORDS   = new Pattern[cleanwords.length];
+    private static final Set<String>          STOPWORDS    = new HashSet<>();
+    private static final Pattern[]            TV_STOPWORDS = new Pattern[stopwords.length];
+    private static final Map<String, Pattern> TV_BADWORDS  = new ConcurrentHashMap<>();
+    private static final int                  STOPWORD_MIN_LENGTH;
+    private static final int                  STOPWORD_MAX_LENGTH;
+
+    static {
+      for (int i = 0; i < cleanwords.length; i++) {
+        CLEANWORDS[i] = Pattern.compile("(?i)\\W" + cleanwords[i]);
+      }
+
+      int min = Integer.MAX_VALUE;
+      int max = 0;
+      for (int i = 0; i < stopwords.length; i++) {
+        STOPWORDS.add(foldCase(stopwords[i]));
+        TV_STOPWORDS[i] = createPattern(stopwords[i]);
+        min = Math.min(min, stopwords[i].length());
+        max = Math.max(max, stopwords[i].length());
+      }
+      STOPWORD_MIN_LENGTH = min;
+      STOPWORD_MAX_LENGTH = max;
+    }
+
+    private static Pattern getBadwordPattern(String badword) {
+      Pattern pattern = TV_BADWORDS.get(badword);
+      if (pattern == null) {
+        pattern = createPattern(badword);
+        TV_BADWORDS.put(badword, pattern);
+      }
+      return pattern;
+    }
+
+    private static Pattern createPattern(String word) {
+      return Pattern.compile("(?i)\\W" + word + "(\\W|$)");
+    }
+  }
 }
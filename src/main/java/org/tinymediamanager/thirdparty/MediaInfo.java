@@ -17,12 +17,17 @@ package org.tinymediamanager.thirdparty;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,13 +43,16 @@ import com.sun.jna.WString;
  */
 public class MediaInfo implements Closeable {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(MediaInfo.class);
+  private static final Logger     LOGGER                  = LoggerFactory.getLogger(MediaInfo.class);
+  private static final int        BUFFER_ALIGNMENT        = 64 * 1024;
+  private static final Pattern    VERSION_PATTERN         = Pattern.compile("v(\\d+)\\.(\\d+)");
+  private static volatile Boolean informSnapshotSupported = null;
 
   /**
    * the internal pointer handle of mediainfo<br>
    * .
    */
-  private Pointer             handle;
+  private Pointer                 handle;
 
   /**
    * checks if the internal handle is null.
@@ -87,6 +95,124 @@ public class MediaInfo implements Closeable {
     }
   }
 
+  /**
+   * Open the file and feed mediainfo through the buffer API (openBufferInit/openBufferContinue/openBufferContinueGoToGet) rather than letting
+   * mediainfo read the file itself. The file is read via a {@link FileChannel} until mediainfo is finished or the given byte budget is exhausted;
+   * seek requests of mediainfo are honored. This caps the I/O per file (useful on slow network shares).
+   * 
+   * @param file
+   *          the file
+   * @param maxBytes
+   *          the maximum amount of bytes to read (0 = no limit)
+   * @param bufferSize
+   *          the size of the read buffer (will be rounded up to a multiple of 64KB)
+   * @return the amount of bytes read or -1 if the file could not be opened
+   * @throws IOException
+   *           any exception while reading the file
+   */
+  public long openBuffered(Path file, long maxBytes, int bufferSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (!openBufferInit(fileSize, 0)) {
+        return -1;
+      }
+
+      int alignedSize = Math.max(1, (bufferSize + BUFFER_ALIGNMENT - 1) / BUFFER_ALIGNMENT) * BUFFER_ALIGNMENT;
+      byte[] buffer = new byte[alignedSize];
+      ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+      long pos = 0;
+      long bytesRead = 0;
+      while (pos < fileSize && (maxBytes <= 0 || bytesRead < maxBytes)) {
+        // read up to the next aligned boundary (re-aligns the reads after a seek)
+        long toRead = alignedSize - (pos % BUFFER_ALIGNMENT);
+        toRead = Math.min(toRead, fileSize - pos);
+        if (maxBytes > 0) {
+          toRead = Math.min(toRead, maxBytes - bytesRead);
+        }
+
+        byteBuffer.clear();
+        byteBuffer.limit((int) toRead);
+        int read = channel.read(byteBuffer, pos);
+        if (read <= 0) {
+          break;
+        }
+        pos += read;
+        bytesRead += read;
+
+        int result = openBufferContinue(buffer, read);
+        if ((result & 8) == 8) { // Status.Finalized
+          break;
+        }
+
+        // does mediainfo want to continue elsewhere?
+        long seekTo = openBufferContinueGoToGet();
+        if (seekTo != -1) {
+          pos = seekTo;
+          openBufferInit(fileSize, pos); // inform mediainfo that we seeked
+        }
+      }
+
+      openBufferFinalize();
+      return bytesRead;
+    }
+  }
+
+  /**
+   * Feed mediainfo with a region of the given channel (e.g. a file inside a disc image) through the buffer API. The data is read into the given
+   * (direct) buffer which is handed over to the native library without copying it; seek requests of mediainfo are honored.
+   * 
+   * @param channel
+   *          the channel to read from
+   * @param offset
+   *          the start of the region in the channel
+   * @param length
+   *          the length of the region
+   * @param buffer
+   *          the direct buffer to read into (can be re-used for several calls)
+   * @return the amount of bytes read or -1 if mediainfo could not be initialized
+   * @throws IOException
+   *           any exception while reading the channel
+   */
+  public long openRegion(FileChannel channel, long offset, long length, ByteBuffer buffer) throws IOException {
+    if (!openBufferInit(length, 0)) {
+      return -1;
+    }
+
+    long pos = 0;
+    long bytesRead = 0;
+    while (pos < length) {
+      buffer.clear();
+      if (buffer.capacity() > length - pos) {
+        buffer.limit((int) (length - pos));
+      }
+
+      int read = channel.read(buffer, offset + pos);
+      if (read <= 0) {
+        break;
+      }
+      pos += read;
+      bytesRead += read;
+
+      // JNA hands over a direct buffer starting at its position - the read bytes have to be at the start
+      buffer.flip();
+      int result = MediaInfoLibrary.INSTANCE.Open_Buffer_Continue(handle, buffer, read);
+      if ((result & 8) == 8) { // Status.Finalized
+        break;
+      }
+
+      // does mediainfo want to continue elsewhere?
+      long seekTo = openBufferContinueGoToGet();
+      if (seekTo != -1) {
+        pos = seekTo;
+        openBufferInit(length, pos); // inform mediainfo that we seeked
+      }
+    }
+
+    openBufferFinalize();
+    return bytesRead;
+  }
+
   /**
    * STREAM handling
    * 
@@ -401,11 +527,94 @@ public class MediaInfo implements Closeable {
   }
 
   /**
-   * Snapshot.
+   * Snapshot. Tries to get the whole snapshot with one single Inform() call first (MediaInfo 17.10+) and falls back to fetching every single
+   * parameter if that is not possible
    * 
    * @return the map
    */
   public Map<StreamKind, List<Map<String, String>>> snapshot() {
+    if (isInformSnapshotSupported()) {
+      Map<StreamKind, List<Map<String, String>>> mediaInfo = snapshotFromInform();
+      if (mediaInfo != null && !mediaInfo.isEmpty()) {
+        return mediaInfo;
+      }
+    }
+    return snapshotPerKey();
+  }
+
+  /**
+   * Snapshot out of one single Inform() call; the XML output (MIXML) is parsed into the same structure as {@link #snapshotPerKey()} creates
+   * 
+   * @return the map or null if the library does not support the XML output
+   */
+  public Map<StreamKind, List<Map<String, String>>> snapshotFromInform() {
+    if (!isLoaded()) {
+      return null;
+    }
+
+    try {
+      option("Complete", "1");
+      option("Inform", "XML");
+
+      Map<StreamKind, List<Map<String, String>>> mediaInfo = MediaInfoXMLStreamParser.parseSnapshot(inform());
+      if (mediaInfo == null) {
+        // no usable MIXML for this file (empty/unexpected output); only this file falls back
+        LOGGER.debug("mediainfo did not deliver MIXML - falling back to fetching every parameter");
+      }
+      return mediaInfo;
+    }
+    catch (Exception e) {
+      LOGGER.debug("could not parse the mediainfo XML output: " + e.getMessage());
+      return null;
+    }
+    finally {
+      option("Inform", "");
+      option("Complete", "");
+    }
+  }
+
+  /**
+   * does the loaded library deliver the XML output (MIXML) needed for {@link #snapshotFromInform()}? This is decided once by the library version
+   */
+  private static boolean isInformSnapshotSupported() {
+    Boolean supported = informSnapshotSupported;
+    if (supported == null) {
+      String version = version();
+      supported = isInformSnapshotSupported(version);
+      if (!supported) {
+        LOGGER.debug("mediainfo " + version + " does not deliver MIXML - fetching every parameter");
+      }
+      informSnapshotSupported = supported;
+    }
+    return supported;
+  }
+
+  /**
+   * MIXML is available since MediaInfo 17.10; if the version is unknown, it is tried (and every file falls back on its own)
+   *
+   * @param version
+   *          the version string of the library (e.g. "MediaInfoLib - v18.05")
+   * @return true if the library should deliver MIXML
+   */
+  static boolean isInformSnapshotSupported(String version) {
+    if (version == null) {
+      return true;
+    }
+    Matcher matcher = VERSION_PATTERN.matcher(version);
+    if (!matcher.find()) {
+      return true;
+    }
+    int major = Integer.parseInt(matcher.group(1));
+    int minor = Integer.parseInt(matcher.group(2));
+    return major > 17 || (major == 17 && minor >= 10);
+  }
+
+  /**
+   * Snapshot by fetching every single parameter of every stream
+   * 
+   * @return the map
+   */
+  public Map<StreamKind, List<Map<String, String>>> snapshotPerKey() {
     Map<StreamKind, List<Map<String, String>>> mediaInfo = new EnumMap<>(StreamKind.class);
 
     for (StreamKind streamKind : StreamKind.values()) {
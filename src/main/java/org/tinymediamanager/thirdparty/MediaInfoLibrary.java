@@ -18,6 +18,7 @@ package org.tinymediamanager.thirdparty;
 import static java.util.Collections.singletonMap;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 
 import com.sun.jna.FunctionMapper;
 import com.sun.jna.Library;
@@ -71,6 +72,8 @@ interface MediaInfoLibrary extends Library {
 
   int Open_Buffer_Continue(Pointer handle, byte[] buffer, int size);
 
+  int Open_Buffer_Continue(Pointer handle, ByteBuffer buffer, int size);
+
   long Open_Buffer_Continue_GoTo_Get(Pointer handle);
 
   int Open_Buffer_Finalize(Pointer handle);
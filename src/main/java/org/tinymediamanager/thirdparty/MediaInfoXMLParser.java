@@ -1,7 +1,11 @@
 package org.tinymediamanager.thirdparty;
 
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashSet;
@@ -12,6 +16,11 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -21,17 +30,62 @@ import org.jsoup.select.Elements;
 import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
 
 public class MediaInfoXMLParser {
-  private final List<MiFile> files                   = new ArrayList<>();
+  private static final XMLInputFactory FACTORY                 = createFactory();
+
+  private final List<MiFile>           files;
 
-  private static Pattern     DURATION_HOUR_PATTERN   = Pattern.compile("(\\d*?) h");
-  private static Pattern     DURATION_MINUTE_PATTERN = Pattern.compile("(\\d*?) min");
-  private static Pattern     DURATION_SECOND_PATTERN = Pattern.compile("(\\d*?) s");
+  private static Pattern               DURATION_HOUR_PATTERN   = Pattern.compile("(\\d*?) h");
+  private static Pattern               DURATION_MINUTE_PATTERN = Pattern.compile("(\\d*?) min");
+  private static Pattern               DURATION_SECOND_PATTERN = Pattern.compile("(\\d*?) s");
+  private static Pattern               WHITESPACE_PATTERN      = Pattern.compile("[ \\t\\n\\r\\f]+");
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    return factory;
+  }
 
+  /**
+   * parse the given mediainfo XML (old and new format). The XML is streamed (StAX); only XMLs which are not well formed are parsed with the
+   * (lenient) DOM parser
+   *
+   * @param path
+   *          the path to the XML file
+   * @return the parsed XML
+   * @throws Exception
+   *           any exception while parsing the XML
+   */
   public static MediaInfoXMLParser parseXML(Path path) throws Exception {
-    return new MediaInfoXMLParser(Jsoup.parse(new FileInputStream(path.toFile()), "UTF-8", "", Parser.xmlParser()));
+    try (InputStream is = new BufferedInputStream(Files.newInputStream(path))) {
+      return new MediaInfoXMLParser(parseStream(is));
+    }
+    catch (XMLStreamException e) {
+      return parseDocument(path);
+    }
   }
 
-  private MediaInfoXMLParser(Document document) throws Exception {
+  /**
+   * parse the given mediainfo XML with the DOM parser
+   *
+   * @param path
+   *          the path to the XML file
+   * @return the parsed XML
+   * @throws Exception
+   *           any exception while parsing the XML
+   */
+  static MediaInfoXMLParser parseDocument(Path path) throws Exception {
+    try (InputStream is = new FileInputStream(path.toFile())) {
+      return new MediaInfoXMLParser(parseDocument(Jsoup.parse(is, "UTF-8", "", Parser.xmlParser())));
+    }
+  }
+
+  private MediaInfoXMLParser(List<MiFile> files) {
+    this.files = files;
+  }
+
+  private static List<MiFile> parseDocument(Document document) throws Exception {
     // first check if there is a valid root object (old and new format)
     Elements rootElements = document.select("MediaInfo");
     if (rootElements.isEmpty()) {
@@ -47,6 +101,7 @@ public class MediaInfoXMLParser {
     }
 
     // process every file in the ISO
+    List<MiFile> files = new ArrayList<>();
     for (Element file : fileElements) {
       MiFile miFile = new MiFile();
 
@@ -61,7 +116,9 @@ public class MediaInfoXMLParser {
         miTrack.type = track.attr("type");
 
         // all tags in that track
-        miTrack.elements.addAll(track.children());
+        for (Element elem : track.children()) {
+          miTrack.add(elem.tagName(), elem.ownText());
+        }
 
         miFile.tracks.add(miTrack);
       }
@@ -70,7 +127,139 @@ public class MediaInfoXMLParser {
 
       files.add(miFile);
     }
+    return files;
+  }
+
+  /**
+   * stream the XML in one pass. The result is the same as the one of the DOM parser: element names of the structure (MediaInfo, media, file,
+   * track) are matched case insensitive and the value of a tag is its own text with normalized whitespace
+   */
+  private static List<MiFile> parseStream(InputStream is) throws Exception {
+    List<MiFile> mediaFiles = new ArrayList<>();
+    List<MiFile> fileFiles = new ArrayList<>();
+
+    int depth = 0;
+    int rootDepth = -1;
+    int fileDepth = -1;
+    int trackDepth = -1;
+    int tagDepth = -1;
+
+    MiFile miFile = null;
+    boolean oldStyle = false;
+    MiTrack miTrack = null;
+    String tagName = null;
+    StringBuilder text = new StringBuilder();
+
+    XMLStreamReader reader = FACTORY.createXMLStreamReader(is);
+    try {
+      while (reader.hasNext()) {
+        int event = reader.next();
+        switch (event) {
+          case XMLStreamConstants.START_ELEMENT:
+            String name = reader.getLocalName();
+            if (!isTag(name)) {
+              // the DOM parser does not take names which do not start with a letter (e.g. the chapter marks <_00_01_43125>) as tags, but as text
+              if (tagName != null && depth == tagDepth) {
+                text.append('<').append(name).append('>');
+              }
+              break;
+            }
+            depth++;
+            if (rootDepth < 0) {
+              if ("MediaInfo".equalsIgnoreCase(name)) {
+                rootDepth = depth;
+              }
+            }
+            else if (miFile == null) {
+              if ("media".equalsIgnoreCase(name) || "file".equalsIgnoreCase(name)) {
+                miFile = new MiFile();
+                oldStyle = "media".equalsIgnoreCase(name);
+                fileDepth = depth;
+                // filename is in <media> tag in the newer format
+                String ref = getAttribute(reader, "ref");
+                if (StringUtils.isNotBlank(ref)) {
+                  miFile.filename = ref;
+                }
+              }
+            }
+            else if (miTrack == null) {
+              if ("track".equalsIgnoreCase(name)) {
+                miTrack = new MiTrack();
+                miTrack.type = getAttribute(reader, "type");
+                trackDepth = depth;
+              }
+            }
+            else if (depth == trackDepth + 1) {
+              tagName = name;
+              tagDepth = depth;
+              text.setLength(0);
+            }
+            break;
+
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            // only the own text of the tag
+            if (tagName != null && depth == tagDepth) {
+              text.append(reader.getText());
+            }
+            break;
+
+          case XMLStreamConstants.END_ELEMENT:
+            if (!isTag(reader.getLocalName())) {
+              break;
+            }
+            if (tagName != null && depth == tagDepth) {
+              miTrack.add(tagName, WHITESPACE_PATTERN.matcher(text).replaceAll(" ").trim());
+              tagName = null;
+            }
+            else if (miTrack != null && depth == trackDepth) {
+              miFile.tracks.add(miTrack);
+              miTrack = null;
+            }
+            else if (miFile != null && depth == fileDepth) {
+              miFile.createSnapshot();
+              if (oldStyle) {
+                mediaFiles.add(miFile);
+              }
+              else {
+                fileFiles.add(miFile);
+              }
+              miFile = null;
+            }
+            else if (depth == rootDepth) {
+              // everything after the root element is of no interest
+              return mediaFiles.isEmpty() ? fileFiles : mediaFiles;
+            }
+            depth--;
+            break;
+
+          default:
+            break;
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+
+    if (rootDepth < 0) {
+      throw new InvalidXmlException("Invalid/unparseable XML");
+    }
+    return mediaFiles.isEmpty() ? fileFiles : mediaFiles;
+  }
 
+  private static boolean isTag(String name) {
+    return !name.isEmpty() && Character.isLetter(name.charAt(0));
+  }
+
+  private static String getAttribute(XMLStreamReader reader, String name) {
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if (name.equalsIgnoreCase(reader.getAttributeLocalName(i))) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return "";
   }
 
   /**
@@ -160,9 +349,9 @@ public class MediaInfoXMLParser {
           generalStreamInfo = streamInfo;
         }
 
-        for (Element elem : track.elements) {
+        for (Map.Entry<String, String> elem : track.elements) {
           int i = 0;
-          String ename = elem.tagName();
+          String ename = elem.getKey();
           String key = getMappedKey(ename);
           while (streamInfo.containsKey(key)) {
             // change key for duplicates
@@ -178,7 +367,7 @@ public class MediaInfoXMLParser {
             i++;
           }
 
-          String value = elem.ownText();
+          String value = elem.getValue();
 
           // Width and Height sometimes comes with the string "pixels"
           if (key.equals("Width") || key.equals("Height")) {
@@ -339,8 +528,12 @@ public class MediaInfoXMLParser {
    * Track record of every file (1:N)
    */
   public static class MiTrack {
-    public String              type;
-    public final List<Element> elements = new ArrayList<>();
+    public String                                 type;
+    public final List<Map.Entry<String, String>> elements = new ArrayList<>();
+
+    private void add(String tagName, String value) {
+      elements.add(new AbstractMap.SimpleImmutableEntry<>(tagName, value));
+    }
   }
 
   public static class InvalidXmlException extends Exception {
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.thirdparty;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
+
+/**
+ * The class MediaInfoXMLStreamParser. A streaming (StAX) parser for the MediaInfo XML output (MIXML; MediaInfo 17.10+).<br>
+ * The XML tag names are mapped back to the parameter names of the MediaInfo API (e.g. Channels -> Channel(s), Language_String -> Language/String),
+ * so the resulting snapshot is the same as the one created by {@link MediaInfo#snapshotPerKey()}
+ *
+ * @author Manuel Laggner
+ */
+public class MediaInfoXMLStreamParser {
+  private static final XMLInputFactory FACTORY       = createFactory();
+  private static final Pattern         SUFFIX_PATTERN = Pattern.compile("^(.+)_(String\\d*|Hint|Info|Url|Extensions)$");
+
+  private MediaInfoXMLStreamParser() {
+    // hide public constructor for utility classes
+  }
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    return factory;
+  }
+
+  /**
+   * parse the snapshot of the first media out of the given XML
+   *
+   * @param xml
+   *          the XML output of MediaInfo
+   * @return the snapshot or null, if the XML is not in the MIXML format
+   * @throws XMLStreamException
+   *           any exception while parsing the XML
+   */
+  public static Map<StreamKind, List<Map<String, String>>> parseSnapshot(String xml) throws XMLStreamException {
+    if (StringUtils.isBlank(xml)) {
+      return null;
+    }
+
+    List<Map<StreamKind, List<Map<String, String>>>> snapshots = parseSnapshots(new StringReader(xml), 1);
+    if (snapshots.isEmpty()) {
+      return null;
+    }
+    return snapshots.get(0);
+  }
+
+  /**
+   * parse the snapshots of all media entries out of the given XML
+   *
+   * @param reader
+   *          the reader to read the XML from
+   * @param maxMedia
+   *          the maximum amount of media entries to parse (0 = all)
+   * @return a list of all parsed snapshots (in the order of the XML)
+   * @throws XMLStreamException
+   *           any exception while parsing the XML
+   */
+  public static List<Map<StreamKind, List<Map<String, String>>>> parseSnapshots(Reader reader, int maxMedia) throws XMLStreamException {
+    List<Map<StreamKind, List<Map<String, String>>>> snapshots = new ArrayList<>();
+
+    XMLStreamReader xml = FACTORY.createXMLStreamReader(reader);
+    try {
+      Map<StreamKind, List<Map<String, String>>> snapshot = null;
+      Map<String, String> streamInfo = null;
+      String key = null;
+      StringBuilder value = new StringBuilder();
+
+      while (xml.hasNext()) {
+        switch (xml.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            String name = xml.getLocalName();
+            if ("media".equals(name)) {
+              snapshot = new EnumMap<>(StreamKind.class);
+            }
+            else if ("track".equals(name) && snapshot != null) {
+              streamInfo = null;
+              StreamKind kind = getStreamKind(xml.getAttributeValue(null, "type"));
+              if (kind != null) {
+                streamInfo = new LinkedHashMap<>();
+                snapshot.computeIfAbsent(kind, k -> new ArrayList<>()).add(streamInfo);
+              }
+            }
+            else if (streamInfo != null && !"extra".equals(name)) {
+              key = name;
+              value.setLength(0);
+            }
+            break;
+
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+            if (key != null) {
+              value.append(xml.getText());
+            }
+            break;
+
+          case XMLStreamConstants.END_ELEMENT:
+            name = xml.getLocalName();
+            if (key != null && key.equals(name)) {
+              putValue(streamInfo, key, value.toString().trim());
+              key = null;
+            }
+            else if ("track".equals(name)) {
+              streamInfo = null;
+            }
+            else if ("media".equals(name) && snapshot != null) {
+              addCounts(snapshot);
+              snapshots.add(snapshot);
+              snapshot = null;
+              if (maxMedia > 0 && snapshots.size() >= maxMedia) {
+                return snapshots;
+              }
+            }
+            break;
+
+          default:
+            break;
+        }
+      }
+    }
+    finally {
+      xml.close();
+    }
+
+    return snapshots;
+  }
+
+  private static StreamKind getStreamKind(String type) {
+    if (StringUtils.isBlank(type)) {
+      return null;
+    }
+    try {
+      return StreamKind.valueOf(type);
+    }
+    catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static void putValue(Map<String, String> streamInfo, String tag, String value) {
+    if (value.isEmpty()) {
+      return;
+    }
+
+    String key = getMappedKey(tag);
+
+    // MIXML delivers the duration in seconds, the API in milliseconds
+    if ("Duration".equals(key)) {
+      try {
+        value = new BigDecimal(value).movePointRight(3).stripTrailingZeros().toPlainString();
+      }
+      catch (NumberFormatException ignored) {
+      }
+    }
+
+    // first one wins (like in the API)
+    if (!streamInfo.containsKey(key)) {
+      streamInfo.put(key, value);
+    }
+  }
+
+  /**
+   * map the MIXML tag name to the parameter name of the API
+   *
+   * @param tag
+   *          the tag name
+   * @return the parameter name
+   */
+  static String getMappedKey(String tag) {
+    if (tag.startsWith("Channels")) {
+      // Channels -> Channel(s), Channels_Original -> Channel(s)_Original
+      return "Channel(s)" + tag.substring(8);
+    }
+    if ("Format_Extensions".equals(tag)) {
+      // the API (and the DOM parser) still know this as Codec/Extensions
+      return "Codec/Extensions";
+    }
+
+    Matcher matcher = SUFFIX_PATTERN.matcher(tag);
+    if (matcher.matches()) {
+      return matcher.group(1) + "/" + matcher.group(2);
+    }
+    return tag;
+  }
+
+  /**
+   * the API delivers the stream counts in every stream; add them if they are not in the XML
+   */
+  private static void addCounts(Map<StreamKind, List<Map<String, String>>> snapshot) {
+    for (List<Map<String, String>> streams : snapshot.values()) {
+      String count = String.valueOf(streams.size());
+      for (Map<String, String> stream : streams) {
+        stream.putIfAbsent("StreamCount", count);
+      }
+    }
+
+    List<Map<String, String>> general = snapshot.get(StreamKind.General);
+    if (general != null && !general.isEmpty()) {
+      Map<String, String> generalStreamInfo = general.get(0);
+      addCount(generalStreamInfo, "VideoCount", snapshot.get(StreamKind.Video));
+      addCount(generalStreamInfo, "AudioCount", snapshot.get(StreamKind.Audio));
+      addCount(generalStreamInfo, "TextCount", snapshot.get(StreamKind.Text));
+    }
+  }
+
+  private static void addCount(Map<String, String> generalStreamInfo, String key, List<Map<String, String>> streams) {
+    if (streams != null && !generalStreamInfo.containsKey(key)) {
+      generalStreamInfo.put(key, String.valueOf(streams.size()));
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.tinymediamanager.thirdparty;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -9,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -40,6 +42,9 @@ import com.google.gson.stream.JsonReader;
 public class VSMeta {
 
   private static final Logger     LOGGER        = LoggerFactory.getLogger(VSMeta.class);
+  // only the first 5000 bytes are parsed; the last value may exceed that by its max length (2 byte length + 2559 bytes)
+  private static final int        PARSE_LENGTH  = 5000;
+  private static final int        READ_LENGTH   = 8192;
 
   private HashMap<String, Object> ids           = new HashMap<>(0);
   private String                  title1        = "";                                   // show/movie
@@ -68,14 +73,14 @@ public class VSMeta {
    */
   public void parseFile(Path file) {
     try {
-      fileArray = Files.readAllBytes(file);
+      fileArray = readHeader(file);
       if (fileArray.length < 30) {
         LOGGER.warn("SYNO: Invalid file", file);
         return;
       }
       LOGGER.debug("SYNO: found valid .vsmeta - try to parse metadata...");
 
-      int maxLength = fileArray.length > 5000 ? 5000 : fileArray.length - 1;
+      int maxLength = fileArray.length > PARSE_LENGTH ? PARSE_LENGTH : fileArray.length - 1;
 
       for (currentpos = 0; currentpos < maxLength; currentpos++) {
         int b = fileArray[currentpos] & 0xff; // unsigned int
@@ -165,6 +170,18 @@ public class VSMeta {
     }
   }
 
+  /**
+   * read the metadata part of the file; the rest of the file consists of the base64 encoded artwork (which may be several MB)
+   */
+  private static byte[] readHeader(Path file) throws IOException {
+    byte[] buffer = new byte[READ_LENGTH];
+    int length;
+    try (InputStream is = Files.newInputStream(file)) {
+      length = IOUtils.read(is, buffer);
+    }
+    return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+  }
+
   /**
    * parses a length prefixed String, and forwards the counter to the end
    * 
@@ -25,7 +25,6 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Locale;
 
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -189,10 +188,10 @@ public class TmmUIHelper {
   }
 
   public static void openFile(Path file) throws Exception {
-    String fileType = "." + FilenameUtils.getExtension(file.getFileName().toString()).toLowerCase(Locale.ROOT);
+    String fileType = FilenameUtils.getExtension(file.getFileName().toString());
     String abs = file.toAbsolutePath().toString();
 
-    if (StringUtils.isNotBlank(Globals.settings.getMediaPlayer()) && Globals.settings.getAllSupportedFileTypes().contains(fileType)) {
+    if (StringUtils.isNotBlank(Globals.settings.getMediaPlayer()) && Globals.settings.getFileTypeRegistry().isSupported(fileType)) {
       if (SystemUtils.IS_OS_MAC_OSX) {
         exec(new String[] { "open", Globals.settings.getMediaPlayer(), "--args", abs });
       }
@@ -31,7 +31,11 @@ import java.awt.image.BufferedImage;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JLabel;
 import javax.swing.SwingWorker;
@@ -39,6 +43,7 @@ import javax.swing.SwingWorker;
 import org.apache.commons.lang3.StringUtils;
 import org.imgscalr.Scalr;
 import org.tinymediamanager.core.ImageCache;
+import org.tinymediamanager.core.threading.TmmThreadPool.TmmThreadFactory;
 import org.tinymediamanager.scraper.http.Url;
 import org.tinymediamanager.ui.MainWindow;
 import org.tinymediamanager.ui.TmmFontHelper;
@@ -61,6 +66,8 @@ public class ImageLabel extends JLabel {
   private static final long                  serialVersionUID   = -2524445544386464158L;
   protected static final ResourceBundle      BUNDLE             = ResourceBundle.getBundle("messages", new UTF8Control()); //$NON-NLS-1$
   private static Font                        FONT;
+  // prefetching images is only useful for the latest selection - so one thread is enough
+  private static final ThreadPoolExecutor    PREFETCHER         = createPrefetcher();
 
   protected BufferedImage                    scaledImage;
   protected String                           imageUrl;
@@ -87,6 +94,13 @@ public class ImageLabel extends JLabel {
     }
   }
 
+  private static ThreadPoolExecutor createPrefetcher() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 2, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+        new TmmThreadFactory("image-prefetch"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   public ImageLabel() {
     super("");
     this.drawBorder = true;
@@ -124,6 +138,17 @@ public class ImageLabel extends JLabel {
       worker.cancel(true);
     }
 
+    // already loaded and scaled for this size?
+    if (StringUtils.isNotBlank(newValue)) {
+      BufferedImage cachedImage = ScaledImageCache.getInstance().get(newValue, this.getSize());
+      if (cachedImage != null) {
+        scaledImage = cachedImage;
+        revalidate();
+        repaint();
+        return;
+      }
+    }
+
     scaledImage = null;
     this.repaint();
 
@@ -316,6 +341,11 @@ public class ImageLabel extends JLabel {
   private void recreateScaledImageIfNeeded(int originalWidth, int originalHeight, int newWidth, int newHeight) {
     if ((newWidth * 0.8f > originalWidth) || (originalWidth > newWidth * 1.2f) || (newHeight * 0.8f > originalHeight)
         || (originalHeight > newHeight * 1.2f) && newWidth > 10) {
+      // only one rescale at a time (while resizing, every paint would start a new one); the next paint after it checks the size again
+      if (worker != null && !worker.isDone()) {
+        return;
+      }
+
       if (StringUtils.isNotBlank(imagePath)) {
         worker = new ImageLoader(imagePath, new Dimension(newWidth, newHeight));
         worker.execute();
@@ -355,6 +385,65 @@ public class ImageLabel extends JLabel {
     this.useCache = useCache;
   }
 
+  /**
+   * load and scale the given images for the current size of this label in the background, so they can be shown instantly when they are set
+   * later (e.g. the posters of the movies next to the selected one). Images of former calls which have not been loaded yet are dropped
+   *
+   * @param imagePaths
+   *          the paths of the images to prefetch
+   */
+  public void prefetch(List<String> imagePaths) {
+    Dimension size = this.getSize();
+    if (size.width <= 0 || size.height <= 0) {
+      return;
+    }
+
+    PREFETCHER.getQueue().clear();
+    for (String path : imagePaths) {
+      if (StringUtils.isNotBlank(path) && ScaledImageCache.getInstance().get(path, size) == null) {
+        PREFETCHER.execute(() -> loadImage(path, size));
+      }
+    }
+  }
+
+  /**
+   * load the image (the cached file if available) and scale it to the given size. The scaled image is put into the {@link ScaledImageCache}
+   *
+   * @param path
+   *          the path to the original image
+   * @param size
+   *          the size to scale the image to
+   * @return the scaled image or null if the image could not be loaded
+   */
+  protected BufferedImage loadImage(String path, Dimension size) {
+    BufferedImage image = ScaledImageCache.getInstance().get(path, size);
+    if (image != null) {
+      return image;
+    }
+
+    Path file = null;
+    if (useCache) {
+      file = ImageCache.getCachedFile(Paths.get(path), size.width, size.height);
+    }
+
+    if (file == null) {
+      file = Paths.get(path);
+    }
+
+    if (!Files.exists(file)) {
+      return null;
+    }
+
+    try {
+      image = Scalr.resize(ImageCache.createImage(file), Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, size.width, size.height, Scalr.OP_ANTIALIAS);
+      ScaledImageCache.getInstance().put(path, size, image);
+      return image;
+    }
+    catch (Exception e) {
+      return null;
+    }
+  }
+
   /*
    * inner class for downloading online images
    */
@@ -368,10 +457,14 @@ public class ImageLabel extends JLabel {
     @Override
     protected BufferedImage doInBackground() throws Exception {
       try {
-        Url url = new Url(imageUrl);
-        return Scalr.resize(ImageCache.createImage(url.getBytesWithRetry(5)), Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, newSize.width,
-            newSize.height,
-            Scalr.OP_ANTIALIAS);
+        BufferedImage image = ScaledImageCache.getInstance().get(imageUrl, newSize);
+        if (image == null) {
+          Url url = new Url(imageUrl);
+          image = Scalr.resize(ImageCache.createImage(url.getBytesWithRetry(5)), Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, newSize.width,
+              newSize.height, Scalr.OP_ANTIALIAS);
+          ScaledImageCache.getInstance().put(imageUrl, newSize, image);
+        }
+        return image;
       }
       catch (Exception e) {
         imageUrl = "";
@@ -410,28 +503,7 @@ public class ImageLabel extends JLabel {
 
     @Override
     protected BufferedImage doInBackground() throws Exception {
-      Path file = null;
-
-      if (useCache) {
-        file = ImageCache.getCachedFile(Paths.get(imagePath));
-      }
-
-      if (file == null) {
-        file = Paths.get(imagePath);
-      }
-
-      if (file != null && Files.exists(file)) {
-        try {
-          return Scalr.resize(ImageCache.createImage(file), Scalr.Method.QUALITY, Scalr.Mode.AUTOMATIC, newSize.width, newSize.height,
-              Scalr.OP_ANTIALIAS);
-        }
-        catch (Exception e) {
-          return null;
-        }
-      }
-      else {
-        return null;
-      }
+      return loadImage(imagePath, newSize);
     }
 
     @Override
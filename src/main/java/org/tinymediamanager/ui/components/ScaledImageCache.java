@@ -0,0 +1,209 @@
+/*
+ * Copyright 2012 - 2018 Manuel Laggner
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tinymediamanager.ui.components;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.tinymediamanager.Globals;
+
+/**
+ * The class ScaledImageCache - an in memory LRU of the decoded and scaled images shown in the UI (keyed by the path and the size of the area
+ * the image has been scaled for), so switching the selection back and forth does not read and rescale the same images again.<br>
+ * The cache is limited by the bytes of all images in it; the images are only softly referenced, so the GC may drop them if the heap gets low
+ *
+ * @author Manuel Laggner
+ */
+public class ScaledImageCache {
+  private static final ScaledImageCache       instance = new ScaledImageCache(
+      Math.max(Globals.settings.getImageMemoryCacheSize(), 0) * 1024L * 1024L);
+
+  private final long                          maxBytes;
+  private final Map<Key, ImageReference>      images   = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReferenceQueue<BufferedImage> queue    = new ReferenceQueue<>();
+  private long                                bytes    = 0;
+
+  ScaledImageCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  public static ScaledImageCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * get the image scaled for the given size
+   *
+   * @param path
+   *          the path of the original image
+   * @param size
+   *          the size the image has been scaled for
+   * @return the scaled image or null if it is not in the cache
+   */
+  public synchronized BufferedImage get(String path, Dimension size) {
+    expungeCleared();
+    ImageReference reference = images.get(new Key(path, size));
+    return reference != null ? reference.get() : null;
+  }
+
+  /**
+   * put the image scaled for the given size into the cache and evict the least recently used images if the cache grew above its limit
+   *
+   * @param path
+   *          the path of the original image
+   * @param size
+   *          the size the image has been scaled for
+   * @param image
+   *          the scaled image
+   */
+  public synchronized void put(String path, Dimension size, BufferedImage image) {
+    if (path == null || image == null) {
+      return;
+    }
+    expungeCleared();
+
+    long imageBytes = getBytes(image);
+    if (imageBytes > maxBytes) {
+      return;
+    }
+
+    Key key = new Key(path, size);
+    ImageReference old = images.put(key, new ImageReference(key, image, imageBytes, queue));
+    if (old != null) {
+      old.clear();
+      bytes -= old.bytes;
+    }
+    bytes += imageBytes;
+
+    Iterator<ImageReference> it = images.values().iterator();
+    while (bytes > maxBytes && it.hasNext()) {
+      ImageReference eldest = it.next();
+      it.remove();
+      eldest.clear();
+      bytes -= eldest.bytes;
+    }
+  }
+
+  /**
+   * remove all scaled versions of the given image
+   *
+   * @param path
+   *          the path of the original image
+   */
+  public synchronized void invalidate(String path) {
+    Iterator<Map.Entry<Key, ImageReference>> it = images.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Key, ImageReference> entry = it.next();
+      if (entry.getKey().path.equals(path)) {
+        it.remove();
+        entry.getValue().clear();
+        bytes -= entry.getValue().bytes;
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    for (ImageReference reference : images.values()) {
+      reference.clear();
+    }
+    images.clear();
+    bytes = 0;
+  }
+
+  /**
+   * the bytes of all images in the cache (images dropped by the GC are not counted)
+   *
+   * @return the size in bytes
+   */
+  public synchronized long getBytes() {
+    expungeCleared();
+    return bytes;
+  }
+
+  public synchronized int size() {
+    expungeCleared();
+    return images.size();
+  }
+
+  /**
+   * remove the entries of all images dropped by the GC
+   */
+  private void expungeCleared() {
+    Reference<? extends BufferedImage> cleared;
+    while ((cleared = queue.poll()) != null) {
+      ImageReference reference = (ImageReference) cleared;
+      // the entry may already have been replaced/evicted
+      if (images.get(reference.key) == reference) {
+        images.remove(reference.key);
+        bytes -= reference.bytes;
+      }
+    }
+  }
+
+  static long getBytes(BufferedImage image) {
+    // the size of the pixel data in memory (e.g. TYPE_INT_RGB uses 4 bytes per pixel although it has only 24 bits per pixel)
+    DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+    return (long) dataBuffer.getSize() * dataBuffer.getNumBanks() * DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / 8;
+  }
+
+  private static class ImageReference extends SoftReference<BufferedImage> {
+    private final Key  key;
+    private final long bytes;
+
+    private ImageReference(Key key, BufferedImage image, long bytes, ReferenceQueue<BufferedImage> queue) {
+      super(image, queue);
+      this.key = key;
+      this.bytes = bytes;
+    }
+  }
+
+  private static class Key {
+    private final String path;
+    private final int    width;
+    private final int    height;
+
+    private Key(String path, Dimension size) {
+      this.path = path;
+      this.width = size.width;
+      this.height = size.height;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return width == other.width && height == other.height && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, width, height);
+    }
+  }
+}
@@ -354,6 +354,15 @@ public class MovieInformationPanel extends JPanel {
             lblMovieBackground.setImagePath(movie.getArtworkFilename(MediaFileType.FANART));
             lblMoviePoster.setImagePath(movie.getArtworkFilename(MediaFileType.POSTER));
 
+            // the next/previous movie is likely to be selected next
+            if (source instanceof MovieSelectionModel) {
+              List<String> posters = new ArrayList<>();
+              for (Movie adjacentMovie : ((MovieSelectionModel) source).getAdjacentMovies()) {
+                posters.add(adjacentMovie.getArtworkFilename(MediaFileType.POSTER));
+              }
+              lblMoviePoster.prefetch(posters);
+            }
+
             synchronized (mediaFiles) {
               mediaFiles.clear();
               for (MediaFile mediafile : movie.getMediaFiles()) {
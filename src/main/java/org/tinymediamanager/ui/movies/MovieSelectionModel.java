@@ -17,6 +17,7 @@ package org.tinymediamanager.ui.movies;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +65,9 @@ public class MovieSelectionModel extends AbstractModelObject implements ListSele
   /** The sorted list. */
   private SortedList<Movie>                 sortedList;
 
+  /** The movies in the order of the table. */
+  private EventList<Movie>                  source;
+
   /** The property change listener. */
   private PropertyChangeListener            propertyChangeListener;
 
@@ -79,6 +83,7 @@ public class MovieSelectionModel extends AbstractModelObject implements ListSele
    */
   public MovieSelectionModel(SortedList<Movie> sortedList, EventList<Movie> source, MovieMatcherEditor matcher) {
     this.sortedList = sortedList;
+    this.source = source;
     this.selectionModel = new DefaultEventSelectionModel<>(source);
     this.selectionModel.addListSelectionListener(this);
     this.matcherEditor = matcher;
@@ -210,6 +215,34 @@ public class MovieSelectionModel extends AbstractModelObject implements ListSele
     return selectedMovies;
   }
 
+  /**
+   * Gets the movies in the rows right before and after the selection (e.g. to prefetch their artwork).
+   * 
+   * @return the adjacent movies
+   */
+  public List<Movie> getAdjacentMovies() {
+    List<Movie> movies = new ArrayList<>();
+    if (source == null || selectionModel.isSelectionEmpty()) {
+      return movies;
+    }
+
+    source.getReadWriteLock().readLock().lock();
+    try {
+      int before = selectionModel.getMinSelectionIndex() - 1;
+      int after = selectionModel.getMaxSelectionIndex() + 1;
+      if (before >= 0 && before < source.size()) {
+        movies.add(source.get(before));
+      }
+      if (after < source.size()) {
+        movies.add(source.get(after));
+      }
+    }
+    finally {
+      source.getReadWriteLock().readLock().unlock();
+    }
+    return movies;
+  }
+
   /**
    * Sets the selected movies.
    * 
@@ -201,7 +201,7 @@ public class MovieTrailerPanel extends JPanel {
 
         case 6:
           String ext = UrlUtil.getExtension(trailer.getUrl()).toLowerCase(Locale.ROOT);
-          if (!Globals.settings.getVideoFileType().contains("." + ext)) {
+          if (!Globals.settings.getFileTypeRegistry().isVideo(ext)) {
             // .php redirection scripts et all
             ext = "";
           }
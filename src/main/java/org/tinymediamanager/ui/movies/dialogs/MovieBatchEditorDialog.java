@@ -418,8 +418,8 @@ public class MovieBatchEditorDialog extends TmmDialog {
           if (changed) {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             for (Movie movie : moviesToEdit) {
-              movie.writeNFO();
               movie.saveToDb();
+              movie.writeNFOQueued();
             }
             setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
           }
@@ -436,8 +436,8 @@ public class MovieBatchEditorDialog extends TmmDialog {
           // rewrite movies, if anything changed
           if (changed) {
             for (Movie movie : moviesToEdit) {
-              movie.writeNFO();
               movie.saveToDb();
+              movie.writeNFOQueued();
             }
             // if configured - sync with trakt.tv
             if (MovieModuleManager.MOVIE_SETTINGS.getSyncTrakt()) {
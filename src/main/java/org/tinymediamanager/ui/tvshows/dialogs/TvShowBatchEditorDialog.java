@@ -371,8 +371,8 @@ public class TvShowBatchEditorDialog extends TmmDialog {
           if (tvShowsChanged) {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             for (TvShow tvShow : tvShowsToEdit) {
-              tvShow.writeNFO();
               tvShow.saveToDb();
+              tvShow.writeNFOQueued();
             }
             setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
           }
@@ -381,8 +381,8 @@ public class TvShowBatchEditorDialog extends TmmDialog {
           if (episodesChanged) {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             for (TvShowEpisode episode : tvShowEpisodesToEdit) {
-              episode.writeNFO();
               episode.saveToDb();
+              episode.writeNFOQueued();
             }
             setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
           }
@@ -410,8 +410,8 @@ public class TvShowBatchEditorDialog extends TmmDialog {
           if (tvShowsChanged) {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             for (TvShow tvShow : tvShowsToEdit) {
-              tvShow.writeNFO();
               tvShow.saveToDb();
+              tvShow.writeNFOQueued();
             }
             setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
           }
@@ -420,8 +420,8 @@ public class TvShowBatchEditorDialog extends TmmDialog {
           if (episodesChanged) {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             for (TvShowEpisode episode : tvShowEpisodesToEdit) {
-              episode.writeNFO();
               episode.saveToDb();
+              episode.writeNFOQueued();
             }
             setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
           }
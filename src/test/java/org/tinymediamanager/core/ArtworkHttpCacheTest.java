@@ -0,0 +1,155 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+import fi.iki.elonen.NanoHTTPD;
+
+public class ArtworkHttpCacheTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  private ArtworkServer       server;
+  private Path                folder;
+
+  @Before
+  public void setUp() throws Exception {
+    folder = Paths.get(FOLDER, "artworkhttpcache");
+    FileUtils.deleteQuietly(folder.toFile());
+    Files.createDirectories(folder);
+
+    server = new ArtworkServer();
+    server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, false);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void testConditionalDownload() throws Exception {
+    ArtworkHttpCache cache = new ArtworkHttpCache(folder.resolve("http.db"));
+    String url = "http://localhost:" + server.getListeningPort() + "/poster.jpg";
+    Path dest = folder.resolve("poster.jpg");
+    Path temp = folder.resolve("poster.jpg.part");
+
+    // first download
+    assertThat(cache.download(url, dest, temp)).isTrue();
+    Files.move(temp, dest);
+    assertThat(new String(Files.readAllBytes(dest), StandardCharsets.UTF_8)).isEqualTo("poster v1");
+    assertThat(server.notModified.get()).isEqualTo(0);
+
+    // unchanged on the server: 304, nothing written
+    assertThat(cache.download(url, dest, temp)).isFalse();
+    assertThat(temp).doesNotExist();
+    assertThat(server.notModified.get()).isEqualTo(1);
+
+    // the validators survive a restart
+    cache.close();
+    assertThat(cache.download(url, dest, temp)).isFalse();
+    assertThat(server.notModified.get()).isEqualTo(2);
+
+    // changed on the server
+    server.content = "poster v2";
+    server.etag = "\"v2\"";
+    assertThat(cache.download(url, dest, temp)).isTrue();
+    assertThat(new String(Files.readAllBytes(temp), StandardCharsets.UTF_8)).isEqualTo("poster v2");
+    Files.delete(dest);
+    Files.move(temp, dest);
+
+    // locally modified file (with the same size): no conditional request
+    Files.write(dest, "edited v2".getBytes(StandardCharsets.UTF_8));
+    assertThat(cache.download(url, dest, temp)).isTrue();
+    assertThat(server.notModified.get()).isEqualTo(2);
+    assertThat(server.userAgent).isNotEmpty();
+
+    assertThat(cache.getStatistics()).contains("3 downloads", "2 not modified");
+
+    // entries of removed files are dropped
+    assertThat(cache.cleanup()).isEqualTo(0);
+    Files.delete(dest);
+    assertThat(cache.cleanup()).isEqualTo(1);
+    cache.close();
+  }
+
+  @Test
+  public void testServerError() throws Exception {
+    ArtworkHttpCache cache = new ArtworkHttpCache(folder.resolve("http.db"));
+    try {
+      cache.download("http://localhost:" + server.getListeningPort() + "/busy.jpg", folder.resolve("busy.jpg"), folder.resolve("busy.jpg.part"));
+      fail("no exception thrown");
+    }
+    catch (FileNotFoundException e) {
+      fail("a temporary error must not be reported as missing file");
+    }
+    catch (IOException e) {
+      assertThat(e.getMessage()).contains("503");
+    }
+    finally {
+      cache.close();
+    }
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testNotFound() throws Exception {
+    ArtworkHttpCache cache = new ArtworkHttpCache(folder.resolve("http.db"));
+    try {
+      cache.download("http://localhost:" + server.getListeningPort() + "/missing.jpg", folder.resolve("missing.jpg"),
+          folder.resolve("missing.jpg.part"));
+    }
+    finally {
+      cache.close();
+    }
+  }
+
+  /**
+   * stand-in for an artwork server supporting ETag/Last-Modified
+   */
+  private static class ArtworkServer extends NanoHTTPD {
+    private final AtomicInteger notModified = new AtomicInteger();
+    private volatile String     content     = "poster v1";
+    private volatile String     etag        = "\"v1\"";
+    private volatile String     userAgent   = "";
+
+    private ArtworkServer() {
+      super("localhost", 0);
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+      if ("/busy.jpg".equals(session.getUri())) {
+        return newFixedLengthResponse(Response.Status.SERVICE_UNAVAILABLE, MIME_PLAINTEXT, "BUSY");
+      }
+      if (!"/poster.jpg".equals(session.getUri())) {
+        return newFixedLengthResponse(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "NOT FOUND");
+      }
+
+      userAgent = String.valueOf(session.getHeaders().get("user-agent"));
+      Response response;
+      if (etag.equals(session.getHeaders().get("if-none-match"))) {
+        notModified.incrementAndGet();
+        response = newFixedLengthResponse(Response.Status.NOT_MODIFIED, "image/jpeg", "");
+      }
+      else {
+        response = newFixedLengthResponse(Response.Status.OK, "image/jpeg", content);
+      }
+      response.addHeader("ETag", etag);
+      response.addHeader("Last-Modified", "Mon, 01 Jan 2018 00:00:00 GMT");
+      return response;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class ArtworkStoreTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  @Test
+  public void testStoreAndMaterialize() throws Exception {
+    Path folder = Paths.get(FOLDER, "artworkstore");
+    FileUtils.deleteQuietly(folder.toFile());
+    Files.createDirectories(folder);
+
+    ArtworkStore store = new ArtworkStore(folder.resolve("artwork.db"), folder.resolve("artwork"));
+    byte[] content = "actor image".getBytes(StandardCharsets.UTF_8);
+
+    // the same content from two urls is stored once
+    Path stored1 = store.store("http://example.com/actor1.jpg", new ByteArrayInputStream(content));
+    Path stored2 = store.store("http://mirror.example.com/actor1.jpg", new ByteArrayInputStream(content));
+    assertThat(stored1).isEqualTo(stored2);
+    assertThat(stored1.getFileName().toString()).isEqualTo(DigestUtils.sha1Hex(content));
+
+    // stored urls are not downloaded again
+    Path artwork = store.fetch("http://example.com/actor1.jpg");
+    assertThat(artwork).isEqualTo(stored1);
+    assertThat(store.getStatistic("savedBytesTraffic")).isEqualTo(content.length);
+
+    // nothing has been linked yet
+    assertThat(store.getStatistic("savedBytesDisk")).isEqualTo(0);
+
+    // link into two "movie folders"; an existing file is replaced and not modified in place
+    Path movie1 = Files.createDirectories(folder.resolve("movie1/.actors"));
+    Path movie2 = Files.createDirectories(folder.resolve("movie2/.actors"));
+    Files.write(movie2.resolve("Actor.jpg"), "old".getBytes(StandardCharsets.UTF_8));
+    store.link(artwork, movie1.resolve("Actor.jpg"));
+    store.link(artwork, movie2.resolve("Actor.jpg"));
+    assertThat(Files.readAllBytes(movie1.resolve("Actor.jpg"))).isEqualTo(content);
+    assertThat(Files.readAllBytes(movie2.resolve("Actor.jpg"))).isEqualTo(content);
+    assertThat(Files.readAllBytes(stored1)).isEqualTo(content);
+
+    // re-linking an already linked file does not count anything
+    store.link(artwork, movie1.resolve("Actor.jpg"));
+
+    assertThat(store.getStatistic("downloads")).isEqualTo(2);
+    assertThat(store.getStatistic("savedBytesTraffic")).isEqualTo(content.length);
+    if (store.getStatistic("links") == 2) {
+      // only the second link saves disk space
+      assertThat(store.getStatistic("savedBytesDisk")).isEqualTo(content.length);
+    }
+    else {
+      assertThat(store.getStatistic("copies")).isEqualTo(2);
+      assertThat(store.getStatistic("savedBytesDisk")).isEqualTo(0);
+    }
+    assertThat(store.getStatistics()).contains("2 downloads");
+    store.close();
+  }
+}
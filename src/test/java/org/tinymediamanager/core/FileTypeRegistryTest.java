@@ -0,0 +1,52 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.Globals;
+
+public class FileTypeRegistryTest extends BasicTest {
+
+  @Test
+  public void testLookup() {
+    FileTypeRegistry registry = new FileTypeRegistry(Arrays.asList(".mkv", ".AVI", "mp4"), Arrays.asList(".mp3"), Arrays.asList(".srt", ""));
+
+    assertThat(registry.isVideo("mkv")).isTrue();
+    assertThat(registry.isVideo("avi")).isTrue();
+    assertThat(registry.isVideo("MKV")).isTrue();
+    assertThat(registry.isVideo("mp4")).isTrue();
+    assertThat(registry.isVideo(".mkv")).isFalse();
+    assertThat(registry.isVideo("mp3")).isFalse();
+    assertThat(registry.isVideo("")).isFalse();
+    assertThat(registry.isVideo(null)).isFalse();
+
+    assertThat(registry.isAudio("mp3")).isTrue();
+    assertThat(registry.isSubtitle("srt")).isTrue();
+    assertThat(registry.getSubtitleExtensions()).containsOnly("srt");
+
+    assertThat(registry.isSupported("nfo")).isTrue();
+    assertThat(registry.isSupported("mp3")).isTrue();
+    assertThat(registry.isSupported("php")).isFalse();
+    assertThat(registry.getAllExtensions()).containsOnly("mkv", "avi", "mp4", "mp3", "srt", "nfo");
+  }
+
+  @Test
+  public void testRebuildOnChange() {
+    FileTypeRegistry registry = Globals.settings.getFileTypeRegistry();
+    assertThat(Globals.settings.getFileTypeRegistry()).isSameAs(registry);
+    assertThat(registry.isVideo("xyz")).isFalse();
+
+    try {
+      Globals.settings.addVideoFileTypes("xyz");
+      assertThat(Globals.settings.getFileTypeRegistry()).isNotSameAs(registry);
+      assertThat(Globals.settings.getFileTypeRegistry().isVideo("xyz")).isTrue();
+    }
+    finally {
+      Globals.settings.removeVideoFileType(".xyz");
+    }
+    assertThat(Globals.settings.getFileTypeRegistry().isVideo("xyz")).isFalse();
+  }
+}
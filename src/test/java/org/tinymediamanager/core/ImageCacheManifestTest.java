@@ -0,0 +1,177 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.ImageCache.Variant;
+import org.tinymediamanager.core.ImageCacheManifest.Entry;
+
+public class ImageCacheManifestTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  @Test
+  public void testEntry() {
+    Entry entry = createEntry(1000, 562);
+    assertThat(entry.getTotalBytes()).isEqualTo(1000 + 500 + 250);
+
+    Entry parsed = Entry.parse(entry.toString());
+    assertThat(parsed.getExtension()).isEqualTo("jpg");
+    assertThat(parsed.getSourceModified()).isEqualTo(4711L);
+    assertThat(parsed.getSourcePath()).isEqualTo("/media/movie;1/poster.jpg");
+    assertThat(parsed.matchesSource(1234L, 4711L)).isTrue();
+    assertThat(parsed.matchesSource(1235L, 4711L)).isFalse();
+    assertThat(parsed.matchesSource(1234L, 4712L)).isFalse();
+    assertThat(parsed.getWidth(Variant.LIST)).isEqualTo(500);
+    assertThat(parsed.getHeight(Variant.LIST)).isEqualTo(281);
+    assertThat(parsed.getTotalBytes()).isEqualTo(entry.getTotalBytes());
+    assertThat(Entry.parse("garbage")).isNull();
+
+    // entries of the first version had no size/path of the original
+    Entry legacy = Entry.parse("png;4711;0,0,0;0,0,0;1000,562,1000");
+    assertThat(legacy.getExtension()).isEqualTo("png");
+    assertThat(legacy.hasSource()).isFalse();
+    assertThat(legacy.hasVariant(Variant.DETAIL)).isTrue();
+
+    // the smallest variant which fills the area
+    assertThat(entry.findVariant(200, 200)).isEqualTo(Variant.THUMBNAIL);
+    assertThat(entry.findVariant(300, 300)).isEqualTo(Variant.LIST);
+    assertThat(entry.findVariant(800, 800)).isEqualTo(Variant.DETAIL);
+    assertThat(entry.findVariant(0, 0)).isEqualTo(Variant.DETAIL);
+
+    // missing variants are never chosen
+    Entry detailOnly = new Entry("jpg");
+    detailOnly.setVariant(Variant.DETAIL, 1000, 562, 1000);
+    assertThat(detailOnly.findVariant(100, 100)).isEqualTo(Variant.DETAIL);
+  }
+
+  @Test
+  public void testPutGetAndEvict() throws Exception {
+    Path folder = Paths.get(FOLDER, "imagecachemanifest");
+    Path cacheDir = folder.resolve("image");
+    Files.createDirectories(cacheDir);
+    Path manifestFile = folder.resolve("imagecache.db");
+    Files.deleteIfExists(manifestFile);
+
+    ImageCacheManifest manifest = new ImageCacheManifest(manifestFile, cacheDir);
+    for (String key : new String[] { "a", "b", "c" }) {
+      manifest.put(key, createEntry(1000, 562));
+      Files.write(cacheDir.resolve(ImageCache.getCacheFilename(key, "jpg", Variant.DETAIL)), new byte[1000]);
+      Thread.sleep(10);
+    }
+    assertThat(manifest.size()).isEqualTo(3);
+    assertThat(manifest.getTotalBytes()).isEqualTo(3 * 1750);
+    assertThat(manifest.contains("a")).isTrue();
+    assertThat(manifest.get("x")).isNull();
+
+    // access "a", so "b" is the least recently used one
+    Thread.sleep(10);
+    assertThat(manifest.get("a")).isNotNull();
+    manifest.evictIfNeeded(2 * 1750 + 400);
+    assertThat(manifest.contains("b")).isFalse();
+    assertThat(manifest.contains("a")).isTrue();
+    assertThat(manifest.contains("c")).isTrue();
+    assertThat(manifest.getTotalBytes()).isEqualTo(2 * 1750);
+    assertThat(cacheDir.resolve(ImageCache.getCacheFilename("b", "jpg", Variant.DETAIL))).doesNotExist();
+
+    // the manifest survives a restart
+    manifest.close();
+    manifest = new ImageCacheManifest(manifestFile, cacheDir);
+    assertThat(manifest.size()).isEqualTo(2);
+    assertThat(manifest.getTotalBytes()).isEqualTo(2 * 1750);
+
+    manifest.invalidate("a");
+    assertThat(manifest.contains("a")).isFalse();
+    assertThat(cacheDir.resolve(ImageCache.getCacheFilename("a", "jpg", Variant.DETAIL))).doesNotExist();
+
+    manifest.clear();
+    assertThat(manifest.size()).isEqualTo(0);
+    manifest.close();
+  }
+
+  @Test
+  public void testImportCacheDir() throws Exception {
+    Path folder = Paths.get(FOLDER, "imagecachemanifest-import");
+    Path cacheDir = folder.resolve("image");
+    Files.createDirectories(cacheDir);
+    Path manifestFile = folder.resolve("imagecache.db");
+    Files.deleteIfExists(manifestFile);
+
+    String key = ImageCache.getMD5("poster.jpg");
+    Files.write(cacheDir.resolve(key + ".jpg"), new byte[100]);
+    Files.write(cacheDir.resolve(key + "-list.jpg"), new byte[50]);
+    Files.write(cacheDir.resolve("unknown.txt"), new byte[10]);
+
+    ImageCacheManifest manifest = new ImageCacheManifest(manifestFile, cacheDir);
+    assertThat(manifest.size()).isEqualTo(1);
+    assertThat(manifest.getTotalBytes()).isEqualTo(150);
+    assertThat(manifest.get(key).hasVariant(Variant.LIST)).isTrue();
+    manifest.close();
+  }
+
+  private static Entry createEntry(int width, int height) {
+    Entry entry = new Entry("jpg");
+    entry.setSource("/media/movie;1/poster.jpg", 1234L, 4711L);
+    entry.setVariant(Variant.DETAIL, width, height, 1000);
+    entry.setVariant(Variant.LIST, width / 2, height / 2, 500);
+    entry.setVariant(Variant.THUMBNAIL, width / 4, height / 4, 250);
+    return entry;
+  }
+
+  @Test
+  public void testVerify() throws Exception {
+    Path folder = Paths.get(FOLDER, "imagecachemanifest-verify");
+    Path cacheDir = folder.resolve("image");
+    Files.createDirectories(cacheDir);
+    Path manifestFile = folder.resolve("imagecache.db");
+    Files.deleteIfExists(manifestFile);
+
+    Path original = folder.resolve("poster.jpg");
+    Files.write(original, new byte[100]);
+    long modified = Files.getLastModifiedTime(original).toMillis();
+
+    ImageCacheManifest manifest = new ImageCacheManifest(manifestFile, cacheDir);
+    for (String key : new String[] { "unchanged", "changed", "deleted", "missing" }) {
+      Entry entry = new Entry("jpg");
+      entry.setVariant(Variant.DETAIL, 100, 150, 10);
+      entry.setSource(original.toAbsolutePath().toString(), 100, modified);
+      if ("changed".equals(key)) {
+        entry.setSource(original.toAbsolutePath().toString(), 99, modified);
+      }
+      if ("deleted".equals(key)) {
+        entry.setSource(folder.resolve("fanart.jpg").toAbsolutePath().toString(), 100, modified);
+      }
+      manifest.put(key, entry);
+      if (!"missing".equals(key)) {
+        Files.write(cacheDir.resolve(ImageCache.getCacheFilename(key, "jpg", Variant.DETAIL)), new byte[10]);
+      }
+    }
+
+    assertThat(manifest.verify("unchanged")).isFalse();
+    assertThat(manifest.verify("changed")).isTrue();
+    assertThat(manifest.verify("deleted")).isTrue();
+    assertThat(manifest.verify("missing")).isTrue();
+    assertThat(manifest.getKeys()).containsExactly("unchanged");
+
+    // orphaned files: an unknown image and an unknown variant of a cached image
+    Path orphan = cacheDir.resolve(ImageCache.getMD5("orphan") + ".jpg");
+    Files.write(orphan, new byte[10]);
+    manifest.put(ImageCache.getMD5("known"), createEntry(100, 150));
+    Path knownDetail = cacheDir.resolve(ImageCache.getCacheFilename(ImageCache.getMD5("known"), "jpg", Variant.DETAIL));
+    Files.write(knownDetail, new byte[10]);
+    Path orphanVariant = cacheDir.resolve(ImageCache.getCacheFilename(ImageCache.getMD5("known"), "png", Variant.LIST));
+    Files.write(orphanVariant, new byte[10]);
+
+    // files newer than the given time are kept
+    assertThat(manifest.purgeOrphanedFiles(0)).isEqualTo(0);
+    assertThat(manifest.purgeOrphanedFiles(System.currentTimeMillis() + 1000)).isEqualTo(2);
+    assertThat(orphan).doesNotExist();
+    assertThat(orphanVariant).doesNotExist();
+    assertThat(knownDetail).exists();
+    manifest.close();
+  }
+}
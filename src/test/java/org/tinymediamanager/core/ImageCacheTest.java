@@ -0,0 +1,166 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class ImageCacheTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  @Test
+  public void testHasTransparentPixels() {
+    // no alpha channel at all
+    assertThat(ImageCache.hasTransparentPixels(new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB))).isFalse();
+
+    // alpha channel, but opaque/semi transparent
+    BufferedImage argb = createImage(BufferedImage.TYPE_INT_ARGB, 0xff);
+    assertThat(ImageCache.hasTransparentPixels(argb)).isFalse();
+    argb.setRGB(19, 9, 0x01123456);
+    assertThat(ImageCache.hasTransparentPixels(argb)).isFalse();
+
+    // one fully transparent pixel in the last row
+    argb.setRGB(19, 9, 0x00123456);
+    assertThat(ImageCache.hasTransparentPixels(argb)).isTrue();
+
+    BufferedImage abgr = createImage(BufferedImage.TYPE_4BYTE_ABGR, 0xff);
+    assertThat(ImageCache.hasTransparentPixels(abgr)).isFalse();
+    abgr.setRGB(0, 5, 0);
+    assertThat(ImageCache.hasTransparentPixels(abgr)).isTrue();
+
+    // indexed colors with a transparent palette entry
+    byte[] colors = { 0, (byte) 0xff };
+    byte[] alpha = { (byte) 0xff, 0 };
+    BufferedImage indexed = new BufferedImage(20, 10, BufferedImage.TYPE_BYTE_BINARY, new IndexColorModel(1, 2, colors, colors, colors, alpha));
+    assertThat(ImageCache.hasTransparentPixels(indexed)).isFalse();
+    indexed.getRaster().setSample(3, 3, 0, 1);
+    assertThat(ImageCache.hasTransparentPixels(indexed)).isTrue();
+  }
+
+  @Test
+  public void testWriteImage() throws Exception {
+    // opaque images are written as jpg
+    byte[] jpg = encode(createImage(BufferedImage.TYPE_INT_ARGB, 0xff));
+    assertThat(jpg[0]).isEqualTo((byte) 0xff);
+    assertThat(jpg[1]).isEqualTo((byte) 0xd8);
+
+    // transparent images as png
+    BufferedImage transparent = createImage(BufferedImage.TYPE_INT_ARGB, 0xff);
+    transparent.setRGB(5, 5, 0);
+    byte[] png = encode(transparent);
+    assertThat(new String(png, 1, 3, "US-ASCII")).isEqualTo("PNG");
+
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+    assertThat(decoded.getWidth()).isEqualTo(20);
+    assertThat(decoded.getRGB(5, 5) >>> 24).isEqualTo(0);
+  }
+
+  @Test
+  public void testScaleImage() throws Exception {
+    Path fanart = Paths.get(FOLDER, "fanart.png");
+    Files.createDirectories(fanart.getParent());
+    ImageIO.write(createImage(BufferedImage.TYPE_INT_ARGB, 0xff), "png", fanart.toFile());
+
+    try (InputStream is = ImageCache.scaleImage(fanart, 10)) {
+      BufferedImage scaled = ImageIO.read(is);
+      assertThat(scaled.getWidth()).isEqualTo(10);
+      assertThat(scaled.getHeight()).isEqualTo(5);
+    }
+
+    try (InputStream is = ImageCache.scaleImage(Paths.get("src/test/resources/dummy-fanart.jpg"), 100)) {
+      byte[] bytes = IOUtils.toByteArray(is);
+      assertThat(bytes[0]).isEqualTo((byte) 0xff);
+      assertThat(ImageIO.read(new ByteArrayInputStream(bytes)).getWidth()).isEqualTo(100);
+    }
+  }
+
+  @Test
+  public void testCalculateSubsampling() {
+    // 4K fanart -> 1000px
+    assertThat(ImageCache.calculateSubsampling(3840, 2160, 1000, 562)).isEqualTo(3);
+    // the height limits the subsampling
+    assertThat(ImageCache.calculateSubsampling(3840, 2160, 1000, 1000)).isEqualTo(2);
+    assertThat(ImageCache.calculateSubsampling(2000, 3000, 266, 0)).isEqualTo(7);
+    // never upscale
+    assertThat(ImageCache.calculateSubsampling(300, 200, 400, 0)).isEqualTo(1);
+    assertThat(ImageCache.calculateSubsampling(300, 200, 0, 0)).isEqualTo(1);
+  }
+
+  @Test
+  public void testCalculateCacheSize() {
+    assertThat(ImageCache.calculateCacheSize(MediaFileType.FANART, 3840, 2160)).isEqualTo(new Point(1000, 562));
+    assertThat(ImageCache.calculateCacheSize(MediaFileType.POSTER, 2000, 3000)).isEqualTo(new Point(266, 399));
+    assertThat(ImageCache.calculateCacheSize(MediaFileType.BANNER, 1000, 185)).isEqualTo(new Point(400, 74));
+  }
+
+  @Test
+  public void testEstimateMemoryUsage() {
+    // subsampled 1280x720 + scaled 1000x562
+    assertThat(ImageCache.estimateMemoryUsage(MediaFileType.FANART, new Dimension(3840, 2160))).isEqualTo((1280 * 720 + 1000 * 562) * 4L);
+    // no subsampling
+    assertThat(ImageCache.estimateMemoryUsage(MediaFileType.FANART, new Dimension(1000, 500))).isEqualTo((1000 * 500 + 666 * 333) * 4L);
+  }
+
+  @Test
+  public void testCreateSubsampledImage() throws Exception {
+    Path fanart = Paths.get(FOLDER, "fanart-large.jpg");
+    Files.createDirectories(fanart.getParent());
+    BufferedImage original = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+    ImageIO.write(original, "jpg", fanart.toFile());
+
+    assertThat(ImageCache.getImageSize(fanart)).isEqualTo(new Dimension(400, 200));
+    assertThat(ImageCache.getImageSize(Paths.get(FOLDER, "not-existing.jpg"))).isNull();
+
+    // at least as large as requested
+    BufferedImage image = ImageCache.createImage(fanart, 100, 0);
+    assertThat(image.getWidth()).isEqualTo(100);
+    assertThat(image.getHeight()).isEqualTo(50);
+
+    image = ImageCache.createImage(fanart, 150, 0);
+    assertThat(image.getWidth()).isEqualTo(200);
+
+    image = ImageCache.createImage(fanart, 150, 90);
+    assertThat(image.getWidth()).isEqualTo(200);
+    assertThat(image.getHeight()).isEqualTo(100);
+
+    image = ImageCache.createImage(Files.readAllBytes(fanart), 100, 50);
+    assertThat(image.getWidth()).isEqualTo(100);
+
+    // no subsampling needed
+    image = ImageCache.createImage(fanart, 1000, 0);
+    assertThat(image.getWidth()).isEqualTo(400);
+  }
+
+  private static BufferedImage createImage(int type, int alpha) {
+    BufferedImage image = new BufferedImage(20, 10, type);
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        image.setRGB(x, y, (alpha << 24) | (x * 12 << 16) | (y * 25 << 8) | 0x40);
+      }
+    }
+    return image;
+  }
+
+  private static byte[] encode(BufferedImage image) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+      ImageCache.writeImage(image, output);
+    }
+    return baos.toByteArray();
+  }
+}
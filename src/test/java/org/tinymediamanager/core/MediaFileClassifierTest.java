@@ -0,0 +1,52 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.entities.MediaFile;
+
+public class MediaFileClassifierTest extends BasicTest {
+
+  /**
+   * the golden corpus has been created with the former regular expression based detection - the results must not change
+   */
+  @Test
+  public void testGoldenCorpus() throws Exception {
+    List<String> failures = new ArrayList<>();
+    int count = 0;
+
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/mediafile-types.txt"), StandardCharsets.UTF_8)) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = line.split("\\|");
+      MediaFileType expected = MediaFileType.valueOf(parts[2]);
+
+      MediaFileType actual = MediaFileClassifier.parseType(parts[1], parts[0]);
+      if (actual != expected) {
+        failures.add(line + " -> " + actual);
+      }
+      count++;
+    }
+
+    assertThat(count).isGreaterThan(1000);
+    assertThat(failures).isEmpty();
+  }
+
+  @Test
+  public void testMediaFile() {
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/Avatar-trailer.mkv")).getType()).isEqualTo(MediaFileType.TRAILER);
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/extras/making of.mkv")).getType()).isEqualTo(MediaFileType.VIDEO_EXTRA);
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/Avatar-fanart2.jpg")).getType()).isEqualTo(MediaFileType.FANART);
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/extrafanart/fanart2.jpg")).getType()).isEqualTo(MediaFileType.EXTRAFANART);
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/season-specials-poster.jpg")).getType()).isEqualTo(MediaFileType.SEASON_POSTER);
+    assertThat(new MediaFile(Paths.get("/media/movies/Avatar/disc.jpg")).getType()).isEqualTo(MediaFileType.DISCART);
+  }
+}
@@ -0,0 +1,159 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.Globals;
+import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
+
+public class MediaInfoCacheTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  private Path                folder;
+  private MediaInfoCache      cache;
+  private int                 cacheSize;
+
+  @Before
+  public void setUp() throws Exception {
+    folder = Paths.get(FOLDER, "mediainfocache");
+    FileUtils.deleteQuietly(folder.toFile());
+    Files.createDirectories(folder);
+
+    cacheSize = Globals.settings.getMediaInfoCacheSize();
+    Globals.settings.setMediaInfoCacheSize(10);
+    cache = new MediaInfoCache(folder.resolve("mediainfo.db"));
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+    Globals.settings.setMediaInfoCacheSize(cacheSize);
+  }
+
+  @Test
+  public void testKey() throws Exception {
+    Path file = folder.resolve("movie.mkv");
+    byte[] content = new byte[200 * 1024];
+    new Random(4711).nextBytes(content);
+    Files.write(file, content);
+    FileTime mtime = Files.getLastModifiedTime(file);
+
+    // stable for an unchanged file
+    String key = getKey(file);
+    assertThat(key).isNotNull().isEqualTo(getKey(file));
+
+    // changed content at the end of the file (same size and date)
+    content[content.length - 1]++;
+    Files.write(file, content);
+    Files.setLastModifiedTime(file, mtime);
+    String changedTail = getKey(file);
+    assertThat(changedTail).isNotEqualTo(key);
+
+    // changed content at the start of the file (same size and date)
+    content[0]++;
+    Files.write(file, content);
+    Files.setLastModifiedTime(file, mtime);
+    String changedHead = getKey(file);
+    assertThat(changedHead).isNotEqualTo(key).isNotEqualTo(changedTail);
+
+    // changed date only
+    Files.setLastModifiedTime(file, FileTime.fromMillis(mtime.toMillis() + 2000));
+    assertThat(getKey(file)).isNotEqualTo(changedHead);
+
+    // no key for empty files or a disabled cache
+    assertThat(cache.getKey(file, 0, mtime.toMillis())).isNull();
+    Globals.settings.setMediaInfoCacheSize(0);
+    assertThat(getKey(file)).isNull();
+  }
+
+  @Test
+  public void testSnapshot() {
+    Map<StreamKind, List<Map<String, String>>> snapshot = createSnapshot("Matroska");
+    cache.putSnapshot("key", snapshot);
+    assertThat(cache.getSnapshot("key")).isEqualTo(snapshot);
+    assertThat(cache.getSnapshot("unknown")).isNull();
+    assertThat(cache.getSnapshot(null)).isNull();
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      cache.putSnapshot("key" + i, createSnapshot("format" + i));
+      Thread.sleep(2);
+    }
+    assertThat(cache.getEvictions()).isEqualTo(0);
+
+    // key0 has been used recently - key1 and key2 are the least recently used ones
+    assertThat(cache.getSnapshot("key0")).isNotNull();
+    Thread.sleep(2);
+
+    // above the max size: evicted down to 90%
+    cache.putSnapshot("key10", createSnapshot("format10"));
+    assertThat(cache.getEvictions()).isEqualTo(2);
+    assertThat(cache.getStatistics()).startsWith("entries: 9,");
+    assertThat(cache.getSnapshot("key1")).isNull();
+    assertThat(cache.getSnapshot("key2")).isNull();
+    assertThat(cache.getSnapshot("key0")).isNotNull();
+    for (int i = 3; i <= 10; i++) {
+      assertThat(cache.getSnapshot("key" + i)).isNotNull();
+    }
+  }
+
+  @Test
+  public void testClose() {
+    Map<StreamKind, List<Map<String, String>>> snapshot = createSnapshot("Matroska");
+    cache.putSnapshot("key", snapshot);
+    cache.close();
+    cache.close();
+
+    // the store is re-opened on the next access and still contains the entry
+    assertThat(cache.getSnapshot("key")).isEqualTo(snapshot);
+    cache.close();
+    cache.putSnapshot("key2", snapshot);
+    assertThat(cache.getSnapshot("key2")).isEqualTo(snapshot);
+    cache.close();
+    assertThat(cache.getStatistics()).startsWith("entries: 0,");
+  }
+
+  private String getKey(Path file) throws Exception {
+    return cache.getKey(file, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+  }
+
+  private static Map<StreamKind, List<Map<String, String>>> createSnapshot(String format) {
+    Map<StreamKind, List<Map<String, String>>> snapshot = new EnumMap<>(StreamKind.class);
+
+    Map<String, String> general = new LinkedHashMap<>();
+    general.put("Format", format);
+    general.put("Duration", "5123");
+    List<Map<String, String>> generalStreams = new ArrayList<>();
+    generalStreams.add(general);
+    snapshot.put(StreamKind.General, generalStreams);
+
+    List<Map<String, String>> audioStreams = new ArrayList<>();
+    for (String language : new String[] { "en", "de" }) {
+      Map<String, String> audio = new LinkedHashMap<>();
+      audio.put("Channel(s)", "6");
+      audio.put("Language", language);
+      audioStreams.add(audio);
+    }
+    snapshot.put(StreamKind.Audio, audioStreams);
+    return snapshot;
+  }
+}
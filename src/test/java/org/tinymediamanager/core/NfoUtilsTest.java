@@ -0,0 +1,72 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import javax.xml.bind.JAXBContext;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.movie.connector.MovieToKodiNfoConnector;
+
+public class NfoUtilsTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  @Test
+  public void testDetectRootElement() {
+    assertThat(NfoUtils.detectRootElement(Paths.get("src/test/resources/testmovies/MovieSets/MSold.nfo"))).isEqualTo("movie");
+    assertThat(NfoUtils.detectRootElement(Paths.get("src/test/resources/testtvshows/multiDVD/tvshow.nfo"))).isEqualTo("tvshow");
+    assertThat(NfoUtils.detectRootElement(Paths.get("src/test/resources/testmovies/not-existing.nfo"))).isEmpty();
+
+    assertThat(detect("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- created by tmm -->\n<movie>\n<title>Avatar")).isEqualTo("movie");
+    assertThat(detect("﻿<?xml version=\"1.0\" encoding=\"UTF-8\"?><episodedetails><title>")).isEqualTo("episodedetails");
+    assertThat(detect("  <movie>")).isEqualTo("movie");
+
+    // plain text NFOs, leading garbage and truncated start tags
+    assertThat(detect("http://www.imdb.com/title/tt0499549/")).isEmpty();
+    assertThat(detect("garbage<movie>")).isEmpty();
+    assertThat(detect("<?xml version=\"1.0\"?><episodedeta")).isEmpty();
+    assertThat(detect("")).isEmpty();
+  }
+
+  @Test
+  public void testUnmarshallerIsCachedPerThread() throws Exception {
+    JAXBContext context = JAXBContext.newInstance(MovieToKodiNfoConnector.class);
+    assertThat(NfoUtils.getUnmarshaller(context)).isSameAs(NfoUtils.getUnmarshaller(context));
+    assertThat(NfoUtils.getMarshaller(context)).isSameAs(NfoUtils.getMarshaller(context));
+  }
+
+  @Test
+  public void testWriteNfoIfChanged() throws Exception {
+    Path nfo = Paths.get(FOLDER, "movie.nfo");
+    Files.createDirectories(nfo.getParent());
+    Files.deleteIfExists(nfo);
+
+    String body = "<movie>\n  <title>Avatar</title>\n</movie>\n";
+    String header = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    // new file
+    assertThat(NfoUtils.writeNfoIfChanged(nfo, header + "<!-- created on 2018-01-01 10:00:00 - tinyMediaManager 2.9.7 -->\n" + body)).isTrue();
+    Files.setLastModifiedTime(nfo, FileTime.fromMillis(0));
+
+    // only the creation date differs
+    assertThat(NfoUtils.writeNfoIfChanged(nfo, header + "<!-- created on 2018-02-03 11:12:13 - tinyMediaManager 2.9.7 -->\n" + body)).isFalse();
+    assertThat(Files.getLastModifiedTime(nfo).toMillis()).isEqualTo(0);
+    assertThat(new String(Files.readAllBytes(nfo), StandardCharsets.UTF_8)).contains("2018-01-01 10:00:00");
+
+    // changed content
+    String changed = body.replace("Avatar", "Avatan");
+    assertThat(NfoUtils.writeNfoIfChanged(nfo, header + "<!-- created on 2018-02-03 11:12:13 - tinyMediaManager 2.9.7 -->\n" + changed)).isTrue();
+    assertThat(new String(Files.readAllBytes(nfo), StandardCharsets.UTF_8)).contains("Avatan");
+  }
+
+  private String detect(String xml) {
+    byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+    return NfoUtils.detectRootElement(bytes, bytes.length);
+  }
+}
@@ -1,6 +1,13 @@
 package org.tinymediamanager.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 import org.tinymediamanager.BasicTest;
@@ -128,6 +135,32 @@ public class ParserUtilsTest extends BasicTest {
     assertEqual("Shaun Das Schaf S01e02 1x04 Badetag Summen Der Bienen", detectTY("Shaun das Schaf - S01E02_1x04 - Badetag_Summen der Bienen.ts"));
   }
 
+  /**
+   * the golden corpus has been created with the former implementation (regular expressions and stopword array scan) - the results must not
+   * change
+   */
+  @Test
+  public void testNamingDetectionGoldenCorpus() throws Exception {
+    List<String> failures = new ArrayList<>();
+    int count = 0;
+
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/movie-names.txt"), StandardCharsets.UTF_8)) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = line.split("\\|", -1);
+
+      String[] detected = ParserUtils.detectCleanMovienameAndYear(parts[0]);
+      if (!detected[0].equals(parts[1]) || !detected[1].equals(parts[2])) {
+        failures.add(line + " -> " + detected[0] + "|" + detected[1]);
+      }
+      count++;
+    }
+
+    assertThat(count).isGreaterThan(2000);
+    assertThat(failures).isEmpty();
+  }
+
   private String detectTY(String filename) {
     String[] s = ParserUtils.detectCleanMovienameAndYear(filename);
     String ret = s[0];
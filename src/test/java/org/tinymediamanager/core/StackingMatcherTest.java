@@ -0,0 +1,64 @@
+package org.tinymediamanager.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class StackingMatcherTest extends BasicTest {
+
+  /**
+   * the golden corpus has been created with the former implementation (trying all regular expressions one after another) - the results must not
+   * change
+   */
+  @Test
+  public void testGoldenCorpus() throws Exception {
+    int count = 0;
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/stacking-names.txt"), StandardCharsets.UTF_8)) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = line.split("\\|", -1);
+      String name = parts[0];
+
+      assertThat(Utils.getStackingMarker(name)).as(name).isEqualTo(parts[1]);
+      assertThat(Utils.cleanStackingMarkers(name)).as(name).isEqualTo(parts[2]);
+      assertThat(Utils.getStackingNumber(name)).as(name).isEqualTo(Integer.parseInt(parts[3]));
+      assertThat(Utils.getStackingPrefix(name)).as(name).isEqualTo(parts[4]);
+      assertThat(Utils.getFolderStackingMarker(name)).as(name).isEqualTo(parts[5]);
+      assertThat(Utils.cleanFolderStackingMarkers(name)).as(name).isEqualTo(parts[6]);
+      count++;
+    }
+    assertThat(count).isGreaterThan(5000);
+  }
+
+  @Test
+  public void testSingleResult() {
+    StackingMatcher.Stacking stacking = StackingMatcher.matchFile("Movie Name (2013)-PaRt 2.mkv");
+    assertThat(stacking.isStacked()).isTrue();
+    assertThat(stacking.getTitle()).isEqualTo("Movie Name (2013)");
+    assertThat(stacking.getMarker()).isEqualTo("PaRt 2");
+    assertThat(stacking.getExtension()).isEqualTo(".mkv");
+    assertThat(stacking.getPrefix()).isEqualTo("PaRt ");
+    assertThat(stacking.getNumber()).isEqualTo(2);
+
+    stacking = StackingMatcher.matchFile("Movie Name (2013)-(1 of 2).avi");
+    assertThat(stacking.getTitle()).isEqualTo("Movie Name (2013)");
+    assertThat(stacking.getMarker()).isEqualTo("1 of 2");
+    assertThat(stacking.getPrefix()).isEmpty();
+    assertThat(stacking.getNumber()).isEqualTo(1);
+
+    stacking = StackingMatcher.matchFolder("Movie Name (2013) CD2");
+    assertThat(stacking.getTitle()).isEqualTo("Movie Name (2013)");
+    assertThat(stacking.getMarker()).isEqualTo("CD2");
+    assertThat(stacking.getExtension()).isEmpty();
+
+    assertThat(StackingMatcher.matchFile("Movie Name (2013)-1.mkv")).isSameAs(StackingMatcher.NONE);
+    assertThat(StackingMatcher.matchFile(null).isStacked()).isFalse();
+    assertThat(StackingMatcher.matchFolder("").getNumber()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,207 @@
+package org.tinymediamanager.core.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+import fi.iki.elonen.NanoHTTPD;
+
+public class DownloadTaskTest extends BasicTest {
+  private static final String FOLDER = getSettingsFolder();
+
+  private RangeServer         server;
+  private Path                folder;
+  private Path                file;
+  private Path                part;
+
+  @Before
+  public void setUp() throws Exception {
+    folder = Paths.get(FOLDER, "download");
+    FileUtils.deleteQuietly(folder.toFile());
+    Files.createDirectories(folder);
+    file = folder.resolve("trailer.mp4");
+    part = folder.resolve("trailer.mp4.part");
+
+    server = new RangeServer(createContent(300_000, 'a'), "\"v1\"");
+    server.start(NanoHTTPD.SOCKET_READ_TIMEOUT, false);
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void testIsResumed() {
+    assertThat(DownloadTask.isResumed("bytes 1000-1999/2000", 1000)).isTrue();
+    assertThat(DownloadTask.isResumed("bytes 1000-1999/*", 1000)).isTrue();
+
+    // the server sends another range or the whole file
+    assertThat(DownloadTask.isResumed("bytes 0-1999/2000", 1000)).isFalse();
+    assertThat(DownloadTask.isResumed("bytes */2000", 1000)).isFalse();
+    assertThat(DownloadTask.isResumed("", 1000)).isFalse();
+    assertThat(DownloadTask.isResumed(null, 1000)).isFalse();
+  }
+
+  @Test
+  public void testResume() throws Exception {
+    long partSize = downloadPartially();
+
+    download();
+    assertThat(server.range).isEqualTo("bytes=" + partSize + "-");
+    assertThat(server.ifRange).isEqualTo("\"v1\"");
+    assertThat(server.resumed).isTrue();
+    assertDownloaded(server.content);
+  }
+
+  @Test
+  public void testRestartWithoutRangeSupport() throws Exception {
+    downloadPartially();
+
+    server.rangeSupport = false;
+    download();
+    assertThat(server.resumed).isFalse();
+    assertDownloaded(server.content);
+  }
+
+  @Test
+  public void testRestartChangedFile() throws Exception {
+    downloadPartially();
+
+    // If-Range does not match any more: the server sends the whole new file
+    server.content = createContent(200_000, 'b');
+    server.etag = "\"v2\"";
+    download();
+    assertThat(server.ifRange).isEqualTo("\"v1\"");
+    assertThat(server.resumed).isFalse();
+    assertDownloaded(server.content);
+  }
+
+  @Test
+  public void testRestartUnsatisfiableRange() throws Exception {
+    downloadPartially();
+
+    // the partial file is longer than the file on the server: 416 and start over
+    Files.write(part, createContent(400_000, 'c'), StandardOpenOption.APPEND);
+    download();
+    assertThat(server.unsatisfiable).isTrue();
+    assertDownloaded(server.content);
+  }
+
+  @Test
+  public void testDiscardForeignPartialFile() throws Exception {
+    // a partial file without information about its download is not resumed
+    Files.write(part, createContent(1000, 'x'));
+    download();
+    assertThat(server.range).isNull();
+    assertDownloaded(server.content);
+  }
+
+  /**
+   * let the server break the connection in the middle of the download; the partial file has to be kept
+   */
+  private long downloadPartially() throws Exception {
+    server.truncateAt = 100_000;
+    download();
+    server.truncateAt = -1;
+
+    assertThat(file).doesNotExist();
+    assertThat(part).exists();
+    assertThat(folder.resolve("trailer.mp4.part.info")).exists();
+    byte[] partial = Files.readAllBytes(part);
+    assertThat(partial.length).isGreaterThan(0).isLessThan(server.content.length);
+    assertThat(partial).isEqualTo(Arrays.copyOf(server.content, partial.length));
+    return partial.length;
+  }
+
+  private void download() {
+    server.range = null;
+    server.ifRange = null;
+    server.resumed = false;
+    server.unsatisfiable = false;
+    new DownloadTask("http://localhost:" + server.getListeningPort() + "/trailer.mp4", file).doInBackground();
+  }
+
+  private void assertDownloaded(byte[] content) throws Exception {
+    assertThat(Files.readAllBytes(file)).isEqualTo(content);
+    assertThat(part).doesNotExist();
+    assertThat(folder.resolve("trailer.mp4.part.info")).doesNotExist();
+  }
+
+  private static byte[] createContent(int length, char fill) {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      // no repeating pattern - a misplaced range has to be detected
+      sb.append(i % 97 == 0 ? (char) ('0' + i % 10) : fill);
+    }
+    return sb.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * stand-in for a video server supporting ranges with If-Range
+   */
+  private static class RangeServer extends NanoHTTPD {
+    private volatile byte[]  content;
+    private volatile String  etag;
+    private volatile boolean rangeSupport = true;
+    private volatile int     truncateAt   = -1;
+    private volatile String  range;
+    private volatile String  ifRange;
+    private volatile boolean resumed;
+    private volatile boolean unsatisfiable;
+
+    private RangeServer(byte[] content, String etag) {
+      super("localhost", 0);
+      this.content = content;
+      this.etag = etag;
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+      Map<String, String> headers = session.getHeaders();
+      range = headers.get("range");
+      ifRange = headers.get("if-range");
+
+      byte[] data = content;
+      int start = 0;
+      Response.Status status = Response.Status.OK;
+      if (rangeSupport && range != null && range.startsWith("bytes=") && (ifRange == null || ifRange.equals(etag))) {
+        start = Integer.parseInt(range.substring(6, range.indexOf('-')));
+        if (start >= data.length) {
+          unsatisfiable = true;
+          Response response = newFixedLengthResponse(Response.Status.RANGE_NOT_SATISFIABLE, MIME_PLAINTEXT, "");
+          response.addHeader("Content-Range", "bytes */" + data.length);
+          return response;
+        }
+        status = Response.Status.PARTIAL_CONTENT;
+        resumed = true;
+      }
+
+      // a truncated response announces the full length but breaks the connection
+      int end = truncateAt > 0 ? Math.min(truncateAt, data.length) : data.length;
+      Response response = newFixedLengthResponse(status, "video/mp4", new ByteArrayInputStream(data, start, end - start), data.length - start);
+      if (status == Response.Status.PARTIAL_CONTENT) {
+        response.addHeader("Content-Range", "bytes " + start + "-" + (data.length - 1) + "/" + data.length);
+      }
+      response.addHeader("Accept-Ranges", "bytes");
+      response.addHeader("ETag", etag);
+      if (end < data.length) {
+        response.closeConnection(true);
+      }
+      return response;
+    }
+  }
+}
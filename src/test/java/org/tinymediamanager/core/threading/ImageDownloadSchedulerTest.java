@@ -0,0 +1,129 @@
+package org.tinymediamanager.core.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.ImageDownload;
+import org.tinymediamanager.core.threading.ImageDownloadScheduler.Priority;
+
+public class ImageDownloadSchedulerTest extends BasicTest {
+
+  @Test
+  public void testHost() {
+    assertThat(ImageDownloadScheduler.getHost("https://Image.TMDB.org/t/p/original/poster.jpg")).isEqualTo("image.tmdb.org");
+    assertThat(ImageDownloadScheduler.getHost("file:/movies/poster.jpg")).isEmpty();
+    assertThat(ImageDownloadScheduler.getHost("not a url")).isEmpty();
+    assertThat(ImageDownloadScheduler.getHost(null)).isEmpty();
+  }
+
+  @Test
+  public void testPriority() throws Exception {
+    ImageDownloadScheduler scheduler = new ImageDownloadScheduler(1, 1, null);
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(4);
+
+    // occupy the only worker
+    scheduler.submit(() -> {
+      await(blocker);
+      done.countDown();
+    }, Priority.BULK);
+
+    scheduler.submit(new Download("http://a.com/1", order, "bulk", done), Priority.BULK);
+    scheduler.submit(new Download("http://a.com/2", order, "scrape", done), Priority.SCRAPE);
+    scheduler.submit(new Download("http://a.com/3", order, "interactive", done), Priority.INTERACTIVE);
+    assertThat(scheduler.getQueueDepth(Priority.BULK)).isEqualTo(1);
+    assertThat(scheduler.getQueueDepth(Priority.SCRAPE)).isEqualTo(1);
+    assertThat(scheduler.getQueueDepth(Priority.INTERACTIVE)).isEqualTo(1);
+    assertThat(scheduler.getOpenTaskCount()).isEqualTo(4);
+
+    blocker.countDown();
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(order).containsExactly("interactive", "scrape", "bulk");
+    assertThat(scheduler.getStatistics()).contains("interactive 1 submitted", "bulk 2 submitted");
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void testPerHostLimit() throws Exception {
+    ImageDownloadScheduler scheduler = new ImageDownloadScheduler(3, 1, null);
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicInteger runningSlowHost = new AtomicInteger();
+    AtomicInteger maxRunningSlowHost = new AtomicInteger();
+
+    // a slow host must not occupy all workers
+    for (int i = 0; i < 5; i++) {
+      scheduler.submit(new ImageDownload() {
+        @Override
+        public String getUrl() {
+          return "http://slow.com/image.jpg";
+        }
+
+        @Override
+        public void run() {
+          maxRunningSlowHost.accumulateAndGet(runningSlowHost.incrementAndGet(), Math::max);
+          started.countDown();
+          await(blocker);
+          runningSlowHost.decrementAndGet();
+        }
+      }, Priority.SCRAPE);
+    }
+
+    // downloads from another host are started in the meantime
+    scheduler.submit(new Download("http://fast.com/image.jpg", new CopyOnWriteArrayList<>(), "fast", started), Priority.BULK);
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(scheduler.getQueueDepth(Priority.SCRAPE)).isEqualTo(4);
+
+    // queued downloads are finished after the shutdown
+    blocker.countDown();
+    scheduler.shutdown();
+    for (int i = 0; i < 500 && !scheduler.isTerminated(); i++) {
+      Thread.sleep(10);
+    }
+    assertThat(scheduler.isTerminated()).isTrue();
+    assertThat(scheduler.getCompletedTaskCount()).isEqualTo(6);
+    assertThat(maxRunningSlowHost.get()).isEqualTo(1);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class Download implements ImageDownload {
+    private final String         url;
+    private final List<String>   order;
+    private final String         name;
+    private final CountDownLatch done;
+
+    private Download(String url, List<String> order, String name, CountDownLatch done) {
+      this.url = url;
+      this.order = order;
+      this.name = name;
+      this.done = done;
+    }
+
+    @Override
+    public String getUrl() {
+      return url;
+    }
+
+    @Override
+    public void run() {
+      order.add(name);
+      done.countDown();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.tinymediamanager.core.threading;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class NfoWriterQueueTest extends BasicTest {
+
+  @Test
+  public void testMergeWritesWithinWindow() throws Exception {
+    NfoWriterQueue queue = new NfoWriterQueue(2, 100, 200);
+    Object movie = new Object();
+    AtomicInteger writes = new AtomicInteger();
+
+    for (int i = 0; i < 10; i++) {
+      queue.submit(movie, writes::incrementAndGet);
+    }
+    assertThat(queue.getQueueDepth()).isEqualTo(1);
+
+    queue.flush();
+    assertThat(writes.get()).isEqualTo(1);
+    assertThat(queue.getQueueDepth()).isEqualTo(0);
+
+    // a new request after the write needs a new write
+    queue.submit(movie, writes::incrementAndGet);
+    queue.shutdown();
+    assertThat(writes.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testWriteAfterWindow() throws Exception {
+    NfoWriterQueue queue = new NfoWriterQueue(2, 100, 10);
+    CountDownLatch latch = new CountDownLatch(2);
+
+    queue.submit(new Object(), latch::countDown);
+    queue.submit(new Object(), latch::countDown);
+
+    assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    queue.shutdown();
+  }
+
+  @Test
+  public void testFlushEntity() throws Exception {
+    NfoWriterQueue queue = new NfoWriterQueue(1, 100, 60000);
+    Object movie1 = new Object();
+    Object movie2 = new Object();
+    AtomicInteger writes1 = new AtomicInteger();
+    AtomicInteger writes2 = new AtomicInteger();
+
+    queue.submit(movie1, writes1::incrementAndGet);
+    queue.submit(movie2, writes2::incrementAndGet);
+
+    // barrier for one entity only
+    queue.flush(movie1);
+    assertThat(writes1.get()).isEqualTo(1);
+    assertThat(writes2.get()).isEqualTo(0);
+    assertThat(queue.getQueueDepth()).isEqualTo(1);
+
+    queue.shutdown();
+    assertThat(writes2.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testQueueFull() throws Exception {
+    NfoWriterQueue queue = new NfoWriterQueue(1, 1, 60000);
+    AtomicInteger writes = new AtomicInteger();
+
+    queue.submit(new Object(), writes::incrementAndGet);
+    // the queue is full - written in the calling thread
+    queue.submit(new Object(), writes::incrementAndGet);
+    assertThat(writes.get()).isEqualTo(1);
+    assertThat(queue.getQueueDepth()).isEqualTo(1);
+
+    queue.shutdown();
+    assertThat(writes.get()).isEqualTo(2);
+    assertThat(queue.getStatistics()).contains("2 written");
+  }
+}
@@ -0,0 +1,74 @@
+package org.tinymediamanager.core.tvshow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.tvshow.TvShowEpisodeAndSeasonParser.EpisodeMatchingResult;
+
+public class TvShowEpisodeAndSeasonParserTest extends BasicTest {
+
+  /**
+   * the golden corpus has been created with the former implementation (compiling the patterns on every call) - the results must not change
+   */
+  @Test
+  public void testGoldenCorpus() throws Exception {
+    List<String> failures = new ArrayList<>();
+    int count = 0;
+
+    for (String line : Files.readAllLines(Paths.get("src/test/resources/tvshow-episodes.txt"), StandardCharsets.UTF_8)) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] parts = line.split("\\|", -1);
+
+      String detected = detectEpisode(parts[0], parts[1]);
+      if (!detected.equals(parts[2])) {
+        failures.add(line + " -> " + detected);
+      }
+
+      String title = TvShowEpisodeAndSeasonParser.cleanEpisodeTitle(parts[0], parts[1]);
+      if (!title.equals(parts[3])) {
+        failures.add(line + " -> " + title);
+      }
+      count++;
+    }
+
+    assertThat(count).isGreaterThan(2000);
+    assertThat(failures).isEmpty();
+  }
+
+  @Test
+  public void testShowNameRemoval() {
+    // the show name is compared case insensitive for ASCII chars only (like the former quoted pattern)
+    assertThat(TvShowEpisodeAndSeasonParser.cleanEpisodeTitle("BLBLUB - S08E01 - Messy.mp4", "BlBlub")).isEqualTo("Messy");
+    assertThat(TvShowEpisodeAndSeasonParser.cleanEpisodeTitle("BlBlub - S08E01 - Messy.mp4", "Messy")).isEqualTo("BlBlub");
+    assertThat(TvShowEpisodeAndSeasonParser.cleanEpisodeTitle("Gummibärenbande - S05E02 - Uralia.avi", "GUMMIBÄRENBANDE")).isEqualTo("Gummibärenbande Uralia");
+    assertThat(TvShowEpisodeAndSeasonParser.cleanEpisodeTitle("BlBlub - S08E01 - blblub Messy.mp4", "BlBlub")).isEqualTo("Messy");
+  }
+
+  private String detectEpisode(String name, String showname) {
+    EpisodeMatchingResult result = TvShowEpisodeAndSeasonParser.detectEpisodeFromFilenameAlternative(name, showname);
+    StringBuilder sb = new StringBuilder("S:");
+    sb.append(result.season);
+    for (int ep : result.episodes) {
+      sb.append(" E:");
+      sb.append(ep);
+    }
+    if (result.date != null) {
+      sb.append(" D:");
+      sb.append(new SimpleDateFormat("yyyy-MM-dd").format(result.date));
+    }
+    if (result.stackingMarkerFound) {
+      sb.append(" Split");
+    }
+    return sb.toString();
+  }
+}
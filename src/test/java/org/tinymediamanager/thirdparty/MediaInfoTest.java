@@ -9,6 +9,7 @@ import java.util.Date;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.Globals;
 import org.tinymediamanager.core.entities.MediaFile;
 import org.tinymediamanager.core.entities.MediaFileAudioStream;
 import org.tinymediamanager.core.entities.MediaFileSubtitle;
@@ -78,6 +79,27 @@ public class MediaInfoTest extends BasicTest {
     assertThat(mf.getAudioChannels()).isEqualTo("6ch");
   }
 
+  @Test
+  public void testIsoRegion() {
+    // the ISO contains DTS-X.mka as BDMV/STREAM/00000.M2TS - it is read through the buffer API without a mediainfo xml
+    int cacheSize = Globals.settings.getMediaInfoCacheSize();
+    Globals.settings.setMediaInfoCacheSize(0);
+    try {
+      MediaFile plain = new MediaFile(Paths.get("src/test/resources/samples/DTS-X.mka"));
+      plain.gatherMediaInformation();
+
+      MediaFile mf = new MediaFile(Paths.get("src/test/resources/testmovies/MediainfoISO/BD-DTS-X.iso"));
+      mf.gatherMediaInformation();
+      assertThat(mf.getAudioCodec()).isEqualTo("DTS-X");
+      assertThat(mf.getAudioChannels()).isEqualTo("8ch");
+      assertThat(mf.getAudioLanguage()).isEqualTo("eng");
+      assertThat(mf.getDuration()).isEqualTo(plain.getDuration());
+    }
+    finally {
+      Globals.settings.setMediaInfoCacheSize(cacheSize);
+    }
+  }
+
   @Test
   public void testIsoXml() {
     // DVD ISO - old format
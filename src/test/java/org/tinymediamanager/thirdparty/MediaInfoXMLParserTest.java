@@ -0,0 +1,47 @@
+package org.tinymediamanager.thirdparty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class MediaInfoXMLParserTest extends BasicTest {
+
+  @Test
+  public void testStreamingEqualsDom() throws Exception {
+    int count = 0;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get("src/test/resources/testmovies/MediainfoXML"), "*-mediainfo.xml")) {
+      for (Path xml : stream) {
+        MediaInfoXMLParser.MiFile streamed = MediaInfoXMLParser.parseXML(xml).getMainFile();
+        MediaInfoXMLParser.MiFile dom = MediaInfoXMLParser.parseDocument(xml).getMainFile();
+
+        assertThat(streamed.snapshot).as(xml.toString()).isNotEmpty().isEqualTo(dom.snapshot);
+        assertThat(streamed.getDuration()).as(xml.toString()).isEqualTo(dom.getDuration());
+        assertThat(streamed.getFilesize()).as(xml.toString()).isEqualTo(dom.getFilesize());
+        count++;
+      }
+    }
+    assertThat(count).isEqualTo(8);
+  }
+
+  @Test
+  public void testNewFormat() throws Exception {
+    MediaInfoXMLParser.MiFile mainFile = MediaInfoXMLParser
+        .parseXML(Paths.get("src/test/resources/testmovies/MediainfoXML/MediaInfo.17.10-mediainfo.xml")).getMainFile();
+    assertThat(mainFile.getDuration()).isEqualTo(5184);
+    assertThat(mainFile.getFilesize()).isEqualTo(145408);
+  }
+
+  @Test(expected = MediaInfoXMLParser.InvalidXmlException.class)
+  public void testInvalidXml() throws Exception {
+    Path xml = Paths.get(getSettingsFolder(), "invalid-mediainfo.xml");
+    Files.createDirectories(xml.getParent());
+    Files.write(xml, "<movie><title>no mediainfo</title></movie>".getBytes("UTF-8"));
+    MediaInfoXMLParser.parseXML(xml);
+  }
+}
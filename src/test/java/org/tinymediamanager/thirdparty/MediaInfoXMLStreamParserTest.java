@@ -0,0 +1,76 @@
+package org.tinymediamanager.thirdparty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+import org.tinymediamanager.core.entities.MediaFile;
+import org.tinymediamanager.thirdparty.MediaInfo.StreamKind;
+
+public class MediaInfoXMLStreamParserTest extends BasicTest {
+
+  @Test
+  public void testMixml() throws Exception {
+    String xml = new String(Files.readAllBytes(Paths.get("src/test/resources/testmovies/MediainfoXML/MediaInfo.17.10-mediainfo.xml")),
+        StandardCharsets.UTF_8);
+
+    Map<StreamKind, List<Map<String, String>>> snapshot = MediaInfoXMLStreamParser.parseSnapshot(xml);
+    assertThat(snapshot).isNotNull();
+    assertThat(snapshot.get(StreamKind.General)).hasSize(1);
+    assertThat(snapshot.get(StreamKind.General).get(0)).containsEntry("Format", "DVD Video").containsEntry("FileExtension_Invalid", "ifo")
+        .containsEntry("StreamCount", "1");
+    assertThat(snapshot.get(StreamKind.Video).get(0)).containsEntry("Width", "720").containsEntry("Height", "576");
+    assertThat(snapshot.get(StreamKind.Audio)).isNull();
+  }
+
+  @Test
+  public void testKeyMapping() throws Exception {
+    String xml = "<MediaInfo><media><track type=\"General\"><Duration>5.123</Duration></track><track type=\"Audio\"><Channels>6</Channels>"
+        + "<Language_String3>eng</Language_String3><Language>en</Language></track><track type=\"Audio\"><Channels>2</Channels></track></media></MediaInfo>";
+
+    Map<StreamKind, List<Map<String, String>>> snapshot = MediaInfoXMLStreamParser.parseSnapshot(xml);
+    assertThat(snapshot.get(StreamKind.General).get(0)).containsEntry("Duration", "5123").containsEntry("AudioCount", "2");
+    assertThat(snapshot.get(StreamKind.Audio)).hasSize(2);
+    assertThat(snapshot.get(StreamKind.Audio).get(0)).containsEntry("Channel(s)", "6").containsEntry("Language/String3", "eng")
+        .containsEntry("Language", "en").containsEntry("StreamCount", "2");
+  }
+
+  @Test
+  public void testContainerFormat() throws Exception {
+    String xml = "<MediaInfo><media><track type=\"General\"><Format>Matroska</Format><Format_Extensions>mkv mk3d mka mks</Format_Extensions>"
+        + "</track></media></MediaInfo>";
+
+    Map<StreamKind, List<Map<String, String>>> snapshot = MediaInfoXMLStreamParser.parseSnapshot(xml);
+    assertThat(snapshot.get(StreamKind.General).get(0)).containsEntry("Codec/Extensions", "mkv mk3d mka mks");
+
+    MediaFile mf = new MediaFile(Paths.get("/path/to/movie.mkv"));
+    mf.setMiSnapshot(snapshot);
+    mf.setContainerFormatDirect();
+    assertThat(mf.getContainerFormat()).isEqualTo("mkv");
+  }
+
+  @Test
+  public void testOldFormat() throws Exception {
+    // the old XML format cannot be parsed - the caller has to fall back to the per-key snapshot
+    String xml = new String(Files.readAllBytes(Paths.get("src/test/resources/testmovies/MediainfoXML/MediaInfo.0.7.99-mediainfo.xml")),
+        StandardCharsets.UTF_8);
+    assertThat(MediaInfoXMLStreamParser.parseSnapshot(xml)).isNull();
+  }
+
+  @Test
+  public void testMixmlVersion() {
+    assertThat(MediaInfo.isInformSnapshotSupported("MediaInfoLib - v18.05")).isTrue();
+    assertThat(MediaInfo.isInformSnapshotSupported("MediaInfoLib - v17.10")).isTrue();
+    assertThat(MediaInfo.isInformSnapshotSupported("MediaInfoLib - v17.02")).isFalse();
+    assertThat(MediaInfo.isInformSnapshotSupported("MediaInfoLib - v0.7.99")).isFalse();
+
+    // unknown versions are tried
+    assertThat(MediaInfo.isInformSnapshotSupported("")).isTrue();
+  }
+}
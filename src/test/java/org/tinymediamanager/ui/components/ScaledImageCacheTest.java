@@ -0,0 +1,61 @@
+package org.tinymediamanager.ui.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+import org.tinymediamanager.BasicTest;
+
+public class ScaledImageCacheTest extends BasicTest {
+
+  @Test
+  public void testGetPut() {
+    ScaledImageCache cache = new ScaledImageCache(1024 * 1024);
+    BufferedImage image = new BufferedImage(100, 150, BufferedImage.TYPE_INT_RGB);
+
+    cache.put("/movies/poster.jpg", new Dimension(100, 150), image);
+    assertThat(cache.get("/movies/poster.jpg", new Dimension(100, 150))).isSameAs(image);
+    assertThat(cache.getBytes()).isEqualTo(100 * 150 * 4);
+
+    // other size or other image
+    assertThat(cache.get("/movies/poster.jpg", new Dimension(200, 300))).isNull();
+    assertThat(cache.get("/movies/fanart.jpg", new Dimension(100, 150))).isNull();
+
+    // replace
+    BufferedImage other = new BufferedImage(100, 150, BufferedImage.TYPE_INT_RGB);
+    cache.put("/movies/poster.jpg", new Dimension(100, 150), other);
+    assertThat(cache.get("/movies/poster.jpg", new Dimension(100, 150))).isSameAs(other);
+    assertThat(cache.getBytes()).isEqualTo(100 * 150 * 4);
+
+    cache.put("/movies/poster.jpg", new Dimension(50, 75), new BufferedImage(50, 75, BufferedImage.TYPE_INT_RGB));
+    assertThat(cache.size()).isEqualTo(2);
+    cache.invalidate("/movies/poster.jpg");
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(cache.getBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEviction() {
+    // room for two 100x100 ARGB images
+    ScaledImageCache cache = new ScaledImageCache(2 * 100 * 100 * 4);
+    Dimension size = new Dimension(100, 100);
+
+    cache.put("a", size, new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+    cache.put("b", size, new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+    // access a, so b is the least recently used one
+    assertThat(cache.get("a", size)).isNotNull();
+    cache.put("c", size, new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+
+    assertThat(cache.get("a", size)).isNotNull();
+    assertThat(cache.get("b", size)).isNull();
+    assertThat(cache.get("c", size)).isNotNull();
+    assertThat(cache.getBytes()).isEqualTo(2 * 100 * 100 * 4);
+
+    // images larger than the whole cache are not cached at all
+    cache.put("d", size, new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_ARGB));
+    assertThat(cache.get("d", size)).isNull();
+    assertThat(cache.size()).isEqualTo(2);
+  }
+}